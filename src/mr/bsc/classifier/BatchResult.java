@@ -0,0 +1,153 @@
+package mr.bsc.classifier;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Das Ergebnis von {@link NaiveBayesClassifier#classifyBatch(List, List, boolean)}. Enthält für jede Textsammlung die vorhergesagten
+ * Kategorien in der Reihenfolge der Artikel, die Konfusionsmatrix der Textsammlungen mit bekannter Kategorie sowie Durchsatz und
+ * Latenzen der Klassifikation.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class BatchResult {
+
+	private final String[] categories;
+	private final List<String> paths;
+	private final int[] labels;
+	private final int[][] topics;
+	private final int[][] matrix;
+	private final long[] latencies; //Sortiert, in Nanosekunden
+	private final long elapsed;		//Gesamtdauer in Nanosekunden
+	private final int timedOut;		//Artikel ohne Kategorie, weil das Zeitbudget überschritten wurde
+
+	/**
+	 * @param categories	Die Kategorien des Modells.
+	 * @param paths			Die Pfade der Textsammlungen.
+	 * @param labels		Die tatsächliche Kategorie jeder Textsammlung, -1 für unbekannt.
+	 * @param topics		Die vorhergesagten Kategorien, erster Index ist die Textsammlung, zweiter der Artikel.
+	 * @param matrix		Die Konfusionsmatrix der Textsammlungen mit bekannter Kategorie.
+	 * @param latencies		Die Latenzen aller Artikel in Nanosekunden, werden hier sortiert.
+	 * @param elapsed		Die Gesamtdauer in Nanosekunden.
+	 * @param timedOut		Die Anzahl der Artikel, die das Zeitbudget überschritten haben.
+	 */
+	BatchResult(String[] categories, List<String> paths, int[] labels, int[][] topics, int[][] matrix, long[] latencies, long elapsed, int timedOut) {
+		this.categories = categories;
+		this.paths = paths;
+		this.labels = labels;
+		this.topics = topics;
+		this.matrix = matrix;
+		this.latencies = latencies;
+		this.elapsed = elapsed;
+		this.timedOut = timedOut;
+		Arrays.sort(this.latencies);
+	}
+
+	/**
+	 * Gibt die vorhergesagten Kategorien einer Textsammlung zurück.
+	 *
+	 * @param collection	Der Index der Textsammlung.
+	 *
+	 * @return Der Index der Kategorie für jeden Artikel, in der Reihenfolge der Textsammlung. -1 für einen Artikel, der das Zeitbudget
+	 * 			überschritten hat.
+	 */
+	public int[] getTopics(int collection) {
+		return this.topics[collection];
+	}
+
+	/**
+	 * Gibt die Konfusionsmatrix zurück. Die Zeile ist die tatsächliche Kategorie, die Spalte die vorhergesagte. Textsammlungen ohne
+	 * bekannte Kategorie werden nicht gezählt.
+	 *
+	 * @return Die Konfusionsmatrix
+	 */
+	public int[][] getConfusionMatrix() {
+		return this.matrix;
+	}
+
+	/**
+	 * Gibt die Anzahl der klassifizierten Artikel aller Textsammlungen zurück.
+	 *
+	 * @return Die Anzahl der Artikel
+	 */
+	public int getArticleCount() {
+		return this.latencies.length;
+	}
+
+	/**
+	 * Gibt die Anzahl der Artikel zurück, die das Zeitbudget auch mit der Notlösung überschritten haben. Sie fehlen in der Konfusionsmatrix.
+	 *
+	 * @return Die Anzahl der Artikel ohne Kategorie
+	 */
+	public int getTimedOutCount() {
+		return this.timedOut;
+	}
+
+	/**
+	 * Gibt den Durchsatz zurück, gemessen vom ersten gelesenen bis zum letzten klassifizierten Artikel.
+	 *
+	 * @return Der Durchsatz in Artikeln pro Sekunde
+	 */
+	public double getThroughput() {
+		return this.elapsed == 0 ? 0 : this.latencies.length * 1e9 / this.elapsed;
+	}
+
+	/**
+	 * Gibt ein Perzentil der Latenzen zurück. Die Latenz eines Artikels ist die Zeit für Zerlegung und Bewertung, ohne die Wartezeit
+	 * auf einen freien Thread.
+	 *
+	 * @param percentile	Das Perzentil zwischen 0 und 100, z. B. 99 für p99.
+	 *
+	 * @return Die Latenz in Millisekunden oder 0, wenn kein Artikel klassifiziert wurde
+	 */
+	public double getLatency(double percentile) {
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Ungültiges Perzentil: " + percentile);
+		}
+		if(this.latencies.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100 * this.latencies.length) - 1; //Nächster Rang
+		return this.latencies[Math.max(index, 0)] / 1e6;
+	}
+
+	/**
+	 * Gibt die Konfusionsmatrix (Zahlen getrennt mit einem Leerzeichen), die Verteilung der Textsammlungen ohne bekannte Kategorie sowie
+	 * Durchsatz und Latenzen aus.
+	 */
+	public void print() {
+		boolean labelled = false;
+		for(int c = 0; c < this.labels.length; c++) {
+			labelled |= this.labels[c] >= 0;
+		}
+		if(labelled) {
+			for(int i = 0; i < this.matrix.length; i++) {
+				for(int j = 0; j < this.matrix[i].length; j++) {
+					System.out.print(this.matrix[i][j] + " ");
+				}
+				System.out.println();
+			}
+		}
+		for(int c = 0; c < this.labels.length; c++) {
+			if(this.labels[c] < 0) {
+				int[] counts = new int[this.categories.length];
+				for(int topic : this.topics[c]) {
+					if(topic >= 0) {
+						counts[topic]++;
+					}
+				}
+				StringBuilder line = new StringBuilder(this.paths.get(c)).append(':');
+				for(int i = 0; i < counts.length; i++) {
+					line.append(' ').append(this.categories[i]).append('=').append(counts[i]);
+				}
+				System.out.println(line);
+			}
+		}
+		if(this.timedOut > 0) {
+			System.out.println(this.timedOut + " Artikel über dem Zeitbudget, ohne Kategorie");
+		}
+		System.out.println(String.format("%d Artikel in %.1f s, %.1f Artikel/s, Latenz p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+				getArticleCount(), this.elapsed / 1e9, getThroughput(), getLatency(50), getLatency(90), getLatency(99), getLatency(100)));
+	}
+}
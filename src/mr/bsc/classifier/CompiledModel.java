@@ -0,0 +1,385 @@
+package mr.bsc.classifier;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import mr.bsc.dict.DictionaryCreator;
+import mr.bsc.dict.DictionaryView;
+import mr.bsc.dict.TermTable;
+import mr.bsc.dict.TermVector;
+import mr.bsc.dict.VocabularyView;
+
+/**
+ * Ein kompiliertes Vorhersagemodell des naiven Bayes-Klassifikators. Beim Kompilieren werden die Wörterbücher aller Kategorien in eine
+ * einzige Tabelle Begriff × Kategorie mit den logarithmierten Wahrscheinlichkeiten {@code ln((n + 1) / (N + |V|))} überführt. Dazu kommen pro
+ * Kategorie der Logarithmus der A-priori-Wahrscheinlichkeit und der Wert für Begriffe, die in keinem Wörterbuch vorkommen. Die Bewertung
+ * eines Artikels besteht danach nur noch aus Nachschlagen und Addieren, es wird kein Logarithmus mehr berechnet.
+ *
+ * Die Zeilen der Tabelle werden über ein Array gefunden, dessen Index die Term-ID aus der {@link TermTable} ist. Da Term-IDs nur innerhalb
+ * eines Prozesses gelten, stehen in der Datei die Begriffe selbst. Beim Laden werden sie neu interniert.
+ *
+ * Aufbau der Datei: MAGIC, FORMAT_VERSION, Anzahl der Kategorien k, Namen der Kategorien, ob unbekannte Begriffe ignoriert werden,
+ * k A-priori-Werte, k Werte für unbekannte Begriffe, Anzahl der Begriffe und für jeden Begriff der Begriff selbst und seine k Werte.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class CompiledModel implements ScoringModel {
+
+	/*
+	 * Kennung und Version des Dateiformats. Muss erhöht werden, wenn sich der Aufbau der Datei ändert.
+	 */
+	private final static int MAGIC = 0x47434D50; //"GCMP"
+	private final static int FORMAT_VERSION = 1;
+
+	/*
+	 * Größen für die Schätzung in {@link #getTermMemory(String[])}: Kopf eines Arrays, eine komprimierte Referenz und ein String-Objekt
+	 * ohne sein Array.
+	 */
+	private final static int ARRAY_HEADER = 16;
+	private final static int REFERENCE = 4;
+	private final static int STRING_OBJECT = 24;
+
+	private final String[] classes;
+	private final boolean skipUnknown;	//Werden Begriffe ohne Zeile ignoriert (verkleinerte Modelle) oder als ungesehen gewertet?
+	private final double[] logPriors;
+	private final double[] unseen;
+
+	private final String[] terms;
+	private final double[] table;		//Zeile für Zeile, k Werte pro Begriff
+	private final int[] rows;			//Index ist die Term-ID, -1 heißt keine Zeile
+
+	private CompiledModel(String[] classes, boolean skipUnknown, double[] logPriors, double[] unseen, String[] terms, double[] table) {
+		this.classes = classes;
+		this.skipUnknown = skipUnknown;
+		this.logPriors = logPriors;
+		this.unseen = unseen;
+		this.terms = terms;
+		this.table = table;
+		this.rows = indexRows(terms);
+	}
+
+	/**
+	 * Erstellt den Index von der Term-ID auf die Zeile der Tabelle. Die Begriffe werden dafür in die {@link TermTable} eingetragen.
+	 *
+	 * @param terms	Die Begriffe, Index ist die Zeile.
+	 *
+	 * @return Die Zeile für jede Term-ID, -1 heißt keine Zeile
+	 */
+	static int[] indexRows(String[] terms) {
+		TermTable termTable = TermTable.getInstance();
+		int[] ids = new int[terms.length];
+		for(int r = 0; r < terms.length; r++) {
+			ids[r] = termTable.intern(terms[r]);
+		}
+		int[] rows = new int[termTable.size()];
+		Arrays.fill(rows, -1);
+		for(int r = 0; r < ids.length; r++) {
+			rows[ids[r]] = r;
+		}
+		return rows;
+	}
+
+	/**
+	 * Kompiliert die Wörterbücher der Kategorien mit Laplace-Glättung.
+	 *
+	 * @param classes		Die Namen der Kategorien.
+	 * @param dictionaries	Die Wörterbücher der Kategorien, in derselben Reihenfolge.
+	 * @param priors		Die A-priori-Wahrscheinlichkeiten der Kategorien, in derselben Reihenfolge.
+	 * @param vocabulary	Das kombinierte Vokabular. Seine Größe geht in den Nenner der Glättung ein.
+	 * @param smoothing		Der Wert für die Laplace-Glättung.
+	 * @param skipUnknown	Sollen Begriffe, die nicht im Vokabular sind, ignoriert werden (siehe {@link NaiveBayesClassifier#setPruned(boolean)})?
+	 *
+	 * @return Das kompilierte Modell
+	 */
+	public static CompiledModel compile(String[] classes, DictionaryView[] dictionaries, double[] priors, VocabularyView vocabulary, int smoothing, boolean skipUnknown) {
+		int k = classes.length;
+		double[] logPriors = new double[k];
+		double[] unseen = new double[k];
+		double[] denominators = new double[k];
+		for(int c = 0; c < k; c++) {
+			logPriors[c] = Math.log(priors[c]);
+			denominators[c] = dictionaries[c].getTotalWords() + vocabulary.size(); //Die größe des Dictionaries + die Größe des Vokabulars
+			unseen[c] = Math.log(smoothing / denominators[c]);
+		}
+
+		//Jeder Begriff des Vokabulars bekommt eine Zeile. Werden unbekannte Begriffe nicht ignoriert, auch die aus den Wörterbüchern.
+		TermTable termTable = TermTable.getInstance();
+		int[] ids = vocabulary.getTermIds();
+		for(DictionaryView dic : dictionaries) {
+			dic.getTermIds(); //Trägt bei eingeblendeten Wörterbüchern alle Begriffe in die TermTable ein
+		}
+		boolean[] contained = new boolean[termTable.size()];
+		int n = 0;
+		int[] rowIds = new int[termTable.size()];
+		for(int id : ids) {
+			if(!contained[id]) {
+				contained[id] = true;
+				rowIds[n++] = id;
+			}
+		}
+		if(!skipUnknown) {
+			for(DictionaryView dic : dictionaries) {
+				for(int id : dic.getTermIds()) {
+					if(!contained[id]) {
+						contained[id] = true;
+						rowIds[n++] = id;
+					}
+				}
+			}
+		}
+
+		String[] terms = new String[n];
+		double[] table = new double[n * k];
+		for(int r = 0; r < n; r++) {
+			terms[r] = termTable.term(rowIds[r]);
+			for(int c = 0; c < k; c++) {
+				double zaehler = dictionaries[c].findOccurrence(rowIds[r]) + smoothing;
+				table[r * k + c] = Math.log(zaehler / denominators[c]);
+			}
+		}
+		return new CompiledModel(classes.clone(), skipUnknown, logPriors, unseen, terms, table);
+	}
+
+	/**
+	 * Bewertet einen zerlegten Zeitungsartikel für eine einzelne Kategorie. Für alle Kategorien ist {@link #score(TermVector, double[])}
+	 * schneller, da die Begriffe dort nur einmal nachgeschlagen werden.
+	 *
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels.
+	 * @param c		Der Index der Kategorie.
+	 *
+	 * @return Der Logarithmus der (nicht normierten) A-posteriori-Wahrscheinlichkeit
+	 */
+	public double score(TermVector words, int c) {
+		int k = this.classes.length;
+		double probability = this.logPriors[c];
+		for(int i = 0; i < words.size(); i++) {
+			int id = words.termId(i);
+			int row = id < this.rows.length ? this.rows[id] : -1;
+			if(row >= 0) {
+				probability += words.count(i) * this.table[row * k + c];
+			} else if(!this.skipUnknown) {
+				probability += words.count(i) * this.unseen[c];
+			}
+		}
+		return probability;
+	}
+
+	@Override
+	public void score(TermVector words, double[] scores) {
+		int k = this.classes.length;
+		System.arraycopy(this.logPriors, 0, scores, 0, k);
+		for(int i = 0; i < words.size(); i++) {
+			int id = words.termId(i);
+			int row = id < this.rows.length ? this.rows[id] : -1;
+			int count = words.count(i);
+			if(row >= 0) {
+				//Die k Werte eines Begriffs liegen nebeneinander
+				int base = row * k;
+				for(int c = 0; c < k; c++) {
+					scores[c] += count * this.table[base + c];
+				}
+			} else if(!this.skipUnknown) {
+				for(int c = 0; c < k; c++) {
+					scores[c] += count * this.unseen[c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gibt die Anzahl der Kategorien zurück.
+	 *
+	 * @return Die Anzahl der Kategorien als {@link int}
+	 */
+	@Override
+	public int getClassCount() {
+		return this.classes.length;
+	}
+
+	/**
+	 * Gibt den Namen einer Kategorie zurück.
+	 *
+	 * @param c	Der Index der Kategorie.
+	 *
+	 * @return Der Name der Kategorie
+	 */
+	@Override
+	public String getClassName(int c) {
+		return this.classes[c];
+	}
+
+	/**
+	 * Gibt die Anzahl der Begriffe (Zeilen der Tabelle) zurück.
+	 *
+	 * @return Die Anzahl der Begriffe als {@link int}
+	 */
+	public int size() {
+		return this.terms.length;
+	}
+
+	/**
+	 * Gibt den Speicherbedarf der Tabelle, des Index auf die Zeilen und der Begriffe in Bytes zurück. Die Begriffe werden mitgezählt,
+	 * obwohl die Strings auch in der {@link TermTable} stehen, denn das Modell hält sie fest. Die Verwaltung der {@link TermTable} selbst
+	 * wird nicht mitgezählt.
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	@Override
+	public long getMemory() {
+		return (long) this.table.length * Double.BYTES + (long) this.rows.length * Integer.BYTES + getTermMemory(this.terms);
+	}
+
+	/**
+	 * Schätzt den Speicherbedarf von Begriffen auf einer 64-Bit-JVM mit komprimierten Referenzen: das Array der Referenzen und pro Begriff
+	 * das String-Objekt mit seinem Array. Seit Java 9 belegt ein Zeichen nur ein Byte, solange alle Zeichen des Begriffs in Latin-1 liegen.
+	 *
+	 * @param terms	Die Begriffe.
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	static long getTermMemory(String[] terms) {
+		long bytes = align(ARRAY_HEADER + (long) terms.length * REFERENCE);
+		for(String term : terms) {
+			int width = 1;
+			for(int i = 0; i < term.length(); i++) {
+				if(term.charAt(i) > 0xFF) {
+					width = 2;
+					break;
+				}
+			}
+			bytes += STRING_OBJECT + align(ARRAY_HEADER + (long) term.length() * width);
+		}
+		return bytes;
+	}
+
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	/*
+	 * Für das QuantizedModel, das aus einem kompilierten Modell entsteht.
+	 */
+
+	String[] getTerms() {
+		return this.terms;
+	}
+
+	double value(int row, int c) {
+		return this.table[row * this.classes.length + c];
+	}
+
+	double getLogPrior(int c) {
+		return this.logPriors[c];
+	}
+
+	double getUnseen(int c) {
+		return this.unseen[c];
+	}
+
+	boolean isSkipUnknown() {
+		return this.skipUnknown;
+	}
+
+	/**
+	 * Überprüft, ob eine Datei neuer ist als alle Dateien, aus denen sie entstanden ist. Nicht vorhandene Quellen werden übergangen.
+	 *
+	 * @param path		Der Pfad des kompilierten Modells.
+	 * @param sources	Die Pfade der Quellen.
+	 *
+	 * @return true, wenn das kompilierte Modell existiert und nicht älter als seine Quellen ist.
+	 *
+	 * @throws IOException
+	 */
+	public static boolean isUpToDate(String path, String... sources) throws IOException {
+		Path compiled = Paths.get(path);
+		if(!Files.exists(compiled)) {
+			return false;
+		}
+		for(String source : sources) {
+			Path p = Paths.get(source);
+			if(Files.exists(p) && Files.getLastModifiedTime(p).compareTo(Files.getLastModifiedTime(compiled)) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Speichert das kompilierte Modell. Die Datei wird zuerst in eine temporäre Datei geschrieben und dann verschoben.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @throws IOException
+	 */
+	public void save(String path) throws IOException {
+		DictionaryCreator.writeAtomically(path, out -> {
+			int k = this.classes.length;
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(k);
+			for(String name : this.classes) {
+				out.writeUTF(name);
+			}
+			out.writeBoolean(this.skipUnknown);
+			for(int c = 0; c < k; c++) {
+				out.writeDouble(this.logPriors[c]);
+			}
+			for(int c = 0; c < k; c++) {
+				out.writeDouble(this.unseen[c]);
+			}
+			out.writeInt(this.terms.length);
+			for(int r = 0; r < this.terms.length; r++) {
+				out.writeUTF(this.terms[r]);
+				for(int c = 0; c < k; c++) {
+					out.writeDouble(this.table[r * k + c]);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Lädt ein kompiliertes Modell.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @return Das kompilierte Modell
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder hat ein unbekanntes Format.
+	 */
+	public static CompiledModel load(String path) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(path)), 1 << 16))) {
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Die Datei " + path + " ist kein kompiliertes Modell oder hat eine veraltete Version!");
+			}
+			int k = in.readInt();
+			String[] classes = new String[k];
+			for(int c = 0; c < k; c++) {
+				classes[c] = in.readUTF();
+			}
+			boolean skipUnknown = in.readBoolean();
+			double[] logPriors = new double[k];
+			for(int c = 0; c < k; c++) {
+				logPriors[c] = in.readDouble();
+			}
+			double[] unseen = new double[k];
+			for(int c = 0; c < k; c++) {
+				unseen[c] = in.readDouble();
+			}
+			String[] terms = new String[in.readInt()];
+			double[] table = new double[terms.length * k];
+			for(int r = 0; r < terms.length; r++) {
+				terms[r] = in.readUTF();
+				for(int c = 0; c < k; c++) {
+					table[r * k + c] = in.readDouble();
+				}
+			}
+			return new CompiledModel(classes, skipUnknown, logPriors, unseen, terms, table);
+		}
+	}
+}
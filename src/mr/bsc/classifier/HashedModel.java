@@ -0,0 +1,423 @@
+package mr.bsc.classifier;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+
+import mr.bsc.dict.DictionaryCreator;
+import mr.bsc.dict.TermMapping;
+import mr.bsc.dict.TermVector;
+
+/**
+ * Ein Vorhersagemodell des naiven Bayes-Klassifikators mit gehashten Merkmalen. Statt eines Vokabulars wird jeder Begriff mit MurmurHash3
+ * auf einen von {@code buckets} Eimern abgebildet, gezählt wird pro Eimer und Kategorie. Der Speicherbedarf hängt damit nur von der Anzahl
+ * der Eimer ab und wächst nicht mit neuen Begriffen, es wird auch keine Vokabular-Datei gebraucht. Dafür teilen sich verschiedene Begriffe
+ * einen Eimer, wenn ihr Hashwert zusammenfällt, siehe {@link #getCollisionStatistics(Collection, int)}.
+ *
+ * Die Begriffe werden schon beim Zerlegen gehasht (siehe {@link #getTermMapping()}), die Nummern im {@link TermVector} sind also Eimer und
+ * keine Term-IDs. So landet beim Klassifizieren kein Begriff in der {@link mr.bsc.dict.TermTable}.
+ *
+ * Die Glättung entspricht dem {@link CompiledModel}: {@code ln((n + 1) / (N + |V|))}, wobei {@code |V|} die Anzahl der belegten Eimer ist.
+ * Ohne Kollisionen sind die Wahrscheinlichkeiten bekannter Begriffe also dieselben wie beim Modell mit Vokabular.
+ *
+ * Der {@link mr.bsc.dict.DictionaryCreator} trainiert pro Kategorie ein Modell mit einer einzigen Kategorie und speichert es neben dem
+ * Wörterbuch (siehe {@link #getHashedPath(String)}). Der Klassifikator fügt diese Modelle mit {@link #combine(String[], HashedModel[], int)}
+ * zusammen, dabei kann die Anzahl der Eimer noch verkleinert werden.
+ *
+ * Mit {@link #add(int, TermVector)} kann das Modell laufend weiter trainiert werden, auch aus mehreren Threads. Die Tabelle der Logarithmen
+ * wird beim nächsten Bewerten neu berechnet. Trainieren und Bewerten dürfen nicht gleichzeitig geschehen.
+ *
+ * Aufbau der Datei: MAGIC, FORMAT_VERSION, Anzahl der Kategorien k, Namen der Kategorien, Anzahl der Eimer, k Anzahlen an Zeitungsartikeln,
+ * k Anzahlen an Wörtern und die Zählerstände Eimer für Eimer mit je k Werten.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class HashedModel implements ScoringModel {
+
+	/*
+	 * Kennung und Version des Dateiformats. Muss erhöht werden, wenn sich der Aufbau der Datei ändert.
+	 */
+	private final static int MAGIC = 0x47485348; //"GHSH"
+	private final static int FORMAT_VERSION = 1;
+
+	public final static int DEFAULT_BUCKETS = 1 << 18;
+
+	/*
+	 * Endung der Datei neben dem Wörterbuch einer Kategorie.
+	 */
+	private final static String SUFFIX = ".hashed.bin";
+
+	private final static int SEED = 0x9747B28C;
+
+	private final String[] classes;
+	private final int mask;				//Anzahl der Eimer - 1, die Anzahl ist eine Zweierpotenz
+	private final int[] documents;
+	private final long[] words;
+	private final int[] counts;			//Eimer für Eimer, k Werte pro Eimer
+
+	private volatile float[] table;		//Wie counts, aber die logarithmierten Wahrscheinlichkeiten. null, wenn neu berechnet werden muss.
+	private double[] logPriors;
+
+	/**
+	 * Erstellt ein leeres Modell.
+	 *
+	 * @param classes	Die Namen der Kategorien.
+	 * @param buckets	Die Anzahl der Eimer. Muss eine Zweierpotenz sein.
+	 */
+	public HashedModel(String[] classes, int buckets) {
+		if(buckets <= 0 || Integer.bitCount(buckets) != 1 || (long) buckets * classes.length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Die Anzahl der Eimer muss eine Zweierpotenz sein: " + buckets);
+		}
+		this.classes = classes.clone();
+		this.mask = buckets - 1;
+		this.documents = new int[classes.length];
+		this.words = new long[classes.length];
+		this.counts = new int[buckets * classes.length];
+	}
+
+	/**
+	 * Fügt die Modelle einzelner Kategorien zu einem Modell für alle Kategorien zusammen. Hat ein Teil mehr Eimer als gewünscht, werden
+	 * seine Eimer gefaltet: Da die Anzahl eine Zweierpotenz ist, ergibt {@code eimer & (buckets - 1)} genau den Eimer, den der Begriff mit
+	 * {@code buckets} Eimern bekommen hätte. Ein Modell, das mit vielen Eimern trainiert wurde, kann also mit weniger Eimern benutzt werden.
+	 *
+	 * @param classes	Die Namen der Kategorien.
+	 * @param parts		Die Modelle der Kategorien in derselben Reihenfolge, jedes mit genau einer Kategorie.
+	 * @param buckets	Die Anzahl der Eimer. Muss eine Zweierpotenz und darf nicht größer als die der Teile sein.
+	 *
+	 * @return Das Modell für alle Kategorien
+	 */
+	public static HashedModel combine(String[] classes, HashedModel[] parts, int buckets) {
+		if(parts.length != classes.length) {
+			throw new IllegalArgumentException("Für " + classes.length + " Kategorien gibt es " + parts.length + " Modelle!");
+		}
+		HashedModel model = new HashedModel(classes, buckets);
+		int k = classes.length;
+		for(int c = 0; c < k; c++) {
+			HashedModel part = parts[c];
+			if(part.classes.length != 1) {
+				throw new IllegalArgumentException("Das Modell für " + classes[c] + " enthält " + part.classes.length + " Kategorien!");
+			}
+			if(part.getBuckets() < buckets) {
+				throw new IllegalArgumentException("Das Modell für " + classes[c] + " hat nur " + part.getBuckets() + " Eimer, gebraucht werden "
+						+ buckets + "!");
+			}
+			for(int b = 0; b < part.counts.length; b++) {
+				model.counts[(b & model.mask) * k + c] += part.counts[b];
+			}
+			model.words[c] = part.words[0];
+			model.documents[c] = part.documents[0];
+		}
+		return model;
+	}
+
+	/**
+	 * Gibt zurück, wie der {@link mr.bsc.dict.ArticleAnalyzer} die Begriffe für dieses Modell nummerieren muss: Jeder Begriff bekommt
+	 * direkt seinen Eimer.
+	 *
+	 * @return Die {@link TermMapping} auf die Eimer
+	 */
+	@Override
+	public TermMapping getTermMapping() {
+		int mask = this.mask;
+		return term -> hash(term) & mask;
+	}
+
+	/**
+	 * Zählt einen zerlegten Zeitungsartikel zu einer Kategorie hinzu.
+	 *
+	 * @param c		Der Index der Kategorie.
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels, nummeriert mit {@link #getTermMapping()}.
+	 */
+	public synchronized void add(int c, TermVector words) {
+		int k = this.classes.length;
+		for(int i = 0; i < words.size(); i++) {
+			this.counts[(words.termId(i) & this.mask) * k + c] += words.count(i);
+			this.words[c] += words.count(i);
+		}
+		this.documents[c]++;
+		this.table = null;
+	}
+
+	/**
+	 * Zählt die Zählerstände eines anderen Modells mit denselben Kategorien und Eimern hinzu, z. B. eines Teilmodells.
+	 *
+	 * @param other	Das andere Modell.
+	 */
+	public synchronized void merge(HashedModel other) {
+		if(other.classes.length != this.classes.length || other.mask != this.mask) {
+			throw new IllegalArgumentException("Das Modell hat " + other.classes.length + " Kategorien und " + other.getBuckets()
+					+ " Eimer statt " + this.classes.length + " und " + getBuckets() + "!");
+		}
+		for(int i = 0; i < this.counts.length; i++) {
+			this.counts[i] += other.counts[i];
+		}
+		for(int c = 0; c < this.classes.length; c++) {
+			this.words[c] += other.words[c];
+			this.documents[c] += other.documents[c];
+		}
+		this.table = null;
+	}
+
+	/**
+	 * Bewertet einen zerlegten Zeitungsartikel für eine einzelne Kategorie. Für alle Kategorien ist {@link #score(TermVector, double[])}
+	 * schneller, da die Begriffe dort nur einmal nachgeschlagen werden.
+	 *
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels, nummeriert mit {@link #getTermMapping()}.
+	 * @param c		Der Index der Kategorie.
+	 *
+	 * @return Der Logarithmus der (nicht normierten) A-posteriori-Wahrscheinlichkeit
+	 */
+	public double score(TermVector words, int c) {
+		float[] t = compiled();
+		int k = this.classes.length;
+		double probability = this.logPriors[c];
+		for(int i = 0; i < words.size(); i++) {
+			probability += words.count(i) * t[(words.termId(i) & this.mask) * k + c];
+		}
+		return probability;
+	}
+
+	/**
+	 * Die Begriffe wurden schon beim Zerlegen gehasht, die k Werte eines Eimers liegen nebeneinander.
+	 */
+	@Override
+	public void score(TermVector words, double[] scores) {
+		float[] t = compiled();
+		int k = this.classes.length;
+		System.arraycopy(this.logPriors, 0, scores, 0, k);
+		for(int i = 0; i < words.size(); i++) {
+			int base = (words.termId(i) & this.mask) * k;
+			int count = words.count(i);
+			for(int c = 0; c < k; c++) {
+				scores[c] += count * t[base + c];
+			}
+		}
+	}
+
+	/**
+	 * Berechnet die Tabelle der Logarithmen, wenn seit dem letzten Mal trainiert wurde.
+	 */
+	private float[] compiled() {
+		float[] t = this.table;
+		if(t != null) {
+			return t;
+		}
+		synchronized(this) {
+			if(this.table != null) {
+				return this.table;
+			}
+			int k = this.classes.length;
+			int occupied = 0;
+			for(int b = 0; b <= this.mask; b++) {
+				for(int c = 0; c < k; c++) {
+					if(this.counts[b * k + c] != 0) {
+						occupied++;
+						break;
+					}
+				}
+			}
+			long total = 0;
+			for(int d : this.documents) {
+				total += d;
+			}
+			double[] logPriors = new double[k];
+			double[] denominators = new double[k];
+			for(int c = 0; c < k; c++) {
+				//Ohne Zeitungsartikel sind alle Kategorien gleich wahrscheinlich
+				logPriors[c] = total == 0 ? -Math.log(k) : Math.log((double) this.documents[c] / total);
+				denominators[c] = this.words[c] + occupied;
+			}
+			t = new float[this.counts.length];
+			for(int i = 0; i < t.length; i++) {
+				t[i] = (float) Math.log((this.counts[i] + 1) / denominators[i % k]);
+			}
+			this.logPriors = logPriors;
+			this.table = t;
+			return t;
+		}
+	}
+
+	/**
+	 * Gibt die Anzahl der Kategorien zurück.
+	 *
+	 * @return Die Anzahl der Kategorien als {@link int}
+	 */
+	@Override
+	public int getClassCount() {
+		return this.classes.length;
+	}
+
+	/**
+	 * Gibt den Namen einer Kategorie zurück.
+	 *
+	 * @param c	Der Index der Kategorie.
+	 *
+	 * @return Der Name der Kategorie
+	 */
+	@Override
+	public String getClassName(int c) {
+		return this.classes[c];
+	}
+
+	/**
+	 * Gibt die Anzahl der Eimer zurück.
+	 *
+	 * @return Die Anzahl der Eimer als {@link int}
+	 */
+	public int getBuckets() {
+		return this.mask + 1;
+	}
+
+	/**
+	 * Gibt den Speicherbedarf der Zähler und der Tabelle in Bytes zurück. Er hängt nur von der Anzahl der Eimer und Kategorien ab.
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	@Override
+	public long getMemory() {
+		return (long) this.counts.length * (Integer.BYTES + Float.BYTES);
+	}
+
+	/**
+	 * Berechnet, wie viele Begriffe sich bei einer Anzahl an Eimern einen Eimer mit anderen Begriffen teilen.
+	 *
+	 * @param terms	Die verschiedenen Begriffe, z. B. die Schlüssel aus {@link mr.bsc.dict.DictionaryView#getEntries()}. Jeder Begriff nur einmal.
+	 * @param buckets	Die Anzahl der Eimer. Muss eine Zweierpotenz sein.
+	 *
+	 * @return Die Statistik als String
+	 */
+	public static String getCollisionStatistics(Collection<String> terms, int buckets) {
+		if(buckets <= 0 || Integer.bitCount(buckets) != 1) {
+			throw new IllegalArgumentException("Die Anzahl der Eimer muss eine Zweierpotenz sein: " + buckets);
+		}
+		int[] load = new int[buckets];
+		for(String term : terms) {
+			load[hash(term) & (buckets - 1)]++;
+		}
+		int occupied = 0;
+		int colliding = 0;
+		int maximum = 0;
+		for(int l : load) {
+			if(l > 0) {
+				occupied++;
+			}
+			if(l > 1) {
+				colliding += l;
+			}
+			maximum = Math.max(maximum, l);
+		}
+		return String.format("%d Eimer: %d Begriffe, %d Eimer belegt (%.1f%%), %d Begriffe teilen sich einen Eimer (%.1f%%), höchstens %d pro Eimer",
+				buckets, terms.size(), occupied, occupied * 100.0 / buckets, colliding, terms.isEmpty() ? 0.0 : colliding * 100.0 / terms.size(), maximum);
+	}
+
+	/**
+	 * Gibt den Pfad des gehashten Modells zurück, das neben einem Wörterbuch liegt.
+	 *
+	 * @param dictionaryPath	Der Pfad der JSON-Datei des Wörterbuchs.
+	 *
+	 * @return Der Pfad des gehashten Modells
+	 */
+	public static String getHashedPath(String dictionaryPath) {
+		return (dictionaryPath.endsWith(".json") ? dictionaryPath.substring(0, dictionaryPath.length() - 5) : dictionaryPath) + SUFFIX;
+	}
+
+	/**
+	 * MurmurHash3 (32 Bit) über die UTF-16-Zeichen eines Begriffs, je zwei Zeichen ergeben einen Block. Es wird kein Objekt erzeugt, auch
+	 * nicht für einen Begriff, der gerade erst in einem {@link StringBuilder} zusammengesetzt wird.
+	 *
+	 * @param term	Der Begriff.
+	 *
+	 * @return Der Hashwert
+	 */
+	static int hash(CharSequence term) {
+		int h = SEED;
+		int length = term.length();
+		int i = 0;
+		for(; i + 1 < length; i += 2) {
+			h ^= mixK1(term.charAt(i) | (term.charAt(i + 1) << 16));
+			h = Integer.rotateLeft(h, 13);
+			h = h * 5 + 0xE6546B64;
+		}
+		if(i < length) {
+			h ^= mixK1(term.charAt(i));
+		}
+		h ^= 2 * length;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	private static int mixK1(int k1) {
+		k1 *= 0xCC9E2D51;
+		k1 = Integer.rotateLeft(k1, 15);
+		return k1 * 0x1B873593;
+	}
+
+	/**
+	 * Speichert die Zählerstände. Die Datei wird zuerst in eine temporäre Datei geschrieben und dann verschoben.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @throws IOException
+	 */
+	public void save(String path) throws IOException {
+		DictionaryCreator.writeAtomically(path, out -> {
+			int k = this.classes.length;
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(k);
+			for(String name : this.classes) {
+				out.writeUTF(name);
+			}
+			out.writeInt(getBuckets());
+			for(int c = 0; c < k; c++) {
+				out.writeInt(this.documents[c]);
+			}
+			for(int c = 0; c < k; c++) {
+				out.writeLong(this.words[c]);
+			}
+			for(int count : this.counts) {
+				out.writeInt(count);
+			}
+		});
+	}
+
+	/**
+	 * Lädt ein gehashtes Modell.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @return Das gehashte Modell
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder hat ein unbekanntes Format.
+	 */
+	public static HashedModel load(String path) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(path)), 1 << 16))) {
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Die Datei " + path + " ist kein gehashtes Modell oder hat eine veraltete Version!");
+			}
+			String[] classes = new String[in.readInt()];
+			for(int c = 0; c < classes.length; c++) {
+				classes[c] = in.readUTF();
+			}
+			HashedModel model = new HashedModel(classes, in.readInt());
+			for(int c = 0; c < classes.length; c++) {
+				model.documents[c] = in.readInt();
+			}
+			for(int c = 0; c < classes.length; c++) {
+				model.words[c] = in.readLong();
+			}
+			for(int i = 0; i < model.counts.length; i++) {
+				model.counts[i] = in.readInt();
+			}
+			return model;
+		}
+	}
+}
@@ -1,269 +1,700 @@
-package mr.bsc.classifier;
-
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.util.HashMap;
-
-import mr.bsc.dict.ArticleAnalyzer;
-import mr.bsc.dict.Dictionary;
-import mr.bsc.dict.DictionaryCreator;
-import mr.bsc.dict.Vocabulary;
-import mr.bsc.dict.VocabularyCombiner;
-import mr.bsc.guardian.NewspaperArticle;
-
-/**
- * Diese Klasse implementiert einen naiven Bayes-Klassifikator.
- * Dabei wird ein Testset an Zeitungsartikeln in eine der 4 Kategorien BUSINESS, POLITICS, SCIENCE oder SPORT eingeordnet.
- * 
- * @author Marius Rosenbaum
- *
- */
-public class NaiveBayesClassifier {
-	
-	/*
-	 * Wert für das Laplace-Smoothing 
-	 */
-	private final static int SMOOTHING_LAPLACE = 1;
-	
-	/*
-	 * Die verschiedenen Kategorien
-	 */
-	private final static int TYPE_BUSINESS = 0;
-	private final static int TYPE_POLITICS = 1;
-	private final static int TYPE_SCIENCE = 2;
-	private final static int TYPE_SPORT = 3;
-	
-	/* ----------------------------------------------------------------------------------------------------------------------------- */
-	
-	/*
-	 * Die Pfade für Modell_1 (ungefiltert)
-	 */
-	private static final String PATH_DICTIONARY_EVERYTHING_BUSINESS = "cleaned\\businessDictionaryCleaned.json";
-	private static final String PATH_DICTIONARY_EVERYTHING_POLITICS = "cleaned\\politicsDictionaryCleaned.json";
-	private static final String PATH_DICTIONARY_EVERYTHING_SCIENCE = "cleaned\\scienceDictionaryCleaned.json";		
-	private static final String PATH_DICTIONARY_EVERYTHING_SPORT = "cleaned\\sportDictionaryCleaned.json";
-	private static final String PATH_VOCABULARY_EVERYTHING = "cleaned\\combinedVocabularyCleaned.json";
-	
-	/*
-	 * Die Pfade für Modell_2 (gefiltert)
-	 */
-	private static final String PATH_DICTIONARY_FILTERED_BUSINESS = "cleanFiltered\\businessDictionaryCleanFiltered.json";
-	private static final String PATH_DICTIONARY_FILTERED_POLITICS = "cleanFiltered\\politicsDictionaryCleanFiltered.json";
-	private static final String PATH_DICTIONARY_FILTERED_SCIENCE = "cleanFiltered\\scienceDictionaryCleanFiltered.json";		
-	private static final String PATH_DICTIONARY_FILTERED_SPORT = "cleanFiltered\\sportDictionaryCleanFiltered.json";
-	private static final String PATH_VOCABULARY_FILTERED = "cleanFiltered\\combinedVocabularyCleanFiltered.json";
-	
-	/* ----------------------------------------------------------------------------------------------------------------------------- */
-
-	private ArticleAnalyzer analyzer;
-	
-	private Dictionary businessDictionary;
-	private Dictionary politicsDictionary;
-	private Dictionary scienceDictionary;
-	private Dictionary sportDictionary;
-	private Vocabulary vocabulary;
-	
-	public NaiveBayesClassifier() throws FileNotFoundException {
-		this.analyzer = new ArticleAnalyzer();
-	}
-	
-	/**
-	 * Diese Methode klassifierzt den Testdatensatz.
-	 * 
-	 * @param businessPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie BUSINESS
-	 * @param politicsPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie POLITICS
-	 * @param sciencePath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie SCIENCE
-	 * @param sportPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie SPORT
-	 * @param filtering		<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
-	 * 						<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
-	 * 
-	 * @throws IOException	Beim Laden des Textkorpus ist etwas schiefgegangen. Sind die Dateien an der richtigen Stelle und korrekt benannt?
-	 */
-	public void classifyArticles(String businessPath, String politicsPath, String sciencePath, String sportPath, boolean filtering) throws IOException {
-		
-		this.load(filtering); //Hier wird das korrekte Modell geladen
-		
-		int matrix[][] = new int[4][4]; //Neue zweidimensionale Matrix erstellen
-		
-		for(int i = 0; i < 4; i++) {
-			for(int j = 0; j < 4; j++) {
-				matrix[i][j] = 0;
-			}
-		}
-		
-		//Zähler, der lediglich für die Ausgabe der bereits klassifizierten Artikel genutzt wird
-		int count = 1;
-		
-		//Hier findet die eigentlich Klassifizierung statt
-		//Alle Artikel werden nacheinander durchlaufen und klassifiziert
-		for(NewspaperArticle article : DictionaryCreator.loadNewspaperCollection(businessPath).getArticles()) {
-			int classifierOutput = this.classifyArticle(article, filtering); //Der Ergebnis der Klassifikation wird in dieser Variable gespeichert
-			/*
-			 * Die Artikel, die aus der Kategorie Business stammen, werden in der "Zeile" 0 gespeichert. Das Ergebnis der Klassifikation ist dann
-			 * in der entsprechenden "Spalte" vorhanden. Beispiel: Ein Artikel der Klasse BUSINESS (0) wird eingegeben und soll klassifiziert werden. Das
-			 * Vorhersagemodell liefert das Ergenis SPORT (3). Dementsprechend wird der Wert in matrix[0][3] um eins erhöht.
-			 */
-			matrix[0][classifierOutput] = matrix[0][classifierOutput] + 1;
-			log(count);
-			count++;
-		}
-		for(NewspaperArticle article : DictionaryCreator.loadNewspaperCollection(politicsPath).getArticles()) {
-			int classifierOutput = this.classifyArticle(article, filtering);
-			matrix[1][classifierOutput] = matrix[1][classifierOutput] + 1;
-			log(count);
-			count++;
-		}
-		for(NewspaperArticle article : DictionaryCreator.loadNewspaperCollection(sciencePath).getArticles()) {
-			int classifierOutput = this.classifyArticle(article, filtering);
-			matrix[2][classifierOutput] = matrix[2][classifierOutput] + 1;
-			log(count);
-			count++;
-		}
-		for(NewspaperArticle article : DictionaryCreator.loadNewspaperCollection(sportPath).getArticles()) {
-			int classifierOutput = this.classifyArticle(article, filtering);
-			matrix[3][classifierOutput] = matrix[3][classifierOutput] + 1;
-			log(count);
-			count++;
-		}
-		
-		/**
-		 * Hier wird die Matrix ausgegeben. Zahlen getrennt mit einem Leerzeichen.
-		 */
-		for(int i = 0; i < 4; i++) {
-			for(int j = 0; j < 4; j++) {
-				System.out.print(matrix[i][j] + " ");
-			}
-			System.out.println();
-		}
-		
-		/*
-		 * NOTE: Diese Methode ist noch etwas starr. Sie funktioniert nur für genau 4 Kategorien. Generell ist das Laden von Vorhersagemodellen und dem Vokabular
-		 * noch etwas unschön. TODO Es wäre denkbar, das Vokabular direkt abhängig von den gewählten Kategorien bzw. den gewählten Dictionary-Objekten zu machen. Also
-		 * das Vokabular aus den Dictionary-Objekten extrahieren. Prinzipiell mit momentaner Implementierung relativ simpel, indem man die Keysets der jeweiligen
-		 * Dictionary-Objekten zur Laufzeit in ein einzelnes Set zusammenführt.
-		 */
-		
-	}
-
-	/**
-	 * Diese Methode klassifiziert genau einen Zeitungsartikel.
-	 * 
-	 * @param article		Der Zeitungsartikel, der klassifiziert werden soll
-	 * @param filtering		<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
-	 * 						<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
-	 * 
-	 * @return	{@link int} zwischen 0 und 3. Mögliche Werte und deren Bedeutung sind: 0 = BUSINESS, 1 = POLITICS, 2 = SCIENCE, 3 = SPORT
-	 */
-	private int classifyArticle(NewspaperArticle article, boolean filtering) {
-		HashMap<String, Integer> words = analyzer.analyze(article, filtering);
-		
-		return calculateTopic(words);
-	}
-	
-	/**
-	 * Der Algorithmus zur Klassifizierung wird durch diese Methode ausgeführt.
-	 * 
-	 * @param words		Die Wörter des zerlegten Zeitungsartikels
-	 * 
-	 * @return	{@link int} zwischen 0 und 3. Mögliche Werte und deren Bedeutung sind: 0 = BUSINESS, 1 = POLITICS, 2 = SCIENCE, 3 = SPORT
-	 */
-	private int calculateTopic(HashMap<String, Integer> words) {
-		
-		int biggest = NaiveBayesClassifier.TYPE_BUSINESS;
-		double comp = 0;
-		double business = calculateProbability(words, businessDictionary, (double) 9989/39270);
-		comp = business;
-		double politics = calculateProbability(words, politicsDictionary, (double) 9954/39270);
-		//Wenn die Wahrscheinlichkeit für POLITICS größer ist als die vorherige (BUSINESS), ersetzen!
-		if (politics > comp) {
-			biggest = NaiveBayesClassifier.TYPE_POLITICS;
-			comp = politics;
-		}
-		//Wenn die Wahrscheinlichkeit für SCIENCE größer ist als die vorherige (POLITICS), ersetzen!
-		double science = calculateProbability(words, scienceDictionary, (double) 9443/39270);
-		if (science > comp) {
-			biggest = NaiveBayesClassifier.TYPE_SCIENCE;
-			comp = science;
-		}
-		//Wenn die Wahrscheinlichkeit für SPORT größer ist als die vorherige (SCIENCE), ersetzen!
-		double sport = calculateProbability(words, sportDictionary, (double) 9884/39270);
-		if (sport > comp) {
-			biggest = NaiveBayesClassifier.TYPE_SPORT;
-			comp = sport;
-		}
-		
-		return biggest;
-		
-		/*
-		 * NOTE: Auch diese Methode kann noch verbessert werden. TODO Die A-priori-Wahrscheinlichkeiten sind noch hartkodiert. Prinzipiell entsteht so eine Wahrscheinlich nur durch vorwissen.
-		 * Man könnte den einzelnen Dicionary-Objekten bei der Erstellung noch eine Variable hinzufügen, die die Anzahl der Zeitungsartikel festhält, aus denen das Dictionary entstanden ist.
-		 * Damit ließe sich eine A-priori-Wahrscheinlichkeit zur Laufzeit ausrechnen.
-		 * Auch hier aber besteht das Problem, dass exakt 4 Kategorien vorliegen müssen. Eine Lösung, die unabhängig von der Anzahl der Kategorien eine Klassifikation durchführen kann, wäre
-		 * wünschenswert.
-		 */
-	}
-	
-	/**
-	 * Diese Methode berechnet die Wahrscheinlichkeit bei der Klassifizierung.
-	 * 
-	 * @param words		Die Wörter des zerlegten Zeitungsartikels
-	 * @param dic		Das Wörterbuch der Kategorie, für die eine Wahrscheinlichkeit berechnet werden soll
-	 * @param priori	Die A-priori-Wahrscheinlichkeit für die Kategorie, für die eine Wahrscheinlichkeit berechnet werden soll
-	 * 
-	 * @return	Die Wahrscheinlichkeit der Kategorie anzugehören als {@link double}
-	 */
-	private double calculateProbability(HashMap<String, Integer> words, Dictionary dic, double priori) {
-		
-		double probability = Math.log(priori); //Logarithmus der A-priori-Wahrscheinlichkeit
-		
-		/**
-		 * Durch die Annahme der bedingten Unabhängigkeit der Merkmale wird die Liste der Wörter duchlaufen und deren Wahrscheinlichkeiten
-		 * miteinander multipliziert
-		 */
-		for (String e : words.keySet()) {
-			double zaehler = dic.findOccurrence(e) + NaiveBayesClassifier.SMOOTHING_LAPLACE; //Der Zähler ist das Vorkommen des Worten im Dictionary + der gewählte Glättungswert
-			double nenner = dic.getTotalWords() + this.vocabulary.size(); //Der Nenner ist die größe des Dictionaries (Das Vorkommen jedes Wortes) + die Größe des Vokabulars
-			//Natuerlicher Logarthimus (Ln) bei sehr kleinen Zahlen
-			double temp = words.get(e) * (Math.log(zaehler/nenner)); //Ein Wort kommt bspw. 5 Mal vor, also muss 5 Mal diese Rechnung ausgeführt werden
-			probability += temp;
-		}
-		
-		return probability;
-	}
-	
-	/**
-	 * Hier wird das korrekte Modell zur Klassifizierung geladen.
-	 * 
-	 * @param filtering 	{@code true}, Modell_2 wird zur Vorhersage geladen
-	 * 						{@code false}, Modell_1 wird zur Vorhersage geladen
-	 * 
-	 * @throws IOException 
-	 */
-	private void load(boolean filtering) throws IOException {
-		if(filtering) {
-			
-			this.businessDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_BUSINESS);
-			this.politicsDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_POLITICS);
-			this.scienceDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_SCIENCE);
-			this.sportDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_SPORT);
-			this.vocabulary = VocabularyCombiner.loadVocabulary(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + PATH_VOCABULARY_FILTERED);
-
-		} else {
-			
-			this.businessDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_BUSINESS);
-			this.politicsDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_POLITICS);
-			this.scienceDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_SCIENCE);
-			this.sportDictionary = DictionaryCreator.loadDictionary(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_SPORT);
-			this.vocabulary = VocabularyCombiner.loadVocabulary(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + PATH_VOCABULARY_EVERYTHING);
-		}
-	}
-	
-	/**
-	 * Methode, um Logging zu erleichtern.
-	 * 
-	 * @param i Die Zahl, dier ausgegeben werden soll
-	 */
-	private void log(int i) {
-		System.out.println("Classified Article: " + i);
-	}
+package mr.bsc.classifier;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import mr.bsc.dict.AnalysisMode;
+import mr.bsc.dict.ArticleAnalyzer;
+import mr.bsc.dict.DictionaryCreator;
+import mr.bsc.dict.DictionaryView;
+import mr.bsc.dict.FeatureSelector;
+import mr.bsc.dict.ModelFile;
+import mr.bsc.dict.ModelLoader;
+import mr.bsc.dict.PipelinePool;
+import mr.bsc.dict.TermMapping;
+import mr.bsc.dict.TimeoutPolicy;
+import mr.bsc.dict.TermVector;
+import mr.bsc.dict.VocabularyCombiner;
+import mr.bsc.dict.VocabularyView;
+import mr.bsc.guardian.NewspaperArticle;
+import mr.bsc.guardian.NewspaperArticleReader;
+
+/**
+ * Diese Klasse implementiert einen naiven Bayes-Klassifikator.
+ * Dabei wird ein Testset an Zeitungsartikeln in eine der 4 Kategorien BUSINESS, POLITICS, SCIENCE oder SPORT eingeordnet. Mit
+ * {@link #setCategories(List)} sind auch beliebig viele andere Kategorien möglich, das {@link ScoringModel} bewertet alle Kategorien in
+ * einem einzigen Durchlauf über die Wörter eines Artikels.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class NaiveBayesClassifier {
+	
+	/*
+	 * Wert für das Laplace-Smoothing 
+	 */
+	private final static int SMOOTHING_LAPLACE = 1;
+	
+	/*
+	 * Die verschiedenen Kategorien
+	 */
+	private final static int TYPE_BUSINESS = 0;
+	private final static int TYPE_POLITICS = 1;
+	private final static int TYPE_SCIENCE = 2;
+	private final static int TYPE_SPORT = 3;
+	
+	/*
+	 * Die Anzahl der Zeitungsartikel pro Kategorie im ursprünglichen Trainingsdatensatz. Wird nur genutzt, wenn die geladenen Wörterbücher
+	 * noch keine Anzahl an Zeitungsartikeln enthalten.
+	 */
+	private final static int[] DOCUMENTS_TRAINING = {9989, 9954, 9443, 9884};
+	
+	/*
+	 * So viele Zeitungsartikel des Testsets sind höchstens gleichzeitig gelesen, aber noch nicht klassifiziert.
+	 */
+	private final static int CHUNK_SIZE = 1024;
+	
+	/* ----------------------------------------------------------------------------------------------------------------------------- */
+	
+	/*
+	 * Die Pfade für Modell_1 (ungefiltert)
+	 */
+	private static final String PATH_DICTIONARY_EVERYTHING_BUSINESS = "cleaned\\businessDictionaryCleaned.json";
+	private static final String PATH_DICTIONARY_EVERYTHING_POLITICS = "cleaned\\politicsDictionaryCleaned.json";
+	private static final String PATH_DICTIONARY_EVERYTHING_SCIENCE = "cleaned\\scienceDictionaryCleaned.json";		
+	private static final String PATH_DICTIONARY_EVERYTHING_SPORT = "cleaned\\sportDictionaryCleaned.json";
+	private static final String PATH_VOCABULARY_EVERYTHING = "cleaned\\combinedVocabularyCleaned.json";
+	
+	/*
+	 * Die Pfade für Modell_2 (gefiltert)
+	 */
+	private static final String PATH_DICTIONARY_FILTERED_BUSINESS = "cleanFiltered\\businessDictionaryCleanFiltered.json";
+	private static final String PATH_DICTIONARY_FILTERED_POLITICS = "cleanFiltered\\politicsDictionaryCleanFiltered.json";
+	private static final String PATH_DICTIONARY_FILTERED_SCIENCE = "cleanFiltered\\scienceDictionaryCleanFiltered.json";		
+	private static final String PATH_DICTIONARY_FILTERED_SPORT = "cleanFiltered\\sportDictionaryCleanFiltered.json";
+	private static final String PATH_VOCABULARY_FILTERED = "cleanFiltered\\combinedVocabularyCleanFiltered.json";
+	
+	/* ----------------------------------------------------------------------------------------------------------------------------- */
+
+	private static ExecutorService classifiers;
+	
+	private ArticleAnalyzer analyzer;
+	private AnalysisMode mode;
+	
+	/*
+	 * Die Namen der Kategorien, Index ist die Kategorie
+	 */
+	private final static String[] CATEGORIES = {"business", "politics", "science", "sport"};
+	
+	private String[] categories = CATEGORIES; //Die Kategorien des Modells, siehe setCategories()
+	private ScoringModel model; //Wörterbücher, Vokabular und A-priori-Wahrscheinlichkeiten als eine Tabelle, siehe load()
+	private boolean deriveVocabulary;	//Wird das Vokabular aus den Wörterbüchern abgeleitet statt aus der kombinierten Datei geladen?
+	private boolean pruned;				//Werden die Modelle nach der Merkmalsauswahl genutzt, siehe FeatureSelector?
+	private int hashedBuckets;			//Anzahl der Eimer des HashedModel, 0 heißt Modell mit Vokabular
+	private boolean collisionStatistics;	//Werden beim Laden des HashedModel die Kollisionen aus den Wörterbüchern berechnet?
+	private Quantization quantization;	//Genauigkeit des QuantizedModel, null heißt volle Genauigkeit
+	private boolean measureDrift;		//Wird das CompiledModel zum Vergleich mit dem QuantizedModel behalten?
+	private CompiledModel reference;	//Das behaltene CompiledModel, nur mit measureDrift
+	private boolean filtering;			//Die Filterung des Modells aus loadModel()
+	private final LongAdder drift = new LongAdder();	//Artikel, bei denen QuantizedModel und CompiledModel verschieden entscheiden
+	
+	public NaiveBayesClassifier() throws IOException {
+		this(AnalysisMode.FULL);
+	}
+	
+	/**
+	 * @param mode	Die Art der Annotation. Es werden die Vorhersagemodelle geladen, die mit derselben Art erstellt wurden.
+	 * 
+	 * @throws IOException	Das Lexikon des {@link ArticleAnalyzer} konnte nicht geladen werden.
+	 */
+	public NaiveBayesClassifier(AnalysisMode mode) throws IOException {
+		this(mode, false);
+	}
+	
+	/**
+	 * @param mode				Die Art der Annotation. Es werden die Vorhersagemodelle geladen, die mit derselben Art erstellt wurden.
+	 * @param deriveVocabulary	Soll das Vokabular aus den geladenen Wörterbüchern abgeleitet werden? Dann muss kein kombiniertes Vokabular
+	 * 							mit dem {@link VocabularyCombiner} erstellt werden.
+	 * 
+	 * @throws IOException	Das Lexikon des {@link ArticleAnalyzer} konnte nicht geladen werden.
+	 */
+	public NaiveBayesClassifier(AnalysisMode mode, boolean deriveVocabulary) throws IOException {
+		this.analyzer = new ArticleAnalyzer(mode, true);
+		this.mode = mode;
+		this.deriveVocabulary = deriveVocabulary;
+	}
+	
+	/**
+	 * Legt fest, ob die verkleinerten Modelle des {@link FeatureSelector} genutzt werden. Diese liegen unabhängig von der Art der Annotation
+	 * dort, wo der {@link DictionaryCreator} die Modelle ablegt. Begriffe eines Artikels, die nicht im Vokabular sind, werden dann ignoriert,
+	 * denn sie wurden bei der Merkmalsauswahl bewusst entfernt.
+	 * 
+	 * @param pruned	Sollen die verkleinerten Modelle genutzt werden?
+	 */
+	public void setPruned(boolean pruned) {
+		this.pruned = pruned;
+	}
+	
+	/**
+	 * Legt fest, zwischen welchen Kategorien klassifiziert wird. Die Wörterbücher müssen dort liegen, wo der {@link DictionaryCreator} sie
+	 * ablegt, z. B. {@code <kategorie>DictionaryCleanFiltered.json}. Ohne Aufruf sind es die 4 Kategorien von Modell_1 und Modell_2.
+	 * 
+	 * @param categories	Die Namen der Kategorien, mindestens 2. Der Index einer Kategorie ist ihre Zeile in der Konfusionsmatrix.
+	 */
+	public void setCategories(List<String> categories) {
+		if(categories.size() < 2) {
+			throw new IllegalArgumentException("Es werden mindestens 2 Kategorien gebraucht!");
+		}
+		this.categories = categories.toArray(new String[categories.size()]);
+	}
+	
+	/**
+	 * Legt fest, ob mit einem {@link HashedModel} statt mit dem Vokabular klassifiziert wird, siehe {@link #setHashedBuckets(int, boolean)}.
+	 * 
+	 * @param buckets	Die Anzahl der Eimer, eine Zweierpotenz. 0 schaltet das gehashte Modell ab.
+	 */
+	public void setHashedBuckets(int buckets) {
+		setHashedBuckets(buckets, false);
+	}
+	
+	/**
+	 * Legt fest, ob mit einem {@link HashedModel} statt mit dem Vokabular klassifiziert wird. Geladen werden die gehashten Modelle, die der
+	 * {@link DictionaryCreator} mit {@link DictionaryCreator#setHashedBuckets(int)} neben den Wörterbüchern gespeichert hat. Sie müssen
+	 * mindestens so viele Eimer haben, mit weniger Eimern werden sie beim Laden gefaltet. Wörterbücher und Vokabular werden nicht geladen.
+	 * Das gehashte Modell wird nicht verkleinert, {@link #setPruned(boolean)} spielt dafür keine Rolle.
+	 * 
+	 * @param buckets				Die Anzahl der Eimer, eine Zweierpotenz. 0 schaltet das gehashte Modell ab.
+	 * @param collisionStatistics	Sollen beim Laden die Wörterbücher gelesen und die Kollisionen ausgegeben werden?
+	 */
+	public void setHashedBuckets(int buckets, boolean collisionStatistics) {
+		if(buckets < 0 || (buckets > 0 && Integer.bitCount(buckets) != 1)) {
+			throw new IllegalArgumentException("Die Anzahl der Eimer muss eine Zweierpotenz sein: " + buckets);
+		}
+		this.hashedBuckets = buckets;
+		this.collisionStatistics = collisionStatistics;
+	}
+	
+	/**
+	 * Legt fest, ob mit einem {@link QuantizedModel} klassifiziert wird. Es wird beim Laden aus dem kompilierten Modell erstellt und
+	 * gespeichert, danach wird nur noch die quantisierte Datei geladen.
+	 * 
+	 * @param quantization	Die Genauigkeit der Tabelle. {@code null} schaltet das quantisierte Modell ab.
+	 * @param measureDrift	Soll jeder Artikel zusätzlich mit dem {@link CompiledModel} klassifiziert werden, um die Abweichungen zu zählen
+	 * 						(siehe {@link #getArgmaxDrift()})? Dann liegen beide Modelle im Speicher.
+	 */
+	public void setQuantization(Quantization quantization, boolean measureDrift) {
+		this.quantization = quantization;
+		this.measureDrift = measureDrift;
+	}
+	
+	/**
+	 * Legt fest, wie lange die Annotation eines einzelnen Zeitungsartikels höchstens dauern darf, siehe
+	 * {@link ArticleAnalyzer#setLatencyBudget(long, TimeoutPolicy)}. Artikel, die auch mit der Notlösung nicht rechtzeitig fertig werden,
+	 * bekommen keine Kategorie.
+	 * 
+	 * @param millis	Das Zeitbudget in Millisekunden. 0 schaltet das Budget ab.
+	 * @param policy	Die Notlösung, wenn das Budget überschritten wird.
+	 */
+	public void setLatencyBudget(long millis, TimeoutPolicy policy) {
+		this.analyzer.setLatencyBudget(millis, policy);
+	}
+	
+	/**
+	 * Gibt zurück, wie oft die Annotation eines Artikels das Zeitbudget überschritten hat, siehe {@link ArticleAnalyzer#getBudgetBreaches()}.
+	 * 
+	 * @return Die Anzahl der Überschreitungen
+	 */
+	public long getBudgetBreaches() {
+		return this.analyzer.getBudgetBreaches();
+	}
+	
+	/**
+	 * Gibt zurück, wie viele Artikel beim letzten Aufruf von {@link #classifyBatch(List, List, boolean)} vom
+	 * {@link QuantizedModel} einer anderen Kategorie zugeordnet wurden als vom {@link CompiledModel}. Wird nur mit
+	 * {@link #setQuantization(Quantization, boolean)} gezählt.
+	 * 
+	 * @return Die Anzahl der abweichenden Artikel
+	 */
+	public int getArgmaxDrift() {
+		return (int) this.drift.sum();
+	}
+	
+	/**
+	 * Gibt den Speicherbedarf des Modells zurück, mit dem klassifiziert wird. Vor dem ersten Klassifizieren ist noch kein Modell geladen.
+	 * 
+	 * @return Der Speicherbedarf in Bytes oder 0, wenn noch kein Modell geladen ist
+	 */
+	public long getModelMemory() {
+		return this.model == null ? 0 : this.model.getMemory();
+	}
+	
+	/**
+	 * Lädt das Modell für {@link #scoreArticles(List)}. Ein lang laufender Dienst lädt das Modell damit einmal beim Start und
+	 * klassifiziert danach beliebig viele Artikel.
+	 * 
+	 * @param filtering	<p>{@code true}, Modell_2 wird zur Vorhersage geladen</p>
+	 * 					<p>{@code false}, Modell_1 wird zur Vorhersage geladen</p>
+	 * 
+	 * @throws IOException	Das Modell konnte nicht geladen werden.
+	 */
+	public void loadModel(boolean filtering) throws IOException {
+		this.load(filtering);
+		this.filtering = filtering;
+	}
+	
+	/**
+	 * Gibt die Kategorien zurück, zwischen denen klassifiziert wird.
+	 * 
+	 * @return Die Namen der Kategorien, Index ist die Kategorie
+	 */
+	public List<String> getCategories() {
+		return Collections.unmodifiableList(Arrays.asList(this.categories));
+	}
+	
+	/**
+	 * Bewertet mehrere Zeitungsartikel mit dem Modell aus {@link #loadModel(boolean)}. Die Artikel werden gemeinsam auf den Threads des
+	 * {@link ArticleAnalyzer} zerlegt. Die Methode ist threadsicher.
+	 * 
+	 * @param articles	Die Artikel, die bewertet werden sollen.
+	 * 
+	 * @return Die Bewertungen aller Kategorien für jeden Artikel, in derselben Reihenfolge wie {@code articles}, siehe
+	 * 			{@link ScoringModel#score(TermVector)}. {@code null} für einen Artikel, der das Zeitbudget überschritten hat.
+	 */
+	public double[][] scoreArticles(List<NewspaperArticle> articles) {
+		ScoringModel model = this.model;
+		if(model == null) {
+			throw new IllegalStateException("Es ist noch kein Modell geladen, siehe loadModel(boolean)!");
+		}
+		List<TermVector> words = this.analyzer.analyzeAll(articles, this.filtering, model.getTermMapping());
+		double[][] scores = new double[words.size()][];
+		for(int i = 0; i < scores.length; i++) {
+			TermVector vector = words.get(i);
+			scores[i] = vector.isTimedOut() ? null : model.score(vector);
+		}
+		return scores;
+	}
+	
+	/**
+	 * Diese Methode klassifierzt den Testdatensatz.
+	 * 
+	 * @param businessPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie BUSINESS
+	 * @param politicsPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie POLITICS
+	 * @param sciencePath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie SCIENCE
+	 * @param sportPath 	Das Verzeichnis mit den Zeitungsartikeln der Kategorie SPORT
+	 * @param filtering		<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
+	 * 						<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
+	 * 
+	 * @return Die Konfusionsmatrix. Die Zeile ist die tatsächliche Kategorie, die Spalte die vorhergesagte.
+	 * 
+	 * @throws IOException	Beim Laden des Textkorpus ist etwas schiefgegangen. Sind die Dateien an der richtigen Stelle und korrekt benannt?
+	 */
+	public int[][] classifyArticles(String businessPath, String politicsPath, String sciencePath, String sportPath, boolean filtering) throws IOException {
+		String[] paths = new String[4];
+		paths[NaiveBayesClassifier.TYPE_BUSINESS] = businessPath;
+		paths[NaiveBayesClassifier.TYPE_POLITICS] = politicsPath;
+		paths[NaiveBayesClassifier.TYPE_SCIENCE] = sciencePath;
+		paths[NaiveBayesClassifier.TYPE_SPORT] = sportPath;
+		return classifyArticles(Arrays.asList(paths), filtering);
+	}
+	
+	/**
+	 * Klassifiziert den Testdatensatz für beliebig viele Kategorien, siehe {@link #setCategories(List)}.
+	 * 
+	 * @param testPaths	Die Textsammlungen, eine pro Kategorie in derselben Reihenfolge wie die Kategorien.
+	 * @param filtering	<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
+	 * 					<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
+	 * 
+	 * @return Die Konfusionsmatrix. Die Zeile ist die tatsächliche Kategorie, die Spalte die vorhergesagte.
+	 * 
+	 * @throws IOException	Beim Laden des Textkorpus ist etwas schiefgegangen. Sind die Dateien an der richtigen Stelle und korrekt benannt?
+	 */
+	public int[][] classifyArticles(List<String> testPaths, boolean filtering) throws IOException {
+		if(testPaths.size() != this.categories.length) {
+			throw new IllegalArgumentException("Es werden " + this.categories.length + " Textsammlungen gebraucht, eine pro Kategorie!");
+		}
+		
+		//Die Textsammlung mit dem Index i gehört zur Kategorie i, ihre Artikel landen in der "Zeile" i der Konfusionsmatrix
+		BatchResult result = this.classifyBatch(testPaths, Arrays.asList(this.categories), filtering);
+		result.print();
+		return result.getConfusionMatrix();
+	}
+	
+	/**
+	 * Klassifiziert beliebig viele Textsammlungen gleichzeitig. Die Textsammlungen werden der Reihe nach gelesen, jeder Artikel wird sofort
+	 * auf den Threads des Klassifikators zerlegt und bewertet, ohne auf die übrigen Artikel seines Abschnitts oder seiner Textsammlung zu
+	 * warten. Es gibt einen Thread pro Pipeline im {@link PipelinePool}, höchstens {@link #CHUNK_SIZE} Artikel sind gleichzeitig unterwegs.
+	 * Die Konfusionsmatrix wird ohne Sperren gezählt, die Ergebnisse stehen trotzdem in der Reihenfolge der Artikel.
+	 * 
+	 * @param paths		Die Textsammlungen.
+	 * @param labels	Die tatsächliche Kategorie jeder Textsammlung, {@code null} für unbekannt. Ist die Liste selbst {@code null}, ist
+	 * 					keine Kategorie bekannt.
+	 * @param filtering	<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
+	 * 					<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
+	 * 
+	 * @return Die vorhergesagten Kategorien, die Konfusionsmatrix sowie Durchsatz und Latenzen
+	 * 
+	 * @throws IOException	Beim Laden des Modells oder einer Textsammlung ist etwas schiefgegangen.
+	 */
+	public BatchResult classifyBatch(List<String> paths, List<String> labels, boolean filtering) throws IOException {
+		int k = this.categories.length;
+		int[] rows = new int[paths.size()];
+		for(int c = 0; c < rows.length; c++) {
+			String label = labels == null ? null : labels.get(c);
+			rows[c] = label == null ? -1 : Arrays.asList(this.categories).indexOf(label);
+			if(label != null && rows[c] < 0) {
+				throw new IllegalArgumentException("Unbekannte Kategorie: " + label);
+			}
+		}
+		
+		long start = System.nanoTime();
+		this.load(filtering); //Hier wird das korrekte Modell geladen
+		this.filtering = filtering;
+		System.out.println("Modell geladen in " + (System.nanoTime() - start) / 1000000 + " ms");
+		this.drift.reset();
+		TermMapping mapping = this.model.getTermMapping();
+		
+		//Jede Textsammlung wird nur einmal gelesen. Die Ergebnisse liefern die Futures, in der Reihenfolge der Artikel.
+		int[] sizes = new int[paths.size()];
+		AtomicIntegerArray matrix = new AtomicIntegerArray(k * k);
+		LongAdder timedOut = new LongAdder();
+		
+		start = System.nanoTime();
+		List<Future<Classified>> futures = new ArrayList<Future<Classified>>();
+		Semaphore pending = new Semaphore(CHUNK_SIZE);
+		int[][] topics;
+		long[] latencies;
+		try {
+			for(int c = 0; c < sizes.length; c++) {
+				int row = rows[c];
+				try(NewspaperArticleReader reader = new NewspaperArticleReader(paths.get(c))) {
+					while(reader.hasNext()) {
+						NewspaperArticle article = reader.next();
+						sizes[c]++;
+						pending.acquire();
+						futures.add(getClassifiers().submit(() -> {
+							try {
+								long begin = System.nanoTime();
+								TermVector words = this.analyzer.analyzeTerms(article, filtering, mapping);
+								if(words.isTimedOut()) {
+									//Ein leerer Artikel würde nur nach den A-priori-Wahrscheinlichkeiten eingeordnet
+									timedOut.increment();
+									return new Classified(-1, System.nanoTime() - begin);
+								}
+								int topic = this.calculateTopic(words);
+								long latency = System.nanoTime() - begin;
+								if(row >= 0) {
+									matrix.incrementAndGet(row * k + topic);
+								}
+								return new Classified(topic, latency);
+							} finally {
+								pending.release();
+							}
+						}));
+					}
+				}
+			}
+			
+			topics = new int[sizes.length][];
+			latencies = new long[futures.size()];
+			int index = 0;
+			for(int c = 0; c < topics.length; c++) {
+				topics[c] = new int[sizes[c]];
+				for(int i = 0; i < sizes[c]; i++, index++) {
+					Classified classified = futures.get(index).get(); //Wirft den ersten Fehler weiter
+					topics[c][i] = classified.topic;
+					latencies[index] = classified.latency;
+				}
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Die Klassifikation wurde unterbrochen!", e);
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			}
+			throw new IllegalStateException("Ein Zeitungsartikel konnte nicht klassifiziert werden!", e.getCause());
+		} finally {
+			for(Future<?> future : futures) {
+				future.cancel(false); //Nach einem Fehler werden die übrigen Artikel nicht mehr klassifiziert
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		int[][] confusion = new int[k][k];
+		for(int i = 0; i < k; i++) {
+			for(int j = 0; j < k; j++) {
+				confusion[i][j] = matrix.get(i * k + j);
+			}
+		}
+		return new BatchResult(this.categories, paths, rows, topics, confusion, latencies, elapsed, (int) timedOut.sum());
+	}
+
+	/**
+	 * Das Ergebnis eines Artikels in {@link #classifyBatch(List, List, boolean)}.
+	 */
+	private static final class Classified {
+		
+		private final int topic;		//Die vorhergesagte Kategorie, -1 über dem Zeitbudget
+		private final long latency;		//Die Zeit für Zerlegen und Bewerten in Nanosekunden
+		
+		private Classified(int topic, long latency) {
+			this.topic = topic;
+			this.latency = latency;
+		}
+	}
+	
+	/**
+	 * Gibt die Threads zurück, auf denen {@link #classifyBatch(List, List, boolean)} klassifiziert. Die Threads werden beim ersten Aufruf
+	 * erstellt und beenden das Programm nicht, wenn sie noch laufen. Jeder Thread hält beim Zerlegen eine Pipeline aus dem
+	 * {@link PipelinePool}, deshalb gibt es wie dort einen Thread pro Prozessorkern.
+	 * 
+	 * @return Der {@link ExecutorService} des Klassifikators
+	 */
+	private static synchronized ExecutorService getClassifiers() {
+		if(classifiers == null) {
+			classifiers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "batch-classifier");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return classifiers;
+	}
+
+	/**
+	 * Der Algorithmus zur Klassifizierung wird durch diese Methode ausgeführt. Das {@link ScoringModel} bewertet alle Kategorien in einem
+	 * Durchlauf über die Wörter, die Kategorie mit der größten Wahrscheinlichkeit gewinnt.
+	 * 
+	 * @param words		Die Wörter des zerlegten Zeitungsartikels
+	 * 
+	 * @return	Der Index der Kategorie, ohne {@link #setCategories(List)}: 0 = BUSINESS, 1 = POLITICS, 2 = SCIENCE, 3 = SPORT
+	 */
+	private int calculateTopic(TermVector words) {
+		int topic = ScoringModel.argmax(this.model.score(words));
+		if(this.reference != null && this.reference.classify(words) != topic) {
+			this.drift.increment();
+		}
+		return topic;
+	}
+	
+	/**
+	 * Hier wird das korrekte Modell zur Klassifizierung geladen. Liegt ein kompiliertes Modell vor, das nicht älter als die Wörterbücher
+	 * und das Vokabular ist, wird nur dieses geladen. Sonst werden die Wörterbücher geladen, kompiliert und das Ergebnis gespeichert.
+	 * 
+	 * @param filtering 	{@code true}, Modell_2 wird zur Vorhersage geladen
+	 * 						{@code false}, Modell_1 wird zur Vorhersage geladen
+	 * 
+	 * @throws IOException 
+	 */
+	private void load(boolean filtering) throws IOException {
+		String[] dictionaryPaths;
+		String vocabularyPath;
+		boolean standard = Arrays.equals(this.categories, CATEGORIES);
+		if(this.mode != AnalysisMode.FULL || this.pruned || !standard) {
+			
+			//Modelle ohne POS-Tagger, verkleinerte Modelle und andere Kategorien liegen dort, wo der DictionaryCreator sie abgelegt hat
+			String suffix = this.mode.getFileSuffix(filtering) + (this.pruned ? FeatureSelector.SUFFIX : "") + ".json";
+			dictionaryPaths = new String[this.categories.length];
+			for(int c = 0; c < this.categories.length; c++) {
+				dictionaryPaths[c] = DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + this.categories[c] + "Dictionary" + suffix;
+			}
+			vocabularyPath = DictionaryCreator.PATH_DIRECTORY_VOCABULARY + "combinedVocabulary" + suffix;
+			
+		} else if(filtering) {
+			
+			dictionaryPaths = new String[] {DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_BUSINESS, 
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_POLITICS,
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_SCIENCE, 
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_FILTERED_SPORT};
+			vocabularyPath = DictionaryCreator.PATH_DIRECTORY_VOCABULARY + PATH_VOCABULARY_FILTERED;
+
+		} else {
+			
+			dictionaryPaths = new String[] {DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_BUSINESS, 
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_POLITICS,
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_SCIENCE, 
+					DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + PATH_DICTIONARY_EVERYTHING_SPORT};
+			vocabularyPath = DictionaryCreator.PATH_DIRECTORY_VOCABULARY + PATH_VOCABULARY_EVERYTHING;
+		}
+		
+		this.reference = null;
+		if(this.hashedBuckets > 0) {
+			this.model = null; //Das alte Modell kann schon während des Ladens freigegeben werden
+			this.model = loadHashed(filtering, dictionaryPaths);
+			return;
+		}
+		
+		//Das kompilierte Modell hängt von allen Wörterbüchern und dem Vokabular ab, als JSON-Datei oder als Modelldatei
+		String compiledPath = DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + "compiledModel" + this.mode.getFileSuffix(filtering)
+				+ (this.pruned ? FeatureSelector.SUFFIX : "") + (this.deriveVocabulary ? "Derived" : "")
+				+ (standard ? "" : "_" + Integer.toHexString(String.join(",", this.categories).hashCode())) + ".bin";
+		String[] sources = new String[2 * (dictionaryPaths.length + 1)];
+		for(int c = 0; c < dictionaryPaths.length; c++) {
+			sources[2 * c] = dictionaryPaths[c];
+			sources[2 * c + 1] = ModelFile.getBinaryPath(dictionaryPaths[c]);
+		}
+		sources[sources.length - 2] = vocabularyPath;
+		sources[sources.length - 1] = ModelFile.getBinaryPath(vocabularyPath);
+		
+		if(this.quantization != null) {
+			String quantizedPath = compiledPath.substring(0, compiledPath.length() - 4) + this.quantization.getFileSuffix() + ".bin";
+			if(!this.measureDrift && CompiledModel.isUpToDate(quantizedPath, sources)) {
+				this.model = QuantizedModel.load(quantizedPath);
+				return;
+			}
+			CompiledModel compiled = loadCompiled(compiledPath, sources, dictionaryPaths, vocabularyPath);
+			QuantizedModel quantized = QuantizedModel.quantize(compiled, this.quantization);
+			try {
+				quantized.save(quantizedPath);
+			} catch (IOException e) {
+				System.err.println("Das quantisierte Modell " + quantizedPath + " konnte nicht gespeichert werden: " + e.getMessage());
+			}
+			this.model = quantized;
+			if(this.measureDrift) {
+				this.reference = compiled; //Sonst bleibt nur das kleine Modell im Speicher
+			}
+			return;
+		}
+		this.model = loadCompiled(compiledPath, sources, dictionaryPaths, vocabularyPath);
+	}
+	
+	/**
+	 * Lädt das kompilierte Modell, wenn es nicht älter als seine Quellen ist. Sonst werden die Wörterbücher geladen, kompiliert und das
+	 * Ergebnis gespeichert.
+	 * 
+	 * @param compiledPath		Der Pfad des kompilierten Modells.
+	 * @param sources			Die Pfade aller Dateien, aus denen das kompilierte Modell entsteht.
+	 * @param dictionaryPaths	Die Pfade der Wörterbücher, Index ist die Kategorie.
+	 * @param vocabularyPath	Der Pfad des kombinierten Vokabulars.
+	 * 
+	 * @return Das kompilierte Modell
+	 * 
+	 * @throws IOException
+	 */
+	private CompiledModel loadCompiled(String compiledPath, String[] sources, String[] dictionaryPaths, String vocabularyPath) throws IOException {
+		if(CompiledModel.isUpToDate(compiledPath, sources)) {
+			return CompiledModel.load(compiledPath);
+		}
+		
+		//Alle Wörterbücher und das Vokabular werden gleichzeitig geladen
+		ModelLoader files = ModelLoader.load(dictionaryPaths, this.deriveVocabulary ? null : vocabularyPath);
+		DictionaryView[] dictionaries = files.getDictionaries();
+		VocabularyView vocabulary = this.deriveVocabulary ? VocabularyCombiner.fromDictionaries(dictionaries) : files.getVocabulary();
+		
+		CompiledModel compiled = CompiledModel.compile(this.categories, dictionaries, calculatePriors(dictionaries), vocabulary, SMOOTHING_LAPLACE, this.pruned);
+		try {
+			compiled.save(compiledPath);
+		} catch (IOException e) {
+			//Ohne gespeichertes Modell wird beim nächsten Mal eben wieder kompiliert
+			System.err.println("Das kompilierte Modell " + compiledPath + " konnte nicht gespeichert werden: " + e.getMessage());
+		}
+		return compiled;
+	}
+	
+	/**
+	 * Lädt die gehashten Modelle der Kategorien von dort, wo der {@link DictionaryCreator} sie abgelegt hat, und fügt sie zu einem
+	 * {@link HashedModel} zusammen. Nur mit {@link #setHashedBuckets(int, boolean)} werden zusätzlich die Wörterbücher gelesen, um
+	 * auszugeben, wie viele Begriffe sich einen Eimer teilen.
+	 * 
+	 * @param filtering			Wurde gefiltert oder nicht?
+	 * @param dictionaryPaths	Die Pfade der Wörterbücher, Index ist die Kategorie. Nur für die Kollisionen.
+	 * 
+	 * @return Das gehashte Modell
+	 * 
+	 * @throws IOException	Ein gehashtes Modell fehlt, ist älter als sein Wörterbuch oder hat zu wenige Eimer.
+	 */
+	private HashedModel loadHashed(boolean filtering, String[] dictionaryPaths) throws IOException {
+		HashedModel[] parts = new HashedModel[this.categories.length];
+		for(int c = 0; c < this.categories.length; c++) {
+			String dictionaryPath = DictionaryCreator.getDictionaryPath(this.categories[c], this.mode, filtering);
+			Path path = Paths.get(HashedModel.getHashedPath(dictionaryPath));
+			if(!Files.exists(path)) {
+				throw new IOException("Das gehashte Modell " + path + " fehlt und muss mit DictionaryCreator#setHashedBuckets erstellt werden!");
+			}
+			Path dictionary = Paths.get(dictionaryPath);
+			if(Files.exists(dictionary) && Files.getLastModifiedTime(path).compareTo(Files.getLastModifiedTime(dictionary)) < 0) {
+				//Das Wörterbuch wurde ohne gehashtes Modell neu erstellt oder aktualisiert
+				throw new IOException("Das gehashte Modell " + path + " ist älter als das Wörterbuch und muss neu erstellt werden!");
+			}
+			parts[c] = HashedModel.load(path.toString());
+			if(parts[c].getBuckets() < this.hashedBuckets) {
+				throw new IOException("Das gehashte Modell " + path + " hat nur " + parts[c].getBuckets() + " Eimer!");
+			}
+		}
+		HashedModel hashed = HashedModel.combine(this.categories, parts, this.hashedBuckets);
+		
+		if(this.collisionStatistics) {
+			HashSet<String> terms = new HashSet<String>();
+			for(DictionaryView dictionary : ModelLoader.loadDictionaries(dictionaryPaths)) {
+				terms.addAll(dictionary.getEntries().keySet());
+			}
+			System.out.println(HashedModel.getCollisionStatistics(terms, this.hashedBuckets));
+		}
+		return hashed;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Zeitungsartikel zurück, aus denen die geladenen Wörterbücher entstanden sind. Fehlt diese Anzahl in einem
+	 * Wörterbuch (ältere Modelle), werden die Zahlen des ursprünglichen Trainingsdatensatzes genutzt. Bei anderen Kategorien als denen
+	 * von Modell_1 und Modell_2 sind dann alle Kategorien gleich wahrscheinlich.
+	 * 
+	 * @param dictionaries	Die Wörterbücher, Index ist die Kategorie.
+	 * 
+	 * @return Die Anzahl der Zeitungsartikel, Index ist die Kategorie
+	 */
+	private int[] countDocuments(DictionaryView[] dictionaries) {
+		int[] documents = new int[dictionaries.length];
+		for(int c = 0; c < dictionaries.length; c++) {
+			documents[c] = dictionaries[c].getDocuments();
+		}
+		for(int d : documents) {
+			if(d == 0) {
+				if(dictionaries.length == DOCUMENTS_TRAINING.length && Arrays.equals(this.categories, CATEGORIES)) {
+					return DOCUMENTS_TRAINING;
+				}
+				Arrays.fill(documents, 1);
+				return documents;
+			}
+		}
+		return documents;
+	}
+	
+	/**
+	 * Berechnet die A-priori-Wahrscheinlichkeiten aus der Anzahl der Zeitungsartikel, aus denen die geladenen Wörterbücher entstanden sind,
+	 * siehe {@link #countDocuments(DictionaryView[])}.
+	 * 
+	 * @param dictionaries	Die Wörterbücher, Index ist die Kategorie.
+	 * 
+	 * @return Die A-priori-Wahrscheinlichkeiten, Index ist die Kategorie
+	 */
+	private double[] calculatePriors(DictionaryView[] dictionaries) {
+		int[] documents = countDocuments(dictionaries);
+		
+		int total = 0;
+		for(int d : documents) {
+			total += d;
+		}
+		double[] priors = new double[documents.length];
+		for(int i = 0; i < documents.length; i++) {
+			priors[i] = (double) documents[i] / total;
+		}
+		return priors;
+	}
 }
\ No newline at end of file
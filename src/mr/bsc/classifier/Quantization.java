@@ -0,0 +1,46 @@
+package mr.bsc.classifier;
+
+/**
+ * Die Genauigkeit, mit der ein {@link QuantizedModel} die logarithmierten Wahrscheinlichkeiten speichert.
+ * 
+ * <p>{@link #FLOAT16}: Halbe Genauigkeit nach IEEE 754, 2 Bytes pro Wert. Der relative Fehler liegt unter 0,05 %.</p>
+ * <p>{@link #INT8}: Ganzzahlen mit einem Byte pro Wert, linear zwischen dem kleinsten und größten Wert jeder Kategorie verteilt.</p>
+ * 
+ * Das {@link CompiledModel} speichert jeden Wert als {@code double} mit 8 Bytes.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public enum Quantization {
+	
+	FLOAT16,
+	INT8;
+	
+	/**
+	 * Gibt die Anzahl der Bytes zurück, die ein Wert belegt.
+	 * 
+	 * @return Die Anzahl der Bytes pro Wert
+	 */
+	public int getBytesPerValue() {
+		switch(this) {
+			case INT8:
+				return 1;
+			default:
+				return 2;
+		}
+	}
+	
+	/**
+	 * Gibt die Endung zurück, mit der die Datei eines quantisierten Modells benannt wird.
+	 * 
+	 * @return Die Endung des Dateinamens, z. B. {@code Int8}
+	 */
+	public String getFileSuffix() {
+		switch(this) {
+			case INT8:
+				return "Int8";
+			default:
+				return "Float16";
+		}
+	}
+}
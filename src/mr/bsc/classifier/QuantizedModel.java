@@ -0,0 +1,426 @@
+package mr.bsc.classifier;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import mr.bsc.dict.DictionaryCreator;
+import mr.bsc.dict.TermVector;
+
+/**
+ * Ein {@link CompiledModel} mit verringerter Genauigkeit, siehe {@link Quantization}. Die Tabelle Begriff × Kategorie belegt statt 8 Bytes
+ * nur noch 2 oder 1 Byte pro Wert. Die A-priori-Wahrscheinlichkeiten und die Werte für unbekannte Begriffe bleiben {@code double}.
+ *
+ * Bei {@link Quantization#INT8} wird jede Kategorie für sich linear quantisiert: {@code wert = offset + (code + 128) * scale}, mit dem
+ * kleinsten Wert der Kategorie als {@code offset}. Beim Bewerten werden nur die Codes als Ganzzahlen aufsummiert, erst am Ende wird einmal
+ * mit {@code scale} multipliziert. Bei {@link Quantization#FLOAT16} wird jeder Wert über eine Tabelle mit allen 65536 möglichen Werten
+ * zurückgewandelt, da Java 10 keine Umwandlung für halbe Genauigkeit mitbringt.
+ *
+ * Aufbau der Datei: MAGIC, FORMAT_VERSION, Name der {@link Quantization}, Anzahl der Kategorien k, Namen der Kategorien, ob unbekannte
+ * Begriffe ignoriert werden, k A-priori-Werte, k Werte für unbekannte Begriffe, bei INT8 k Offsets und k Skalen, Anzahl der Begriffe und
+ * für jeden Begriff der Begriff selbst und seine k Codes.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class QuantizedModel implements ScoringModel {
+
+	/*
+	 * Kennung und Version des Dateiformats. Muss erhöht werden, wenn sich der Aufbau der Datei ändert.
+	 */
+	private final static int MAGIC = 0x47514E54; //"GQNT"
+	private final static int FORMAT_VERSION = 1;
+
+	/*
+	 * Alle 65536 Werte mit halber Genauigkeit als float, Index ist das Bitmuster.
+	 */
+	private final static float[] HALF_TO_FLOAT = new float[1 << 16];
+
+	static {
+		for(int h = 0; h < HALF_TO_FLOAT.length; h++) {
+			HALF_TO_FLOAT[h] = halfToFloat((short) h);
+		}
+	}
+
+	private final Quantization quantization;
+	private final String[] classes;
+	private final boolean skipUnknown;
+	private final double[] logPriors;
+	private final double[] unseen;
+	private final double[] offsets;	//Nur INT8, pro Kategorie
+	private final double[] scales;	//Nur INT8, pro Kategorie
+
+	private final String[] terms;
+	private final byte[] codes;		//Nur INT8, Zeile für Zeile, k Werte pro Begriff
+	private final short[] halves;	//Nur FLOAT16, Zeile für Zeile, k Werte pro Begriff
+	private final int[] rows;		//Index ist die Term-ID, -1 heißt keine Zeile
+
+	private QuantizedModel(Quantization quantization, String[] classes, boolean skipUnknown, double[] logPriors, double[] unseen,
+			double[] offsets, double[] scales, String[] terms, byte[] codes, short[] halves) {
+		this.quantization = quantization;
+		this.classes = classes;
+		this.skipUnknown = skipUnknown;
+		this.logPriors = logPriors;
+		this.unseen = unseen;
+		this.offsets = offsets;
+		this.scales = scales;
+		this.terms = terms;
+		this.codes = codes;
+		this.halves = halves;
+		this.rows = CompiledModel.indexRows(terms);
+	}
+
+	/**
+	 * Quantisiert ein kompiliertes Modell.
+	 *
+	 * @param model			Das kompilierte Modell.
+	 * @param quantization	Die gewünschte Genauigkeit.
+	 *
+	 * @return Das quantisierte Modell
+	 */
+	public static QuantizedModel quantize(CompiledModel model, Quantization quantization) {
+		int k = model.getClassCount();
+		String[] classes = new String[k];
+		double[] logPriors = new double[k];
+		double[] unseen = new double[k];
+		for(int c = 0; c < k; c++) {
+			classes[c] = model.getClassName(c);
+			logPriors[c] = model.getLogPrior(c);
+			unseen[c] = model.getUnseen(c);
+		}
+		String[] terms = model.getTerms();
+		int n = terms.length;
+
+		if(quantization == Quantization.FLOAT16) {
+			short[] halves = new short[n * k];
+			for(int r = 0; r < n; r++) {
+				for(int c = 0; c < k; c++) {
+					halves[r * k + c] = floatToHalf((float) model.value(r, c));
+				}
+			}
+			return new QuantizedModel(quantization, classes, model.isSkipUnknown(), logPriors, unseen, null, null, terms, null, halves);
+		}
+
+		double[] offsets = new double[k];
+		double[] scales = new double[k];
+		for(int c = 0; c < k; c++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for(int r = 0; r < n; r++) {
+				min = Math.min(min, model.value(r, c));
+				max = Math.max(max, model.value(r, c));
+			}
+			offsets[c] = n == 0 ? 0 : min;
+			scales[c] = n == 0 || max == min ? 1 : (max - min) / 255;
+		}
+		byte[] codes = new byte[n * k];
+		for(int r = 0; r < n; r++) {
+			for(int c = 0; c < k; c++) {
+				codes[r * k + c] = (byte) (Math.round((model.value(r, c) - offsets[c]) / scales[c]) - 128);
+			}
+		}
+		return new QuantizedModel(quantization, classes, model.isSkipUnknown(), logPriors, unseen, offsets, scales, terms, codes, null);
+	}
+
+	/**
+	 * Bewertet einen zerlegten Zeitungsartikel für eine einzelne Kategorie. Für alle Kategorien ist {@link #score(TermVector, double[])}
+	 * schneller, da die Begriffe dort nur einmal nachgeschlagen werden.
+	 *
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels.
+	 * @param c		Der Index der Kategorie.
+	 *
+	 * @return Der Logarithmus der (nicht normierten) A-posteriori-Wahrscheinlichkeit
+	 */
+	public double score(TermVector words, int c) {
+		int k = this.classes.length;
+		long unknown = 0;
+		if(this.codes != null) {
+			long known = 0;
+			long sum = 0;
+			for(int i = 0; i < words.size(); i++) {
+				int id = words.termId(i);
+				int row = id < this.rows.length ? this.rows[id] : -1;
+				if(row >= 0) {
+					known += words.count(i);
+					sum += words.count(i) * (this.codes[row * k + c] + 128);
+				} else if(!this.skipUnknown) {
+					unknown += words.count(i);
+				}
+			}
+			return this.logPriors[c] + known * this.offsets[c] + sum * this.scales[c] + unknown * this.unseen[c];
+		}
+
+		double probability = this.logPriors[c];
+		for(int i = 0; i < words.size(); i++) {
+			int id = words.termId(i);
+			int row = id < this.rows.length ? this.rows[id] : -1;
+			if(row >= 0) {
+				probability += words.count(i) * HALF_TO_FLOAT[this.halves[row * k + c] & 0xFFFF];
+			} else if(!this.skipUnknown) {
+				unknown += words.count(i);
+			}
+		}
+		return probability + unknown * this.unseen[c];
+	}
+
+	@Override
+	public void score(TermVector words, double[] scores) {
+		int k = this.classes.length;
+		long unknown = 0;
+		if(this.codes != null) {
+			//Erst nur die Codes aufsummieren, Ganzzahlen sind in einem double bis 2^53 exakt
+			long known = 0;
+			Arrays.fill(scores, 0, k, 0);
+			for(int i = 0; i < words.size(); i++) {
+				int id = words.termId(i);
+				int row = id < this.rows.length ? this.rows[id] : -1;
+				int count = words.count(i);
+				if(row >= 0) {
+					known += count;
+					int base = row * k;
+					for(int c = 0; c < k; c++) {
+						scores[c] += count * (this.codes[base + c] + 128);
+					}
+				} else if(!this.skipUnknown) {
+					unknown += count;
+				}
+			}
+			for(int c = 0; c < k; c++) {
+				scores[c] = this.logPriors[c] + known * this.offsets[c] + scores[c] * this.scales[c] + unknown * this.unseen[c];
+			}
+			return;
+		}
+
+		System.arraycopy(this.logPriors, 0, scores, 0, k);
+		for(int i = 0; i < words.size(); i++) {
+			int id = words.termId(i);
+			int row = id < this.rows.length ? this.rows[id] : -1;
+			int count = words.count(i);
+			if(row >= 0) {
+				int base = row * k;
+				for(int c = 0; c < k; c++) {
+					scores[c] += count * HALF_TO_FLOAT[this.halves[base + c] & 0xFFFF];
+				}
+			} else if(!this.skipUnknown) {
+				unknown += count;
+			}
+		}
+		for(int c = 0; c < k; c++) {
+			scores[c] += unknown * this.unseen[c];
+		}
+	}
+
+	@Override
+	public int getClassCount() {
+		return this.classes.length;
+	}
+
+	@Override
+	public String getClassName(int c) {
+		return this.classes[c];
+	}
+
+	/**
+	 * Gibt die Genauigkeit zurück, mit der die Tabelle gespeichert ist.
+	 *
+	 * @return Die {@link Quantization}
+	 */
+	public Quantization getQuantization() {
+		return this.quantization;
+	}
+
+	/**
+	 * Gibt die Anzahl der Begriffe (Zeilen der Tabelle) zurück.
+	 *
+	 * @return Die Anzahl der Begriffe als {@link int}
+	 */
+	public int size() {
+		return this.terms.length;
+	}
+
+	/**
+	 * Gibt den Speicherbedarf der Tabelle, des Index auf die Zeilen und der Begriffe in Bytes zurück, vergleichbar mit
+	 * {@link CompiledModel#getMemory()}. Die Begriffe belegen unabhängig von der {@link Quantization} gleich viel.
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	@Override
+	public long getMemory() {
+		return (long) this.terms.length * this.classes.length * this.quantization.getBytesPerValue() + (long) this.rows.length * Integer.BYTES
+				+ CompiledModel.getTermMemory(this.terms);
+	}
+
+	/**
+	 * Wandelt einen float in halbe Genauigkeit um. Es wird zum nächsten darstellbaren Wert gerundet, bei Gleichstand zum geraden.
+	 *
+	 * @param f	Der Wert.
+	 *
+	 * @return Das Bitmuster mit halber Genauigkeit
+	 */
+	static short floatToHalf(float f) {
+		int bits = Float.floatToIntBits(f);
+		int sign = (bits >>> 16) & 0x8000;
+		int exponent = ((bits >>> 23) & 0xFF) - 127 + 15;
+		int mantissa = bits & 0x7FFFFF;
+		if(((bits >>> 23) & 0xFF) == 0xFF) {
+			return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0)); //Unendlich oder NaN
+		}
+		if(exponent >= 0x1F) {
+			return (short) (sign | 0x7C00); //Zu groß, wird unendlich
+		}
+		if(exponent <= 0) {
+			if(exponent < -10) {
+				return (short) sign; //Zu klein, wird 0
+			}
+			//Subnormale Zahl: Die führende 1 wird Teil der Mantisse
+			mantissa |= 0x800000;
+			int shift = 14 - exponent;
+			int half = mantissa >> shift;
+			int rest = mantissa & ((1 << shift) - 1);
+			int middle = 1 << (shift - 1);
+			if(rest > middle || (rest == middle && (half & 1) != 0)) {
+				half++;
+			}
+			return (short) (sign | half);
+		}
+		int half = (exponent << 10) | (mantissa >> 13);
+		int rest = mantissa & 0x1FFF;
+		if(rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0)) {
+			half++; //Ein Übertrag in den Exponenten ist richtig, im Extremfall wird der Wert unendlich
+		}
+		return (short) (sign | half);
+	}
+
+	/**
+	 * Wandelt einen Wert mit halber Genauigkeit in einen float um.
+	 *
+	 * @param h	Das Bitmuster mit halber Genauigkeit.
+	 *
+	 * @return Der Wert als float
+	 */
+	static float halfToFloat(short h) {
+		int sign = (h & 0x8000) << 16;
+		int exponent = (h >>> 10) & 0x1F;
+		int mantissa = h & 0x3FF;
+		if(exponent == 0x1F) {
+			return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+		}
+		if(exponent == 0) {
+			float value = mantissa * 0x1p-24f;
+			return sign != 0 ? -value : value;
+		}
+		return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+	}
+
+	/**
+	 * Speichert das quantisierte Modell. Die Datei wird zuerst in eine temporäre Datei geschrieben und dann verschoben.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @throws IOException
+	 */
+	public void save(String path) throws IOException {
+		DictionaryCreator.writeAtomically(path, out -> {
+			int k = this.classes.length;
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(this.quantization.name());
+			out.writeInt(k);
+			for(String name : this.classes) {
+				out.writeUTF(name);
+			}
+			out.writeBoolean(this.skipUnknown);
+			for(int c = 0; c < k; c++) {
+				out.writeDouble(this.logPriors[c]);
+			}
+			for(int c = 0; c < k; c++) {
+				out.writeDouble(this.unseen[c]);
+			}
+			if(this.codes != null) {
+				for(int c = 0; c < k; c++) {
+					out.writeDouble(this.offsets[c]);
+				}
+				for(int c = 0; c < k; c++) {
+					out.writeDouble(this.scales[c]);
+				}
+			}
+			out.writeInt(this.terms.length);
+			for(int r = 0; r < this.terms.length; r++) {
+				out.writeUTF(this.terms[r]);
+				for(int c = 0; c < k; c++) {
+					if(this.codes != null) {
+						out.writeByte(this.codes[r * k + c]);
+					} else {
+						out.writeShort(this.halves[r * k + c]);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Lädt ein quantisiertes Modell.
+	 *
+	 * @param path	Der Pfad der Datei.
+	 *
+	 * @return Das quantisierte Modell
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder hat ein unbekanntes Format.
+	 */
+	public static QuantizedModel load(String path) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(path)), 1 << 16))) {
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				throw new IOException("Die Datei " + path + " ist kein quantisiertes Modell oder hat eine veraltete Version!");
+			}
+			Quantization quantization;
+			try {
+				quantization = Quantization.valueOf(in.readUTF());
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Die Datei " + path + " hat eine unbekannte Quantisierung!", e);
+			}
+			int k = in.readInt();
+			String[] classes = new String[k];
+			for(int c = 0; c < k; c++) {
+				classes[c] = in.readUTF();
+			}
+			boolean skipUnknown = in.readBoolean();
+			double[] logPriors = new double[k];
+			for(int c = 0; c < k; c++) {
+				logPriors[c] = in.readDouble();
+			}
+			double[] unseen = new double[k];
+			for(int c = 0; c < k; c++) {
+				unseen[c] = in.readDouble();
+			}
+			double[] offsets = null;
+			double[] scales = null;
+			if(quantization == Quantization.INT8) {
+				offsets = new double[k];
+				for(int c = 0; c < k; c++) {
+					offsets[c] = in.readDouble();
+				}
+				scales = new double[k];
+				for(int c = 0; c < k; c++) {
+					scales[c] = in.readDouble();
+				}
+			}
+			String[] terms = new String[in.readInt()];
+			byte[] codes = quantization == Quantization.INT8 ? new byte[terms.length * k] : null;
+			short[] halves = quantization == Quantization.FLOAT16 ? new short[terms.length * k] : null;
+			for(int r = 0; r < terms.length; r++) {
+				terms[r] = in.readUTF();
+				for(int c = 0; c < k; c++) {
+					if(codes != null) {
+						codes[r * k + c] = in.readByte();
+					} else {
+						halves[r * k + c] = in.readShort();
+					}
+				}
+			}
+			return new QuantizedModel(quantization, classes, skipUnknown, logPriors, unseen, offsets, scales, terms, codes, halves);
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package mr.bsc.classifier;
+
+import mr.bsc.dict.TermMapping;
+import mr.bsc.dict.TermVector;
+
+/**
+ * Ein Vorhersagemodell des naiven Bayes-Klassifikators für beliebig viele Kategorien. Ein zerlegter Zeitungsartikel wird in einem einzigen
+ * Durchlauf über seine Begriffe bewertet: Für jeden Begriff wird einmal nachgeschlagen und sein Beitrag zu allen Kategorien in ein
+ * Array addiert. Der Aufwand pro Artikel wächst also mit der Anzahl der Kategorien nur um die Additionen, nicht um weitere Durchläufe.
+ *
+ * Die A-priori-Wahrscheinlichkeiten stecken im Modell selbst und sind bereits in den Bewertungen enthalten.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public interface ScoringModel {
+
+	/**
+	 * Bewertet einen zerlegten Zeitungsartikel für alle Kategorien in einem Durchlauf.
+	 *
+	 * @param words		Die Wörter des zerlegten Zeitungsartikels.
+	 * @param scores	Das Array für die Bewertungen, mindestens so lang wie {@link #getClassCount()}. Wird überschrieben, Index ist die
+	 * 					Kategorie, der Wert der Logarithmus der (nicht normierten) A-posteriori-Wahrscheinlichkeit.
+	 */
+	void score(TermVector words, double[] scores);
+
+	/**
+	 * Gibt die Anzahl der Kategorien zurück.
+	 *
+	 * @return Die Anzahl der Kategorien als {@link int}
+	 */
+	int getClassCount();
+
+	/**
+	 * Gibt den Namen einer Kategorie zurück.
+	 *
+	 * @param c	Der Index der Kategorie.
+	 *
+	 * @return Der Name der Kategorie
+	 */
+	String getClassName(int c);
+
+	/**
+	 * Gibt den Speicherbedarf der Tabellen des Modells in Bytes zurück, einschließlich der Begriffe, die das Modell festhält.
+	 *
+	 * @return Der Speicherbedarf in Bytes
+	 */
+	long getMemory();
+
+	/**
+	 * Gibt zurück, wie der {@link mr.bsc.dict.ArticleAnalyzer} die Begriffe für dieses Modell nummerieren muss. Standard sind die Term-IDs
+	 * der {@link mr.bsc.dict.TermTable}, die Begriffe werden aber nur nachgeschlagen und nicht eingetragen (siehe {@link TermMapping#LOOKUP}).
+	 * Alle Begriffe des Modells wurden beim Laden interniert, ein unbekannter Begriff ist für das Modell ohnehin ungesehen.
+	 *
+	 * @return Die {@link TermMapping} für {@link #score(TermVector, double[])}
+	 */
+	default TermMapping getTermMapping() {
+		return TermMapping.LOOKUP;
+	}
+
+	/**
+	 * Bewertet einen zerlegten Zeitungsartikel für alle Kategorien.
+	 *
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels.
+	 *
+	 * @return Die Bewertungen, Index ist die Kategorie
+	 */
+	default double[] score(TermVector words) {
+		double[] scores = new double[getClassCount()];
+		score(words, scores);
+		return scores;
+	}
+
+	/**
+	 * Ordnet einen zerlegten Zeitungsartikel der Kategorie mit der größten Bewertung zu. Bei Gleichstand gewinnt die Kategorie mit dem
+	 * kleineren Index.
+	 *
+	 * @param words	Die Wörter des zerlegten Zeitungsartikels.
+	 *
+	 * @return Der Index der Kategorie
+	 */
+	default int classify(TermVector words) {
+		return argmax(score(words));
+	}
+
+	/**
+	 * Gibt den Index der größten Bewertung zurück. Bei Gleichstand gewinnt der kleinere Index.
+	 *
+	 * @param scores	Die Bewertungen, Index ist die Kategorie.
+	 *
+	 * @return Der Index der Kategorie
+	 */
+	static int argmax(double[] scores) {
+		int biggest = 0;
+		for(int c = 1; c < scores.length; c++) {
+			if(scores[c] > scores[biggest]) {
+				biggest = c;
+			}
+		}
+		return biggest;
+	}
+}
@@ -0,0 +1,51 @@
+package mr.bsc.dict;
+
+/**
+ * Die Art, wie Zeitungsartikel annotiert werden, bevor der {@link ArticleAnalyzer} sie zerlegt.
+ * 
+ * <p>{@link #FULL}: Vollständige Annotation mit POS-Tagger ({@link PosTaggingAnnotator}). Damit sind Modell_1 und Modell_2 entstanden.</p>
+ * <p>{@link #FAST}: Annotation ohne POS-Tagger ({@link TokenizingAnnotator}). Für große Mengen an Artikeln, bei denen ein kleiner Verlust
+ * an Genauigkeit für einen deutlich höheren Durchsatz in Kauf genommen wird.</p>
+ * 
+ * Da beide Arten unterschiedliche Wörter liefern, dürfen Vorhersagemodelle nur mit der Art genutzt werden, mit der sie erstellt wurden.
+ * Deshalb tragen die Dateien der Modelle die Art im Namen, siehe {@link #getFileSuffix(boolean)}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public enum AnalysisMode {
+	
+	FULL,
+	FAST;
+	
+	/**
+	 * Erstellt die Strategie, mit der in dieser Art annotiert wird.
+	 * 
+	 * @return Ein neuer {@link ArticleAnnotator}
+	 */
+	public ArticleAnnotator createAnnotator() {
+		switch(this) {
+			case FAST:
+				return new TokenizingAnnotator();
+			default:
+				return new PosTaggingAnnotator();
+		}
+	}
+	
+	/**
+	 * Gibt die Endung zurück, mit der die Dateien eines Vorhersagemodells dieser Art benannt werden. Für {@link #FULL} sind das weiterhin 
+	 * die bekannten Endungen von Modell_1 ({@code Cleaned}) und Modell_2 ({@code CleanFiltered}).
+	 * 
+	 * @param filtering	Wurde gefiltert oder nicht?
+	 * 
+	 * @return Die Endung des Dateinamens, z. B. {@code CleanFiltered}
+	 */
+	public String getFileSuffix(boolean filtering) {
+		switch(this) {
+			case FAST:
+				return filtering ? "FastFiltered" : "Fast";
+			default:
+				return filtering ? "CleanFiltered" : "Cleaned";
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package mr.bsc.dict;
+
+import java.util.List;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.util.CoreMap;
+
+/**
+ * Ein annotierter Zeitungsartikel. Die Wörter, Lemmata und POS-Tags aller Sätze liegen hintereinander in drei gleich langen Arrays,
+ * die Satzgrenzen werden in {@link #sentenceStarts} festgehalten. So muss beim Zerlegen jeder Satz genau einmal von vorne nach hinten
+ * durchlaufen werden, ohne dass Listen neu aufgebaut oder Indizes gesucht werden müssen.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class AnnotatedArticle {
+
+	/*
+	 * Markiert einen Artikel, dessen Annotation wegen Überschreitung des Zeitbudgets abgebrochen wurde. Enthält keine Sätze.
+	 */
+	public final static AnnotatedArticle TIMED_OUT = new AnnotatedArticle(new String[0], new String[0], new String[0], new int[1]);
+
+	private final String[] words;
+	private final String[] lemmas;
+	private final String[] tags;
+
+	/*
+	 * Der Index des ersten Tokens jedes Satzes. Der letzte Eintrag ist die Anzahl aller Tokens, damit gilt für jeden Satz i:
+	 * sentenceStarts[i] <= Token < sentenceStarts[i + 1]
+	 */
+	private final int[] sentenceStarts;
+
+	public AnnotatedArticle(String[] words, String[] lemmas, String[] tags, int[] sentenceStarts) {
+		this.words = words;
+		this.lemmas = lemmas;
+		this.tags = tags;
+		this.sentenceStarts = sentenceStarts;
+	}
+
+	/**
+	 * Übernimmt Wörter und POS-Tags aus den Sätzen einer CoreNLP-Annotation in einem einzigen Durchlauf. Die Lemmata kommen aus dem
+	 * {@link LemmaCache}, deshalb braucht die Pipeline keinen eigenen Lemmatisierer.
+	 *
+	 * @param sentences	Die annotierten Sätze.
+	 * @param cache		Der Cache, aus dem die Lemmata gelesen werden.
+	 *
+	 * @return Der annotierte Zeitungsartikel
+	 */
+	public static AnnotatedArticle fromSentences(List<CoreMap> sentences, LemmaCache cache) {
+		int size = 0;
+		for(CoreMap sentence : sentences) {
+			size += sentence.get(CoreAnnotations.TokensAnnotation.class).size();
+		}
+
+		String[] words = new String[size];
+		String[] lemmas = new String[size];
+		String[] tags = new String[size];
+		int[] sentenceStarts = new int[sentences.size() + 1];
+
+		int i = 0;
+		int s = 0;
+		for(CoreMap sentence : sentences) {
+			sentenceStarts[s++] = i;
+			for(CoreLabel token : sentence.get(CoreAnnotations.TokensAnnotation.class)) {
+				words[i] = token.word();
+				tags[i] = token.tag();
+				lemmas[i] = cache.lemma(words[i], tags[i]);
+				i++;
+			}
+		}
+		sentenceStarts[s] = i;
+
+		return new AnnotatedArticle(words, lemmas, tags, sentenceStarts);
+	}
+
+	/**
+	 * Gibt die Anzahl aller Tokens des Artikels zurück.
+	 *
+	 * @return Die Anzahl der Tokens als {@link int}
+	 */
+	public int size() {
+		return this.words.length;
+	}
+
+	/**
+	 * Gibt die Anzahl der Sätze des Artikels zurück.
+	 *
+	 * @return Die Anzahl der Sätze als {@link int}
+	 */
+	public int sentences() {
+		return this.sentenceStarts.length - 1;
+	}
+
+	/**
+	 * Gibt den Index des ersten Tokens eines Satzes zurück.
+	 *
+	 * @param sentence	Der Index des Satzes.
+	 *
+	 * @return Der Index des ersten Tokens
+	 */
+	public int sentenceStart(int sentence) {
+		return this.sentenceStarts[sentence];
+	}
+
+	/**
+	 * Gibt den Index hinter dem letzten Token eines Satzes zurück.
+	 *
+	 * @param sentence	Der Index des Satzes.
+	 *
+	 * @return Der Index hinter dem letzten Token
+	 */
+	public int sentenceEnd(int sentence) {
+		return this.sentenceStarts[sentence + 1];
+	}
+
+	public String word(int token) {
+		return this.words[token];
+	}
+
+	public String lemma(int token) {
+		return this.lemmas[token];
+	}
+
+	public String tag(int token) {
+		return this.tags[token];
+	}
+}
@@ -0,0 +1,230 @@
+package mr.bsc.dict;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.stanford.nlp.pipeline.DefaultPaths;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Ein Cache auf der Festplatte, in dem die Annotationen von Zeitungsartikeln abgelegt werden. Training, Klassifikation und Vergleich arbeiten
+ * immer wieder mit denselben Artikeln. Ist ein Artikel bereits einmal annotiert worden, muss der POS-Tagger für ihn nicht noch einmal laufen.
+ *
+ * Der Schlüssel eines Artikels ist der SHA-256-Hash aus Überschrift und Textkörper. Alle Einträge liegen in einem Unterverzeichnis, dessen
+ * Name aus dem Fingerabdruck der Annotation gebildet wird (CoreNLP-Version, POS-Modell und Einstellungen der Pipeline).
+ * Ändert sich einer dieser Werte, landet der Cache automatisch in einem neuen Verzeichnis und alte Einträge werden nicht mehr gelesen.
+ *
+ * Ein Eintrag ist binär aufgebaut: Kopf (Magic, Version, Fingerabdruck), Satzgrenzen, eine Tabelle aller im Artikel vorkommenden Strings und
+ * für jedes Token die Indizes von Wort, Lemma und POS-Tag in dieser Tabelle. Alle Zahlen werden als Varint geschrieben.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class AnnotationCache {
+
+	/*
+	 * Kennung und Version des Dateiformats. Muss erhöht werden, wenn sich der Aufbau eines Eintrags ändert.
+	 */
+	private final static int MAGIC = 0x47414E4E; //"GANN"
+	private final static int FORMAT_VERSION = 1;
+
+	private final Path directory;
+	private final String fingerprint;
+
+	/**
+	 * Erstellt einen Cache im angegebenen Verzeichnis.
+	 *
+	 * @param directory		Das Basisverzeichnis des Caches.
+	 * @param settings		Die Einstellungen der Pipeline, die Einfluss auf die Annotation haben, siehe {@link PipelinePool#getSettings()}.
+	 */
+	public AnnotationCache(String directory, String settings) {
+		this.fingerprint = "corenlp=" + coreNlpVersion() + ";pos=" + DefaultPaths.DEFAULT_POS_MODEL + ";settings=" + settings + ";format=" + FORMAT_VERSION;
+		this.directory = Paths.get(directory, sha256(this.fingerprint).substring(0, 16));
+	}
+
+	/**
+	 * Gibt die Version von CoreNLP zurück, die gerade auf dem Klassenpfad liegt.
+	 *
+	 * @return Die Version aus dem Manifest der CoreNLP-Jar oder {@code unknown}
+	 */
+	private static String coreNlpVersion() {
+		String version = StanfordCoreNLP.class.getPackage().getImplementationVersion();
+		return version == null ? "unknown" : version;
+	}
+
+	/**
+	 * Berechnet den Schlüssel eines Zeitungsartikels.
+	 *
+	 * @param n	Der Zeitungsartikel.
+	 *
+	 * @return Der Schlüssel als Hex-String
+	 */
+	public String key(NewspaperArticle n) {
+		return sha256(n.getHeadline() + "\n" + n.getContent());
+	}
+
+	/**
+	 * Liest die Annotation eines Artikels aus dem Cache.
+	 *
+	 * @param key	Der Schlüssel des Artikels, siehe {@link #key(NewspaperArticle)}.
+	 *
+	 * @return Der annotierte Artikel oder {@code null}, wenn der Artikel (noch) nicht im Cache liegt
+	 */
+	public AnnotatedArticle load(String key) {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file(key))))) {
+			return read(in);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			//Ein kaputter Eintrag ist kein Grund abzubrechen, der Artikel wird dann eben neu annotiert
+			System.err.println("Cache-Eintrag " + key + " konnte nicht gelesen werden: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Legt die Annotation eines Artikels im Cache ab. Der Eintrag wird wie ein Modell mit {@link DictionaryCreator#writeAtomically(String,
+	 * DictionaryCreator.Content)} geschrieben, damit parallel laufende Prozesse nie einen halb geschriebenen Eintrag lesen.
+	 *
+	 * @param key		Der Schlüssel des Artikels, siehe {@link #key(NewspaperArticle)}.
+	 * @param article	Der annotierte Artikel.
+	 */
+	public void store(String key, AnnotatedArticle article) {
+		Path target = file(key);
+		try {
+			Files.createDirectories(target.getParent());
+			DictionaryCreator.writeAtomically(target.toString(), out -> write(out, article));
+		} catch (IOException e) {
+			System.err.println("Cache-Eintrag " + key + " konnte nicht geschrieben werden: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gibt die Datei eines Eintrags zurück. Die ersten beiden Zeichen des Schlüssels bilden ein Unterverzeichnis, damit kein Verzeichnis
+	 * zehntausende Dateien enthält.
+	 *
+	 * @param key	Der Schlüssel des Artikels.
+	 *
+	 * @return Der Pfad des Eintrags
+	 */
+	private Path file(String key) {
+		return this.directory.resolve(key.substring(0, 2)).resolve(key + ".ann");
+	}
+
+	private void write(DataOutputStream out, AnnotatedArticle article) throws IOException {
+		out.writeInt(MAGIC);
+		writeVarint(out, FORMAT_VERSION);
+		out.writeUTF(this.fingerprint);
+
+		writeVarint(out, article.sentences());
+		for(int s = 0; s < article.sentences(); s++) {
+			writeVarint(out, article.sentenceEnd(s) - article.sentenceStart(s));
+		}
+
+		//Wörter, Lemmata und POS-Tags wiederholen sich ständig, deshalb wird jeder String nur einmal geschrieben
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		ArrayList<String> strings = new ArrayList<String>();
+		int[] tokens = new int[article.size() * 3];
+		for(int i = 0; i < article.size(); i++) {
+			tokens[3 * i] = intern(article.word(i), ids, strings);
+			tokens[3 * i + 1] = intern(article.lemma(i), ids, strings);
+			tokens[3 * i + 2] = intern(article.tag(i), ids, strings);
+		}
+
+		writeVarint(out, strings.size());
+		for(String s : strings) {
+			out.writeUTF(s);
+		}
+		for(int id : tokens) {
+			writeVarint(out, id);
+		}
+	}
+
+	private AnnotatedArticle read(DataInputStream in) throws IOException {
+		if(in.readInt() != MAGIC || readVarint(in) != FORMAT_VERSION || !in.readUTF().equals(this.fingerprint)) {
+			throw new IOException("Unbekanntes Format oder veralteter Fingerabdruck");
+		}
+
+		int[] sentenceStarts = new int[readVarint(in) + 1];
+		for(int s = 1; s < sentenceStarts.length; s++) {
+			sentenceStarts[s] = sentenceStarts[s - 1] + readVarint(in);
+		}
+
+		String[] strings = new String[readVarint(in)];
+		for(int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF();
+		}
+
+		int size = sentenceStarts[sentenceStarts.length - 1];
+		String[] words = new String[size];
+		String[] lemmas = new String[size];
+		String[] tags = new String[size];
+		for(int i = 0; i < size; i++) {
+			words[i] = strings[readVarint(in)];
+			lemmas[i] = strings[readVarint(in)];
+			tags[i] = strings[readVarint(in)];
+		}
+
+		return new AnnotatedArticle(words, lemmas, tags, sentenceStarts);
+	}
+
+	private static int intern(String s, HashMap<String, Integer> ids, ArrayList<String> strings) {
+		Integer id = ids.get(s);
+		if(id == null) {
+			id = strings.size();
+			ids.put(s, id);
+			strings.add(s);
+		}
+		return id;
+	}
+
+	private static void writeVarint(OutputStream out, int value) throws IOException {
+		while((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static int readVarint(InputStream in) throws IOException {
+		int value = 0;
+		for(int shift = 0; shift < 32; shift += 7) {
+			int b = in.read();
+			if(b < 0) {
+				throw new IOException("Unerwartetes Dateiende");
+			}
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Ungültiger Varint");
+	}
+
+	private static String sha256(String text) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+			StringBuilder builder = new StringBuilder(hash.length * 2);
+			for(byte b : hash) {
+				builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return builder.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 wird von dieser JVM nicht unterstützt!", e);
+		}
+	}
+}
@@ -1,262 +1,579 @@
-package mr.bsc.dict;
-
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
-import edu.stanford.nlp.simple.Document;
-import edu.stanford.nlp.simple.Sentence;
-import mr.bsc.guardian.NewspaperArticle;
-
-/**
- * Diese Klasse vereint zwei Methoden, um einen Zeitungsartikel in seine Wörter zu zerlegen.
- * Die Methode {@link #analyze(NewspaperArticle, boolean)} entscheidet dabei, ob ein Zeitungsartikel ohne Filtern von Symbolen und
- * Stoppwörtern in <code>KEY:VALUE</code>-Paare zerlegt wird, oder mit.
- * 
- * @author Marius Rosenbaum
- *
- */
-public class ArticleAnalyzer {
-		
-	private StopWords stop;
-	private Symbols symbols;
-	
-	public ArticleAnalyzer() throws FileNotFoundException {
-		Gson gson = new GsonBuilder().setPrettyPrinting().create(); //Wie wir mittlerweile wissen, ist ein hübsches JSON die halbe Miete!
-		
-		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(DictionaryCreator.PATH_STOPWORDS), StandardCharsets.UTF_8));
-		this.stop = gson.fromJson(reader, StopWords.class);	
-		reader = new BufferedReader(new InputStreamReader(new FileInputStream(DictionaryCreator.PATH_SYMBOLS), StandardCharsets.UTF_8));
-		this.symbols = gson.fromJson(reader, Symbols.class);
-
-	}
-	
-	/**
-	 * Diese Methode entscheidet, wie ein Zeitungsartikel zerlegt wird. Wenn {@code filtering} true ist, dann werden Symbole und 
-	 * Stoppwörter herausgefiltert. Gleichzeitig werden Komposita als solche erkannt. Benn {@code filtering} false ist, dann findet
-	 * ein solches Filtern nicht statt.
-	 * 
-	 * @param n			Der Artikel, der zerlegt werden soll.
-	 * @param filtering	Soll gefiltert werden oder nicht?
-	 * 
-	 * @return Der in {@code KEY:VALUE}-Paare zerlegte Zeitungsartikel in der Form einer {@code HashMap<String, Integer>}
-	 */
-	public HashMap<String, Integer> analyze(NewspaperArticle n, boolean filtering) {
-		if(filtering) {
-			return analyze(n, this.symbols, this.stop);
-		} else {
-			return analyze(n);
-		}
-	}
-	
-	/**
-	 * Zerlegt einen Zeitungsartikel in {@code KEY:VALUE}-Paare, ohne ihn zu filtern.
-	 * 
-	 * @param n Der Artikel, der zerlegt werden soll.
-	 * 
-	 * @return Der in {@code KEY:VALUE}-Paare zerlegte Zeitungsartikel in der Form einer {@code HashMap<String, Integer>}
-	 */
-	private HashMap<String, Integer> analyze(NewspaperArticle n) {
-		HashMap<String, Integer> words = new HashMap<String, Integer>();
-		
-		Document doc = new Document(n.getHeadline() + ". " + n.getContent());
-		for(Sentence sent : doc.sentences()) {
-			for(String word : sent.words()) {
-				String lemma = sent.lemma(sent.words().indexOf(word)).toLowerCase();
-				if(words.keySet().contains(lemma)) {
-					words.put(lemma, words.get(lemma) + 1);
-				} else {
-					words.put(lemma, 1);			
-				}
-			}
-		}
-		
-		return words;
-	}
-
-	/**
-	 * Zerlegt einen Zeitungsartikel in {@code KEY:VALUE}-Paare, und filtert dabei Symbole und Stoppwörter. Gleichzeitig werden Komposita
-	 * als solche erkannt.
-	 * 
-	 * @param n 	Der Artikel, der zerlegt werden soll.
-	 * @param sym	Die Symbole, die rausgefiltert werden sollen.
-	 * @param stop	Die Stoppwörter, die rausgefiltert werden sollen.
-	 * 
-	 * @return Der in {@code KEY:VALUE}-Paare zerlegte Zeitungsartikel in der Form einer {@code HashMap<String, Integer>}
-	 */
-	private HashMap<String, Integer> analyze(NewspaperArticle n, Symbols sym, StopWords stop) {
-		HashMap<String, Integer> words = new HashMap<String, Integer>();
-		
-		Document doc = new Document(n.getHeadline() + ". " + n.getContent());
-		for(Sentence sent : doc.sentences()) {
-			ArrayList<Integer> usedIndexes = new ArrayList<Integer>();
-			
-			/**
-			 * Wenn der Satz nur 1 Wort enthält, dann können keine Komposita enthalten sein.
-			 */
-			if(sent.words().size() >= 2) {
-				ArrayList<Integer> nameIndexes = findNameIndexes(sent.posTags());
-				ArrayList<String> names = generateWordsFromIndexes(sent, nameIndexes);
-				for(String name : names) {
-					if(words.keySet().contains(name)) {
-						words.put(name, words.get(name) + 1);
-					} else {
-						words.put(name, 1);			
-					}
-				}
-				
-				ArrayList<Integer> compoundNounIndexes = findCompoundNounIndexes(sent.posTags());
-				ArrayList<String> compoundNouns = generateWordsFromIndexes(sent, compoundNounIndexes);
-				for(String s : compoundNouns) {
-					String noun = s.toLowerCase();
-					if(words.keySet().contains(noun)) {
-						words.put(noun, words.get(noun) + 1);
-					} else {
-						words.put(noun, 1);			
-					}
-				}
-				
-				//Fügt die Indizes der erkannten Namen und Komposita in eine Liste, damit diese Inzies übersprungen werden können.
-				for(int index : nameIndexes) 			{ if(index != -1) usedIndexes.add(index);}
-				for(int index : compoundNounIndexes) 	{ if(index != -1) usedIndexes.add(index);}
-			}
-				
-			for(int j = 0; j < sent.words().size(); j++) {
-				if(usedIndexes.contains(j)) { //Wurde bereits erkannt, kann überpsrungen werden.
-					continue;
-				} else {
-					String lemma = sent.lemma(j).toLowerCase();
-					if(isStoppwort(lemma, stop)) { //Ist das Wort ein Stoppwort und muss gefiltert werden?
-						continue;
-					} else if (isSymbol(lemma, sym)) { //Ist das Wort ein Symbol und muss gefiltert werden?
-						continue;
-					}
-					//Wort kann hinzugefügt werden.
-					if(words.keySet().contains(lemma)) { 
-						words.put(lemma, words.get(lemma) + 1); //Wort enthalten, also Anzahl erhöhen.
-					} else {
-						words.put(lemma, 1); //Wort nicht enthalten, also neuen Eintrag anlegen.
-					}
-				}
-			}
-		}
-		
-		return words;
-	}
-	
-	/**
-	 * Überprüft, ob ein String im {@code Symbol}-Objekt enthalten ist.
-	 * 
-	 * @param word 	Der String, der überpüft werden soll.
-	 * @param sym	Das {@code Symbol}-Objekt, das die zu filternden Symbole enthält.
-	 * 
-	 * @return true, falls es sich bei dem String um ein Symbol handelt.
-	 */
-	private boolean isSymbol(String word,  Symbols sym) {
-		return sym.isSymbol(word);
-	}
-	
-	/**
-	 * Überprüft, ob ein String im {@code Stopwords}-Objekt enthalten ist.
-	 * 
-	 * @param word 	Der String, der überpüft werden soll.
-	 * @param sym	Das {@code Stopwords}-Objekt, das die zu filternden Symbole enthält.
-	 * 
-	 * @return true, falls es sich bei dem String um ein Stoppwort handelt.
-	 */
-	private boolean isStoppwort(String word, StopWords stop) {
-		return stop.isStoppwort(word);
-	}
-	
-	/**
-	 * Diese Methode findet die Namen in einem Satz.
-	 * 
-	 * @param tags	Eine Liste mit den POS-Tags eines Satzes.
-	 * 
-	 * @return Eine Liste mit den Indizes, an deren Position sich ein Name befindet.
-	 */
-	private ArrayList<Integer> findNameIndexes(List<String> tags) {
-    	ArrayList<Integer> posTagIndexes = new ArrayList<Integer>();
-
-    	int index = 0;
-    	for(String tag : tags) {
-    		if(tag.equals("NNP")||tag.equals("NNPS")){ //NNP und NNPS sind POS-Tags, die auf einen Namen hinweisen.
-    			posTagIndexes.add(index);
-    		} else {
-    			posTagIndexes.add(-1);
-    		}
-    		index += 1;
-    	}
-    	
-    	return posTagIndexes;
-	}
-	
-	/**
-	 * Diese Methode findet die Nomen in einem Satz. Sie wird benötigt, um Komposita zu erkennen.
-	 * 
-	 * @param tags	Eine Liste mit den POS-Tags eines Satzes.
-	 * 
-	 * @return Eine Liste mit den Indizes, an deren Position sich ein Nomen befindet.
-	 */
-	private ArrayList<Integer> findCompoundNounIndexes(List<String> tags) {    	
-    	ArrayList<Integer> posTagIndexes = new ArrayList<Integer>();
-
-    	int index = 0;
-    	for(String tag : tags) {
-    		if(tag.equals("NN")||tag.equals("NNS")){ //NN und NNS sind POS-Tags, die auf ein Nomen hinweisen.
-    			posTagIndexes.add(index);
-    		} else {
-    			posTagIndexes.add(-1);	
-    		}
-    		index += 1;
-    	}
-    	
-    	return posTagIndexes;
-	}
-	
-	/**
-	 * Diese Methode extrahiert aus einem gegebenen Satz die Wörter, deren Indizes sich in der übergebenen Liste befinden.
-	 * Wörter, die aufeinanderfolgen, werden dabei als ein einzelner Begriff behandelt und zurückgegeben. So werden Eigennamen,
-	 * die aus mehr als einem Wort bestehen (Angela Merkel) und Nominalkomposita (wasching machine) als ein Begriff erkannt.
-	 * Nebenbei werden so alle Nomen, egal ob Nominalkomposita oder nicht, bereits extrahiert.
-	 * 
-	 * @param sent 		Der Satz, aus dem die Wörter generiert werden sollen.
-	 * @param indizes	Die Indizes der Wörter, die extrahiert werden sollen.
-	 * 
-	 * @return Eine Liste von Wörtern
-	 */
-	private ArrayList<String> generateWordsFromIndexes(Sentence sent, ArrayList<Integer> indizes) {   	
-    	ArrayList<String> words = new ArrayList<String>();
-    	String temp = "";
-    	for(int index : indizes) {
-    		if(index != -1) {
-    			//Wort soll extrahiert werden, muss hinzugefügt werden
-    			if (temp.equals("")) {
-    				//Neue Komposition - von vorne anfangen
-    				temp += sent.lemma(index);        				
-    			} else {
-    				//Teil einer Komposition, hinten anhängen
-    				temp += " " + sent.lemma(index);
-    			}
-    		} else {
-    			//Handelt sich nicht um ein Wort, das extrahiert werden soll
-    			//Wenn Wort angefangen wurde
-    			//Gebautes Wort in die Liste eintragen, dann zurücksetzen auf ""
-    			if(!temp.equals("")) {
-    				words.add(temp);
-    				temp = "";      				
-    			}
-    		}
-    	}
-    	return words;
-	}
-	
-}
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Diese Klasse vereint zwei Methoden, um einen Zeitungsartikel in seine Wörter zu zerlegen.
+ * Die Methode {@link #analyze(NewspaperArticle, boolean)} entscheidet dabei, ob ein Zeitungsartikel ohne Filtern von Symbolen und
+ * Stoppwörtern in <code>KEY:VALUE</code>-Paare zerlegt wird, oder mit. Mit {@link #analyzeAll(List, boolean)} können viele Zeitungsartikel
+ * auf einmal parallel zerlegt werden. Die Annotation übernimmt der {@link ArticleAnnotator} des gewählten {@link AnalysisMode}. Bereits
+ * annotierte Artikel werden aus dem {@link AnnotationCache} gelesen.
+ * 
+ * Mit {@link #setLatencyBudget(long, TimeoutPolicy)} kann die Zeit begrenzt werden, die die Annotation eines einzelnen Artikels dauern darf.
+ * Wird das Budget überschritten, greift die gewählte {@link TimeoutPolicy}. Wie oft das passiert ist, liefert {@link #getBudgetBreaches()}.
+ * Das Budget zählt ab der Übergabe des Artikels, das Warten auf einen Thread und eine Pipeline gehört dazu. Reicht auch die Notlösung nicht, ist das Ergebnis
+ * {@link TermVector#TIMED_OUT}, das Training und Klassifikation überspringen.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class ArticleAnalyzer {
+	
+	/*
+	 * Die Threads, auf denen {@link #analyzeAll(List, boolean)} die Zeitungsartikel zerlegt. Es gibt genau so viele Threads wie Pipelines
+	 * im {@link PipelinePool}, mehr würden nur auf eine freie Pipeline warten.
+	 */
+	private static ExecutorService workers;
+	
+	/*
+	 * Die Threads, auf denen Artikel mit Zeitbudget annotiert werden. Ein Thread, dessen Artikel das Budget überschritten hat, läuft im
+	 * Hintergrund weiter, bis CoreNLP fertig ist. Seine Pipeline wird im {@link PipelinePool} ersetzt, den Thread behält er aber. Deshalb
+	 * gibt es doppelt so viele Threads wie Pipelines. Sind alle belegt, warten neue Artikel, das Warten zählt zum Budget.
+	 */
+	private static ExecutorService annotationThreads;
+	
+	/*
+	 * So viele Wörter bleiben bei {@link TimeoutPolicy#TRUNCATE} standardmäßig vom Textkörper übrig.
+	 */
+	public final static int DEFAULT_TRUNCATE_TOKENS = 2000;
+		
+	private Lexicon lexicon;
+	private ArticleAnnotator annotator;
+	private ArticleAnnotator fallback;
+	private AnnotationCache cache;
+	
+	private long budget = 0; //Zeitbudget pro Artikel in Millisekunden, 0 heißt unbegrenzt
+	private TimeoutPolicy policy = TimeoutPolicy.FAST;
+	private int truncateTokens = DEFAULT_TRUNCATE_TOKENS;
+	private final LongAdder breaches = new LongAdder();
+	
+	public ArticleAnalyzer() throws IOException {
+		this(AnalysisMode.FULL, true);
+	}
+	
+	/**
+	 * @param caching	Sollen Annotationen im {@link AnnotationCache} unter {@link DictionaryCreator#PATH_DIRECTORY_ANNOTATIONS} 
+	 * 					abgelegt und von dort gelesen werden?
+	 * 
+	 * @throws IOException	Das {@link Lexicon} konnte nicht geladen werden.
+	 */
+	public ArticleAnalyzer(boolean caching) throws IOException {
+		this(AnalysisMode.FULL, caching);
+	}
+	
+	/**
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}.
+	 * @param caching	Sollen Annotationen im {@link AnnotationCache} unter {@link DictionaryCreator#PATH_DIRECTORY_ANNOTATIONS} 
+	 * 					abgelegt und von dort gelesen werden?
+	 * 
+	 * @throws IOException	Das {@link Lexicon} konnte nicht geladen werden.
+	 */
+	public ArticleAnalyzer(AnalysisMode mode, boolean caching) throws IOException {
+		this.annotator = mode.createAnnotator();
+		this.lexicon = Lexicon.getInstance();
+		if(caching) {
+			this.cache = new AnnotationCache(DictionaryCreator.PATH_DIRECTORY_ANNOTATIONS, this.annotator.getSettings());
+		}
+	}
+	
+	/**
+	 * Gibt die Einstellungen der Annotation zurück, mit denen dieser Analysierer arbeitet. Werden in den Kopf einer {@link ModelFile}
+	 * geschrieben, damit man einem Modell ansieht, wie es entstanden ist.
+	 * 
+	 * @return Die Einstellungen als String, siehe {@link ArticleAnnotator#getSettings()}
+	 */
+	public String getSettings() {
+		return this.annotator.getSettings();
+	}
+	
+	/**
+	 * Legt fest, wie lange die Annotation eines einzelnen Zeitungsartikels höchstens dauern darf und was danach passiert.
+	 * Bei {@link TimeoutPolicy#TRUNCATE} bleiben {@link #DEFAULT_TRUNCATE_TOKENS} Wörter übrig.
+	 * 
+	 * @param millis	Das Zeitbudget in Millisekunden. 0 schaltet das Budget ab.
+	 * @param policy	Die Notlösung, wenn das Budget überschritten wird.
+	 */
+	public void setLatencyBudget(long millis, TimeoutPolicy policy) {
+		setLatencyBudget(millis, policy, DEFAULT_TRUNCATE_TOKENS);
+	}
+	
+	/**
+	 * Legt fest, wie lange die Annotation eines einzelnen Zeitungsartikels höchstens dauern darf und was danach passiert.
+	 * 
+	 * @param millis			Das Zeitbudget in Millisekunden. 0 schaltet das Budget ab.
+	 * @param policy			Die Notlösung, wenn das Budget überschritten wird.
+	 * @param truncateTokens	Wie viele Wörter des Textkörpers bei {@link TimeoutPolicy#TRUNCATE} übrig bleiben.
+	 */
+	public void setLatencyBudget(long millis, TimeoutPolicy policy, int truncateTokens) {
+		if(millis < 0 || truncateTokens <= 0) {
+			throw new IllegalArgumentException("Zeitbudget und Anzahl der Wörter dürfen nicht negativ sein!");
+		}
+		this.budget = millis;
+		this.policy = policy;
+		this.truncateTokens = truncateTokens;
+	}
+	
+	/**
+	 * Gibt zurück, wie oft die Annotation eines Artikels das Zeitbudget überschritten hat.
+	 * 
+	 * @return Die Anzahl der Überschreitungen als {@link long}
+	 */
+	public long getBudgetBreaches() {
+		return this.breaches.sum();
+	}
+	
+	/**
+	 * Diese Methode entscheidet, wie ein Zeitungsartikel zerlegt wird. Wenn {@code filtering} true ist, dann werden Symbole und 
+	 * Stoppwörter herausgefiltert. Gleichzeitig werden Komposita als solche erkannt. Benn {@code filtering} false ist, dann findet
+	 * ein solches Filtern nicht statt.
+	 * 
+	 * @param n			Der Artikel, der zerlegt werden soll.
+	 * @param filtering	Soll gefiltert werden oder nicht?
+	 * 
+	 * @return Der in {@code KEY:VALUE}-Paare zerlegte Zeitungsartikel in der Form einer {@code HashMap<String, Integer>}
+	 */
+	public HashMap<String, Integer> analyze(NewspaperArticle n, boolean filtering) {
+		return analyzeTerms(n, filtering).toMap();
+	}
+	
+	/**
+	 * Zerlegt einen Zeitungsartikel wie {@link #analyze(NewspaperArticle, boolean)}, liefert aber Term-IDs statt Strings. Damit können
+	 * {@link Dictionary}, {@link Vocabulary} und Klassifikator ohne erneutes Hashen der Wörter weiterarbeiten.
+	 * 
+	 * @param n			Der Artikel, der zerlegt werden soll.
+	 * @param filtering	Soll gefiltert werden oder nicht?
+	 * 
+	 * @return Der zerlegte Zeitungsartikel als {@link TermVector}
+	 */
+	public TermVector analyzeTerms(NewspaperArticle n, boolean filtering) {
+		return analyzeTerms(n, filtering, TermMapping.INTERN);
+	}
+	
+	/**
+	 * Zerlegt einen Zeitungsartikel wie {@link #analyzeTerms(NewspaperArticle, boolean)}, die Begriffe werden aber mit {@code mapping}
+	 * nummeriert statt in der {@link TermTable} interniert.
+	 * 
+	 * @param n			Der Artikel, der zerlegt werden soll.
+	 * @param filtering	Soll gefiltert werden oder nicht?
+	 * @param mapping	Gibt jedem Begriff seine Nummer im {@link TermVector}.
+	 * 
+	 * @return Der zerlegte Zeitungsartikel als {@link TermVector}
+	 */
+	public TermVector analyzeTerms(NewspaperArticle n, boolean filtering, TermMapping mapping) {
+		AnnotatedArticle article = annotate(n);
+		if(article == AnnotatedArticle.TIMED_OUT) {
+			return TermVector.TIMED_OUT;
+		} else if(filtering) {
+			return analyze(article, this.lexicon, mapping);
+		} else {
+			return analyze(article, mapping);
+		}
+	}
+	
+	/**
+	 * Zerlegt einen Zeitungsartikel mit und ohne Filterung. Der Artikel wird dafür nur ein einziges Mal annotiert, beide Zerlegungen 
+	 * entstehen aus derselben Annotation. So können Modell_1 und Modell_2 gemeinsam erstellt werden.
+	 * 
+	 * @param n	Der Artikel, der zerlegt werden soll.
+	 * 
+	 * @return Beide Zerlegungen des Zeitungsartikels
+	 */
+	public FeatureBags analyzeBoth(NewspaperArticle n) {
+		AnnotatedArticle article = annotate(n);
+		if(article == AnnotatedArticle.TIMED_OUT) {
+			return new FeatureBags(TermVector.TIMED_OUT, TermVector.TIMED_OUT);
+		}
+		return new FeatureBags(analyze(article, TermMapping.INTERN), analyze(article, this.lexicon, TermMapping.INTERN));
+	}
+	
+	/**
+	 * Zerlegt mehrere Zeitungsartikel gleichzeitig. Die Artikel werden auf die Threads des Analysierers verteilt, jeder Thread
+	 * nutzt dabei eine eigene Pipeline aus dem {@link PipelinePool}.
+	 * 
+	 * @param articles	Die Artikel, die zerlegt werden sollen.
+	 * @param filtering	Soll gefiltert werden oder nicht?
+	 * 
+	 * @return Die zerlegten Zeitungsartikel in derselben Reihenfolge wie {@code articles}
+	 */
+	public ArrayList<TermVector> analyzeAll(List<NewspaperArticle> articles, boolean filtering) {
+		return analyzeAll(articles, filtering, TermMapping.INTERN);
+	}
+	
+	/**
+	 * Zerlegt mehrere Zeitungsartikel gleichzeitig, siehe {@link #analyzeTerms(NewspaperArticle, boolean, TermMapping)}.
+	 * 
+	 * @param articles	Die Artikel, die zerlegt werden sollen.
+	 * @param filtering	Soll gefiltert werden oder nicht?
+	 * @param mapping	Gibt jedem Begriff seine Nummer im {@link TermVector}.
+	 * 
+	 * @return Die zerlegten Zeitungsartikel in derselben Reihenfolge wie {@code articles}
+	 */
+	public ArrayList<TermVector> analyzeAll(List<NewspaperArticle> articles, boolean filtering, TermMapping mapping) {
+		return runAll(articles, n -> analyzeTerms(n, filtering, mapping));
+	}
+	
+	/**
+	 * Zerlegt mehrere Zeitungsartikel gleichzeitig mit und ohne Filterung, siehe {@link #analyzeBoth(NewspaperArticle)}.
+	 * 
+	 * @param articles	Die Artikel, die zerlegt werden sollen.
+	 * 
+	 * @return Die zerlegten Zeitungsartikel in derselben Reihenfolge wie {@code articles}
+	 */
+	public ArrayList<FeatureBags> analyzeAllBoth(List<NewspaperArticle> articles) {
+		return runAll(articles, this::analyzeBoth);
+	}
+	
+	/**
+	 * Führt eine Zerlegung für mehrere Zeitungsartikel gleichzeitig auf den Threads des Analysierers aus.
+	 * 
+	 * @param articles	Die Artikel, die zerlegt werden sollen.
+	 * @param analysis	Die Zerlegung, die für jeden Artikel ausgeführt wird.
+	 * 
+	 * @return Die Ergebnisse in derselben Reihenfolge wie {@code articles}
+	 */
+	private <T> ArrayList<T> runAll(List<NewspaperArticle> articles, Function<NewspaperArticle, T> analysis) {
+		List<Callable<T>> tasks = new ArrayList<Callable<T>>(articles.size());
+		for(NewspaperArticle n : articles) {
+			tasks.add(() -> analysis.apply(n));
+		}
+		
+		ArrayList<T> results = new ArrayList<T>(articles.size());
+		try {
+			for(Future<T> future : getWorkers().invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Die Analyse der Zeitungsartikel wurde unterbrochen!", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Ein Zeitungsartikel konnte nicht analysiert werden!", e.getCause());
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Gibt die Threads zurück, auf denen {@link #analyzeAll(List, boolean)} arbeitet. Die Threads werden beim ersten Aufruf erstellt
+	 * und beenden das Programm nicht, wenn sie noch laufen. Wie der {@link PipelinePool} gibt es einen Thread pro Prozessorkern.
+	 * 
+	 * @return Der {@link ExecutorService} des Analysierers
+	 */
+	private static synchronized ExecutorService getWorkers() {
+		if(workers == null) {
+			workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "article-analyzer");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return workers;
+	}
+	
+	/**
+	 * Annotiert einen Zeitungsartikel mit dem {@link ArticleAnnotator} dieses Analysierers. Liegt der Artikel bereits im {@link AnnotationCache},
+	 * wird die Annotation von dort gelesen und der POS-Tagger gar nicht erst angestoßen.
+	 * 
+	 * @param n	Der Artikel, der annotiert werden soll.
+	 * 
+	 * @return Der annotierte Artikel
+	 */
+	private AnnotatedArticle annotate(NewspaperArticle n) {
+		String key = null;
+		if(this.cache != null) {
+			key = this.cache.key(n);
+			AnnotatedArticle cached = this.cache.load(key);
+			if(cached != null) {
+				return cached;
+			}
+		}
+		
+		AnnotatedArticle article;
+		try {
+			if(this.budget == 0) {
+				article = this.annotator.annotate(n);
+			} else {
+				article = annotateWithBudget(this.annotator, n);
+				if(article == null) {
+					this.breaches.increment();
+					return annotateFallback(n); //Notlösungen landen nicht im Cache
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Die Analyse des Zeitungsartikels wurde unterbrochen!", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Ein Zeitungsartikel konnte nicht annotiert werden!", e.getCause());
+		}
+		
+		if(this.cache != null) {
+			this.cache.store(key, article);
+		}
+		return article;
+	}
+	
+	/**
+	 * Annotiert einen Zeitungsartikel mit Zeitbudget auf den Threads für die Annotation. Das Budget zählt ab diesem Aufruf. Wird es
+	 * überschritten, wird der Auftrag aufgegeben und jede Pipeline, die er hält, im {@link PipelinePool} ersetzt.
+	 * 
+	 * @param annotator	Der {@link ArticleAnnotator}, mit dem annotiert wird.
+	 * @param n			Der Artikel, der annotiert werden soll.
+	 * 
+	 * @return Der annotierte Artikel oder {@code null}, wenn das Budget überschritten wurde
+	 * 
+	 * @throws InterruptedException	Das Warten auf die Annotation wurde unterbrochen.
+	 * @throws ExecutionException	Die Annotation ist fehlgeschlagen.
+	 */
+	private AnnotatedArticle annotateWithBudget(ArticleAnnotator annotator, NewspaperArticle n) throws InterruptedException, ExecutionException {
+		PipelinePool.Lease lease = new PipelinePool.Lease();
+		Future<AnnotatedArticle> future = getAnnotationThreads().submit(() -> annotator.annotate(n, lease));
+		try {
+			return future.get(this.budget, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			lease.abandon();
+			return null;
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			lease.abandon();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Annotiert einen Zeitungsartikel nach der {@link TimeoutPolicy} dieses Analysierers, nachdem das Zeitbudget überschritten wurde.
+	 * Auch die Notlösung hat das volle Zeitbudget, wird es noch einmal überschritten, gilt der Artikel als {@link AnnotatedArticle#TIMED_OUT}.
+	 * 
+	 * @param n	Der Artikel, der annotiert werden soll.
+	 * 
+	 * @return Der annotierte Artikel oder {@link AnnotatedArticle#TIMED_OUT}
+	 * 
+	 * @throws InterruptedException	Das Warten auf die Annotation wurde unterbrochen.
+	 * @throws ExecutionException	Die Annotation ist fehlgeschlagen.
+	 */
+	private AnnotatedArticle annotateFallback(NewspaperArticle n) throws InterruptedException, ExecutionException {
+		AnnotatedArticle article;
+		switch(this.policy) {
+			case TRUNCATE:
+				article = annotateWithBudget(this.annotator, new NewspaperArticle(n.getHeadline(), truncate(n.getContent(), this.truncateTokens)));
+				break;
+			case FAST:
+				article = annotateWithBudget(getFallback(), n);
+				break;
+			default:
+				article = null;
+		}
+		return article == null ? AnnotatedArticle.TIMED_OUT : article;
+	}
+	
+	/**
+	 * Gibt den {@link TokenizingAnnotator} für {@link TimeoutPolicy#FAST} zurück. Er wird erst erstellt, wenn er gebraucht wird.
+	 * 
+	 * @return Der {@link ArticleAnnotator} ohne POS-Tagger
+	 */
+	private synchronized ArticleAnnotator getFallback() {
+		if(this.fallback == null) {
+			this.fallback = AnalysisMode.FAST.createAnnotator();
+		}
+		return this.fallback;
+	}
+	
+	/**
+	 * Kürzt einen Text auf seine ersten Wörter. Als Wort zählt alles zwischen zwei Leerzeichen.
+	 * 
+	 * @param text		Der Text, der gekürzt werden soll.
+	 * @param tokens	Die Anzahl der Wörter, die übrig bleiben.
+	 * 
+	 * @return Der gekürzte Text
+	 */
+	private static String truncate(String text, int tokens) {
+		int count = 0;
+		boolean inWord = false;
+		for(int i = 0; i < text.length(); i++) {
+			boolean space = Character.isWhitespace(text.charAt(i));
+			if(!space && !inWord && count++ == tokens) {
+				return text.substring(0, i);
+			}
+			inWord = !space;
+		}
+		return text;
+	}
+	
+	/**
+	 * Gibt die Threads zurück, auf denen Artikel mit Zeitbudget annotiert werden. Die Threads werden beim ersten Aufruf erstellt.
+	 * 
+	 * @return Der {@link ExecutorService} für die Annotation mit Zeitbudget
+	 */
+	private static synchronized ExecutorService getAnnotationThreads() {
+		if(annotationThreads == null) {
+			annotationThreads = Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "article-annotation");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return annotationThreads;
+	}
+	
+	/**
+	 * Zerlegt einen annotierten Zeitungsartikel in Begriffe, ohne ihn zu filtern.
+	 * 
+	 * @param article Der annotierte Artikel, der zerlegt werden soll.
+	 * @param mapping	Gibt jedem Begriff seine Nummer.
+	 * 
+	 * @return Der zerlegte Zeitungsartikel als {@link TermVector}
+	 */
+	private TermVector analyze(AnnotatedArticle article, TermMapping mapping) {
+		TermCollector words = new TermCollector(article.size(), mapping);
+		
+		for(int j = 0; j < article.size(); j++) {
+			words.add(article.lemma(j).toLowerCase());
+		}
+		
+		return words.toVector();
+	}
+
+	/**
+	 * Zerlegt einen annotierten Zeitungsartikel in Begriffe, und filtert dabei Symbole und Stoppwörter. Gleichzeitig werden
+	 * Komposita als solche erkannt.
+	 * 
+	 * Jeder Satz wird genau einmal durchlaufen. Aufeinanderfolgende Eigennamen (NNP, NNPS) und aufeinanderfolgende Nomen (NN, NNS) werden
+	 * dabei zu einem Begriff zusammengesetzt. So werden Eigennamen, die aus mehr als einem Wort bestehen (Angela Merkel) und Nominalkomposita
+	 * (washing machine) als ein Begriff erkannt. Alle anderen Wörter werden einzeln gezählt, sofern sie kein Stoppwort oder Symbol sind.
+	 * 
+	 * @param article 	Der annotierte Artikel, der zerlegt werden soll.
+	 * @param lexicon	Die Stoppwörter und Symbole, die rausgefiltert werden sollen.
+	 * @param mapping	Gibt jedem Begriff seine Nummer.
+	 * 
+	 * @return Der zerlegte Zeitungsartikel als {@link TermVector}
+	 */
+	private TermVector analyze(AnnotatedArticle article, Lexicon lexicon, TermMapping mapping) {
+		TermCollector words = new TermCollector(article.size(), mapping);
+		StringBuilder name = new StringBuilder();
+		StringBuilder compoundNoun = new StringBuilder();
+		
+		for(int s = 0; s < article.sentences(); s++) {
+			int start = article.sentenceStart(s);
+			int end = article.sentenceEnd(s);
+			
+			//Wenn der Satz nur 1 Wort enthält, dann können keine Komposita enthalten sein.
+			boolean compounds = end - start >= 2;
+			
+			for(int j = start; j < end; j++) {
+				String tag = article.tag(j);
+				if(compounds && isName(tag)) {
+					//Teil eines Eigennamens, ein angefangenes Nomen ist damit abgeschlossen
+					addCompound(words, compoundNoun);
+					append(name, article.lemma(j));
+				} else if(compounds && isCompoundNoun(tag)) {
+					//Teil eines Nomens, ein angefangener Eigenname ist damit abgeschlossen
+					addCompound(words, name);
+					append(compoundNoun, article.lemma(j).toLowerCase()); //Nomen werden klein geschrieben, Eigennamen nicht
+				} else {
+					addCompound(words, name);
+					addCompound(words, compoundNoun);
+					
+					String lemma = article.lemma(j).toLowerCase();
+					if(lexicon.isFiltered(lemma)) { //Ist das Wort ein Stoppwort oder Symbol und muss gefiltert werden?
+						continue;
+					}
+					words.add(lemma); //Wort kann hinzugefügt werden.
+				}
+			}
+			
+			//Namen und Komposita gehen nie über das Satzende hinaus
+			addCompound(words, name);
+			addCompound(words, compoundNoun);
+		}
+		
+		return words.toVector();
+	}
+	
+	/**
+	 * Hängt ein Lemma an einen angefangenen Begriff an. Ist der Begriff noch leer, wird von vorne angefangen.
+	 * 
+	 * @param compound	Der angefangene Begriff.
+	 * @param lemma		Das Lemma, das angehängt werden soll.
+	 */
+	private void append(StringBuilder compound, String lemma) {
+		if(compound.length() > 0) {
+			compound.append(' '); //Teil einer Komposition, hinten anhängen
+		}
+		compound.append(lemma);
+	}
+	
+	/**
+	 * Zählt einen zusammengesetzten Begriff, falls einer angefangen wurde, und setzt ihn anschließend zurück. Standardmäßig wird der Begriff
+	 * in der {@link TermTable} interniert: Ein mehrteiliger Name, der in vielen Artikeln vorkommt, wird nur beim ersten Auftreten dauerhaft gespeichert.
+	 * 
+	 * @param words		Die bisher gezählten Wörter.
+	 * @param compound	Der angefangene Begriff.
+	 */
+	private void addCompound(TermCollector words, StringBuilder compound) {
+		if(compound.length() == 0) {
+			return;
+		}
+		words.add(compound);
+		compound.setLength(0);
+	}
+	
+	/**
+	 * Überprüft, ob ein POS-Tag auf einen Namen hinweist.
+	 * 
+	 * @param tag	Der POS-Tag eines Wortes.
+	 * 
+	 * @return true, wenn es sich um NNP oder NNPS handelt.
+	 */
+	private boolean isName(String tag) {
+		return tag.equals("NNP") || tag.equals("NNPS");
+	}
+	
+	/**
+	 * Überprüft, ob ein POS-Tag auf ein Nomen hinweist. Wird benötigt, um Komposita zu erkennen.
+	 * 
+	 * @param tag	Der POS-Tag eines Wortes.
+	 * 
+	 * @return true, wenn es sich um NN oder NNS handelt.
+	 */
+	private boolean isCompoundNoun(String tag) {
+		return tag.equals("NN") || tag.equals("NNS");
+	}
+	
+	/**
+	 * Sammelt die Nummern der Begriffe eines Artikels in der Reihenfolge ihres Auftretens. Jeder Begriff verbraucht mindestens ein Token,
+	 * deshalb reicht ein Array in der Größe der Tokens des Artikels.
+	 */
+	private static class TermCollector {
+		
+		private final TermMapping mapping;
+		private final int[] ids;
+		private int size = 0;
+		
+		TermCollector(int tokens, TermMapping mapping) {
+			this.mapping = mapping;
+			this.ids = new int[tokens];
+		}
+		
+		void add(CharSequence term) {
+			this.ids[this.size++] = this.mapping.map(term);
+		}
+		
+		TermVector toVector() {
+			return TermVector.fromTermIds(this.ids, this.size);
+		}
+	}
+	
+}
@@ -0,0 +1,59 @@
+package mr.bsc.dict;
+
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Eine Strategie, mit der ein Zeitungsartikel in Sätze, Wörter, Lemmata und POS-Tags zerlegt wird. Der {@link ArticleAnalyzer} arbeitet
+ * nur noch mit dem Ergebnis, einem {@link AnnotatedArticle}, und muss nicht wissen, wie es entstanden ist. Welche Strategie genutzt wird,
+ * legt der {@link AnalysisMode} fest.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public interface ArticleAnnotator {
+	
+	/**
+	 * Annotiert einen Zeitungsartikel.
+	 * 
+	 * @param n	Der Artikel, der annotiert werden soll.
+	 * 
+	 * @return Der annotierte Artikel
+	 * 
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	default AnnotatedArticle annotate(NewspaperArticle n) throws InterruptedException {
+		return annotate(n, null);
+	}
+	
+	/**
+	 * Annotiert einen Zeitungsartikel für einen Auftrag mit Zeitbudget. Jede Pipeline, die dabei genutzt wird, wird mit dem Auftrag aus dem
+	 * {@link PipelinePool} genommen, siehe {@link PipelinePool#annotate(edu.stanford.nlp.pipeline.Annotation, PipelinePool.Lease)}.
+	 * 
+	 * @param n		Der Artikel, der annotiert werden soll.
+	 * @param lease	Der Auftrag, zu dem die Annotation gehört, oder {@code null} ohne Zeitbudget.
+	 * 
+	 * @return Der annotierte Artikel
+	 * 
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	AnnotatedArticle annotate(NewspaperArticle n, PipelinePool.Lease lease) throws InterruptedException;
+	
+	/**
+	 * Gibt die Einstellungen zurück, die Einfluss auf das Ergebnis der Annotation haben. Wird für den Fingerabdruck des
+	 * {@link AnnotationCache} genutzt.
+	 * 
+	 * @return Die Einstellungen als String
+	 */
+	String getSettings();
+	
+	/**
+	 * Gibt den Text zurück, der für einen Zeitungsartikel annotiert wird. Die Überschrift wird dabei als eigener Satz behandelt.
+	 * 
+	 * @param n	Der Zeitungsartikel.
+	 * 
+	 * @return Überschrift und Textkörper als ein String
+	 */
+	static String text(NewspaperArticle n) {
+		return n.getHeadline() + ". " + n.getContent();
+	}
+}
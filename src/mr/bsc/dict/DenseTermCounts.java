@@ -0,0 +1,65 @@
+package mr.bsc.dict;
+
+import java.util.Arrays;
+
+/**
+ * Die Häufigkeiten in einem {@code int}-Array, dessen Index die Term-ID ist. Ein Lookup ist ein einziger Array-Zugriff, dafür ist das
+ * Array immer so groß wie die größte enthaltene Term-ID. Lohnt sich für große Wörterbücher, die fast alle Begriffe der {@link TermTable} enthalten.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+final class DenseTermCounts implements TermCounts {
+	
+	private int[] counts = new int[0];
+	private int size = 0;
+
+	@Override
+	public int get(int termId) {
+		return termId < this.counts.length ? this.counts[termId] : 0;
+	}
+
+	@Override
+	public void add(int termId, int count) {
+		if(count == 0) {
+			return;
+		}
+		if(termId >= this.counts.length) {
+			//Mindestens verdoppeln, damit nicht bei jeder neuen Term-ID kopiert werden muss
+			this.counts = Arrays.copyOf(this.counts, Math.max(termId + 1, Math.max(this.counts.length * 2, 1024)));
+		}
+		if(this.counts[termId] == 0) {
+			this.size++;
+		}
+		this.counts[termId] += count;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Neue Einträge bekommen höchstens die nächsten Term-IDs der {@link TermTable}, das Array reicht also bis zu deren Größe plus der
+	 * erwarteten Anzahl.
+	 */
+	@Override
+	public void ensureCapacity(int entries) {
+		long needed = (long) TermTable.getInstance().size() + entries;
+		if(needed > this.counts.length) {
+			this.counts = Arrays.copyOf(this.counts, (int) Math.min(needed, Integer.MAX_VALUE - 8));
+		}
+	}
+
+	@Override
+	public int[] termIds() {
+		int[] ids = new int[this.size];
+		int i = 0;
+		for(int id = 0; id < this.counts.length; id++) {
+			if(this.counts[id] > 0) {
+				ids[i++] = id;
+			}
+		}
+		return ids;
+	}
+}
@@ -1,70 +1,193 @@
-package mr.bsc.dict;
-
-import java.util.HashMap;
-
-/**
- * Respräsentation eines Dictionaries. Stellt Teil des Vorhersagemodells dar.
- * Ein Dictionary entählt alle Wörter einer Kategorie in Kombination mit der Anzahl des Auftretens.
- * 
- * @author Marius Rosenbaum
- *
- */
-public class Dictionary {
-	HashMap<String, Integer> entries = new HashMap<String, Integer>();
-
-	private int words = 0;
-
-	/**
-	 * Gibt die Größe des Wörterbuches zurück. Entspricht der Größe des Vokabulars derselben Kategorie.
-	 * 
-	 * @return Die Anzahl der Einträge dieses {@link Dictionary}.
-	 */
-	public int getDistinctWords() {
-		return this.entries.size();
-	}
-	
-	/**
-	 * Gibt die Anzahl an Wörtern zurück, die zum kompilieren dieses Wörterbuchs beigetragen haben.
-	 * Wenn ein Wörterbuch die zwei Einträge a und b hat, und a und b jeweils 2 mal im Wörterbuch vorkommen,
-	 * würde diese Methode den Wert 4 zurückgeben.
-	 * 
-	 * @return Die Gesamtzahl der Wörter, als {@link int}.
-	 */
-	public int getTotalWords() {
-		return words;
-	}
-	
-	/**
-	 * Gibt die von diesem Objekt verwaltete HashMap zurück.
-	 * 
-	 * @return Die von diesem Objekt verwaltete HashMap.
-	 */
-	public HashMap<String, Integer> getEntries(){
-		return this.entries;
-	}
-	
-	/**
-	 * Überprüft, wie häufig das Wort <code> word </code> in diesem Wörterbuch vorkommt.
-	 * 
-	 * @param word	Der String, dessen Häufigkeit ermittelt werden soll.
-	 * 
-	 * @return 	Die Häufigkeit des Wortes oder 0, wenn das Wort nicht im Wörterbuch vorkommt.	
-	 */
-	public int findOccurrence(String word) {
-		return this.entries.getOrDefault(word, 0);
-	}
-	
-	/**
-	 * Fügt diesem Wörterbuch die Wörter und Häufigkeiten aus einer HashMap hinzu.
-	 * 
-	 * @param map Die HashMap, deren Wörter in das Wörterbuch hinzugefügt werden sollen.
-	 */
-	public void add(HashMap<String, Integer> map) {
-		for(String key : map.keySet()) {
-			//Falls das Wort noch nicht enthalten ist, wird es hinzugefügt und die Häufigkeit zu dem Default 0 hinzugefügt.
-			this.entries.put(key, this.entries.getOrDefault(key, 0) + map.get(key));
-			this.words += map.get(key); //Anzahl der enthaltenen Wörter aktualisieren! Lieber O(1) als O(n)!
-		}
-	}
-	
-}
+package mr.bsc.dict;
+
+import java.util.HashMap;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * Respräsentation eines Dictionaries. Stellt Teil des Vorhersagemodells dar.
+ * Ein Dictionary entählt alle Wörter einer Kategorie in Kombination mit der Anzahl des Auftretens.
+ * 
+ * Die Häufigkeiten werden unter der Term-ID aus der {@link TermTable} abgelegt, wie genau, entscheidet das {@link DictionaryBackend}.
+ * Standard ist ein {@code int}-Array, dessen Index die Term-ID ist. Die JSON-Darstellung ist unverändert ({@code entries} und {@code words}),
+ * dafür sorgt der {@link DictionaryTypeAdapter}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+@JsonAdapter(DictionaryTypeAdapter.class)
+public class Dictionary implements DictionaryView {
+	
+	private final TermCounts counts;
+
+	private int words = 0;
+	
+	private int documents = 0; //Aus wie vielen Zeitungsartikeln ist das Wörterbuch entstanden? Grundlage der A-priori-Wahrscheinlichkeit.
+
+	public Dictionary() {
+		this(DictionaryBackend.DENSE);
+	}
+	
+	/**
+	 * @param backend	Wie die Häufigkeiten abgelegt werden.
+	 */
+	public Dictionary(DictionaryBackend backend) {
+		this.counts = backend.createCounts();
+	}
+	
+	/**
+	 * Gibt die Größe des Wörterbuches zurück. Entspricht der Größe des Vokabulars derselben Kategorie.
+	 * 
+	 * @return Die Anzahl der Einträge dieses {@link Dictionary}.
+	 */
+	public int getDistinctWords() {
+		return this.counts.size();
+	}
+	
+	/**
+	 * Gibt die Anzahl an Wörtern zurück, die zum kompilieren dieses Wörterbuchs beigetragen haben.
+	 * Wenn ein Wörterbuch die zwei Einträge a und b hat, und a und b jeweils 2 mal im Wörterbuch vorkommen,
+	 * würde diese Methode den Wert 4 zurückgeben.
+	 * 
+	 * @return Die Gesamtzahl der Wörter, als {@link int}.
+	 */
+	public int getTotalWords() {
+		return words;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Zeitungsartikel zurück, aus denen dieses Wörterbuch entstanden ist. Bei Wörterbüchern, die noch ohne diese
+	 * Angabe gespeichert wurden, ist der Wert 0.
+	 * 
+	 * @return Die Anzahl der Zeitungsartikel als {@link int}
+	 */
+	public int getDocuments() {
+		return this.documents;
+	}
+	
+	/**
+	 * Gibt die Einträge dieses Wörterbuchs als HashMap zurück. Die HashMap wird bei jedem Aufruf neu erstellt, Änderungen an ihr
+	 * haben keinen Einfluss auf das Wörterbuch.
+	 * 
+	 * @return Die Einträge dieses Wörterbuchs.
+	 */
+	public HashMap<String, Integer> getEntries(){
+		TermTable table = TermTable.getInstance();
+		HashMap<String, Integer> entries = new HashMap<String, Integer>(this.counts.size() * 2);
+		for(int id : this.counts.termIds()) {
+			entries.put(table.term(id), this.counts.get(id));
+		}
+		return entries;
+	}
+	
+	/**
+	 * Gibt die Term-IDs aller Einträge dieses Wörterbuchs aufsteigend sortiert zurück.
+	 * 
+	 * @return Die Term-IDs der Einträge.
+	 */
+	public int[] getTermIds() {
+		return this.counts.termIds();
+	}
+	
+	/**
+	 * Überprüft, wie häufig das Wort <code> word </code> in diesem Wörterbuch vorkommt.
+	 * 
+	 * @param word	Der String, dessen Häufigkeit ermittelt werden soll.
+	 * 
+	 * @return 	Die Häufigkeit des Wortes oder 0, wenn das Wort nicht im Wörterbuch vorkommt.	
+	 */
+	public int findOccurrence(String word) {
+		int id = TermTable.getInstance().lookup(word);
+		return id < 0 ? 0 : findOccurrence(id);
+	}
+	
+	/**
+	 * Überprüft, wie häufig der Begriff mit der Term-ID <code> termId </code> in diesem Wörterbuch vorkommt.
+	 * 
+	 * @param termId	Die Term-ID, deren Häufigkeit ermittelt werden soll.
+	 * 
+	 * @return 	Die Häufigkeit des Begriffs oder 0, wenn der Begriff nicht im Wörterbuch vorkommt.	
+	 */
+	public int findOccurrence(int termId) {
+		return this.counts.get(termId);
+	}
+	
+	/**
+	 * Fügt diesem Wörterbuch die Wörter und Häufigkeiten aus einer HashMap hinzu. Die HashMap zählt als ein Zeitungsartikel.
+	 * 
+	 * @param map Die HashMap, deren Wörter in das Wörterbuch hinzugefügt werden sollen.
+	 */
+	public void add(HashMap<String, Integer> map) {
+		TermTable table = TermTable.getInstance();
+		for(String key : map.keySet()) {
+			add(table.intern(key), map.get(key));
+		}
+		this.documents++;
+	}
+	
+	/**
+	 * Fügt diesem Wörterbuch die Begriffe und Häufigkeiten eines zerlegten Zeitungsartikels hinzu.
+	 * 
+	 * @param vector Der zerlegte Zeitungsartikel.
+	 */
+	public void add(TermVector vector) {
+		for(int i = 0; i < vector.size(); i++) {
+			add(vector.termId(i), vector.count(i));
+		}
+		this.documents++;
+	}
+	
+	/**
+	 * Fügt diesem Wörterbuch alle Einträge eines anderen Wörterbuchs hinzu. Danach entsprechen Häufigkeiten und {@link #getTotalWords()}
+	 * dem Wörterbuch, das aus den Artikeln beider Wörterbücher zusammen entstanden wäre. Wird genutzt, um Teilergebnisse zusammenzuführen.
+	 * 
+	 * @param other	Das Wörterbuch, dessen Einträge hinzugefügt werden sollen. Es wird nicht verändert.
+	 */
+	public void merge(DictionaryView other) {
+		for(int id : other.getTermIds()) {
+			this.counts.add(id, other.findOccurrence(id));
+		}
+		this.words += other.getTotalWords();
+		this.documents += other.getDocuments();
+	}
+	
+	/**
+	 * Fügt diesem Wörterbuch einen Begriff mit seiner Häufigkeit hinzu.
+	 * 
+	 * @param termId	Die Term-ID des Begriffs.
+	 * @param count		Die Häufigkeit, um die erhöht werden soll.
+	 */
+	void add(int termId, int count) {
+		this.counts.add(termId, count);
+		this.words += count; //Anzahl der enthaltenen Wörter aktualisieren! Lieber O(1) als O(n)!
+	}
+	
+	/**
+	 * Reserviert Platz für weitere Einträge. Wird beim Einlesen eines gespeicherten Wörterbuchs genutzt, siehe {@link DictionaryTypeAdapter}.
+	 * 
+	 * @param entries	Die erwartete Anzahl zusätzlicher Einträge.
+	 */
+	void ensureCapacity(int entries) {
+		this.counts.ensureCapacity(entries);
+	}
+	
+	/**
+	 * Setzt die Anzahl der Wörter, die zum Kompilieren beigetragen haben. Wird nur beim Einlesen eines gespeicherten Wörterbuchs genutzt,
+	 * falls dort ein abweichender Wert gespeichert wurde.
+	 * 
+	 * @param words	Die Gesamtzahl der Wörter.
+	 */
+	void setTotalWords(int words) {
+		this.words = words;
+	}
+	
+	/**
+	 * Setzt die Anzahl der Zeitungsartikel, aus denen das Wörterbuch entstanden ist. Wird nur beim Einlesen genutzt.
+	 * 
+	 * @param documents	Die Anzahl der Zeitungsartikel.
+	 */
+	void setDocuments(int documents) {
+		this.documents = documents;
+	}
+	
+}
@@ -0,0 +1,34 @@
+package mr.bsc.dict;
+
+/**
+ * Die Art, wie ein {@link Dictionary} seine Häufigkeiten ablegt.
+ * 
+ * <p>{@link #DENSE}: Ein {@code int}-Array mit der Term-ID als Index ({@link DenseTermCounts}). Der schnellste Lookup, aber das Array ist so
+ * groß wie die größte Term-ID. Standard für die Vorhersagemodelle.</p>
+ * <p>{@link #OPEN_ADDRESSING}: Eine Hashtabelle mit offener Adressierung über {@code int}-Arrays ({@link OpenAddressingTermCounts}). Braucht
+ * nur Platz für die tatsächlich enthaltenen Begriffe.</p>
+ * 
+ * Einen Vergleich mit der früheren {@code HashMap<String, Integer>} liefert {@link DictionaryBenchmark}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public enum DictionaryBackend {
+	
+	DENSE,
+	OPEN_ADDRESSING;
+	
+	/**
+	 * Erstellt die leeren Häufigkeiten für dieses Backend.
+	 * 
+	 * @return Neue {@link TermCounts}
+	 */
+	TermCounts createCounts() {
+		switch(this) {
+			case OPEN_ADDRESSING:
+				return new OpenAddressingTermCounts();
+			default:
+				return new DenseTermCounts();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package mr.bsc.dict;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Vergleicht Speicherbedarf und Lookup-Durchsatz der {@link DictionaryBackend}s mit der früheren {@code HashMap<String, Integer>}.
+ * Es werden künstliche Begriffe genutzt, damit der Vergleich ohne Trainingsdaten läuft. Die Häufigkeiten folgen grob dem Zipfschen Gesetz,
+ * die nachgeschlagenen Begriffe werden gleichverteilt gezogen, wie beim Nachschlagen aller Wörter eines Artikels in allen Kategorien.
+ *
+ * Aufruf: {@code DictionaryBenchmark [Anzahl Begriffe] [Anteil im Wörterbuch in Prozent] [Anzahl Lookups]}
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class DictionaryBenchmark {
+
+	private final static int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		int terms = args.length > 0 ? Integer.parseInt(args[0]) : 400000;
+		int percent = args.length > 1 ? Integer.parseInt(args[1]) : 25;
+		int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 20000000;
+
+		//Alle Begriffe in die TermTable, ein Wörterbuch enthält davon nur jeden x-ten, wie eine Kategorie vom gesamten Vokabular
+		TermTable table = TermTable.getInstance();
+		String[] words = new String[terms];
+		for(int i = 0; i < terms; i++) {
+			words[i] = "term" + Integer.toString(i, 36);
+			table.intern(words[i]);
+		}
+		Random random = new Random(42);
+		int[] ids = new int[terms];
+		int[] counts = new int[terms];
+		for(int i = 0; i < terms; i++) {
+			ids[i] = table.lookup(words[i]);
+			counts[i] = random.nextInt(100) < percent ? 1 + terms / (i + 1) : 0;
+		}
+
+		int[] queries = new int[lookups];
+		for(int i = 0; i < lookups; i++) {
+			queries[i] = random.nextInt(terms);
+		}
+
+		System.out.println(terms + " Begriffe, davon " + percent + " % im Wörterbuch, " + lookups + " Lookups");
+
+		long before = usedMemory();
+		HashMap<String, Integer> map = new HashMap<String, Integer>();
+		for(int i = 0; i < terms; i++) {
+			if(counts[i] > 0) {
+				map.put(words[i], counts[i]);
+			}
+		}
+		long mapMemory = usedMemory() - before;
+		long mapTime = Long.MAX_VALUE;
+		long checksum = 0;
+		for(int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			for(int q : queries) {
+				Integer count = map.get(words[q]);
+				checksum += count == null ? 0 : count;
+			}
+			mapTime = Math.min(mapTime, System.nanoTime() - start);
+		}
+		report("HashMap<String, Integer>", map.size(), mapMemory, mapTime, lookups);
+		map = null;
+
+		for(DictionaryBackend backend : DictionaryBackend.values()) {
+			before = usedMemory();
+			Dictionary dic = new Dictionary(backend);
+			for(int i = 0; i < terms; i++) {
+				dic.add(ids[i], counts[i]);
+			}
+			long memory = usedMemory() - before;
+			long time = Long.MAX_VALUE;
+			for(int r = 0; r < ROUNDS; r++) {
+				long start = System.nanoTime();
+				for(int q : queries) {
+					checksum += dic.findOccurrence(ids[q]);
+				}
+				time = Math.min(time, System.nanoTime() - start);
+			}
+			report(backend.toString(), dic.getDistinctWords(), memory, time, lookups);
+		}
+		System.out.println("Prüfsumme: " + checksum); //Damit die JIT die Lookups nicht wegoptimiert
+	}
+
+	private static void report(String name, int size, long memory, long nanos, int lookups) {
+		System.out.println(String.format("%-26s %8d Einträge %10.1f MB %8.1f ns/Lookup %8.1f Mio. Lookups/s", name, size,
+				memory / (1024.0 * 1024.0), (double) nanos / lookups, lookups * 1000.0 / nanos));
+	}
+
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -1,132 +1,752 @@
-package mr.bsc.dict;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
-import mr.bsc.guardian.NewspaperArticle;
-import mr.bsc.guardian.NewspaperArticleCollection;
-
-/**
- * Diese Klasse erstellt die {@link Dictionary}-Objekte, die als Vorhersagemodelle dienen. Nebenbei werden {@link Vocabulary}-Objekte erstellt.
- * Diese Klasse implementiert {@link Runnable}, um das gleichzeitige Erstellen von {@link Dictionary}-Objekten zu ermöglichen.
- * 
- * @author Marius Rosenbaum
- *
- */
-public class DictionaryCreator implements Runnable {
-
-	public final static String PATH_DIRECTORY_DICTIONARIES = "E:\\Bachelorarbeit Texte\\TheGuardian\\dictionaries\\";
-	public final static String PATH_DIRECTORY_VOCABULARY = "E:\\Bachelorarbeit Texte\\TheGuardian\\vocabulary\\";
-	public final static String PATH_STOPWORDS = "E:\\Bachelorarbeit Texte\\TheGuardian\\stopwords.json";
-	public final static String PATH_SYMBOLS = "E:\\Bachelorarbeit Texte\\TheGuardian\\symbols.json";
-	
-	private static Gson gson =  new GsonBuilder().setPrettyPrinting().create(); //Formatierte JSON-Dateien sind wichtig!
-	
-	private String topic;
-	private String articleCollection;
-	private boolean filtering;	//Werden Symbole und Stoppwörter in diesem Thread rausgefiltert und Eigennamen erkannt oder nicht?
-	
-	public DictionaryCreator(String topic, String articleCollection, boolean filtering) {
-		this.topic = topic;
-		this.articleCollection = articleCollection;
-		this.filtering = filtering;
-	}
-	
-	/**
-	 * Liest eine {@link NewspaperArticleCollection} aus einer JSON-Datei ein.
-	 * 
-	 * @param collectionPath	Der Pfad zur JSON-Datei.
-	 * 
-	 * @return Eine {@link NewspaperArticleCollection}
-	 * 
-	 * @throws IOException
-	 */
-	public static NewspaperArticleCollection loadNewspaperCollection(String collectionPath) throws IOException {
-		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(collectionPath), StandardCharsets.UTF_8));
-		NewspaperArticleCollection collection = gson.fromJson(reader, NewspaperArticleCollection.class);
-		reader.close();
-		return collection;
-	}
-	
-	/**
-	 * Liest ein {@link Dictionary} aus einer JSON-Datei ein.
-	 * 
-	 * @param dictionaryPath	Der Pfad zur JSON-Datei.
-	 * 
-	 * @return Ein {@link Dictionary}
-	 * 
-	 * @throws IOException
-	 */
-	public static Dictionary loadDictionary(String dictionaryPath) throws IOException {
-		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(dictionaryPath), StandardCharsets.UTF_8));
-		Dictionary dic = gson.fromJson(reader, Dictionary.class);
-		reader.close();
-		return dic;
-	}
-	
-	@Override
-	public void run() {
-		try {
-			createDictionary(this.articleCollection, this.topic);
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-	}
-	
-	/**
-	 * Diese Methode erstellt für eine Kategorie ein {@link Dictionary}-Objekt und ein {@link Vocabulary}-Objekt her.
-	 * 
-	 * @param articleCollection	Die Textsammlung, für die ein {@link Dictionary}-Objekt und ein {@link Vocabulary}-Objekt erstellt werden soll.
-	 * @param category	Die Kategorie der Textsammlung. Wird nur für den Namen der am Ende erstellten JSON-Dateien genutzt.
-	 * 
-	 * @throws IOException
-	 */
-	private void createDictionary(String articleCollection, String category) throws IOException {
-		Gson gson = new GsonBuilder().setPrettyPrinting().create();
-		Dictionary dic = new Dictionary();
-		Vocabulary voc = new Vocabulary();
-
-		NewspaperArticleCollection articles = DictionaryCreator.loadNewspaperCollection(articleCollection);
-		
-		int i = 1;
-		ArticleAnalyzer analyzer = new ArticleAnalyzer();
-		for(NewspaperArticle n : articles.getArticles()) {
-			HashMap<String, Integer> entries = analyzer.analyze(n, this.filtering);
-			dic.add(entries);
-			voc.add(entries);
-			
-			System.out.println(i + ". Artikel verarbeitet!");
-			i++;
-		}
-		
-		String dictionaryOutput;
-		String vocabularyOutput;
-		
-		if(filtering) {
-			dictionaryOutput = PATH_DIRECTORY_DICTIONARIES + category + "DictionaryCleanFiltered.json";
-			vocabularyOutput = PATH_DIRECTORY_VOCABULARY + category + "VocabularyCleanFiltered.json";
-		} else {
-			dictionaryOutput = PATH_DIRECTORY_DICTIONARIES + category + "DictionaryCleaned.json";
-			vocabularyOutput = PATH_DIRECTORY_VOCABULARY + category + "VocabularyCleaned.json";
-		}
-		
-		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(dictionaryOutput), StandardCharsets.UTF_8));
-		writer.write(gson.toJson(dic));
-		writer.close();
-		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(vocabularyOutput), StandardCharsets.UTF_8));
-		writer.write(gson.toJson(voc));
-		writer.close();
-		
-	}
-
-}
+package mr.bsc.dict;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+
+import mr.bsc.classifier.HashedModel;
+import mr.bsc.guardian.NewspaperArticle;
+import mr.bsc.guardian.NewspaperArticleCollection;
+import mr.bsc.guardian.NewspaperArticleReader;
+
+/**
+ * Diese Klasse erstellt die {@link Dictionary}-Objekte, die als Vorhersagemodelle dienen. Nebenbei werden {@link Vocabulary}-Objekte erstellt.
+ * Diese Klasse implementiert {@link Runnable}, um das gleichzeitige Erstellen von {@link Dictionary}-Objekten zu ermöglichen.
+ * Mit {@link #DictionaryCreator(String, String, AnalysisMode)} werden die Modelle mit und ohne Filterung in einem einzigen Durchlauf erstellt,
+ * jeder Artikel wird dabei nur einmal annotiert.
+ * 
+ * Die Artikel einer Kategorie werden auf einem {@link ForkJoinPool} mit einem Thread pro Prozessorkern verarbeitet. Die Liste der Artikel
+ * wird dafür so lange halbiert, bis kleine Blöcke übrig bleiben. Jeder Block zählt in ein eigenes Teil-{@link Dictionary} und
+ * Teil-{@link Vocabulary}, die beim Zusammenführen der Hälften vereinigt werden. Da immer die linke Hälfte zuerst kommt, entsteht genau
+ * dasselbe Ergebnis wie beim Zählen von vorne nach hinten.
+ * 
+ * Im inkrementellen Modus wird kein neues Modell erstellt. Stattdessen werden die Artikel der Textsammlung zu einem bereits gespeicherten
+ * Modell hinzugezählt. So müssen bei neuen Artikeln nur diese zerlegt werden und nicht der gesamte Trainingsdatensatz.
+ * Die Dateien werden immer zuerst in eine temporäre Datei geschrieben und dann verschoben, ein Modell ist also nie halb geschrieben.
+ * 
+ * Mit {@link #setShard(int, int)} wird nur ein zusammenhängender Teil der Textsammlung verarbeitet und als Teilmodell gespeichert. So kann
+ * das Training auf mehrere Prozesse oder Rechner mit gemeinsamem Dateisystem verteilt werden, siehe {@link #main(String[])}. Der
+ * {@link ModelMerger} fügt die Teilmodelle anschließend zum fertigen Modell zusammen.
+ * 
+ * Mit {@link #setHashedBuckets(int)} wird im selben Durchlauf zusätzlich ein {@link HashedModel} trainiert und neben dem Wörterbuch
+ * gespeichert, siehe {@link HashedModel#getHashedPath(String)}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class DictionaryCreator implements Runnable {
+
+	/*
+	 * Die Pfade können über System-Properties (z. B. {@code -Dbsc.dictionaries=/data/dictionaries/}) ersetzt werden, damit mehrere Prozesse
+	 * auf einem anderen Rechner mit denselben Verzeichnissen arbeiten können.
+	 */
+	public final static String PATH_DIRECTORY_DICTIONARIES = System.getProperty("bsc.dictionaries", "E:\\Bachelorarbeit Texte\\TheGuardian\\dictionaries\\");
+	public final static String PATH_DIRECTORY_VOCABULARY = System.getProperty("bsc.vocabulary", "E:\\Bachelorarbeit Texte\\TheGuardian\\vocabulary\\");
+	public final static String PATH_STOPWORDS = System.getProperty("bsc.stopwords", "E:\\Bachelorarbeit Texte\\TheGuardian\\stopwords.json");
+	public final static String PATH_SYMBOLS = System.getProperty("bsc.symbols", "E:\\Bachelorarbeit Texte\\TheGuardian\\symbols.json");
+	public final static String PATH_DIRECTORY_ANNOTATIONS = System.getProperty("bsc.annotations", "E:\\Bachelorarbeit Texte\\TheGuardian\\annotations\\");
+	
+	/*
+	 * Die Anzahl der Zeitungsartikel, ab der ein Block nicht weiter geteilt wird.
+	 */
+	private final static int BLOCK_SIZE = 64;
+	
+	/*
+	 * Nach wie vielen Artikeln jeweils der Fortschritt ausgegeben wird.
+	 */
+	private final static int PROGRESS_STEP = 256;
+	
+	/*
+	 * So viele Zeitungsartikel werden auf einmal aus der Textsammlung gelesen und auf den {@link ForkJoinPool} verteilt.
+	 */
+	private final static int CHUNK_SIZE = 4096;
+	
+	private static ForkJoinPool trainingPool;
+	
+	private static Gson gson =  new GsonBuilder().setPrettyPrinting().create(); //Formatierte JSON-Dateien sind wichtig!
+	
+	private String topic;
+	private String articleCollection;
+	private boolean filtering;	//Werden Symbole und Stoppwörter in diesem Thread rausgefiltert und Eigennamen erkannt oder nicht?
+	private boolean both;		//Werden beide Modelle (mit und ohne Filterung) gleichzeitig erstellt? Dann spielt filtering keine Rolle.
+	private AnalysisMode mode;	//Mit welcher Art der Annotation werden die Artikel zerlegt?
+	private boolean incremental;	//Werden die Artikel zu einem gespeicherten Modell hinzugezählt statt ein neues zu erstellen?
+	private String settings = "";	//Die Einstellungen des Analysierers, landen im Kopf der Modelldateien
+	private int shard = 0;			//Welcher Teil der Textsammlung wird verarbeitet?
+	private int shards = 1;			//In wie viele Teile wird die Textsammlung zerlegt? Bei 1 wird das fertige Modell geschrieben.
+	private long budget = 0;		//Zeitbudget pro Artikel in Millisekunden, 0 heißt unbegrenzt
+	private TimeoutPolicy policy = TimeoutPolicy.FAST;
+	private int hashedBuckets = 0;	//Die Anzahl der Eimer des HashedModel, 0 heißt ohne gehashtes Modell
+	
+	public DictionaryCreator(String topic, String articleCollection, boolean filtering) {
+		this(topic, articleCollection, filtering, AnalysisMode.FULL);
+	}
+	
+	public DictionaryCreator(String topic, String articleCollection, boolean filtering, AnalysisMode mode) {
+		this(topic, articleCollection, filtering, mode, false);
+	}
+	
+	/**
+	 * @param topic				Die Kategorie der Textsammlung.
+	 * @param articleCollection	Die Textsammlung. Im inkrementellen Modus nur die neuen Artikel.
+	 * @param filtering			Soll gefiltert werden oder nicht?
+	 * @param mode				Die Art der Annotation.
+	 * @param incremental		Sollen die Artikel zum gespeicherten Modell hinzugezählt werden?
+	 */
+	public DictionaryCreator(String topic, String articleCollection, boolean filtering, AnalysisMode mode, boolean incremental) {
+		this.topic = topic;
+		this.articleCollection = articleCollection;
+		this.filtering = filtering;
+		this.mode = mode;
+		this.incremental = incremental;
+	}
+	
+	/**
+	 * Erstellt beide Modelle einer Kategorie, mit und ohne Filterung, aus denselben Annotationen.
+	 * 
+	 * @param topic				Die Kategorie der Textsammlung.
+	 * @param articleCollection	Die Textsammlung.
+	 * @param mode				Die Art der Annotation.
+	 */
+	public DictionaryCreator(String topic, String articleCollection, AnalysisMode mode) {
+		this(topic, articleCollection, mode, false);
+	}
+	
+	/**
+	 * Erstellt beide Modelle einer Kategorie, mit und ohne Filterung, aus denselben Annotationen oder zählt die Artikel zu den beiden
+	 * gespeicherten Modellen hinzu.
+	 * 
+	 * @param topic				Die Kategorie der Textsammlung.
+	 * @param articleCollection	Die Textsammlung. Im inkrementellen Modus nur die neuen Artikel.
+	 * @param mode				Die Art der Annotation.
+	 * @param incremental		Sollen die Artikel zu den gespeicherten Modellen hinzugezählt werden?
+	 */
+	public DictionaryCreator(String topic, String articleCollection, AnalysisMode mode, boolean incremental) {
+		this(topic, articleCollection, false, mode, incremental);
+		this.both = true;
+	}
+	
+	/**
+	 * Liest eine {@link NewspaperArticleCollection} aus einer JSON-Datei vollständig ein. Für große Textsammlungen, die nicht am Stück
+	 * im Speicher liegen müssen, ist der {@link NewspaperArticleReader} gedacht.
+	 * 
+	 * @param collectionPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Eine {@link NewspaperArticleCollection}
+	 * 
+	 * @throws IOException
+	 */
+	public static NewspaperArticleCollection loadNewspaperCollection(String collectionPath) throws IOException {
+		NewspaperArticleCollection collection = new NewspaperArticleCollection();
+		try(NewspaperArticleReader articles = new NewspaperArticleReader(collectionPath)) {
+			articles.forEachRemaining(collection::add);
+		}
+		return collection;
+	}
+	
+	/**
+	 * Liest ein veränderbares {@link Dictionary} ein. Liegt neben der JSON-Datei eine mindestens genauso neue {@link ModelFile}, wird
+	 * stattdessen diese gelesen, aber nicht eingeblendet. Die Dateien dürfen danach also sofort überschrieben werden. Ist die Modelldatei
+	 * beschädigt, wird doch die JSON-Datei gelesen.
+	 * 
+	 * @param dictionaryPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Ein {@link Dictionary}
+	 * 
+	 * @throws IOException
+	 */
+	public static Dictionary loadDictionary(String dictionaryPath) throws IOException {
+		if(ModelFile.hasBinary(dictionaryPath)) {
+			try {
+				return MappedDictionary.read(ModelFile.getBinaryPath(dictionaryPath)).copy();
+			} catch (IOException e) {
+				System.err.println(e.getMessage() + " Es wird die JSON-Datei gelesen.");
+			}
+		}
+		return readDictionary(dictionaryPath);
+	}
+	
+	/**
+	 * Liest ein {@link Dictionary} aus der JSON-Datei, ohne nach einer {@link ModelFile} zu suchen.
+	 */
+	private static Dictionary readDictionary(String dictionaryPath) throws IOException {
+		//Der DictionaryTypeAdapter liest direkt aus dem Reader und reserviert vorher Platz passend zur Größe der Datei
+		DictionaryTypeAdapter adapter = new DictionaryTypeAdapter(DictionaryTypeAdapter.estimateEntries(Files.size(Paths.get(dictionaryPath))));
+		try(JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(dictionaryPath), StandardCharsets.UTF_8), 1 << 16))) {
+			reader.setLenient(true);
+			return adapter.read(reader);
+		} catch (IllegalStateException e) {
+			throw new IOException("Die Datei " + dictionaryPath + " enthält kein gültiges Wörterbuch!", e);
+		}
+	}
+	
+	/**
+	 * Öffnet ein Wörterbuch nur zum Lesen. Liegt neben der JSON-Datei eine mindestens genauso neue {@link ModelFile}, wird diese in den
+	 * Speicher eingeblendet und ein {@link MappedDictionary} zurückgegeben, sonst wie {@link #loadDictionary(String)}. Solange das
+	 * Ergebnis erreichbar ist, darf die Modelldatei nicht ersetzt werden, unter Windows schlägt das fehl.
+	 * 
+	 * @param dictionaryPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Das Wörterbuch
+	 * 
+	 * @throws IOException
+	 */
+	public static DictionaryView mapDictionary(String dictionaryPath) throws IOException {
+		if(ModelFile.hasBinary(dictionaryPath)) {
+			try {
+				return MappedDictionary.open(ModelFile.getBinaryPath(dictionaryPath));
+			} catch (IOException e) {
+				System.err.println(e.getMessage() + " Es wird die JSON-Datei gelesen.");
+			}
+		}
+		return readDictionary(dictionaryPath);
+	}
+	
+	/**
+	 * Trainiert einen Teil einer Textsammlung in einem eigenen Prozess. Es werden beide Modelle (mit und ohne Filterung) als Teilmodelle
+	 * gespeichert. Beispiel für vier Prozesse auf einem Rechner:
+	 * 
+	 * <pre>
+	 * for i in 0 1 2 3; do java mr.bsc.dict.DictionaryCreator business business.json $i 4 &amp; done; wait
+	 * java mr.bsc.dict.ModelMerger business 4
+	 * </pre>
+	 * 
+	 * @param args	Kategorie, Pfad der Textsammlung, Nummer des Teils (ab 0), Anzahl der Teile und optional die {@link AnalysisMode} (Standard FULL)
+	 * 				und die Anzahl der Eimer des {@link HashedModel} (Standard 0, ohne gehashtes Modell).
+	 * 
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 4) {
+			System.err.println("Aufruf: DictionaryCreator <kategorie> <textsammlung> <teil> <teile> [FULL|FAST] [eimer]");
+			System.exit(1);
+		}
+		AnalysisMode mode = args.length > 4 ? AnalysisMode.valueOf(args[4]) : AnalysisMode.FULL;
+		DictionaryCreator creator = new DictionaryCreator(args[0], args[1], mode);
+		creator.setShard(Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+		if(args.length > 5) {
+			creator.setHashedBuckets(Integer.parseInt(args[5]));
+		}
+		creator.create();
+		getTrainingPool().shutdown();
+	}
+	
+	/**
+	 * Legt fest, dass nur ein Teil der Textsammlung verarbeitet wird. Die Textsammlung wird in {@code shards} zusammenhängende, etwa gleich
+	 * große Teile zerlegt. Die Modelle werden als Teilmodelle unter {@link #getShardPath(String, int, int)} gespeichert.
+	 * 
+	 * @param shard		Die Nummer des Teils, von 0 bis {@code shards - 1}.
+	 * @param shards	Die Anzahl der Teile. Bei 1 wird die ganze Textsammlung verarbeitet.
+	 */
+	public void setShard(int shard, int shards) {
+		if(shards < 1 || shard < 0 || shard >= shards) {
+			throw new IllegalArgumentException("Ungültiger Teil " + shard + " von " + shards + "!");
+		}
+		if(this.incremental && shards > 1) {
+			throw new IllegalArgumentException("Im inkrementellen Modus kann nicht in Teilen trainiert werden!");
+		}
+		this.shard = shard;
+		this.shards = shards;
+	}
+	
+	/**
+	 * Legt fest, wie lange die Annotation eines einzelnen Zeitungsartikels höchstens dauern darf, siehe
+	 * {@link ArticleAnalyzer#setLatencyBudget(long, TimeoutPolicy)}. Artikel, die auch mit der Notlösung nicht rechtzeitig fertig werden,
+	 * fließen nicht in die Modelle ein und werden am Ende gezählt.
+	 * 
+	 * @param millis	Das Zeitbudget in Millisekunden. 0 schaltet das Budget ab.
+	 * @param policy	Die Notlösung, wenn das Budget überschritten wird.
+	 */
+	public void setLatencyBudget(long millis, TimeoutPolicy policy) {
+		if(millis < 0) {
+			throw new IllegalArgumentException("Das Zeitbudget darf nicht negativ sein!");
+		}
+		this.budget = millis;
+		this.policy = policy;
+	}
+	
+	/**
+	 * Legt fest, dass zusätzlich zum Wörterbuch ein {@link HashedModel} mit nur dieser Kategorie trainiert wird. Der Klassifikator kann
+	 * es später auch mit weniger Eimern benutzen, siehe {@link HashedModel#combine(String[], HashedModel[], int)}. Im inkrementellen Modus
+	 * muss das gespeicherte gehashte Modell dieselbe Anzahl an Eimern haben.
+	 * 
+	 * @param buckets	Die Anzahl der Eimer, eine Zweierpotenz. 0 schaltet das gehashte Modell ab.
+	 */
+	public void setHashedBuckets(int buckets) {
+		if(buckets < 0 || (buckets > 0 && Integer.bitCount(buckets) != 1)) {
+			throw new IllegalArgumentException("Die Anzahl der Eimer muss eine Zweierpotenz sein: " + buckets);
+		}
+		this.hashedBuckets = buckets;
+	}
+	
+	/**
+	 * Gibt den Pfad eines Teilmodells zurück, z. B. {@code businessDictionaryCleaned.shard0of4.json}.
+	 * 
+	 * @param path		Der Pfad des fertigen Modells.
+	 * @param shard		Die Nummer des Teils.
+	 * @param shards	Die Anzahl der Teile.
+	 * 
+	 * @return Der Pfad des Teilmodells
+	 */
+	public static String getShardPath(String path, int shard, int shards) {
+		String base = path.endsWith(".json") ? path.substring(0, path.length() - 5) : path;
+		return base + ".shard" + shard + "of" + shards + ".json";
+	}
+	
+	@Override
+	public void run() {
+		try {
+			create();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Erstellt die Modelle dieser Kategorie und speichert sie. Anders als {@link #run()} werden Fehler beim Lesen und Schreiben
+	 * an den Aufrufer weitergegeben.
+	 * 
+	 * @throws IOException
+	 */
+	public void create() throws IOException {
+		if(this.both) {
+			createBothDictionaries(this.articleCollection, this.topic);
+		} else {
+			createDictionary(this.articleCollection, this.topic);
+		}
+		System.out.println(this.topic + ": " + LemmaCache.getInstance().getStatistics());
+	}
+	
+	/**
+	 * Gibt den {@link ForkJoinPool} zurück, auf dem alle Kategorien trainiert werden. Er wird beim ersten Aufruf erstellt und hat einen
+	 * Thread pro Prozessorkern.
+	 * 
+	 * @return Der {@link ForkJoinPool} für das Training
+	 */
+	private static synchronized ForkJoinPool getTrainingPool() {
+		if(trainingPool == null) {
+			trainingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return trainingPool;
+	}
+	
+	/**
+	 * Diese Methode erstellt für eine Kategorie ein {@link Dictionary}-Objekt und ein {@link Vocabulary}-Objekt her.
+	 * 
+	 * @param articleCollection	Die Textsammlung, für die ein {@link Dictionary}-Objekt und ein {@link Vocabulary}-Objekt erstellt werden soll.
+	 * @param category	Die Kategorie der Textsammlung. Wird nur für den Namen der am Ende erstellten JSON-Dateien genutzt.
+	 * 
+	 * @throws IOException
+	 */
+	private void createDictionary(String articleCollection, String category) throws IOException {
+		Partial result = train(articleCollection, !this.filtering, this.filtering);
+		int variant = this.filtering ? 1 : 0;
+		if(this.incremental) {
+			addToExisting(result, variant, category);
+		}
+		save(result.dictionaries[variant], result.vocabularies[variant], result.hashed[variant], category, this.filtering);
+	}
+	
+	/**
+	 * Diese Methode erstellt für eine Kategorie die {@link Dictionary}-Objekte und {@link Vocabulary}-Objekte mit und ohne Filterung.
+	 * Jeder Artikel wird nur einmal annotiert, beide Zerlegungen entstehen aus derselben Annotation.
+	 * 
+	 * @param articleCollection	Die Textsammlung, für die die Objekte erstellt werden sollen.
+	 * @param category	Die Kategorie der Textsammlung. Wird nur für den Namen der am Ende erstellten JSON-Dateien genutzt.
+	 * 
+	 * @throws IOException
+	 */
+	private void createBothDictionaries(String articleCollection, String category) throws IOException {
+		Partial result = train(articleCollection, true, true);
+		if(this.incremental) {
+			addToExisting(result, 0, category);
+			addToExisting(result, 1, category);
+		}
+		save(result.dictionaries[0], result.vocabularies[0], result.hashed[0], category, false);
+		save(result.dictionaries[1], result.vocabularies[1], result.hashed[1], category, true);
+	}
+	
+	/**
+	 * Zerlegt alle Artikel einer Textsammlung auf dem {@link ForkJoinPool} und zählt sie in die gewünschten Modelle.
+	 * 
+	 * @param articleCollection	Die Textsammlung.
+	 * @param unfiltered		Soll das Modell ohne Filterung erstellt werden?
+	 * @param filtered			Soll das Modell mit Filterung erstellt werden?
+	 * 
+	 * @return Die fertigen Modelle
+	 * 
+	 * @throws IOException
+	 */
+	private Partial train(String articleCollection, boolean unfiltered, boolean filtered) throws IOException {
+		ArticleAnalyzer analyzer = new ArticleAnalyzer(this.mode, true);
+		analyzer.setLatencyBudget(this.budget, this.policy);
+		this.settings = analyzer.getSettings();
+		AtomicInteger processed = new AtomicInteger();
+		Partial result = new Partial(unfiltered, filtered, DictionaryBackend.DENSE);
+		if(this.hashedBuckets > 0) {
+			//Die Modelle sind threadsicher, alle Blöcke zählen direkt in dieselben
+			String[] classes = { this.topic };
+			result.hashed[0] = unfiltered ? new HashedModel(classes, this.hashedBuckets) : null;
+			result.hashed[1] = filtered ? new HashedModel(classes, this.hashedBuckets) : null;
+		}
+		
+		//Die Textsammlung wird abschnittsweise gelesen, damit nie alle Artikel gleichzeitig im Speicher liegen
+		try(NewspaperArticleReader articles = new NewspaperArticleReader(articleCollection)) {
+			int remaining = Integer.MAX_VALUE;
+			if(this.shards > 1) {
+				//Zusammenhängende Teile, damit die zusammengeführten Teilmodelle genau dem Modell aus einem einzigen Prozess entsprechen
+				int total = NewspaperArticleReader.count(articleCollection);
+				int from = (int) ((long) total * this.shard / this.shards);
+				int to = (int) ((long) total * (this.shard + 1) / this.shards);
+				articles.skip(from);
+				remaining = to - from;
+				System.out.println(this.topic + ": Teil " + this.shard + " von " + this.shards + ", Artikel " + from + " bis " + (to - 1) + " von " + total);
+			}
+			List<NewspaperArticle> chunk = new ArrayList<NewspaperArticle>(CHUNK_SIZE);
+			while(remaining > 0 && articles.hasNext()) {
+				chunk.add(articles.next());
+				remaining--;
+				if(chunk.size() == CHUNK_SIZE || remaining == 0 || !articles.hasNext()) {
+					result.merge(getTrainingPool().invoke(new TrainingTask(analyzer, chunk, 0, chunk.size(), unfiltered, filtered, result.hashed, processed)));
+					chunk = new ArrayList<NewspaperArticle>(CHUNK_SIZE);
+				}
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		
+		System.out.println(processed.get() + " Artikel verarbeitet!");
+		if(analyzer.getBudgetBreaches() > 0) {
+			System.out.println(analyzer.getBudgetBreaches() + " Artikel über dem Zeitbudget, davon " + result.timedOut + " übersprungen");
+		}
+		return result;
+	}
+	
+	/**
+	 * Speichert ein {@link Dictionary}-Objekt und ein {@link Vocabulary}-Objekt als JSON-Dateien und als {@link ModelFile}, dazu das
+	 * {@link HashedModel}, falls eines trainiert wurde. Die Modelldateien werden zuletzt geschrieben, damit sie nie älter als die JSON-Dateien sind.
+	 * 
+	 * @param dic		Das Dictionary, das gespeichert werden soll.
+	 * @param voc		Das Vocabulary, das gespeichert werden soll.
+	 * @param hashed	Das gehashte Modell oder {@code null}.
+	 * @param category	Die Kategorie. Wird für den Namen der Dateien genutzt.
+	 * @param filtering	Wurde gefiltert oder nicht? Wird für den Namen der Dateien genutzt.
+	 * 
+	 * @throws IOException
+	 */
+	private void save(Dictionary dic, Vocabulary voc, HashedModel hashed, String category, boolean filtering) throws IOException {
+		writeAtomically(dic, getDictionaryPath(category, filtering));
+		writeAtomically(voc, getVocabularyPath(category, filtering));
+		ModelFile.write(dic, this.settings, ModelFile.getBinaryPath(getDictionaryPath(category, filtering)));
+		ModelFile.write(voc, this.settings, ModelFile.getBinaryPath(getVocabularyPath(category, filtering)));
+		if(hashed != null) {
+			hashed.save(HashedModel.getHashedPath(getDictionaryPath(category, filtering)));
+		}
+	}
+	
+	/**
+	 * Zählt das gespeicherte Modell einer Kategorie zu einem Trainingsergebnis hinzu. Die Einträge des gespeicherten Modells kommen
+	 * dabei zuerst, die Reihenfolge des Vokabulars bleibt also erhalten.
+	 * 
+	 * @param result	Das Ergebnis des Trainings mit den neuen Artikeln. Wird durch das vereinigte Modell ersetzt.
+	 * @param variant	0 für das Modell ohne Filterung, 1 für das Modell mit Filterung.
+	 * @param category	Die Kategorie.
+	 * 
+	 * @throws IOException	Das gespeicherte Modell konnte nicht gelesen werden, enthält keine Anzahl an Zeitungsartikeln oder es fehlt
+	 * 						das gehashte Modell.
+	 */
+	private void addToExisting(Partial result, int variant, String category) throws IOException {
+		boolean filtering = variant == 1;
+		String dictionaryPath = getDictionaryPath(category, filtering);
+		if(!Files.exists(Paths.get(dictionaryPath))) {
+			System.out.println(category + ": Kein gespeichertes Modell unter " + dictionaryPath + ", es wird neu erstellt.");
+			return;
+		}
+		
+		Dictionary dic = DictionaryCreator.loadDictionary(dictionaryPath); //Nicht eingeblendet, die Dateien werden gleich ersetzt
+		if(dic.getDocuments() == 0 && dic.getTotalWords() > 0) {
+			//Ohne die Anzahl der Artikel wären die A-priori-Wahrscheinlichkeiten nach dem Hinzufügen falsch
+			throw new IOException("Das Modell " + dictionaryPath + " enthält keine Anzahl an Zeitungsartikeln und muss einmal neu erstellt werden!");
+		}
+		String hashedPath = HashedModel.getHashedPath(dictionaryPath);
+		if(result.hashed[variant] != null && !Files.exists(Paths.get(hashedPath))) {
+			throw new IOException("Zum Modell " + dictionaryPath + " gibt es kein gehashtes Modell und es muss einmal neu erstellt werden!");
+		}
+		dic.merge(result.dictionaries[variant]);
+		result.dictionaries[variant] = dic;
+		
+		if(result.hashed[variant] != null) {
+			HashedModel hashed = HashedModel.load(hashedPath);
+			if(hashed.getBuckets() != this.hashedBuckets) {
+				throw new IOException("Das gehashte Modell " + hashedPath + " hat " + hashed.getBuckets() + " Eimer statt " + this.hashedBuckets + "!");
+			}
+			hashed.merge(result.hashed[variant]);
+			result.hashed[variant] = hashed;
+		}
+		
+		Vocabulary voc = VocabularyCombiner.loadVocabulary(getVocabularyPath(category, filtering));
+		voc.merge(result.vocabularies[variant]);
+		result.vocabularies[variant] = voc;
+	}
+	
+	/**
+	 * Gibt den Pfad des Wörterbuchs einer Kategorie zurück.
+	 * 
+	 * @param category	Die Kategorie.
+	 * @param filtering	Wurde gefiltert oder nicht?
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	private String getDictionaryPath(String category, boolean filtering) {
+		String path = getDictionaryPath(category, this.mode, filtering);
+		return this.shards > 1 ? getShardPath(path, this.shard, this.shards) : path;
+	}
+	
+	/**
+	 * Gibt den Pfad des fertigen Wörterbuchs einer Kategorie zurück.
+	 * 
+	 * @param category	Die Kategorie.
+	 * @param mode		Die Art der Annotation.
+	 * @param filtering	Wurde gefiltert oder nicht?
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	public static String getDictionaryPath(String category, AnalysisMode mode, boolean filtering) {
+		//Die Endung unterscheidet Modell_1 (Cleaned), Modell_2 (CleanFiltered) und die Modelle ohne POS-Tagger (Fast, FastFiltered)
+		return PATH_DIRECTORY_DICTIONARIES + category + "Dictionary" + mode.getFileSuffix(filtering) + ".json";
+	}
+	
+	/**
+	 * Gibt den Pfad des Vokabulars einer Kategorie zurück.
+	 * 
+	 * @param category	Die Kategorie.
+	 * @param filtering	Wurde gefiltert oder nicht?
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	private String getVocabularyPath(String category, boolean filtering) {
+		String path = getVocabularyPath(category, this.mode, filtering);
+		return this.shards > 1 ? getShardPath(path, this.shard, this.shards) : path;
+	}
+	
+	/**
+	 * Gibt den Pfad des fertigen Vokabulars einer Kategorie zurück.
+	 * 
+	 * @param category	Die Kategorie.
+	 * @param mode		Die Art der Annotation.
+	 * @param filtering	Wurde gefiltert oder nicht?
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	public static String getVocabularyPath(String category, AnalysisMode mode, boolean filtering) {
+		return PATH_DIRECTORY_VOCABULARY + category + "Vocabulary" + mode.getFileSuffix(filtering) + ".json";
+	}
+	
+	/**
+	 * Schreibt ein Objekt als JSON zuerst in eine temporäre Datei im selben Verzeichnis und verschiebt diese dann an ihren Platz, siehe
+	 * {@link #writeAtomically(String, Content)}. Das JSON wird direkt in die Datei geschrieben, ohne vorher als String im Speicher zu liegen.
+	 * 
+	 * @param model	Das Objekt, z. B. ein {@link Dictionary} oder {@link Vocabulary}.
+	 * @param path	Der Pfad der Datei.
+	 * 
+	 * @throws IOException
+	 */
+	static void writeAtomically(Object model, String path) throws IOException {
+		writeAtomically(path, out -> {
+			Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			try {
+				gson.toJson(model, writer);
+			} catch (JsonIOException e) {
+				throw new IOException(e.getMessage(), e.getCause());
+			}
+			writer.flush();
+		});
+	}
+	
+	/**
+	 * Schreibt eine Datei zuerst in eine temporäre Datei im selben Verzeichnis und verschiebt diese dann an ihren Platz. Wer die Datei 
+	 * liest, sieht also entweder das alte oder das neue Modell, aber nie ein halb geschriebenes. Alle Modelldateien, ob JSON oder binär,
+	 * werden so geschrieben.
+	 * 
+	 * @param path		Der Pfad der Datei.
+	 * @param content	Schreibt den Inhalt der Datei in einen gepufferten Strom.
+	 * 
+	 * @throws IOException
+	 */
+	public static void writeAtomically(String path, Content content) throws IOException {
+		Path target = Paths.get(path).toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+				content.write(out);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp); //Nur noch vorhanden, wenn etwas schiefgegangen ist
+		}
+	}
+	
+	/**
+	 * Der Inhalt einer Datei, die mit {@link DictionaryCreator#writeAtomically(String, Content)} geschrieben wird.
+	 */
+	@FunctionalInterface
+	public interface Content {
+		
+		/**
+		 * Schreibt den Inhalt. Der Strom wird danach geschlossen.
+		 * 
+		 * @param out	Der Strom in die temporäre Datei.
+		 * 
+		 * @throws IOException
+		 */
+		void write(DataOutputStream out) throws IOException;
+	}
+	
+	/**
+	 * Ein Teilergebnis des Trainings. Index 0 enthält das Modell ohne Filterung, Index 1 das Modell mit Filterung. Ein Modell, das nicht
+	 * erstellt wird, bleibt {@code null}. Die Blöcke zählen mit {@link DictionaryBackend#OPEN_ADDRESSING}, denn ein Block enthält nur einen
+	 * Bruchteil aller Begriffe und ein Array bis zur größten Term-ID wäre fast leer. Die gehashten Modelle gibt es nur im Gesamtergebnis.
+	 */
+	private static class Partial {
+		
+		private final Dictionary[] dictionaries = new Dictionary[2];
+		private final Vocabulary[] vocabularies = new Vocabulary[2];
+		private final HashedModel[] hashed = new HashedModel[2];
+		private int timedOut;	//Artikel, die das Zeitbudget auch mit der Notlösung überschritten haben
+		
+		Partial(boolean unfiltered, boolean filtered, DictionaryBackend backend) {
+			if(unfiltered) {
+				this.dictionaries[0] = new Dictionary(backend);
+				this.vocabularies[0] = new Vocabulary();
+			}
+			if(filtered) {
+				this.dictionaries[1] = new Dictionary(backend);
+				this.vocabularies[1] = new Vocabulary();
+			}
+		}
+		
+		void add(TermVector entries, int variant) {
+			this.dictionaries[variant].add(entries);
+			this.vocabularies[variant].add(entries);
+		}
+		
+		void merge(Partial other) {
+			this.timedOut += other.timedOut;
+			for(int i = 0; i < 2; i++) {
+				if(this.dictionaries[i] != null) {
+					this.dictionaries[i].merge(other.dictionaries[i]);
+					this.vocabularies[i].merge(other.vocabularies[i]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Zerlegt die Artikel {@code from} bis {@code to} (exklusiv). Größere Bereiche werden halbiert und die Hälften auf dem
+	 * {@link ForkJoinPool} verteilt, kleine Blöcke werden direkt gezählt.
+	 */
+	private static class TrainingTask extends RecursiveTask<Partial> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final ArticleAnalyzer analyzer;
+		private final List<NewspaperArticle> articles;
+		private final int from;
+		private final int to;
+		private final boolean unfiltered;
+		private final boolean filtered;
+		private final HashedModel[] hashed;
+		private final AtomicInteger processed;
+		
+		TrainingTask(ArticleAnalyzer analyzer, List<NewspaperArticle> articles, int from, int to, boolean unfiltered, boolean filtered, 
+				HashedModel[] hashed, AtomicInteger processed) {
+			this.analyzer = analyzer;
+			this.articles = articles;
+			this.from = from;
+			this.to = to;
+			this.unfiltered = unfiltered;
+			this.filtered = filtered;
+			this.hashed = hashed;
+			this.processed = processed;
+		}
+
+		@Override
+		protected Partial compute() {
+			if(this.to - this.from > BLOCK_SIZE) {
+				int middle = (this.from + this.to) >>> 1;
+				TrainingTask right = new TrainingTask(this.analyzer, this.articles, middle, this.to, this.unfiltered, this.filtered, this.hashed, this.processed);
+				right.fork();
+				Partial left = new TrainingTask(this.analyzer, this.articles, this.from, middle, this.unfiltered, this.filtered, this.hashed, this.processed).compute();
+				left.merge(right.join()); //Erst links, dann rechts: Die Reihenfolge im Vokabular bleibt erhalten
+				return left;
+			}
+			
+			Partial partial = new Partial(this.unfiltered, this.filtered, DictionaryBackend.OPEN_ADDRESSING);
+			for(int i = this.from; i < this.to; i++) {
+				NewspaperArticle n = this.articles.get(i);
+				if(this.unfiltered && this.filtered) {
+					FeatureBags bags = this.analyzer.analyzeBoth(n);
+					if(bags.getUnfiltered().isTimedOut()) {
+						partial.timedOut++; //Als leerer Artikel gezählt, würde er die A-priori-Wahrscheinlichkeiten verfälschen
+						continue;
+					}
+					add(partial, bags.getUnfiltered(), 0);
+					add(partial, bags.getFiltered(), 1);
+				} else {
+					TermVector words = this.analyzer.analyzeTerms(n, this.filtered);
+					if(words.isTimedOut()) {
+						partial.timedOut++;
+						continue;
+					}
+					add(partial, words, this.filtered ? 1 : 0);
+				}
+			}
+			
+			int count = this.to - this.from;
+			int total = this.processed.addAndGet(count);
+			if(total / PROGRESS_STEP != (total - count) / PROGRESS_STEP) {
+				System.out.println(total + " Artikel verarbeitet!");
+			}
+			return partial;
+		}
+		
+		/**
+		 * Zählt einen zerlegten Artikel in das Teilergebnis und, falls eines trainiert wird, in das gehashte Modell.
+		 */
+		private void add(Partial partial, TermVector words, int variant) {
+			partial.add(words, variant);
+			HashedModel model = this.hashed[variant];
+			if(model != null) {
+				//Beim Training stehen die Begriffe ohnehin für das Wörterbuch in der TermTable
+				model.add(0, words.map(model.getTermMapping()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Liest und schreibt ein {@link Dictionary} im bisherigen JSON-Format:
+ * 
+ * <pre>
+ * {
+ *   "entries": { "wort": 3, ... },
+ *   "words": 1234,
+ *   "documents": 9989
+ * }
+ * </pre>
+ * 
+ * {@code documents} ist die Anzahl der Zeitungsartikel, aus denen das Wörterbuch entstanden ist. Ältere Wörterbücher ohne diesen Wert
+ * werden mit 0 eingelesen.
+ * 
+ * Die Wörter werden beim Einlesen direkt in die {@link TermTable} eingetragen, ohne dass vorher eine {@code HashMap} aufgebaut wird.
+ * Ist die Größe der Datei bekannt, werden {@link TermTable} und {@link Dictionary} vorher passend vergrößert, siehe
+ * {@link #DictionaryTypeAdapter(int)}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class DictionaryTypeAdapter extends TypeAdapter<Dictionary> {
+	
+	/*
+	 * So viele Bytes belegt ein Eintrag wie {@code "wort":12,} mindestens im Durchschnitt. Lieber etwas zu viel Platz reservieren.
+	 */
+	private final static int BYTES_PER_ENTRY = 12;
+	
+	private final int expectedEntries;
+	
+	public DictionaryTypeAdapter() {
+		this(0);
+	}
+	
+	/**
+	 * @param expectedEntries	Die erwartete Anzahl an Einträgen, siehe {@link #estimateEntries(long)}. Bei 0 wird nichts reserviert.
+	 */
+	public DictionaryTypeAdapter(int expectedEntries) {
+		this.expectedEntries = expectedEntries;
+	}
+	
+	/**
+	 * Schätzt die Anzahl der Einträge eines gespeicherten Wörterbuchs aus der Größe der Datei. Die Schätzung ist eher zu groß.
+	 * 
+	 * @param bytes	Die Größe der JSON-Datei in Bytes.
+	 * 
+	 * @return Die geschätzte Anzahl an Einträgen
+	 */
+	public static int estimateEntries(long bytes) {
+		return (int) Math.min(bytes / BYTES_PER_ENTRY, Integer.MAX_VALUE / 2);
+	}
+
+	@Override
+	public void write(JsonWriter out, Dictionary dic) throws IOException {
+		if(dic == null) {
+			out.nullValue();
+			return;
+		}
+		
+		TermTable table = TermTable.getInstance();
+		out.beginObject();
+		out.name("entries");
+		out.beginObject();
+		for(int id : dic.getTermIds()) {
+			out.name(table.term(id)).value(dic.findOccurrence(id));
+		}
+		out.endObject();
+		out.name("words").value(dic.getTotalWords());
+		out.name("documents").value(dic.getDocuments());
+		out.endObject();
+	}
+
+	@Override
+	public Dictionary read(JsonReader in) throws IOException {
+		if(in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		
+		TermTable table = TermTable.getInstance();
+		Dictionary dic = new Dictionary();
+		if(this.expectedEntries > 0) {
+			table.ensureCapacity(this.expectedEntries);
+			dic.ensureCapacity(this.expectedEntries);
+		}
+		int words = -1;
+		int documents = 0;
+		
+		in.beginObject();
+		while(in.hasNext()) {
+			String name = in.nextName();
+			if(name.equals("entries")) {
+				in.beginObject();
+				while(in.hasNext()) {
+					int id = table.intern(in.nextName());
+					dic.add(id, in.nextInt());
+				}
+				in.endObject();
+			} else if(name.equals("words")) {
+				words = in.nextInt();
+			} else if(name.equals("documents")) {
+				documents = in.nextInt();
+			} else {
+				in.skipValue();
+			}
+		}
+		in.endObject();
+		
+		//Gespeicherter Wert hat Vorrang, so bleibt ein Modell exakt so, wie es geschrieben wurde
+		if(words >= 0) {
+			dic.setTotalWords(words);
+		}
+		dic.setDocuments(documents);
+		return dic;
+	}
+}
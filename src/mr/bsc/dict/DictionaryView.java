@@ -0,0 +1,66 @@
+package mr.bsc.dict;
+
+import java.util.HashMap;
+
+/**
+ * Ein Wörterbuch, das nur gelesen werden kann. Wird von {@link Dictionary} und vom eingeblendeten {@link MappedDictionary} erfüllt. Wer
+ * ein Wörterbuch nur auswertet, etwa der Klassifikator, arbeitet mit dieser Schnittstelle, siehe {@link DictionaryCreator#mapDictionary(String)}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public interface DictionaryView {
+
+	/**
+	 * Gibt die Größe des Wörterbuches zurück.
+	 *
+	 * @return Die Anzahl der Einträge als {@link int}
+	 */
+	int getDistinctWords();
+
+	/**
+	 * Gibt die Anzahl an Wörtern zurück, die zum Kompilieren dieses Wörterbuchs beigetragen haben.
+	 *
+	 * @return Die Gesamtzahl der Wörter als {@link int}
+	 */
+	int getTotalWords();
+
+	/**
+	 * Gibt die Anzahl der Zeitungsartikel zurück, aus denen dieses Wörterbuch entstanden ist, 0 wenn sie nicht gespeichert wurde.
+	 *
+	 * @return Die Anzahl der Zeitungsartikel als {@link int}
+	 */
+	int getDocuments();
+
+	/**
+	 * Gibt die Einträge dieses Wörterbuchs als neue HashMap zurück.
+	 *
+	 * @return Die Einträge dieses Wörterbuchs
+	 */
+	HashMap<String, Integer> getEntries();
+
+	/**
+	 * Gibt die Term-IDs aller Einträge aufsteigend sortiert zurück.
+	 *
+	 * @return Die Term-IDs der Einträge
+	 */
+	int[] getTermIds();
+
+	/**
+	 * Überprüft, wie häufig ein Wort in diesem Wörterbuch vorkommt.
+	 *
+	 * @param word	Das Wort.
+	 *
+	 * @return Die Häufigkeit oder 0, wenn das Wort nicht vorkommt
+	 */
+	int findOccurrence(String word);
+
+	/**
+	 * Überprüft, wie häufig ein Begriff in diesem Wörterbuch vorkommt.
+	 *
+	 * @param termId	Die Term-ID des Begriffs.
+	 *
+	 * @return Die Häufigkeit oder 0, wenn der Begriff nicht vorkommt
+	 */
+	int findOccurrence(int termId);
+}
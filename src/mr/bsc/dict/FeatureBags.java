@@ -0,0 +1,48 @@
+package mr.bsc.dict;
+
+/**
+ * Die beiden Zerlegungen eines Zeitungsartikels, die aus derselben Annotation entstehen: ohne Filterung (wie für Modell_1) und mit
+ * Filterung, Eigennamen und Komposita (wie für Modell_2).
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class FeatureBags {
+	
+	private final TermVector unfiltered;
+	private final TermVector filtered;
+	
+	public FeatureBags(TermVector unfiltered, TermVector filtered) {
+		this.unfiltered = unfiltered;
+		this.filtered = filtered;
+	}
+	
+	/**
+	 * Gibt die Zerlegung ohne Filterung zurück.
+	 * 
+	 * @return Der {@link TermVector} für Modell_1
+	 */
+	public TermVector getUnfiltered() {
+		return this.unfiltered;
+	}
+	
+	/**
+	 * Gibt die Zerlegung mit Filterung zurück.
+	 * 
+	 * @return Der {@link TermVector} für Modell_2
+	 */
+	public TermVector getFiltered() {
+		return this.filtered;
+	}
+	
+	/**
+	 * Gibt eine der beiden Zerlegungen zurück.
+	 * 
+	 * @param filtering	Die Zerlegung mit Filterung oder ohne?
+	 * 
+	 * @return Der passende {@link TermVector}
+	 */
+	public TermVector get(boolean filtering) {
+		return filtering ? this.filtered : this.unfiltered;
+	}
+}
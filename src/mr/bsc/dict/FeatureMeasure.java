@@ -0,0 +1,43 @@
+package mr.bsc.dict;
+
+/**
+ * Das Maß, mit dem der {@link FeatureSelector} die Begriffe einer Kategorie bewertet. Beide Maße werden aus der Vierfeldertafel der
+ * Wortvorkommen berechnet:
+ * 
+ * <pre>
+ * a = Vorkommen des Begriffs in der Kategorie          b = Vorkommen des Begriffs in allen anderen Kategorien
+ * c = Vorkommen anderer Begriffe in der Kategorie      d = Vorkommen anderer Begriffe in allen anderen Kategorien
+ * </pre>
+ * 
+ * <p>{@link #MUTUAL_INFORMATION}: Die Transinformation zwischen Begriff und Kategorie.</p>
+ * <p>{@link #CHI_SQUARED}: Die Chi-Quadrat-Statistik für die Unabhängigkeit von Begriff und Kategorie.</p>
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public enum FeatureMeasure {
+	
+	MUTUAL_INFORMATION,
+	CHI_SQUARED;
+	
+	/**
+	 * Bewertet einen Begriff für eine Kategorie. Je größer der Wert, desto mehr sagt der Begriff über die Kategorie aus.
+	 * 
+	 * @return Die Bewertung als {@link double}
+	 */
+	double score(double a, double b, double c, double d) {
+		double n = a + b + c + d;
+		switch(this) {
+			case CHI_SQUARED:
+				double denominator = (a + c) * (b + d) * (a + b) * (c + d);
+				return denominator == 0 ? 0 : n * (a * d - b * c) * (a * d - b * c) / denominator;
+			default:
+				return information(a, a + b, a + c, n) + information(b, a + b, b + d, n)
+						+ information(c, c + d, a + c, n) + information(d, c + d, b + d, n);
+		}
+	}
+	
+	private static double information(double joint, double row, double column, double n) {
+		return joint == 0 ? 0 : joint / n * Math.log(n * joint / (row * column));
+	}
+}
@@ -0,0 +1,204 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Beschränkt die Größe der Vorhersagemodelle, indem nur ein Teil der Begriffe behalten wird. Die meisten Begriffe kommen im gesamten
+ * Trainingsdatensatz nur ein- oder zweimal vor, belegen aber den Großteil des Speichers. Die Auswahl läuft in drei Schritten:
+ * 
+ * <ol>
+ * <li>Begriffe, die über alle Kategorien zusammen seltener als {@code minCount} vorkommen, fallen weg.</li>
+ * <li>Ist {@code topK} größer als 0, bleiben pro Kategorie nur die {@code topK} Begriffe mit der besten Bewertung nach dem
+ * {@link FeatureMeasure} übrig. Behalten wird die Vereinigung über alle Kategorien.</li>
+ * <li>Ist {@code maxVocabulary} größer als 0, bleiben höchstens so viele Begriffe übrig, die häufigsten zuerst.</li>
+ * </ol>
+ * 
+ * Die Auswahl braucht die Wörterbücher aller Kategorien und läuft deshalb nach dem Training. Die Häufigkeiten der entfernten Begriffe
+ * fehlen danach auch in {@link Dictionary#getTotalWords()}, damit die Glättung über das verkleinerte Vokabular korrekt bleibt.
+ * Die Modelle werden mit der Endung {@link #SUFFIX} neben die vollständigen Modelle gelegt, siehe {@link #getPrunedPath(String)}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class FeatureSelector {
+	
+	public final static String SUFFIX = "Pruned";
+	
+	private final int minCount;
+	private final int maxVocabulary;
+	private final int topK;
+	private final FeatureMeasure measure;
+	
+	/**
+	 * @param minCount		Wie oft ein Begriff über alle Kategorien mindestens vorkommen muss.
+	 * @param maxVocabulary	Wie viele Begriffe höchstens übrig bleiben. 0 heißt unbegrenzt.
+	 * @param topK			Wie viele Begriffe pro Kategorie nach dem {@link FeatureMeasure} behalten werden. 0 schaltet diesen Schritt ab.
+	 * @param measure		Das Maß, mit dem die Begriffe einer Kategorie bewertet werden.
+	 */
+	public FeatureSelector(int minCount, int maxVocabulary, int topK, FeatureMeasure measure) {
+		if(minCount < 0 || maxVocabulary < 0 || topK < 0) {
+			throw new IllegalArgumentException("Die Grenzen der Merkmalsauswahl dürfen nicht negativ sein!");
+		}
+		this.minCount = minCount;
+		this.maxVocabulary = maxVocabulary;
+		this.topK = topK;
+		this.measure = measure;
+	}
+	
+	/**
+	 * Gibt den Pfad zurück, unter dem die verkleinerte Fassung eines Modells abgelegt wird.
+	 * 
+	 * @param jsonPath	Der Pfad der JSON-Datei des vollständigen Modells.
+	 * 
+	 * @return Der Pfad der JSON-Datei des verkleinerten Modells
+	 */
+	public static String getPrunedPath(String jsonPath) {
+		return (jsonPath.endsWith(".json") ? jsonPath.substring(0, jsonPath.length() - 5) : jsonPath) + SUFFIX + ".json";
+	}
+	
+	/**
+	 * Wählt die Begriffe aus, die in den Modellen bleiben.
+	 * 
+	 * @param dictionaries	Die Wörterbücher aller Kategorien.
+	 * 
+	 * @return Die Term-IDs der Begriffe, die behalten werden
+	 */
+	public BitSet select(DictionaryView... dictionaries) {
+		int[][] ids = new int[dictionaries.length][];
+		for(int i = 0; i < dictionaries.length; i++) {
+			ids[i] = dictionaries[i].getTermIds(); //Zuerst, denn ein MappedDictionary trägt dabei seine Begriffe in die TermTable ein
+		}
+		long[] frequency = new long[TermTable.getInstance().size()];
+		long total = 0;
+		for(int i = 0; i < dictionaries.length; i++) {
+			for(int id : ids[i]) {
+				frequency[id] += dictionaries[i].findOccurrence(id);
+			}
+			total += dictionaries[i].getTotalWords();
+		}
+		
+		BitSet selected = new BitSet(frequency.length);
+		for(int id = 0; id < frequency.length; id++) {
+			if(frequency[id] > 0 && frequency[id] >= this.minCount) {
+				selected.set(id);
+			}
+		}
+		
+		if(this.topK > 0) {
+			BitSet best = new BitSet(frequency.length);
+			for(DictionaryView dic : dictionaries) {
+				double inClass = dic.getTotalWords();
+				double[] scores = new double[frequency.length];
+				for(int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+					double a = dic.findOccurrence(id);
+					double b = frequency[id] - a;
+					scores[id] = this.measure.score(a, b, inClass - a, total - inClass - b);
+				}
+				for(int id : top(selected, scores, this.topK)) {
+					best.set(id);
+				}
+			}
+			selected = best;
+		}
+		
+		if(this.maxVocabulary > 0 && selected.cardinality() > this.maxVocabulary) {
+			double[] scores = new double[frequency.length];
+			for(int id = 0; id < frequency.length; id++) {
+				scores[id] = frequency[id];
+			}
+			BitSet capped = new BitSet(frequency.length);
+			for(int id : top(selected, scores, this.maxVocabulary)) {
+				capped.set(id);
+			}
+			selected = capped;
+		}
+		return selected;
+	}
+	
+	/**
+	 * Gibt die {@code k} Term-IDs aus {@code candidates} mit den größten Werten zurück. Bei gleichem Wert gewinnt die kleinere Term-ID,
+	 * damit die Auswahl nicht vom Zufall abhängt.
+	 */
+	private static int[] top(BitSet candidates, double[] scores, int k) {
+		Integer[] ids = new Integer[candidates.cardinality()];
+		int n = 0;
+		for(int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+			ids[n++] = id;
+		}
+		Arrays.sort(ids, (x, y) -> scores[x] != scores[y] ? Double.compare(scores[y], scores[x]) : Integer.compare(x, y));
+		int[] top = new int[Math.min(k, ids.length)];
+		for(int i = 0; i < top.length; i++) {
+			top[i] = ids[i];
+		}
+		return top;
+	}
+	
+	/**
+	 * Erstellt ein Wörterbuch, das nur noch die ausgewählten Begriffe enthält. Die Gesamtzahl der Wörter wird neu gezählt, die Anzahl der
+	 * Zeitungsartikel bleibt erhalten.
+	 * 
+	 * @param dic		Das vollständige Wörterbuch. Es wird nicht verändert.
+	 * @param selected	Die Term-IDs der Begriffe, die behalten werden.
+	 * 
+	 * @return Das verkleinerte {@link Dictionary}
+	 */
+	public static Dictionary prune(DictionaryView dic, BitSet selected) {
+		Dictionary pruned = new Dictionary();
+		for(int id : dic.getTermIds()) {
+			if(selected.get(id)) {
+				pruned.add(id, dic.findOccurrence(id));
+			}
+		}
+		pruned.setDocuments(dic.getDocuments());
+		return pruned;
+	}
+	
+	/**
+	 * Verkleinert die Wörterbücher aller Kategorien und speichert sie zusammen mit dem kombinierten Vokabular unter den Pfaden aus
+	 * {@link #getPrunedPath(String)}, als JSON-Datei und als {@link ModelFile}. Das Vokabular wird aus den verkleinerten Wörterbüchern
+	 * abgeleitet, siehe {@link VocabularyCombiner#fromDictionaries(DictionaryView...)}.
+	 * 
+	 * @param dictionaryPaths	Die Pfade der vollständigen Wörterbücher, eines pro Kategorie.
+	 * @param vocabularyPath	Der Pfad des vollständigen kombinierten Vokabulars.
+	 * 
+	 * @return Die verkleinerten Wörterbücher in der Reihenfolge der Pfade
+	 * 
+	 * @throws IOException	Beim Laden oder Schreiben der Modelle ist was schiefgegangen.
+	 */
+	public List<Dictionary> prune(List<String> dictionaryPaths, String vocabularyPath) throws IOException {
+		DictionaryView[] dictionaries = new DictionaryView[dictionaryPaths.size()];
+		String settings = "";
+		for(int i = 0; i < dictionaries.length; i++) {
+			dictionaries[i] = DictionaryCreator.mapDictionary(dictionaryPaths.get(i));
+			if(dictionaries[i] instanceof MappedDictionary) {
+				settings = ((MappedDictionary) dictionaries[i]).getSettings();
+			}
+		}
+		
+		BitSet selected = select(dictionaries);
+		List<Dictionary> pruned = new ArrayList<Dictionary>(dictionaries.length);
+		int before = 0;
+		int after = 0;
+		for(int i = 0; i < dictionaries.length; i++) {
+			Dictionary dic = prune(dictionaries[i], selected);
+			String path = getPrunedPath(dictionaryPaths.get(i));
+			DictionaryCreator.writeAtomically(dic, path);
+			ModelFile.write(dic, settings, ModelFile.getBinaryPath(path));
+			pruned.add(dic);
+			before += dictionaries[i].getDistinctWords();
+			after += dic.getDistinctWords();
+		}
+		
+		Vocabulary voc = VocabularyCombiner.fromDictionaries(pruned.toArray(new Dictionary[pruned.size()]));
+		String path = getPrunedPath(vocabularyPath);
+		DictionaryCreator.writeAtomically(voc, path);
+		ModelFile.write(voc, settings, ModelFile.getBinaryPath(path));
+		
+		System.out.println("Merkmalsauswahl: " + voc.size() + " Begriffe im Vokabular, " + after + " von " + before + " Einträgen in den Wörterbüchern behalten");
+		return pruned;
+	}
+}
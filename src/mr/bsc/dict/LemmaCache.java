@@ -0,0 +1,159 @@
+package mr.bsc.dict;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.stanford.nlp.process.Morphology;
+
+/**
+ * Ein begrenzter Cache für Lemmata, den sich alle Threads des {@link ArticleAnalyzer} teilen. Der Wortschatz von Zeitungsartikeln ist 
+ * sehr ungleich verteilt: Wenige Wörter machen den Großteil aller Tokens aus. Statt für jedes Token erneut {@link Morphology} zu befragen,
+ * wird das Lemma eines Paares aus Wort und POS-Tag nur einmal berechnet.
+ * 
+ * Der Cache ist in mehrere Segmente aufgeteilt, die jeweils eine eigene Sperre haben. Jedes Segment verdrängt den am längsten nicht
+ * mehr genutzten Eintrag, sobald es voll ist. Treffer, Fehlschläge und Verdrängungen werden mitgezählt, siehe {@link #getStatistics()}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public final class LemmaCache {
+	
+	private final static int SEGMENTS = 16;
+	private final static int DEFAULT_CAPACITY = 1 << 18;
+	
+	private final static LemmaCache instance = new LemmaCache(DEFAULT_CAPACITY);
+	
+	/*
+	 * Morphology ist nicht threadsicher, deshalb bekommt jeder Thread seine eigene Instanz.
+	 */
+	private final static ThreadLocal<Morphology> morphology = ThreadLocal.withInitial(Morphology::new);
+	
+	private final Segment[] segments = new Segment[SEGMENTS];
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	
+	/**
+	 * @param capacity	Die maximale Anzahl an Einträgen über alle Segmente.
+	 */
+	private LemmaCache(int capacity) {
+		for(int i = 0; i < SEGMENTS; i++) {
+			this.segments[i] = new Segment(Math.max(1, capacity / SEGMENTS));
+		}
+	}
+	
+	/**
+	 * Gibt den prozessweiten Cache zurück.
+	 * 
+	 * @return Der {@link LemmaCache}
+	 */
+	public static LemmaCache getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * Gibt das Lemma eines Wortes zurück. Wie beim Lemmatisierer von CoreNLP wird mit POS-Tag {@link Morphology#lemma(String, String)}
+	 * und ohne POS-Tag {@link Morphology#stem(String)} genutzt.
+	 * 
+	 * @param word	Das Wort.
+	 * @param tag	Der POS-Tag des Wortes oder der leere String, wenn es keinen gibt.
+	 * 
+	 * @return Das Lemma des Wortes
+	 */
+	public String lemma(String word, String tag) {
+		String key = tag + ' ' + word; //POS-Tags enthalten nie ein Leerzeichen, der Schlüssel ist also eindeutig
+		Segment segment = this.segments[(key.hashCode() & 0x7FFFFFFF) % SEGMENTS];
+		
+		String lemma;
+		synchronized(segment) {
+			lemma = segment.get(key);
+		}
+		if(lemma != null) {
+			this.hits.increment();
+			return lemma;
+		}
+		
+		//Die Berechnung läuft außerhalb der Sperre, damit andere Threads in diesem Segment nicht warten müssen
+		this.misses.increment();
+		Morphology morpha = morphology.get();
+		lemma = tag.isEmpty() ? morpha.stem(word) : morpha.lemma(word, tag);
+		synchronized(segment) {
+			segment.put(key, lemma);
+		}
+		return lemma;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Treffer zurück.
+	 * 
+	 * @return Die Anzahl der Treffer als {@link long}
+	 */
+	public long getHits() {
+		return this.hits.sum();
+	}
+	
+	/**
+	 * Gibt die Anzahl der Fehlschläge zurück, also wie oft ein Lemma berechnet werden musste.
+	 * 
+	 * @return Die Anzahl der Fehlschläge als {@link long}
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+	
+	/**
+	 * Gibt die Anzahl der verdrängten Einträge zurück.
+	 * 
+	 * @return Die Anzahl der Verdrängungen als {@link long}
+	 */
+	public long getEvictions() {
+		return this.evictions.sum();
+	}
+	
+	/**
+	 * Gibt den Anteil der Treffer an allen Anfragen zurück.
+	 * 
+	 * @return Die Trefferquote zwischen 0 und 1
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+	
+	/**
+	 * Fasst die Zähler des Caches für die Konsole zusammen.
+	 * 
+	 * @return Treffer, Fehlschläge, Verdrängungen und Trefferquote als String
+	 */
+	public String getStatistics() {
+		return String.format("Lemma-Cache: %d Treffer, %d Fehlschläge, %d verdrängt, Trefferquote %.1f%%", 
+				getHits(), getMisses(), getEvictions(), getHitRate() * 100);
+	}
+	
+	/**
+	 * Ein Segment des Caches. Die Reihenfolge der Einträge richtet sich nach dem letzten Zugriff, der älteste Eintrag wird verdrängt.
+	 */
+	private class Segment extends LinkedHashMap<String, String> {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final int capacity;
+		
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			if(size() > this.capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
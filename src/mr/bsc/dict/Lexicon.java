@@ -0,0 +1,98 @@
+package mr.bsc.dict;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.gson.Gson;
+
+/**
+ * Das Lexikon der Wörter, die beim Zerlegen mit Filterung entfernt werden. Die {@link StopWords} und {@link Symbols} werden nur ein einziges Mal
+ * pro Prozess eingelesen und in unveränderliche Hash-Sets überführt. Damit kostet die Überprüfung eines Lemmas O(1) statt eines Durchlaufs
+ * durch eine {@code ArrayList}. Alle {@link ArticleAnalyzer} (und damit auch Klassifikator und Vergleich) teilen sich dasselbe Objekt.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public final class Lexicon {
+
+	private static Lexicon instance;
+
+	private final Set<String> stopwords;
+	private final Set<String> symbols;
+
+	/*
+	 * Stoppwörter und Symbole zusammen. Der Analysierer muss nur wissen, ob gefiltert wird, nicht warum. So reicht ein einziger Lookup.
+	 */
+	private final Set<String> filtered;
+
+	private Lexicon(StopWords stop, Symbols sym) {
+		this.stopwords = Set.copyOf(stop.getStopwords());
+		this.symbols = Set.copyOf(sym.getSymbols());
+
+		HashSet<String> all = new HashSet<String>(this.stopwords);
+		all.addAll(this.symbols);
+		this.filtered = Set.copyOf(all);
+	}
+
+	/**
+	 * Gibt das prozessweite Lexikon zurück. Beim ersten Aufruf werden die Stoppwörter und Symbole aus
+	 * {@link DictionaryCreator#PATH_STOPWORDS} und {@link DictionaryCreator#PATH_SYMBOLS} eingelesen.
+	 *
+	 * @return Das prozessweite {@link Lexicon}
+	 *
+	 * @throws IOException	Beim Einlesen der Stoppwörter oder Symbole ist was schiefgegangen. Sind die Pfade korrekt?
+	 */
+	public static synchronized Lexicon getInstance() throws IOException {
+		if(instance == null) {
+			Gson gson = new Gson();
+			StopWords stop;
+			Symbols sym;
+			try(BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(DictionaryCreator.PATH_STOPWORDS), StandardCharsets.UTF_8))) {
+				stop = gson.fromJson(reader, StopWords.class);
+			}
+			try(BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(DictionaryCreator.PATH_SYMBOLS), StandardCharsets.UTF_8))) {
+				sym = gson.fromJson(reader, Symbols.class);
+			}
+			instance = new Lexicon(stop, sym);
+		}
+		return instance;
+	}
+
+	/**
+	 * Überprüft, ob ein String ein Stoppwort ist.
+	 *
+	 * @param s	Der String, der überprüft werden soll.
+	 *
+	 * @return true, wenn der String ein Stoppwort ist.
+	 */
+	public boolean isStoppwort(String s) {
+		return this.stopwords.contains(s);
+	}
+
+	/**
+	 * Überprüft, ob ein String ein Symbol ist.
+	 *
+	 * @param s	Der String, der überprüft werden soll.
+	 *
+	 * @return true, wenn der String ein Symbol ist.
+	 */
+	public boolean isSymbol(String s) {
+		return this.symbols.contains(s);
+	}
+
+	/**
+	 * Überprüft, ob ein String ein Stoppwort oder ein Symbol ist und deshalb beim Filtern entfernt werden muss.
+	 *
+	 * @param s	Der String, der überprüft werden soll.
+	 *
+	 * @return true, wenn der String gefiltert werden muss.
+	 */
+	public boolean isFiltered(String s) {
+		return this.filtered.contains(s);
+	}
+}
@@ -0,0 +1,126 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Ein Wörterbuch, das direkt aus einer eingeblendeten {@link ModelFile} gelesen wird. Die Häufigkeiten werden erst beim Nachschlagen aus
+ * der Datei geholt, das Öffnen kostet also unabhängig von der Größe des Wörterbuchs fast keine Zeit.
+ *
+ * Das Wörterbuch kann nur gelesen werden. Ein veränderbares {@link Dictionary} aus derselben Datei liefert {@link #copy()} bzw.
+ * {@link DictionaryCreator#loadDictionary(String)}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class MappedDictionary implements DictionaryView {
+
+	private final ModelFile file;
+
+	private MappedDictionary(ModelFile file) {
+		this.file = file;
+	}
+
+	/**
+	 * Blendet ein gespeichertes Wörterbuch in den Speicher ein.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 *
+	 * @return Das eingeblendete {@link MappedDictionary}
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder enthält kein Wörterbuch.
+	 */
+	public static MappedDictionary open(String path) throws IOException {
+		return new MappedDictionary(ModelFile.map(path, ModelFile.KIND_DICTIONARY));
+	}
+
+	/**
+	 * Liest ein gespeichertes Wörterbuch in den Heap, ohne die Datei einzublenden, siehe {@link ModelFile#read(String, int)}.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 *
+	 * @return Das eingelesene {@link MappedDictionary}
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder enthält kein Wörterbuch.
+	 */
+	static MappedDictionary read(String path) throws IOException {
+		return new MappedDictionary(ModelFile.read(path, ModelFile.KIND_DICTIONARY));
+	}
+
+	/**
+	 * Übernimmt alle Einträge in ein neues, veränderbares {@link Dictionary}.
+	 *
+	 * @return Das {@link Dictionary}
+	 */
+	public Dictionary copy() {
+		TermTable table = TermTable.getInstance();
+		Dictionary dic = new Dictionary();
+		dic.ensureCapacity(this.file.size());
+		for(int i = 0; i < this.file.size(); i++) {
+			dic.add(table.intern(this.file.term(i)), this.file.value(i));
+		}
+		dic.setTotalWords(this.file.getTotalWords());
+		dic.setDocuments(this.file.getDocuments());
+		return dic;
+	}
+
+	/**
+	 * Gibt die Einstellungen des Analysierers zurück, mit dem das Wörterbuch erstellt wurde.
+	 *
+	 * @return Die Einstellungen als String
+	 */
+	public String getSettings() {
+		return this.file.getSettings();
+	}
+
+	@Override
+	public int getDistinctWords() {
+		return this.file.size();
+	}
+
+	@Override
+	public int getTotalWords() {
+		return this.file.getTotalWords();
+	}
+
+	@Override
+	public int getDocuments() {
+		return this.file.getDocuments();
+	}
+
+	@Override
+	public HashMap<String, Integer> getEntries(){
+		HashMap<String, Integer> entries = new HashMap<String, Integer>(this.file.size() * 2);
+		for(int i = 0; i < this.file.size(); i++) {
+			entries.put(this.file.term(i), this.file.value(i));
+		}
+		return entries;
+	}
+
+	/**
+	 * Gibt die Term-IDs aller Einträge aufsteigend sortiert zurück. Dafür müssen alle Begriffe in die {@link TermTable} eingetragen werden.
+	 */
+	@Override
+	public int[] getTermIds() {
+		TermTable table = TermTable.getInstance();
+		int[] ids = new int[this.file.size()];
+		for(int i = 0; i < ids.length; i++) {
+			ids[i] = table.intern(this.file.term(i));
+		}
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	@Override
+	public int findOccurrence(String word) {
+		int index = this.file.indexOf(word);
+		return index < 0 ? 0 : this.file.value(index);
+	}
+
+	@Override
+	public int findOccurrence(int termId) {
+		int index = this.file.indexOf(termId);
+		return index < 0 ? 0 : this.file.value(index);
+	}
+}
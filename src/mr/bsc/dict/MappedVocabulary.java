@@ -0,0 +1,119 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+
+/**
+ * Ein Vokabular, das direkt aus einer eingeblendeten {@link ModelFile} gelesen wird. Ob ein Begriff enthalten ist, wird erst beim
+ * Nachschlagen in der Datei gesucht, das Öffnen kostet also unabhängig von der Größe des Vokabulars fast keine Zeit.
+ *
+ * Das Vokabular kann nur gelesen werden. Ein veränderbares {@link Vocabulary} aus derselben Datei liefert {@link #copy()} bzw.
+ * {@link VocabularyCombiner#loadVocabulary(String)}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class MappedVocabulary implements VocabularyView {
+
+	private final ModelFile file;
+
+	private MappedVocabulary(ModelFile file) {
+		this.file = file;
+	}
+
+	/**
+	 * Blendet ein gespeichertes Vokabular in den Speicher ein.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 *
+	 * @return Das eingeblendete {@link MappedVocabulary}
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder enthält kein Vokabular.
+	 */
+	public static MappedVocabulary open(String path) throws IOException {
+		return new MappedVocabulary(ModelFile.map(path, ModelFile.KIND_VOCABULARY));
+	}
+
+	/**
+	 * Liest ein gespeichertes Vokabular in den Heap, ohne die Datei einzublenden, siehe {@link ModelFile#read(String, int)}.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 *
+	 * @return Das eingelesene {@link MappedVocabulary}
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder enthält kein Vokabular.
+	 */
+	static MappedVocabulary read(String path) throws IOException {
+		return new MappedVocabulary(ModelFile.read(path, ModelFile.KIND_VOCABULARY));
+	}
+
+	/**
+	 * Übernimmt alle Begriffe in der Reihenfolge des Einfügens in ein neues, veränderbares {@link Vocabulary}.
+	 *
+	 * @return Das {@link Vocabulary}
+	 */
+	public Vocabulary copy() {
+		Vocabulary voc = new Vocabulary();
+		voc.ensureCapacity(this.file.size());
+		for(int id : getTermIds()) {
+			voc.add(id);
+		}
+		return voc;
+	}
+
+	/**
+	 * Gibt die Einstellungen des Analysierers zurück, mit dem das Vokabular erstellt wurde.
+	 *
+	 * @return Die Einstellungen als String
+	 */
+	public String getSettings() {
+		return this.file.getSettings();
+	}
+
+	/**
+	 * Gibt die Positionen der Begriffe in der Reihenfolge des Einfügens zurück. In der Datei sind die Begriffe sortiert, der Wert eines
+	 * Begriffs ist seine ursprüngliche Position.
+	 */
+	private int[] insertionOrder() {
+		int[] order = new int[this.file.size()];
+		for(int i = 0; i < order.length; i++) {
+			order[this.file.value(i)] = i;
+		}
+		return order;
+	}
+
+	@Override
+	public LinkedHashSet<String> getWords(){
+		LinkedHashSet<String> words = new LinkedHashSet<String>(this.file.size() * 2);
+		for(int index : insertionOrder()) {
+			words.add(this.file.term(index));
+		}
+		return words;
+	}
+
+	@Override
+	public int[] getTermIds() {
+		TermTable table = TermTable.getInstance();
+		int[] order = insertionOrder();
+		int[] ids = new int[order.length];
+		for(int i = 0; i < ids.length; i++) {
+			ids[i] = table.intern(this.file.term(order[i]));
+		}
+		return ids;
+	}
+
+	@Override
+	public int size() {
+		return this.file.size();
+	}
+
+	@Override
+	public boolean contains(String s) {
+		return this.file.indexOf(s) >= 0;
+	}
+
+	@Override
+	public boolean contains(int termId) {
+		return this.file.indexOf(termId) >= 0;
+	}
+}
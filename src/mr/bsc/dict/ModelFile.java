@@ -0,0 +1,368 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Das binäre Format der Vorhersagemodelle. Eine Modelldatei wird nicht eingelesen, sondern mit {@link FileChannel#map} in den Speicher
+ * eingeblendet. Das Öffnen kostet deshalb fast keine Zeit und laufen mehrere Prozesse mit demselben Modell, teilen sie sich die Seiten
+ * im Cache des Betriebssystems. Die JSON-Dateien werden weiterhin geschrieben, damit sich ein Modell beim Debuggen lesen lässt.
+ *
+ * Aufbau einer Datei (alle Zahlen als {@code int}, Big Endian):
+ * <pre>
+ * MAGIC, FORMAT_VERSION, Art (Wörterbuch oder Vokabular), Anzahl der Begriffe n, Gesamtzahl der Wörter, Anzahl der Zeitungsartikel,
+ * Länge der Einstellungen, Einstellungen des Analysierers (UTF-8), Füllbytes bis zur nächsten durch 4 teilbaren Position,
+ * n + 1 Offsets der Begriffe, n Werte, alle Begriffe hintereinander (UTF-8)
+ * </pre>
+ * Die Begriffe sind nach ihren UTF-8-Bytes sortiert und werden per binärer Suche gefunden. Der Wert eines Begriffs ist im Wörterbuch seine
+ * Häufigkeit und im Vokabular seine Position in der Reihenfolge des Einfügens.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public final class ModelFile {
+
+	/*
+	 * Kennung und Version des Dateiformats. Muss erhöht werden, wenn sich der Aufbau einer Datei ändert.
+	 */
+	private final static int MAGIC = 0x474D444C; //"GMDL"
+	private final static int FORMAT_VERSION = 1;
+
+	final static int KIND_DICTIONARY = 1;
+	final static int KIND_VOCABULARY = 2;
+
+	public final static String SUFFIX = ".bin";
+
+	private final ByteBuffer buffer;
+	private final int kind;
+	private final int size;
+	private final int totalWords;
+	private final int documents;
+	private final String settings;
+
+	private final int offsetsStart;
+	private final int valuesStart;
+	private final int termsStart;
+
+	/*
+	 * Merkt sich für jede Term-ID aus der {@link TermTable}, an welcher Stelle der Begriff in der Datei steht. 0 heißt noch nicht
+	 * nachgeschlagen, 1 heißt nicht enthalten, sonst Index + 2. Wird beim Vergrößern ersetzt, ein verlorener Eintrag wird einfach neu gesucht.
+	 */
+	private volatile int[] positions = new int[0];
+
+	private ModelFile(ByteBuffer buffer, String path) throws IOException {
+		this.buffer = buffer;
+		if(buffer.capacity() < 28 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Die Datei " + path + " ist kein Modell oder hat eine veraltete Version!");
+		}
+		this.kind = buffer.getInt(8);
+		this.size = buffer.getInt(12);
+		this.totalWords = buffer.getInt(16);
+		this.documents = buffer.getInt(20);
+		int settingsLength = buffer.getInt(24);
+
+		//Der Kopf wird gegen die Größe der Datei geprüft, eine beschädigte Datei soll als IOException auffallen und nicht erst beim Lesen
+		if(this.size < 0 || this.totalWords < 0 || this.documents < 0 || settingsLength < 0 || settingsLength > buffer.capacity() - 28) {
+			throw new IOException("Die Datei " + path + " hat einen beschädigten Kopf!");
+		}
+		long termsStart = ((28L + settingsLength + 3) & ~3L) + 8L * this.size + 4;
+		if(termsStart > buffer.capacity()) {
+			throw new IOException("Die Datei " + path + " ist unvollständig!");
+		}
+
+		byte[] settings = new byte[settingsLength];
+		ByteBuffer view = buffer.duplicate();
+		view.position(28);
+		view.get(settings);
+		this.settings = new String(settings, StandardCharsets.UTF_8);
+
+		this.offsetsStart = align(28 + settingsLength);
+		this.valuesStart = this.offsetsStart + 4 * (this.size + 1);
+		this.termsStart = (int) termsStart;
+		if(offset(0) != 0 || this.termsStart + (long) offset(this.size) != buffer.capacity()) {
+			throw new IOException("Die Datei " + path + " ist unvollständig!");
+		}
+		//Auch jeder Offset dazwischen muss stimmen, sonst liest {@link #term(int)} an der falschen Stelle oder mit negativer Länge
+		for(int i = 1, previous = 0; i <= this.size; i++) {
+			int offset = offset(i);
+			if(offset < previous || offset > buffer.capacity() - this.termsStart) {
+				throw new IOException("Die Datei " + path + " hat einen beschädigten Offset für Begriff " + (i - 1) + "!");
+			}
+			previous = offset;
+		}
+	}
+
+	/**
+	 * Blendet eine Modelldatei in den Speicher ein. Es werden nur der Kopf und die Offsets gelesen und geprüft, die Begriffe erst beim
+	 * Nachschlagen.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 * @param kind	Die erwartete Art des Modells.
+	 *
+	 * @return Die eingeblendete Modelldatei
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder ist kein Modell der erwarteten Art.
+	 */
+	static ModelFile map(String path, int kind) throws IOException {
+		ByteBuffer buffer;
+		try(FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Die Datei " + path + " ist zu groß!");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); //Bleibt auch nach dem Schließen des Kanals gültig
+		}
+		return open(buffer, path, kind);
+	}
+
+	/**
+	 * Liest eine Modelldatei vollständig in den Heap. Anders als bei {@link #map(String, int)} bleibt die Datei danach nicht geöffnet und
+	 * darf sofort ersetzt werden, auch unter Windows, wo eine eingeblendete Datei bis zur Garbage Collection gesperrt ist.
+	 *
+	 * @param path	Der Pfad der Modelldatei.
+	 * @param kind	Die erwartete Art des Modells.
+	 *
+	 * @return Die eingelesene Modelldatei
+	 *
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder ist kein Modell der erwarteten Art.
+	 */
+	static ModelFile read(String path, int kind) throws IOException {
+		return open(ByteBuffer.wrap(Files.readAllBytes(Paths.get(path))), path, kind);
+	}
+
+	private static ModelFile open(ByteBuffer buffer, String path, int kind) throws IOException {
+		ModelFile file = new ModelFile(buffer, path);
+		if(file.kind != kind) {
+			throw new IOException("Die Datei " + path + " enthält eine andere Art von Modell!");
+		}
+		return file;
+	}
+
+	/**
+	 * Gibt den Pfad der Modelldatei zurück, die zu einer JSON-Datei gehört. Beide liegen im selben Verzeichnis und haben denselben Namen.
+	 *
+	 * @param jsonPath	Der Pfad der JSON-Datei.
+	 *
+	 * @return Der Pfad der Modelldatei
+	 */
+	public static String getBinaryPath(String jsonPath) {
+		return (jsonPath.endsWith(".json") ? jsonPath.substring(0, jsonPath.length() - 5) : jsonPath) + SUFFIX;
+	}
+
+	/**
+	 * Überprüft, ob zu einer JSON-Datei eine Modelldatei existiert, die nicht älter ist. Eine ältere Modelldatei wird ignoriert, damit
+	 * ein von Hand bearbeitetes oder nur als JSON geschriebenes Modell nicht verdeckt wird.
+	 *
+	 * @param jsonPath	Der Pfad der JSON-Datei.
+	 *
+	 * @return true, wenn die Modelldatei genutzt werden kann.
+	 *
+	 * @throws IOException
+	 */
+	public static boolean hasBinary(String jsonPath) throws IOException {
+		Path binary = Paths.get(getBinaryPath(jsonPath));
+		Path json = Paths.get(jsonPath);
+		if(!Files.exists(binary)) {
+			return false;
+		}
+		return !Files.exists(json) || Files.getLastModifiedTime(binary).compareTo(Files.getLastModifiedTime(json)) >= 0;
+	}
+
+	/**
+	 * Speichert ein {@link Dictionary} als Modelldatei.
+	 *
+	 * @param dic		Das Wörterbuch.
+	 * @param settings	Die Einstellungen des Analysierers, mit dem das Wörterbuch erstellt wurde.
+	 * @param path		Der Pfad der Modelldatei.
+	 *
+	 * @throws IOException
+	 */
+	public static void write(Dictionary dic, String settings, String path) throws IOException {
+		int[] ids = dic.getTermIds();
+		int[] values = new int[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			values[i] = dic.findOccurrence(ids[i]);
+		}
+		write(KIND_DICTIONARY, ids, values, dic.getTotalWords(), dic.getDocuments(), settings, path);
+	}
+
+	/**
+	 * Speichert ein {@link Vocabulary} als Modelldatei. Die Reihenfolge des Einfügens bleibt erhalten.
+	 *
+	 * @param voc		Das Vokabular.
+	 * @param settings	Die Einstellungen des Analysierers, mit dem das Vokabular erstellt wurde.
+	 * @param path		Der Pfad der Modelldatei.
+	 *
+	 * @throws IOException
+	 */
+	public static void write(Vocabulary voc, String settings, String path) throws IOException {
+		int[] ids = voc.getTermIds();
+		int[] values = new int[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			values[i] = i;
+		}
+		write(KIND_VOCABULARY, ids, values, 0, 0, settings, path);
+	}
+
+	/**
+	 * Schreibt eine Modelldatei zuerst in eine temporäre Datei und verschiebt diese dann an ihren Platz, siehe
+	 * {@link DictionaryCreator#writeAtomically(String, DictionaryCreator.Content)}.
+	 */
+	private static void write(int kind, int[] ids, int[] values, int totalWords, int documents, String settings, String path) throws IOException {
+		TermTable table = TermTable.getInstance();
+		byte[][] terms = new byte[ids.length][];
+		Integer[] order = new Integer[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			terms[i] = table.term(ids[i]).getBytes(StandardCharsets.UTF_8);
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(terms[a], terms[b])); //Dieselbe Ordnung wie bei der binären Suche
+
+		byte[] settingsBytes = settings.getBytes(StandardCharsets.UTF_8);
+		DictionaryCreator.writeAtomically(path, out -> {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(kind);
+			out.writeInt(ids.length);
+			out.writeInt(totalWords);
+			out.writeInt(documents);
+			out.writeInt(settingsBytes.length);
+			out.write(settingsBytes);
+			for(int i = 28 + settingsBytes.length; i < align(28 + settingsBytes.length); i++) {
+				out.write(0);
+			}
+
+			int offset = 0;
+			out.writeInt(offset);
+			for(Integer i : order) {
+				offset += terms[i].length;
+				out.writeInt(offset);
+			}
+			for(Integer i : order) {
+				out.writeInt(values[i]);
+			}
+			for(Integer i : order) {
+				out.write(terms[i]);
+			}
+		});
+	}
+
+	private static int align(int position) {
+		return (position + 3) & ~3;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	int getTotalWords() {
+		return this.totalWords;
+	}
+
+	int getDocuments() {
+		return this.documents;
+	}
+
+	String getSettings() {
+		return this.settings;
+	}
+
+	/**
+	 * Gibt den Wert des Begriffs an einer Stelle zurück.
+	 *
+	 * @param index	Die Stelle in der sortierten Tabelle.
+	 *
+	 * @return Die Häufigkeit (Wörterbuch) oder die Position (Vokabular)
+	 */
+	int value(int index) {
+		return this.buffer.getInt(this.valuesStart + 4 * index);
+	}
+
+	/**
+	 * Liest den Begriff an einer Stelle der sortierten Tabelle.
+	 *
+	 * @param index	Die Stelle in der sortierten Tabelle.
+	 *
+	 * @return Der Begriff
+	 */
+	String term(int index) {
+		int start = offset(index);
+		byte[] bytes = new byte[offset(index + 1) - start];
+		ByteBuffer view = this.buffer.duplicate();
+		view.position(this.termsStart + start);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int offset(int index) {
+		return this.buffer.getInt(this.offsetsStart + 4 * index);
+	}
+
+	/**
+	 * Sucht einen Begriff in der sortierten Tabelle.
+	 *
+	 * @param term	Der Begriff.
+	 *
+	 * @return Die Stelle in der Tabelle oder -1, wenn der Begriff nicht enthalten ist
+	 */
+	int indexOf(String term) {
+		byte[] key = term.getBytes(StandardCharsets.UTF_8);
+		int low = 0;
+		int high = this.size - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int c = compare(mid, key);
+			if(c < 0) {
+				low = mid + 1;
+			} else if(c > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Sucht den Begriff einer Term-ID in der sortierten Tabelle. Das Ergebnis wird gemerkt, jede Term-ID wird also höchstens einmal gesucht.
+	 *
+	 * @param termId	Die Term-ID aus der {@link TermTable}.
+	 *
+	 * @return Die Stelle in der Tabelle oder -1, wenn der Begriff nicht enthalten ist
+	 */
+	int indexOf(int termId) {
+		int[] positions = this.positions;
+		if(termId < positions.length && positions[termId] != 0) {
+			return positions[termId] - 2;
+		}
+		int index = indexOf(TermTable.getInstance().term(termId));
+		if(termId >= positions.length) {
+			positions = Arrays.copyOf(positions, Math.max(termId + 1, TermTable.getInstance().size()));
+			this.positions = positions;
+		}
+		positions[termId] = index + 2;
+		return index;
+	}
+
+	/**
+	 * Vergleicht den Begriff an einer Stelle Byte für Byte (ohne Vorzeichen) mit einem gesuchten Begriff.
+	 */
+	private int compare(int index, byte[] key) {
+		int start = this.termsStart + offset(index);
+		int length = this.termsStart + offset(index + 1) - start;
+		int n = Math.min(length, key.length);
+		for(int i = 0; i < n; i++) {
+			int c = (this.buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+			if(c != 0) {
+				return c;
+			}
+		}
+		return length - key.length;
+	}
+}
@@ -0,0 +1,142 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lädt alle Dateien eines Vorhersagemodells gleichzeitig, jede Datei auf einem eigenen Thread. Die Wörterbücher und das Vokabular werden
+ * nur zum Lesen mit {@link DictionaryCreator#mapDictionary(String)} und {@link VocabularyCombiner#mapVocabulary(String)} geöffnet, liegt
+ * eine {@link ModelFile} daneben, wird also diese eingeblendet. Die JSON-Dateien werden mit den {@link DictionaryTypeAdapter} und
+ * {@link VocabularyTypeAdapter} gestreamt, die {@link TermTable} ist threadsicher.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public final class ModelLoader {
+
+	private static ExecutorService loaders;
+
+	private final DictionaryView[] dictionaries;
+	private final VocabularyView vocabulary;
+
+	private ModelLoader(DictionaryView[] dictionaries, VocabularyView vocabulary) {
+		this.dictionaries = dictionaries;
+		this.vocabulary = vocabulary;
+	}
+
+	/**
+	 * Lädt die Wörterbücher aller Kategorien und das kombinierte Vokabular gleichzeitig.
+	 *
+	 * @param dictionaryPaths	Die Pfade der Wörterbücher, Index ist die Kategorie.
+	 * @param vocabularyPath	Der Pfad des kombinierten Vokabulars oder {@code null}, wenn kein Vokabular geladen werden soll.
+	 *
+	 * @return Die geladenen Dateien, siehe {@link #getDictionaries()} und {@link #getVocabulary()}
+	 *
+	 * @throws IOException	Eine der Dateien konnte nicht gelesen werden.
+	 */
+	public static ModelLoader load(String[] dictionaryPaths, String vocabularyPath) throws IOException {
+		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(dictionaryPaths.length + 1);
+		for(String path : dictionaryPaths) {
+			tasks.add(() -> DictionaryCreator.mapDictionary(path));
+		}
+		if(vocabularyPath != null) {
+			tasks.add(() -> VocabularyCombiner.mapVocabulary(vocabularyPath));
+		}
+
+		List<Future<Object>> futures;
+		try {
+			futures = getLoaders().invokeAll(tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Das Laden des Vorhersagemodells wurde unterbrochen!", e);
+		}
+
+		DictionaryView[] dictionaries = new DictionaryView[dictionaryPaths.length];
+		VocabularyView vocabulary = null;
+		for(int i = 0; i < futures.size(); i++) {
+			Object result = get(futures.get(i));
+			if(i < dictionaries.length) {
+				dictionaries[i] = (DictionaryView) result;
+			} else {
+				vocabulary = (VocabularyView) result;
+			}
+		}
+		return new ModelLoader(dictionaries, vocabulary);
+	}
+
+	/**
+	 * Lädt die Wörterbücher aller Kategorien gleichzeitig.
+	 *
+	 * @param dictionaryPaths	Die Pfade der Wörterbücher, Index ist die Kategorie.
+	 *
+	 * @return Die Wörterbücher, Index ist die Kategorie
+	 *
+	 * @throws IOException	Eines der Wörterbücher konnte nicht gelesen werden.
+	 */
+	public static DictionaryView[] loadDictionaries(String... dictionaryPaths) throws IOException {
+		return load(dictionaryPaths, null).getDictionaries();
+	}
+
+	/**
+	 * Gibt die geladenen Wörterbücher zurück.
+	 *
+	 * @return Die Wörterbücher, Index ist die Kategorie
+	 */
+	public DictionaryView[] getDictionaries() {
+		return this.dictionaries;
+	}
+
+	/**
+	 * Gibt das geladene Vokabular zurück.
+	 *
+	 * @return Das Vokabular oder {@code null}, wenn keines geladen wurde
+	 */
+	public VocabularyView getVocabulary() {
+		return this.vocabulary;
+	}
+
+	/**
+	 * Wartet auf eine Datei und gibt einen Fehler beim Lesen als {@link IOException} weiter.
+	 */
+	private static Object get(Future<Object> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Das Laden des Vorhersagemodells wurde unterbrochen!", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if(cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			throw new IOException("Eine Datei des Vorhersagemodells konnte nicht gelesen werden!", cause);
+		}
+	}
+
+	/**
+	 * Gibt die Threads zurück, auf denen geladen wird. Die Threads werden beim ersten Aufruf erstellt und beenden das Programm nicht,
+	 * wenn sie noch laufen. Da meist nur eine Handvoll Dateien gleichzeitig geladen wird, gibt es höchstens einen Thread pro Prozessorkern.
+	 *
+	 * @return Der {@link ExecutorService} zum Laden
+	 */
+	private static synchronized ExecutorService getLoaders() {
+		if(loaders == null) {
+			loaders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "model-loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return loaders;
+	}
+}
@@ -0,0 +1,108 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import mr.bsc.classifier.HashedModel;
+
+/**
+ * Fügt die Teilmodelle, die mit {@link DictionaryCreator#setShard(int, int)} in mehreren Prozessen trainiert wurden, zum fertigen
+ * {@link Dictionary} und {@link Vocabulary} einer Kategorie zusammen. Die Häufigkeiten und Anzahlen werden summiert, die Teile werden
+ * der Reihe nach übernommen. Da jeder Teil ein zusammenhängender Abschnitt der Textsammlung ist, entspricht das Ergebnis genau dem Modell
+ * aus einem einzigen Prozess, auch die Reihenfolge des Vokabulars. Wurden die Teile mit einem {@link HashedModel} trainiert, werden auch
+ * diese zusammengeführt.
+ *
+ * Aufruf: {@code ModelMerger <kategorie> <teile> [FULL|FAST] [both|filtered|unfiltered]}
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class ModelMerger {
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Aufruf: ModelMerger <kategorie> <teile> [FULL|FAST] [both|filtered|unfiltered]");
+			System.exit(1);
+		}
+		String category = args[0];
+		int shards = Integer.parseInt(args[1]);
+		AnalysisMode mode = args.length > 2 ? AnalysisMode.valueOf(args[2]) : AnalysisMode.FULL;
+		String variants = args.length > 3 ? args[3] : "both";
+
+		if(!variants.equals("filtered")) {
+			merge(DictionaryCreator.getDictionaryPath(category, mode, false), DictionaryCreator.getVocabularyPath(category, mode, false), shards);
+		}
+		if(!variants.equals("unfiltered")) {
+			merge(DictionaryCreator.getDictionaryPath(category, mode, true), DictionaryCreator.getVocabularyPath(category, mode, true), shards);
+		}
+	}
+
+	/**
+	 * Summiert die Teilmodelle und speichert das Ergebnis als JSON-Datei und {@link ModelFile} unter den Pfaden des fertigen Modells.
+	 * Die Teilmodelle bleiben liegen, damit ein fehlgeschlagener Lauf wiederholt werden kann. Gehashte Modelle werden nur zusammengeführt,
+	 * wenn jeder Teil eines hat.
+	 *
+	 * @param dictionaryPath	Der Pfad des fertigen Wörterbuchs.
+	 * @param vocabularyPath	Der Pfad des fertigen Vokabulars.
+	 * @param shards			Die Anzahl der Teile.
+	 *
+	 * @return Das zusammengeführte {@link Dictionary}
+	 *
+	 * @throws IOException	Ein Teilmodell fehlt oder konnte nicht gelesen werden, oder nur manche Teile haben ein gehashtes Modell.
+	 */
+	public static Dictionary merge(String dictionaryPath, String vocabularyPath, int shards) throws IOException {
+		if(shards < 1) {
+			throw new IllegalArgumentException("Ungültige Anzahl an Teilen: " + shards);
+		}
+		Dictionary dic = new Dictionary();
+		Vocabulary voc = new Vocabulary();
+		String settings = null;	//Aus dem ersten eingeblendeten Teil, alle Teile müssen gleich analysiert worden sein
+		HashedModel hashed = null;
+		int hashedShards = 0;
+		for(int shard = 0; shard < shards; shard++) {
+			String shardDictionary = DictionaryCreator.getShardPath(dictionaryPath, shard, shards);
+			String shardVocabulary = DictionaryCreator.getShardPath(vocabularyPath, shard, shards);
+			if(!Files.exists(Paths.get(shardDictionary)) || !Files.exists(Paths.get(shardVocabulary))) {
+				throw new IOException("Teil " + shard + " von " + shards + " fehlt: " + shardDictionary);
+			}
+			DictionaryView part = DictionaryCreator.mapDictionary(shardDictionary);
+			if(part instanceof MappedDictionary) {
+				String partSettings = ((MappedDictionary) part).getSettings();
+				if(settings != null && !partSettings.equals(settings)) {
+					throw new IOException("Teil " + shard + " wurde mit anderen Einstellungen erstellt: " + partSettings);
+				}
+				settings = partSettings;
+			}
+			dic.merge(part);
+			voc.merge(VocabularyCombiner.mapVocabulary(shardVocabulary));
+			
+			String shardHashed = HashedModel.getHashedPath(shardDictionary);
+			if(Files.exists(Paths.get(shardHashed))) {
+				HashedModel hashedPart = HashedModel.load(shardHashed);
+				if(hashed == null) {
+					hashed = hashedPart;
+				} else if(hashedPart.getBuckets() != hashed.getBuckets()) {
+					throw new IOException("Teil " + shard + " hat ein gehashtes Modell mit " + hashedPart.getBuckets() + " statt " + hashed.getBuckets() + " Eimern!");
+				} else {
+					hashed.merge(hashedPart);
+				}
+				hashedShards++;
+			}
+		}
+		if(hashedShards != 0 && hashedShards != shards) {
+			throw new IOException("Nur " + hashedShards + " von " + shards + " Teilen haben ein gehashtes Modell!");
+		}
+
+		DictionaryCreator.writeAtomically(dic, dictionaryPath);
+		DictionaryCreator.writeAtomically(voc, vocabularyPath);
+		settings = settings == null ? "" : settings;
+		ModelFile.write(dic, settings, ModelFile.getBinaryPath(dictionaryPath));
+		ModelFile.write(voc, settings, ModelFile.getBinaryPath(vocabularyPath));
+		if(hashed != null) {
+			hashed.save(HashedModel.getHashedPath(dictionaryPath));
+		}
+		System.out.println(dictionaryPath + ": " + shards + " Teile, " + dic.getDocuments() + " Artikel, " + dic.getDistinctWords() + " Begriffe");
+		return dic;
+	}
+}
@@ -0,0 +1,129 @@
+package mr.bsc.dict;
+
+import java.util.Arrays;
+
+/**
+ * Die Häufigkeiten in einer Hashtabelle mit offener Adressierung. Schlüssel und Häufigkeiten liegen in zwei parallelen {@code int}-Arrays,
+ * es gibt also weder {@code Integer}-Objekte noch Knoten wie in einer {@code HashMap}. Bei einer Kollision wird linear weitergesucht.
+ * Der Speicherbedarf hängt nur von der Anzahl der Einträge ab und nicht von der größten Term-ID. Lohnt sich für kleine Wörterbücher
+ * (z. B. Teilergebnisse beim Training) in einer großen {@link TermTable}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+final class OpenAddressingTermCounts implements TermCounts {
+	
+	private final static int EMPTY = -1;
+	
+	/*
+	 * Die Tabelle wird verdoppelt, sobald sie zur Hälfte gefüllt ist. So bleiben die Suchketten kurz.
+	 */
+	private final static int MIN_CAPACITY = 16;
+	
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size = 0;
+	
+	OpenAddressingTermCounts() {
+		allocate(MIN_CAPACITY);
+	}
+	
+	private void allocate(int capacity) {
+		this.keys = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.values = new int[capacity];
+		this.mask = capacity - 1;
+	}
+	
+	/**
+	 * Verteilt die fortlaufenden Term-IDs über die ganze Tabelle (Fibonacci-Hashing).
+	 */
+	private int slot(int termId) {
+		int h = termId * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & this.mask;
+	}
+
+	@Override
+	public int get(int termId) {
+		for(int i = slot(termId); ; i = (i + 1) & this.mask) {
+			int key = this.keys[i];
+			if(key == termId) {
+				return this.values[i];
+			}
+			if(key == EMPTY) {
+				return 0;
+			}
+		}
+	}
+
+	@Override
+	public void add(int termId, int count) {
+		if(count == 0) {
+			return;
+		}
+		int i = slot(termId);
+		while(this.keys[i] != EMPTY) {
+			if(this.keys[i] == termId) {
+				this.values[i] += count;
+				return;
+			}
+			i = (i + 1) & this.mask;
+		}
+		this.keys[i] = termId;
+		this.values[i] = count;
+		if(++this.size * 2 > this.keys.length) {
+			rehash();
+		}
+	}
+	
+	@Override
+	public void ensureCapacity(int entries) {
+		long needed = 2L * (this.size + entries);
+		int capacity = this.keys.length;
+		while(capacity < needed && capacity < (1 << 30)) {
+			capacity *= 2;
+		}
+		if(capacity > this.keys.length) {
+			rehash(capacity);
+		}
+	}
+	
+	private void rehash() {
+		rehash(this.keys.length * 2);
+	}
+	
+	private void rehash(int capacity) {
+		int[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		allocate(capacity);
+		for(int j = 0; j < oldKeys.length; j++) {
+			if(oldKeys[j] != EMPTY) {
+				int i = slot(oldKeys[j]);
+				while(this.keys[i] != EMPTY) {
+					i = (i + 1) & this.mask;
+				}
+				this.keys[i] = oldKeys[j];
+				this.values[i] = oldValues[j];
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public int[] termIds() {
+		int[] ids = new int[this.size];
+		int n = 0;
+		for(int key : this.keys) {
+			if(key != EMPTY) {
+				ids[n++] = key;
+			}
+		}
+		Arrays.sort(ids);
+		return ids;
+	}
+}
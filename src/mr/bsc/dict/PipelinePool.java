@@ -0,0 +1,281 @@
+package mr.bsc.dict;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+
+/**
+ * Diese Klasse verwaltet einen Pool von vorgewärmten {@link StanfordCoreNLP}-Pipelines. Die Pipelines werden nur einmal pro Prozess
+ * erstellt und sind auf die Annotatoren beschränkt, die für die Zerlegung eines Zeitungsartikels wirklich benötigt werden
+ * (tokenize, ssplit, pos). Die Lemmata kommen aus dem {@link LemmaCache}. Früher wurde für jeden Zeitungsartikel ein neues {@code Document} der Simple-API erstellt, wodurch
+ * die Annotatoren bei jedem Aufruf erneut angestoßen wurden.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class PipelinePool {
+
+	/*
+	 * Die Annotatoren, mit denen die Pipelines erstellt werden. Für {@link AnalysisMode#FAST} reichen Tokenizer und Satzerkennung.
+	 * Der Lemmatisierer fehlt, weil der {@link LemmaCache} dieselben Lemmata liefert, ohne sie für jedes Token neu zu berechnen.
+	 */
+	public final static String ANNOTATORS = "tokenize,ssplit,pos";
+	public final static String ANNOTATORS_TOKENIZE = "tokenize,ssplit";
+	
+	/*
+	 * Nur der POS-Tagger. Diese Pipelines annotieren bereits zerlegte Sätze, siehe {@link #annotate(Annotation)}.
+	 */
+	public final static String ANNOTATORS_TAGGING = "pos";
+
+	/*
+	 * Ein kurzer Text, mit dem jede Pipeline einmal aufgerufen wird, bevor sie zum ersten Mal genutzt wird.
+	 */
+	private final static String WARM_UP_TEXT = "The Guardian publishes articles about business, politics, science and sport.";
+
+	private static HashMap<String, PipelinePool> instances = new HashMap<String, PipelinePool>();
+	
+	/*
+	 * Der Thread, der Pipelines aufgegebener Aufträge ersetzt, siehe {@link Lease#abandon()}. Das Erstellen dauert so lange wie das Laden
+	 * der Modelle und soll den Aufrufer nicht aufhalten.
+	 */
+	private static ExecutorService replacements;
+
+	private final BlockingQueue<StanfordCoreNLP> pipelines;
+	private final Properties props;
+	private final int size;
+	private final boolean standalone;
+
+	/**
+	 * Erstellt einen Pool mit {@code size} Pipelines.
+	 *
+	 * @param annotators	Die Annotatoren der Pipelines.
+	 * @param size			Die Anzahl der Pipelines, die gleichzeitig genutzt werden können.
+	 */
+	private PipelinePool(String annotators, int size) {
+		this.size = size;
+		this.pipelines = new ArrayBlockingQueue<StanfordCoreNLP>(size);
+
+		this.props = new Properties();
+		this.props.setProperty("annotators", annotators);
+		this.props.setProperty("tokenize.language", "en");
+
+		//Nur eine Pipeline, die selbst tokenisiert, kann einen rohen Text annotieren. Alle anderen bekommen fertige Sätze.
+		this.standalone = annotators.startsWith("tokenize");
+		for(int i = 0; i < size; i++) {
+			this.pipelines.add(createPipeline());
+		}
+	}
+	
+	/**
+	 * Erstellt eine vorgewärmte Pipeline mit den Einstellungen dieses Pools.
+	 * 
+	 * @return Die neue Pipeline
+	 */
+	private StanfordCoreNLP createPipeline() {
+		StanfordCoreNLP pipeline = new StanfordCoreNLP(this.props, this.standalone);
+		if(this.standalone) {
+			pipeline.annotate(new Annotation(WARM_UP_TEXT)); //Vorwärmen, damit der erste Artikel nicht das Laden der Modelle bezahlt
+		}
+		return pipeline;
+	}
+
+	/**
+	 * Gibt den prozessweiten Pool mit den vollständigen Annotatoren {@link #ANNOTATORS} zurück.
+	 *
+	 * @return Der prozessweite {@link PipelinePool}
+	 */
+	public static PipelinePool getInstance() {
+		return getInstance(ANNOTATORS);
+	}
+
+	/**
+	 * Gibt den prozessweiten Pool für die angegebenen Annotatoren zurück. Beim ersten Aufruf wird für jeden verfügbaren Prozessorkern
+	 * eine Pipeline erstellt.
+	 *
+	 * @param annotators	Die Annotatoren der Pipelines.
+	 *
+	 * @return Der prozessweite {@link PipelinePool}
+	 */
+	public static synchronized PipelinePool getInstance(String annotators) {
+		PipelinePool pool = instances.get(annotators);
+		if(pool == null) {
+			pool = new PipelinePool(annotators, Runtime.getRuntime().availableProcessors());
+			instances.put(annotators, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * Gibt die Anzahl der Pipelines in diesem Pool zurück.
+	 *
+	 * @return Die Anzahl der Pipelines als {@link int}
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Gibt die Einstellungen zurück, mit denen die Pipelines erstellt wurden. Die Einstellungen sind sortiert, damit dieselben Einstellungen
+	 * immer denselben String ergeben.
+	 *
+	 * @return Die Einstellungen der Pipelines als String
+	 */
+	public String getSettings() {
+		return new TreeMap<Object, Object>(this.props).toString();
+	}
+
+	/**
+	 * Annotiert einen Text mit einer freien Pipeline aus dem Pool. Ist gerade keine Pipeline frei, wird gewartet.
+	 *
+	 * @param text	Der Text, der annotiert werden soll.
+	 *
+	 * @return Die fertig annotierte {@link Annotation}
+	 *
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	public Annotation annotate(String text) throws InterruptedException {
+		return annotate(text, null);
+	}
+	
+	/**
+	 * Annotiert einen Text mit einer freien Pipeline aus dem Pool für einen Auftrag mit Zeitbudget, siehe {@link #annotate(Annotation, Lease)}.
+	 *
+	 * @param text	Der Text, der annotiert werden soll.
+	 * @param lease	Der Auftrag, zu dem die Pipeline gehört, oder {@code null}.
+	 *
+	 * @return Die fertig annotierte {@link Annotation}
+	 *
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	public Annotation annotate(String text, Lease lease) throws InterruptedException {
+		Annotation annotation = new Annotation(text);
+		annotate(annotation, lease);
+		return annotation;
+	}
+	
+	/**
+	 * Annotiert eine bestehende {@link Annotation} mit einer freien Pipeline aus dem Pool. Die Ergebnisse werden direkt in die
+	 * Annotation geschrieben. So können auch Pipelines ohne Tokenizer (z.B. {@link #ANNOTATORS_TAGGING}) bereits zerlegte Sätze annotieren.
+	 * 
+	 * @param annotation	Die Annotation, die ergänzt werden soll.
+	 * 
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	public void annotate(Annotation annotation) throws InterruptedException {
+		annotate(annotation, null);
+	}
+	
+	/**
+	 * Annotiert eine bestehende {@link Annotation} für einen Auftrag mit Zeitbudget. Solange die Annotation läuft, gehört die Pipeline zu
+	 * dem Auftrag. Wird er aufgegeben, ersetzt der Pool sie und verwirft sie danach. Ein Auftrag kann mehrere Pipelines gleichzeitig halten,
+	 * z. B. in den parallelen Aufgaben des {@link PosTaggingAnnotator}. Dafür wird der Auftrag an jede Aufgabe weitergegeben.
+	 * 
+	 * @param annotation	Die Annotation, die ergänzt werden soll.
+	 * @param lease			Der Auftrag, zu dem die Pipeline gehört, oder {@code null}.
+	 * 
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 * @throws CancellationException	Der Auftrag wurde bereits aufgegeben.
+	 */
+	public void annotate(Annotation annotation, Lease lease) throws InterruptedException {
+		StanfordCoreNLP pipeline = this.pipelines.take();
+		if(lease != null && !lease.acquired(this, pipeline)) {
+			this.pipelines.add(pipeline);
+			throw new CancellationException("Der Auftrag wurde bereits aufgegeben!");
+		}
+		try {
+			pipeline.annotate(annotation);
+		} finally {
+			if(lease == null || lease.release(pipeline)) {
+				this.pipelines.add(pipeline); //Pipeline auch im Fehlerfall zurückgeben!
+			}
+		}
+	}
+	
+	/**
+	 * Ersetzt eine Pipeline, die ein aufgegebener Auftrag behält, auf dem Thread für Ersatz-Pipelines. Bis die neue Pipeline fertig ist,
+	 * hat der Pool eine Pipeline weniger.
+	 */
+	private void replace() {
+		getReplacements().execute(() -> this.pipelines.add(createPipeline()));
+	}
+	
+	/**
+	 * Gibt den Thread zurück, der Pipelines ersetzt. Er wird beim ersten Aufruf erstellt.
+	 * 
+	 * @return Der {@link ExecutorService} für Ersatz-Pipelines
+	 */
+	private static synchronized ExecutorService getReplacements() {
+		if(replacements == null) {
+			replacements = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "pipeline-replacement");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return replacements;
+	}
+	
+	/**
+	 * Ein Auftrag mit Zeitbudget, siehe {@link ArticleAnalyzer#setLatencyBudget(long, TimeoutPolicy)}. Der Auftrag wird an jede Annotation
+	 * übergeben, die für ihn läuft, auch an die auf anderen Threads. So weiß er immer, welche Pipelines er gerade hält.
+	 * 
+	 * CoreNLP lässt sich nicht abbrechen. Wird ein Auftrag mit {@link #abandon()} aufgegeben, bekommt der Pool deshalb für jede Pipeline,
+	 * die er hält, eine neue. Die Pipelines des Auftrags werden verworfen, sobald ihre Annotation fertig ist, und eine Annotation, die danach
+	 * noch für ihn beginnen will, bekommt keine Pipeline mehr. So bleibt der Pool nie auf Aufträgen sitzen, auf deren Ergebnis niemand mehr
+	 * wartet.
+	 */
+	public static final class Lease {
+		
+		private final Map<StanfordCoreNLP, PipelinePool> held = new IdentityHashMap<StanfordCoreNLP, PipelinePool>();
+		private boolean abandoned;
+		
+		Lease() {
+		}
+		
+		/**
+		 * Gibt den Auftrag auf. Jede Pipeline, die er gerade hält, wird im Pool ersetzt und später verworfen.
+		 */
+		void abandon() {
+			Map<StanfordCoreNLP, PipelinePool> discarded;
+			synchronized(this) {
+				if(this.abandoned) {
+					return;
+				}
+				this.abandoned = true;
+				discarded = new IdentityHashMap<StanfordCoreNLP, PipelinePool>(this.held);
+				this.held.clear();
+			}
+			for(PipelinePool pool : discarded.values()) {
+				pool.replace();
+			}
+		}
+		
+		/**
+		 * @return {@code false}, wenn der Auftrag schon aufgegeben wurde und die Pipeline nicht nutzen darf
+		 */
+		private synchronized boolean acquired(PipelinePool pool, StanfordCoreNLP pipeline) {
+			if(this.abandoned) {
+				return false;
+			}
+			this.held.put(pipeline, pool);
+			return true;
+		}
+		
+		/**
+		 * @return {@code true}, wenn die Pipeline in den Pool zurück darf, {@code false}, wenn sie beim Aufgeben ersetzt wurde
+		 */
+		private synchronized boolean release(StanfordCoreNLP pipeline) {
+			return this.held.remove(pipeline) != null;
+		}
+	}
+}
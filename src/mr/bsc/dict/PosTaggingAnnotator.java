@@ -0,0 +1,152 @@
+package mr.bsc.dict;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.util.CoreMap;
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Annotiert Zeitungsartikel vollständig mit Tokenizer, Satzerkennung, POS-Tagger und Lemmatisierer von CoreNLP. Das ist die Annotation,
+ * mit der Modell_1 und Modell_2 erstellt wurden. Die Lemmata berechnet nicht die Pipeline, sondern der {@link LemmaCache}. Er nutzt 
+ * dieselbe {@link edu.stanford.nlp.process.Morphology} wie der Lemmatisierer von CoreNLP, berechnet jedes Paar aus Wort und POS-Tag 
+ * aber nur einmal.
+ * 
+ * Sehr lange Artikel (Liveblogs, Longreads) würden sonst allein einen Thread blockieren. Sie werden zuerst nur in Sätze zerlegt, danach
+ * werden Blöcke von Sätzen parallel auf einem {@link ForkJoinPool} getaggt. Der POS-Tagger arbeitet immer nur innerhalb eines Satzes,
+ * das Ergebnis ist deshalb genau dasselbe wie bei der Annotation am Stück.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class PosTaggingAnnotator implements ArticleAnnotator {
+	
+	/*
+	 * Ab dieser Länge (in Zeichen) wird ein Artikel satzweise parallel getaggt.
+	 */
+	private final static int LONG_ARTICLE_LENGTH = 20000;
+	
+	/*
+	 * So viele Tokens taggt eine Aufgabe höchstens am Stück, bevor sie weiter aufgeteilt wird.
+	 */
+	private final static int CHUNK_TOKENS = 1000;
+	
+	private static ForkJoinPool taggingPool;
+	
+	private PipelinePool pipelines;
+	private LemmaCache lemmas;
+	
+	public PosTaggingAnnotator() {
+		this.pipelines = PipelinePool.getInstance(PipelinePool.ANNOTATORS);
+		this.lemmas = LemmaCache.getInstance();
+	}
+
+	@Override
+	public AnnotatedArticle annotate(NewspaperArticle n, PipelinePool.Lease lease) throws InterruptedException {
+		String text = ArticleAnnotator.text(n);
+		if(text.length() >= LONG_ARTICLE_LENGTH) {
+			return annotateParallel(text, lease);
+		}
+		
+		Annotation annotation = this.pipelines.annotate(text, lease);
+		return AnnotatedArticle.fromSentences(annotation.get(CoreAnnotations.SentencesAnnotation.class), this.lemmas);
+	}
+	
+	/**
+	 * Annotiert einen langen Text in zwei Schritten: Zuerst werden Tokens und Sätze am Stück erkannt, anschließend werden die Sätze
+	 * blockweise parallel getaggt. Jeder Block bekommt dafür eine eigene Pipeline aus dem {@link PipelinePool} für {@link PipelinePool#ANNOTATORS_TAGGING}.
+	 * 
+	 * @param text	Der Text, der annotiert werden soll.
+	 * @param lease	Der Auftrag mit Zeitbudget, den jeder Block mitbekommt, oder {@code null}.
+	 * 
+	 * @return Der annotierte Zeitungsartikel
+	 * 
+	 * @throws InterruptedException	Das Warten auf eine freie Pipeline wurde unterbrochen.
+	 */
+	private AnnotatedArticle annotateParallel(String text, PipelinePool.Lease lease) throws InterruptedException {
+		Annotation annotation = PipelinePool.getInstance(PipelinePool.ANNOTATORS_TOKENIZE).annotate(text, lease);
+		List<CoreMap> sentences = annotation.get(CoreAnnotations.SentencesAnnotation.class);
+		
+		int[] tokenStarts = new int[sentences.size() + 1];
+		for(int s = 0; s < sentences.size(); s++) {
+			tokenStarts[s + 1] = tokenStarts[s] + sentences.get(s).get(CoreAnnotations.TokensAnnotation.class).size();
+		}
+		
+		try {
+			getTaggingPool().invoke(new TaggingTask(sentences, tokenStarts, 0, sentences.size(), lease));
+		} catch (IllegalStateException e) {
+			//Der ForkJoinPool verpackt Ausnahmen aus anderen Threads unter Umständen ein weiteres Mal
+			for(Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if(cause instanceof InterruptedException) {
+					throw (InterruptedException) cause;
+				}
+			}
+			throw e;
+		}
+		
+		return AnnotatedArticle.fromSentences(sentences, this.lemmas);
+	}
+	
+	/**
+	 * Gibt den {@link ForkJoinPool} zurück, auf dem lange Artikel getaggt werden. Er wird beim ersten langen Artikel erstellt.
+	 * 
+	 * @return Der {@link ForkJoinPool} für das Taggen
+	 */
+	private static synchronized ForkJoinPool getTaggingPool() {
+		if(taggingPool == null) {
+			taggingPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return taggingPool;
+	}
+
+	@Override
+	public String getSettings() {
+		//Die parallele Annotation liefert dieselben Ergebnisse, sie ändert also nichts am Fingerabdruck des Caches
+		return this.pipelines.getSettings() + ";lemma=Morphology.lemma";
+	}
+	
+	/**
+	 * Taggt die Sätze {@code from} bis {@code to} (exklusiv). Sind es zu viele Tokens, wird der Bereich an einer Satzgrenze halbiert.
+	 * Die POS-Tags werden direkt in die Tokens der Sätze geschrieben.
+	 */
+	private static class TaggingTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final List<CoreMap> sentences;
+		private final int[] tokenStarts;
+		private final int from;
+		private final int to;
+		private final transient PipelinePool.Lease lease; //Die Aufgaben laufen auf fremden Threads, der Auftrag wird deshalb mitgegeben
+		
+		TaggingTask(List<CoreMap> sentences, int[] tokenStarts, int from, int to, PipelinePool.Lease lease) {
+			this.sentences = sentences;
+			this.tokenStarts = tokenStarts;
+			this.from = from;
+			this.to = to;
+			this.lease = lease;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from > 1 && this.tokenStarts[this.to] - this.tokenStarts[this.from] > CHUNK_TOKENS) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new TaggingTask(this.sentences, this.tokenStarts, this.from, middle, this.lease), 
+						new TaggingTask(this.sentences, this.tokenStarts, middle, this.to, this.lease));
+				return;
+			}
+			
+			Annotation chunk = new Annotation("");
+			chunk.set(CoreAnnotations.SentencesAnnotation.class, this.sentences.subList(this.from, this.to));
+			try {
+				PipelinePool.getInstance(PipelinePool.ANNOTATORS_TAGGING).annotate(chunk, this.lease);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Das Taggen des Zeitungsartikels wurde unterbrochen!", e);
+			}
+		}
+	}
+}
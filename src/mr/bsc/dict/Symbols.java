@@ -1,26 +1,25 @@
-package mr.bsc.dict;
-
-import java.util.ArrayList;
-
-/**
- * Repräsentation derer Symbole, die beim Training eines Vorhersagemodells entfernt werden sollen.
- * Wird durch GSON deserialisiert. 
- *  
- * @author Marius Rosenbaum
- *
- */
-public class Symbols {
-	
-	private ArrayList<String> symbols = new ArrayList<String>();
-	
-	/**
-	 * Überprüft, ob ein String ein Symbol ist.
-	 * 
-	 * @param s	Der String, der überprüft werden soll.
-	 * 
-	 * @return true, wenn der String ein Symbol ist.
-	 */
-	public boolean isSymbol(String s) {
-		return symbols.contains(s);
-	}
-}
+package mr.bsc.dict;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repräsentation derer Symbole, die beim Training eines Vorhersagemodells entfernt werden sollen.
+ * Wird durch GSON deserialisiert und anschließend vom {@link Lexicon} in ein Hash-Set überführt.
+ *  
+ * @author Marius Rosenbaum
+ *
+ */
+public class Symbols {
+	
+	private ArrayList<String> symbols = new ArrayList<String>();
+	
+	/**
+	 * Gibt die eingelesenen Symbole zurück. Für die Überprüfung einzelner Wörter ist {@link Lexicon#isSymbol(String)} gedacht.
+	 * 
+	 * @return Die Liste der Symbole.
+	 */
+	List<String> getSymbols() {
+		return this.symbols;
+	}
+}
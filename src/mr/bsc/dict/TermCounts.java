@@ -0,0 +1,49 @@
+package mr.bsc.dict;
+
+/**
+ * Die Häufigkeiten eines {@link Dictionary}, abgelegt unter den Term-IDs aus der {@link TermTable}. Wie die Häufigkeiten gespeichert
+ * werden, entscheidet das {@link DictionaryBackend}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+interface TermCounts {
+	
+	/**
+	 * Gibt die Häufigkeit einer Term-ID zurück.
+	 * 
+	 * @param termId	Die Term-ID.
+	 * 
+	 * @return Die Häufigkeit oder 0, wenn die Term-ID nicht enthalten ist
+	 */
+	int get(int termId);
+	
+	/**
+	 * Erhöht die Häufigkeit einer Term-ID. Eine Häufigkeit von 0 trägt keinen Begriff ein.
+	 * 
+	 * @param termId	Die Term-ID.
+	 * @param count		Die Häufigkeit, um die erhöht werden soll.
+	 */
+	void add(int termId, int count);
+	
+	/**
+	 * Gibt die Anzahl der enthaltenen Term-IDs zurück.
+	 * 
+	 * @return Die Anzahl der Einträge als {@link int}
+	 */
+	int size();
+	
+	/**
+	 * Gibt alle enthaltenen Term-IDs aufsteigend sortiert zurück.
+	 * 
+	 * @return Die Term-IDs als {@link int}-Array
+	 */
+	int[] termIds();
+	
+	/**
+	 * Reserviert Platz für weitere Einträge, damit beim Einlesen eines gespeicherten Wörterbuchs nicht mehrfach vergrößert werden muss.
+	 * 
+	 * @param entries	Die erwartete Anzahl zusätzlicher Einträge.
+	 */
+	void ensureCapacity(int entries);
+}
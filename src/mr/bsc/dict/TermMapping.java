@@ -0,0 +1,44 @@
+package mr.bsc.dict;
+
+/**
+ * Legt fest, welche Nummer der {@link ArticleAnalyzer} einem Begriff im {@link TermVector} gibt. Standard ist die Term-ID aus der
+ * {@link TermTable}. Ein Vorhersagemodell, das die Begriffe anders nachschlägt, z. B. über einen Hashwert, kann hier seine eigene
+ * Nummer vergeben. Der Begriff wird dann gar nicht erst in die {@link TermTable} eingetragen.
+ *
+ * Eine Abbildung wird von mehreren Threads gleichzeitig benutzt und muss deshalb threadsicher sein.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public interface TermMapping {
+
+	/*
+	 * Die Nummer aller Begriffe, die bei {@link #LOOKUP} nicht in der {@link TermTable} stehen. Sie ist größer als jede Term-ID, ein
+	 * Vorhersagemodell wertet sie also wie einen ungesehenen Begriff.
+	 */
+	public final static int UNKNOWN = Integer.MAX_VALUE;
+
+	/*
+	 * Die Term-ID aus der {@link TermTable}, unbekannte Begriffe werden eingetragen.
+	 */
+	public final static TermMapping INTERN = term -> term instanceof String
+			? TermTable.getInstance().intern((String) term) : TermTable.getInstance().intern(term);
+
+	/*
+	 * Die Term-ID aus der {@link TermTable}, unbekannte Begriffe bekommen {@link #UNKNOWN} und werden nicht eingetragen. Zum Klassifizieren,
+	 * damit die {@link TermTable} in einem lang laufenden Dienst nicht mit jedem neuen Wort wächst.
+	 */
+	public final static TermMapping LOOKUP = term -> {
+		int id = term instanceof String ? TermTable.getInstance().lookup((String) term) : TermTable.getInstance().lookup(term);
+		return id < 0 ? UNKNOWN : id;
+	};
+
+	/**
+	 * Gibt die Nummer eines Begriffs zurück.
+	 *
+	 * @param term	Der Begriff. Ein zusammengesetzter Begriff wird als {@link StringBuilder} übergeben, der danach weiterverwendet wird.
+	 *
+	 * @return Die Nummer des Begriffs, nicht negativ
+	 */
+	int map(CharSequence term);
+}
@@ -0,0 +1,189 @@
+package mr.bsc.dict;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Die prozessweite Tabelle aller Begriffe, die jemals beim Zerlegen oder Laden eines Vorhersagemodells aufgetaucht sind. Jeder Begriff
+ * bekommt beim ersten Auftreten eine fortlaufende Nummer (Term-ID). {@link Dictionary}, {@link Vocabulary} und der {@link ArticleAnalyzer}
+ * arbeiten mit diesen Nummern, damit derselbe String nicht bei jedem Zugriff erneut gehasht und verglichen werden muss.
+ * 
+ * Die Tabelle ist threadsicher. Das Nachschlagen eines bekannten Begriffs kommt ohne Sperre aus, nur neue Begriffe werden unter einer
+ * Sperre eingetragen.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public final class TermTable {
+	
+	private final static TermTable instance = new TermTable();
+	
+	/*
+	 * Größe des Puffers, in dem sich jeder Thread zuletzt internierte zusammengesetzte Begriffe merkt. Muss eine Zweierpotenz sein.
+	 */
+	private final static int RECENT_SIZE = 1 << 12;
+	
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>(1 << 16);
+	
+	/*
+	 * Die Begriffe, der Index ist die Term-ID. Wird nur unter der Sperre verändert und beim Vergrößern komplett ersetzt.
+	 */
+	private volatile String[] terms = new String[1 << 16];
+	private int size = 0;
+	
+	/*
+	 * Pro Thread ein direkt adressierter Puffer der zuletzt internierten zusammengesetzten Begriffe und ihrer Term-IDs. Ein Eintrag wird
+	 * über den Hash des Begriffs gefunden und bei einer Kollision einfach überschrieben.
+	 */
+	private final ThreadLocal<String[]> recentTerms = ThreadLocal.withInitial(() -> new String[RECENT_SIZE]);
+	private final ThreadLocal<int[]> recentIds = ThreadLocal.withInitial(() -> new int[RECENT_SIZE]);
+	
+	private TermTable() {
+	}
+	
+	/**
+	 * Gibt die prozessweite Tabelle zurück.
+	 * 
+	 * @return Die {@link TermTable}
+	 */
+	public static TermTable getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * Gibt die Term-ID eines Begriffs zurück. Ist der Begriff noch unbekannt, wird er eingetragen.
+	 * 
+	 * @param term	Der Begriff.
+	 * 
+	 * @return Die Term-ID des Begriffs
+	 */
+	public int intern(String term) {
+		Integer id = this.ids.get(term);
+		if(id != null) {
+			return id;
+		}
+		return add(term);
+	}
+	
+	/**
+	 * Gibt die Term-ID eines Begriffs zurück, der gerade erst zusammengesetzt wird (Eigennamen und Komposita). Wurde derselbe Begriff
+	 * von diesem Thread vor kurzem schon einmal interniert, wird dafür kein neuer String erzeugt.
+	 * 
+	 * @param term	Der Begriff.
+	 * 
+	 * @return Die Term-ID des Begriffs
+	 */
+	public int intern(CharSequence term) {
+		int slot = slot(term);
+		String[] terms = this.recentTerms.get();
+		int[] ids = this.recentIds.get();
+		String recent = terms[slot];
+		if(recent != null && recent.contentEquals(term)) {
+			return ids[slot];
+		}
+		
+		String s = term.toString();
+		int id = intern(s);
+		terms[slot] = term(id); //Der String aus der Tabelle, damit der eben erzeugte sofort wieder freigegeben werden kann
+		ids[slot] = id;
+		return id;
+	}
+	
+	/**
+	 * Gibt den Platz eines Begriffs im Puffer der zuletzt internierten Begriffe zurück.
+	 */
+	private static int slot(CharSequence term) {
+		int hash = 0;
+		for(int i = 0; i < term.length(); i++) {
+			hash = 31 * hash + term.charAt(i);
+		}
+		return (hash ^ (hash >>> 16)) & (RECENT_SIZE - 1);
+	}
+	
+	private synchronized int add(String term) {
+		Integer existing = this.ids.get(term);
+		if(existing != null) {
+			return existing; //Ein anderer Thread war schneller
+		}
+		
+		int id = this.size;
+		String[] current = this.terms;
+		if(id == current.length) {
+			current = Arrays.copyOf(current, current.length * 2);
+		}
+		current[id] = term;
+		this.terms = current;
+		this.size = id + 1;
+		this.ids.put(term, id); //Erst jetzt ist der Begriff für andere Threads sichtbar
+		return id;
+	}
+	
+	/**
+	 * Reserviert Platz für weitere Begriffe, damit die Tabelle beim Laden eines großen Vorhersagemodells nicht mehrfach vergrößert werden muss.
+	 * 
+	 * @param entries	Die erwartete Anzahl neuer Begriffe. Da viele Begriffe schon bekannt sein können, ist das eine Obergrenze.
+	 */
+	public synchronized void ensureCapacity(int entries) {
+		long needed = (long) this.size + entries;
+		if(needed > this.terms.length) {
+			this.terms = Arrays.copyOf(this.terms, (int) Math.min(needed, Integer.MAX_VALUE - 8));
+		}
+	}
+	
+	/**
+	 * Gibt die Term-ID eines Begriffs zurück, ohne ihn einzutragen.
+	 * 
+	 * @param term	Der Begriff.
+	 * 
+	 * @return Die Term-ID oder -1, wenn der Begriff unbekannt ist
+	 */
+	public int lookup(String term) {
+		Integer id = this.ids.get(term);
+		return id == null ? -1 : id;
+	}
+	
+	/**
+	 * Gibt die Term-ID eines Begriffs zurück, der gerade erst zusammengesetzt wird, ohne ihn einzutragen. Wie bei
+	 * {@link #intern(CharSequence)} wird für einen vor kurzem nachgeschlagenen Begriff kein neuer String erzeugt.
+	 * 
+	 * @param term	Der Begriff.
+	 * 
+	 * @return Die Term-ID oder -1, wenn der Begriff unbekannt ist
+	 */
+	public int lookup(CharSequence term) {
+		int slot = slot(term);
+		String[] terms = this.recentTerms.get();
+		int[] ids = this.recentIds.get();
+		String recent = terms[slot];
+		if(recent != null && recent.contentEquals(term)) {
+			return ids[slot];
+		}
+		
+		int id = lookup(term.toString());
+		if(id >= 0) {
+			terms[slot] = term(id); //Nur bekannte Begriffe, der Puffer darf keine Begriffe außerhalb der Tabelle festhalten
+			ids[slot] = id;
+		}
+		return id;
+	}
+	
+	/**
+	 * Gibt den Begriff zu einer Term-ID zurück.
+	 * 
+	 * @param id	Die Term-ID.
+	 * 
+	 * @return Der Begriff
+	 */
+	public String term(int id) {
+		return this.terms[id];
+	}
+	
+	/**
+	 * Gibt die Anzahl der eingetragenen Begriffe zurück. Alle Term-IDs sind kleiner als dieser Wert.
+	 * 
+	 * @return Die Anzahl der Begriffe als {@link int}
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+}
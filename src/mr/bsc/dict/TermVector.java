@@ -0,0 +1,173 @@
+package mr.bsc.dict;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Ein zerlegter Zeitungsartikel als Liste von Term-IDs und deren Häufigkeiten. Die beiden Arrays sind gleich lang und nach der Term-ID
+ * aufsteigend sortiert. Im Gegensatz zu einer {@code HashMap<String, Integer>} gibt es keine Objekte pro Wort, und zwei Artikel lassen
+ * sich in einem einzigen gemeinsamen Durchlauf vergleichen.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class TermVector {
+	
+	/*
+	 * Markiert einen Artikel, dessen Zerlegung wegen Überschreitung des Zeitbudgets abgebrochen wurde, siehe {@link TimeoutPolicy#FAIL}.
+	 * Enthält keine Wörter.
+	 */
+	public final static TermVector TIMED_OUT = new TermVector(new int[0], new int[0]);
+	
+	private final int[] termIds;
+	private final int[] counts;
+	
+	private TermVector(int[] termIds, int[] counts) {
+		this.termIds = termIds;
+		this.counts = counts;
+	}
+	
+	/**
+	 * Überprüft, ob dieser Vektor die Markierung für einen abgebrochenen Artikel ist.
+	 * 
+	 * @return true, wenn die Zerlegung wegen Überschreitung des Zeitbudgets abgebrochen wurde.
+	 */
+	public boolean isTimedOut() {
+		return this == TIMED_OUT;
+	}
+	
+	/**
+	 * Zählt die Term-IDs der Wörter eines Artikels. Jede ID darf beliebig oft vorkommen.
+	 * 
+	 * @param ids		Die Term-IDs in der Reihenfolge ihres Auftretens. Das Array wird dabei sortiert.
+	 * @param length	Die Anzahl der gültigen Einträge in {@code ids}.
+	 * 
+	 * @return Der {@link TermVector} des Artikels
+	 */
+	public static TermVector fromTermIds(int[] ids, int length) {
+		Arrays.sort(ids, 0, length);
+		
+		int distinct = 0;
+		for(int i = 0; i < length; i++) {
+			if(i == 0 || ids[i] != ids[i - 1]) distinct++;
+		}
+		
+		int[] termIds = new int[distinct];
+		int[] counts = new int[distinct];
+		int j = -1;
+		for(int i = 0; i < length; i++) {
+			if(i == 0 || ids[i] != ids[i - 1]) {
+				termIds[++j] = ids[i];
+			}
+			counts[j]++;
+		}
+		
+		return new TermVector(termIds, counts);
+	}
+	
+	/**
+	 * Erstellt einen {@link TermVector} aus einer HashMap, wie sie früher vom {@link ArticleAnalyzer} geliefert wurde.
+	 * 
+	 * @param map	Die Wörter und ihre Häufigkeiten.
+	 * 
+	 * @return Der {@link TermVector} mit denselben Wörtern und Häufigkeiten
+	 */
+	public static TermVector fromMap(HashMap<String, Integer> map) {
+		TermTable table = TermTable.getInstance();
+		long[] pairs = new long[map.size()];
+		int i = 0;
+		for(String key : map.keySet()) {
+			pairs[i++] = ((long) table.intern(key) << 32) | map.get(key); //Nach der ID sortieren, die Häufigkeit wandert mit
+		}
+		Arrays.sort(pairs);
+		
+		int[] termIds = new int[pairs.length];
+		int[] counts = new int[pairs.length];
+		for(i = 0; i < pairs.length; i++) {
+			termIds[i] = (int) (pairs[i] >>> 32);
+			counts[i] = (int) pairs[i];
+		}
+		return new TermVector(termIds, counts);
+	}
+	
+	/**
+	 * Nummeriert die Begriffe dieses Vektors mit einer anderen {@link TermMapping} neu. Bekommen zwei Begriffe dieselbe Nummer, werden
+	 * ihre Häufigkeiten zusammengezählt. Die Nummern dieses Vektors müssen Term-IDs aus {@link TermMapping#INTERN} sein.
+	 * 
+	 * @param mapping	Gibt jedem Begriff seine neue Nummer.
+	 * 
+	 * @return Der neu nummerierte {@link TermVector}
+	 */
+	public TermVector map(TermMapping mapping) {
+		TermTable table = TermTable.getInstance();
+		long[] pairs = new long[this.termIds.length];
+		for(int i = 0; i < pairs.length; i++) {
+			pairs[i] = ((long) mapping.map(table.term(this.termIds[i])) << 32) | this.counts[i];
+		}
+		Arrays.sort(pairs);
+		
+		int distinct = 0;
+		for(int i = 0; i < pairs.length; i++) {
+			if(i == 0 || (pairs[i] >>> 32) != (pairs[i - 1] >>> 32)) distinct++;
+		}
+		
+		int[] termIds = new int[distinct];
+		int[] counts = new int[distinct];
+		int j = -1;
+		for(int i = 0; i < pairs.length; i++) {
+			if(i == 0 || (pairs[i] >>> 32) != (pairs[i - 1] >>> 32)) {
+				termIds[++j] = (int) (pairs[i] >>> 32);
+			}
+			counts[j] += (int) pairs[i];
+		}
+		return new TermVector(termIds, counts);
+	}
+	
+	/**
+	 * Gibt die Anzahl der unterschiedlichen Begriffe zurück.
+	 * 
+	 * @return Die Anzahl der Einträge als {@link int}
+	 */
+	public int size() {
+		return this.termIds.length;
+	}
+	
+	public int termId(int i) {
+		return this.termIds[i];
+	}
+	
+	public int count(int i) {
+		return this.counts[i];
+	}
+	
+	/**
+	 * Gibt die Summe aller Häufigkeiten zurück, also die Anzahl der gezählten Wörter.
+	 * 
+	 * @return Die Anzahl der Wörter als {@link int}
+	 */
+	public int total() {
+		int total = 0;
+		for(int count : this.counts) {
+			total += count;
+		}
+		return total;
+	}
+	
+	/**
+	 * Wandelt diesen Vektor wieder in eine HashMap mit den Begriffen als Schlüssel um. Begriffe mit {@link TermMapping#UNKNOWN} fehlen,
+	 * ihr String ist nicht bekannt.
+	 * 
+	 * @return Die Wörter und ihre Häufigkeiten
+	 */
+	public HashMap<String, Integer> toMap() {
+		TermTable table = TermTable.getInstance();
+		HashMap<String, Integer> map = new HashMap<String, Integer>(this.termIds.length * 2);
+		for(int i = 0; i < this.termIds.length; i++) {
+			if(this.termIds[i] == TermMapping.UNKNOWN) {
+				continue;
+			}
+			map.put(table.term(this.termIds[i]), this.counts[i]);
+		}
+		return map;
+	}
+}
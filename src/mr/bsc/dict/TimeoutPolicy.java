@@ -0,0 +1,21 @@
+package mr.bsc.dict;
+
+/**
+ * Was der {@link ArticleAnalyzer} tut, wenn die Annotation eines Zeitungsartikels länger dauert als das Zeitbudget, siehe
+ * {@link ArticleAnalyzer#setLatencyBudget(long, TimeoutPolicy)}.
+ * 
+ * <p>{@link #TRUNCATE}: Der Artikel wird auf seine ersten Wörter gekürzt und noch einmal annotiert.</p>
+ * <p>{@link #FAST}: Der Artikel wird ohne POS-Tagger annotiert ({@link TokenizingAnnotator}).</p>
+ * <p>{@link #FAIL}: Es wird sofort aufgegeben. Der Analysierer liefert {@link TermVector#TIMED_OUT}.</p>
+ * 
+ * Ergebnisse, die über eine dieser Notlösungen entstanden sind, werden nicht im {@link AnnotationCache} abgelegt.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public enum TimeoutPolicy {
+	
+	TRUNCATE,
+	FAST,
+	FAIL;
+}
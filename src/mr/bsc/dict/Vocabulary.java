@@ -1,65 +1,157 @@
-package mr.bsc.dict;
-
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-
-/**
- * Respräsentation eines Vokabulars. Wird hauptsächlich bei der Ähnlichkeitsberechnung von Zeitungsartikeln genutzt, entsteht aber
- * auch bei der Erstellung des Trainingsdatensatzes für die Klassifikation von Zeitungsartikeln
- * 
- * @author Marius Rosenbaum
- *
- */
-public class Vocabulary {
-	
-	private LinkedHashSet<String> words = new LinkedHashSet<String>();
-	
-	/**
-	 * Fügt ein Wort in das Vokabular ein.
-	 * 
-	 * @param s 	Das Wort, das eingefügt werden soll.
-	 */
-	public void add(String s) {
-		this.words.add(s);
-	}
-	
-	/**
-	 * Gibt das von diesem Objekt verwaltete LinkedHashSet zurück.
-	 * 
-	 * @return Das LinkedHashSet dieses Objektes.
-	 */
-	public LinkedHashSet<String> getWords(){
-		return this.words;
-	}
-	
-	/**
-	 * Gibt die Größe des Vokabulars zurück.
-	 * 
-	 * @return Die Größe des Vokabulars als {@link int}.
-	 */
-	public int size() {
-		return this.words.size();
-	}
-	
-	/**
-	 * Überprüft, ob der ein Wort bereits im Vokabular enthalten ist.
-	 * 
-	 * @param s	Der String, dessen Präsenz im Vokabular überprüft werden soll.
-	 * 
-	 * @return true, wenn das Wort bereits im Vokabular enthalten ist.
-	 */
-	public boolean contains(String s) {
-		return this.words.contains(s);
-	}
-	
-	/**
-	 * Fügt mehrere Wörter aus einer HashMap in das Vokabular ein.
-	 * Dafür wird das keySet der HashMap genutzt.
-	 * 
-	 * @param entries 	Die HashMap, deren Wörter ins Vokabular eingefügt werden sollen.
-	 */
-	public void add(HashMap<String, Integer> entries) {
-		words.addAll(entries.keySet());
-	}
-}
-
+package mr.bsc.dict;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+
+import com.google.gson.annotations.JsonAdapter;
+
+/**
+ * Respräsentation eines Vokabulars. Wird hauptsächlich bei der Ähnlichkeitsberechnung von Zeitungsartikeln genutzt, entsteht aber
+ * auch bei der Erstellung des Trainingsdatensatzes für die Klassifikation von Zeitungsartikeln
+ * 
+ * Die Wörter werden als Term-IDs aus der {@link TermTable} in der Reihenfolge ihres Einfügens abgelegt. Ein {@link BitSet} beantwortet,
+ * ob eine Term-ID bereits enthalten ist. Die JSON-Darstellung ist unverändert, dafür sorgt der {@link VocabularyTypeAdapter}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+@JsonAdapter(VocabularyTypeAdapter.class)
+public class Vocabulary implements VocabularyView {
+	
+	private BitSet contained = new BitSet();
+	private int[] order = new int[1024];
+	private int size = 0;
+	
+	/**
+	 * Fügt ein Wort in das Vokabular ein.
+	 * 
+	 * @param s 	Das Wort, das eingefügt werden soll.
+	 */
+	public void add(String s) {
+		add(TermTable.getInstance().intern(s));
+	}
+	
+	/**
+	 * Fügt einen Begriff über seine Term-ID in das Vokabular ein.
+	 * 
+	 * @param termId	Die Term-ID des Begriffs, der eingefügt werden soll.
+	 */
+	public void add(int termId) {
+		if(this.contained.get(termId)) {
+			return;
+		}
+		this.contained.set(termId);
+		if(this.size == this.order.length) {
+			this.order = Arrays.copyOf(this.order, this.size * 2);
+		}
+		this.order[this.size++] = termId;
+	}
+	
+	/**
+	 * Gibt die Wörter dieses Vokabulars in der Reihenfolge ihres Einfügens zurück. Das LinkedHashSet wird bei jedem Aufruf neu erstellt,
+	 * Änderungen an ihm haben keinen Einfluss auf das Vokabular.
+	 * 
+	 * @return Die Wörter dieses Vokabulars.
+	 */
+	public LinkedHashSet<String> getWords(){
+		TermTable table = TermTable.getInstance();
+		LinkedHashSet<String> words = new LinkedHashSet<String>(this.size * 2);
+		for(int i = 0; i < this.size; i++) {
+			words.add(table.term(this.order[i]));
+		}
+		return words;
+	}
+	
+	/**
+	 * Gibt die Term-IDs dieses Vokabulars in der Reihenfolge ihres Einfügens zurück.
+	 * 
+	 * @return Die Term-IDs als {@link int}-Array
+	 */
+	public int[] getTermIds() {
+		return Arrays.copyOf(this.order, this.size);
+	}
+	
+	/**
+	 * Gibt die Größe des Vokabulars zurück.
+	 * 
+	 * @return Die Größe des Vokabulars als {@link int}.
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Überprüft, ob der ein Wort bereits im Vokabular enthalten ist.
+	 * 
+	 * @param s	Der String, dessen Präsenz im Vokabular überprüft werden soll.
+	 * 
+	 * @return true, wenn das Wort bereits im Vokabular enthalten ist.
+	 */
+	public boolean contains(String s) {
+		int id = TermTable.getInstance().lookup(s);
+		return id >= 0 && contains(id);
+	}
+	
+	/**
+	 * Überprüft, ob eine Term-ID bereits im Vokabular enthalten ist.
+	 * 
+	 * @param termId	Die Term-ID, deren Präsenz im Vokabular überprüft werden soll.
+	 * 
+	 * @return true, wenn der Begriff bereits im Vokabular enthalten ist.
+	 */
+	public boolean contains(int termId) {
+		return this.contained.get(termId);
+	}
+	
+	/**
+	 * Reserviert Platz für weitere Begriffe. Wird beim Einlesen eines gespeicherten Vokabulars genutzt, siehe {@link VocabularyTypeAdapter}.
+	 * 
+	 * @param entries	Die erwartete Anzahl zusätzlicher Begriffe.
+	 */
+	void ensureCapacity(int entries) {
+		if(this.size + entries > this.order.length) {
+			this.order = Arrays.copyOf(this.order, this.size + entries);
+		}
+		if(this.size == 0) {
+			//Neue Begriffe bekommen höchstens die nächsten Term-IDs der TermTable
+			this.contained = new BitSet(TermTable.getInstance().size() + entries);
+		}
+	}
+	
+	/**
+	 * Fügt mehrere Wörter aus einer HashMap in das Vokabular ein.
+	 * Dafür wird das keySet der HashMap genutzt.
+	 * 
+	 * @param entries 	Die HashMap, deren Wörter ins Vokabular eingefügt werden sollen.
+	 */
+	public void add(HashMap<String, Integer> entries) {
+		for(String s : entries.keySet()) {
+			add(s);
+		}
+	}
+	
+	/**
+	 * Fügt die Begriffe eines zerlegten Zeitungsartikels in das Vokabular ein.
+	 * 
+	 * @param vector 	Der zerlegte Zeitungsartikel.
+	 */
+	public void add(TermVector vector) {
+		for(int i = 0; i < vector.size(); i++) {
+			add(vector.termId(i));
+		}
+	}
+	
+	/**
+	 * Fügt alle Begriffe eines anderen Vokabulars in der Reihenfolge ihres Einfügens in dieses Vokabular ein. Wird genutzt, um
+	 * Teilergebnisse zusammenzuführen.
+	 * 
+	 * @param other	Das Vokabular, dessen Begriffe eingefügt werden sollen. Es wird nicht verändert.
+	 */
+	public void merge(VocabularyView other) {
+		for(int termId : other.getTermIds()) {
+			add(termId);
+		}
+	}
+}
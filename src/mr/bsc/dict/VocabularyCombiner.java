@@ -1,81 +1,160 @@
-package mr.bsc.dict;
-
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
-/**
- * Diese Klasse kombiniert 4 Vocabulary-Objekte von 4 Kategorien.
- * 
- * @author Marius Rosenbaum
- *
- */
-public class VocabularyCombiner {
-	
-	public static final String outputDirectory = "E:\\Bachelorarbeit Texte\\TheGuardian\\vocabulary\\";
-	
-	/**
-	 * Hier werden die Vocabulary-Objekte kombiniert.
-	 * 
-	 * @param businessPath	Der Dateipfad zum BUSINESS-Vocabulary
-	 * @param politicsPath	Der Dateipfad zum POLITICS-Vocabulary
-	 * @param sciencePath	Der Dateipfad zum SCIENCE-Vocabulary
-	 * @param sportPath		Der Dateipfad zum SPORT-Vocabulary
-	 * 
-	 * @throws IOException	Beim Laden oder Schreiben der Vocabulary-Objekte ist was schiefgegangen. Sind die Pfade alle korrekt? 
-	 */
-	public void combine(String businessPath, String politicsPath, String sciencePath, String sportPath) throws IOException {
-		Gson gson = new GsonBuilder().setPrettyPrinting().create();
-		Vocabulary total = new Vocabulary();
-		
-		int j = 1;
-		
-		LinkedList<String> topics = new LinkedList<String>();
-		topics.add(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + businessPath);
-		topics.add(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + politicsPath);
-		topics.add(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + sciencePath);
-		topics.add(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + sportPath);
-		
-		for(String topic : topics) {
-			Vocabulary voc = VocabularyCombiner.loadVocabulary(topic);
-			int size = voc.size();
-			int i = 1;
-			for(String word : voc.getWords()) {
-				total.add(word);
-				System.out.println("Topic " + j + ": " + i + " Word(s) of " + size + " finished");
-				i++;
-			}
-			System.out.println("Topic " + j + " finished.");
-			j++;
-		}
-		BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputDirectory + "combinedVocabularyCleanFiltered.json"), StandardCharsets.UTF_8));
-		writer.write(gson.toJson(total));
-		writer.close();
-	}
-	
-	/**
-	 * Diese Methode deserialisiert mit {@link GSON} ein Vocabulary-Objekt.
-	 * 
-	 * @param vocabularyPath	Der Pfad zur JSON-Datei des Vocabulary-Objektes, das deserialisiert werden soll. 
-	 * 
-	 * @return	Das deserialisierte Vocabulary-Objekt aus der JSON-Datei
-	 * 
-	 * @throws IOException	Beim Laden des Vocabulary-Objekts ist was schiefgegangen. Ist der Pfad korrekt? 
-	 */
-	public static Vocabulary loadVocabulary(String vocabularyPath) throws IOException {
-		Gson gson = new Gson();
-		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(vocabularyPath), StandardCharsets.UTF_8));
-		Vocabulary voc = gson.fromJson(reader, Vocabulary.class);
-		reader.close();
-		return voc;
-	}
-}
+package mr.bsc.dict;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Diese Klasse kombiniert die Vocabulary-Objekte beliebig vieler Kategorien. Die Vokabulare werden über ihre Term-IDs in einem einzigen
+ * Durchlauf vereinigt, ohne jedes Wort einzeln auszugeben. Alternativ lässt sich das kombinierte Vokabular mit
+ * {@link #fromDictionaries(DictionaryView...)} direkt aus den Wörterbüchern der Kategorien ableiten, dann muss keine eigene Datei erstellt werden.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class VocabularyCombiner {
+	
+	public static final String outputDirectory = DictionaryCreator.PATH_DIRECTORY_VOCABULARY; //Lässt sich also mit -Dbsc.vocabulary ändern
+	
+	/**
+	 * Hier werden die Vocabulary-Objekte kombiniert.
+	 * 
+	 * @param businessPath	Der Dateipfad zum BUSINESS-Vocabulary
+	 * @param politicsPath	Der Dateipfad zum POLITICS-Vocabulary
+	 * @param sciencePath	Der Dateipfad zum SCIENCE-Vocabulary
+	 * @param sportPath		Der Dateipfad zum SPORT-Vocabulary
+	 * 
+	 * @throws IOException	Beim Laden oder Schreiben der Vocabulary-Objekte ist was schiefgegangen. Sind die Pfade alle korrekt? 
+	 */
+	public void combine(String businessPath, String politicsPath, String sciencePath, String sportPath) throws IOException {
+		combine(businessPath, politicsPath, sciencePath, sportPath, "combinedVocabularyCleanFiltered.json");
+	}
+	
+	/**
+	 * Hier werden die Vocabulary-Objekte kombiniert und unter dem angegebenen Dateinamen gespeichert.
+	 * 
+	 * @param businessPath	Der Dateipfad zum BUSINESS-Vocabulary
+	 * @param politicsPath	Der Dateipfad zum POLITICS-Vocabulary
+	 * @param sciencePath	Der Dateipfad zum SCIENCE-Vocabulary
+	 * @param sportPath		Der Dateipfad zum SPORT-Vocabulary
+	 * @param outputName	Der Dateiname des kombinierten Vokabulars in {@link #outputDirectory}
+	 * 
+	 * @throws IOException	Beim Laden oder Schreiben der Vocabulary-Objekte ist was schiefgegangen. Sind die Pfade alle korrekt? 
+	 */
+	public void combine(String businessPath, String politicsPath, String sciencePath, String sportPath, String outputName) throws IOException {
+		combine(outputName, Arrays.asList(businessPath, politicsPath, sciencePath, sportPath));
+	}
+	
+	/**
+	 * Kombiniert die Vocabulary-Objekte beliebig vieler Kategorien und speichert das Ergebnis unter dem angegebenen Dateinamen, als JSON-Datei
+	 * und als {@link ModelFile}. Die Wörter bleiben in der Reihenfolge, in der sie zum ersten Mal vorkommen.
+	 * 
+	 * @param outputName	Der Dateiname des kombinierten Vokabulars in {@link #outputDirectory}
+	 * @param paths			Die Dateipfade der Vokabulare, relativ zu {@link DictionaryCreator#PATH_DIRECTORY_VOCABULARY}
+	 * 
+	 * @return Das kombinierte {@link Vocabulary}
+	 * 
+	 * @throws IOException	Beim Laden oder Schreiben der Vocabulary-Objekte ist was schiefgegangen. Sind die Pfade alle korrekt? 
+	 */
+	public Vocabulary combine(String outputName, List<String> paths) throws IOException {
+		Vocabulary total = new Vocabulary();
+		String settings = ""; //Die Einstellungen des Analysierers, soweit sie aus den Modelldateien bekannt sind
+		
+		for(String path : paths) {
+			VocabularyView voc = VocabularyCombiner.mapVocabulary(DictionaryCreator.PATH_DIRECTORY_VOCABULARY + path);
+			if(voc instanceof MappedVocabulary) {
+				settings = ((MappedVocabulary) voc).getSettings();
+			}
+			total.merge(voc);
+			System.out.println(path + ": " + voc.size() + " Wörter, kombiniert " + total.size());
+		}
+		
+		DictionaryCreator.writeAtomically(total, outputDirectory + outputName);
+		ModelFile.write(total, settings, ModelFile.getBinaryPath(outputDirectory + outputName)); //Nach dem JSON, damit die Modelldatei nicht älter ist
+		return total;
+	}
+	
+	/**
+	 * Leitet das kombinierte Vokabular aus den Wörterbüchern der Kategorien ab. Jedes Wort, das in einem Wörterbuch vorkommt, ist auch im
+	 * Vokabular derselben Kategorie, das Ergebnis entspricht also dem kombinierten Vokabular aus {@link #combine(String, List)}. Nur die
+	 * Reihenfolge der Wörter kann abweichen.
+	 * 
+	 * @param dictionaries	Die Wörterbücher der Kategorien.
+	 * 
+	 * @return Das kombinierte {@link Vocabulary}
+	 */
+	public static Vocabulary fromDictionaries(DictionaryView... dictionaries) {
+		Vocabulary total = new Vocabulary();
+		for(DictionaryView dic : dictionaries) {
+			for(int id : dic.getTermIds()) {
+				total.add(id);
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Diese Methode deserialisiert mit {@link GSON} ein Vocabulary-Objekt. Liegt neben der JSON-Datei eine mindestens genauso neue
+	 * {@link ModelFile}, wird stattdessen diese gelesen, aber nicht eingeblendet. Das Ergebnis kann verändert werden. Ist die Modelldatei
+	 * beschädigt, wird doch die JSON-Datei gelesen.
+	 * 
+	 * @param vocabularyPath	Der Pfad zur JSON-Datei des Vocabulary-Objektes, das deserialisiert werden soll. 
+	 * 
+	 * @return	Das deserialisierte Vocabulary-Objekt aus der JSON-Datei
+	 * 
+	 * @throws IOException	Beim Laden des Vocabulary-Objekts ist was schiefgegangen. Ist der Pfad korrekt? 
+	 */
+	public static Vocabulary loadVocabulary(String vocabularyPath) throws IOException {
+		if(ModelFile.hasBinary(vocabularyPath)) {
+			try {
+				return MappedVocabulary.read(ModelFile.getBinaryPath(vocabularyPath)).copy();
+			} catch (IOException e) {
+				System.err.println(e.getMessage() + " Es wird die JSON-Datei gelesen.");
+			}
+		}
+		return readVocabulary(vocabularyPath);
+	}
+	
+	/**
+	 * Liest ein {@link Vocabulary} aus der JSON-Datei, ohne nach einer {@link ModelFile} zu suchen.
+	 */
+	private static Vocabulary readVocabulary(String vocabularyPath) throws IOException {
+		//Der VocabularyTypeAdapter liest direkt aus dem Reader und reserviert vorher Platz passend zur Größe der Datei
+		VocabularyTypeAdapter adapter = new VocabularyTypeAdapter(VocabularyTypeAdapter.estimateEntries(Files.size(Paths.get(vocabularyPath))));
+		try(JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(vocabularyPath), StandardCharsets.UTF_8), 1 << 16))) {
+			reader.setLenient(true);
+			return adapter.read(reader);
+		} catch (IllegalStateException e) {
+			throw new IOException("Die Datei " + vocabularyPath + " enthält kein gültiges Vokabular!", e);
+		}
+	}
+	
+	/**
+	 * Öffnet ein Vokabular nur zum Lesen. Liegt neben der JSON-Datei eine mindestens genauso neue {@link ModelFile}, wird diese in den
+	 * Speicher eingeblendet und ein {@link MappedVocabulary} zurückgegeben, sonst wie {@link #loadVocabulary(String)}.
+	 * 
+	 * @param vocabularyPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Das Vokabular
+	 * 
+	 * @throws IOException	Beim Laden des Vokabulars ist was schiefgegangen.
+	 */
+	public static VocabularyView mapVocabulary(String vocabularyPath) throws IOException {
+		if(ModelFile.hasBinary(vocabularyPath)) {
+			try {
+				return MappedVocabulary.open(ModelFile.getBinaryPath(vocabularyPath));
+			} catch (IOException e) {
+				System.err.println(e.getMessage() + " Es wird die JSON-Datei gelesen.");
+			}
+		}
+		return readVocabulary(vocabularyPath);
+	}
+}
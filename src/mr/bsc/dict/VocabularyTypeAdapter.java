@@ -0,0 +1,104 @@
+package mr.bsc.dict;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Liest und schreibt ein {@link Vocabulary} im bisherigen JSON-Format:
+ * 
+ * <pre>
+ * {
+ *   "words": [ "wort", ... ]
+ * }
+ * </pre>
+ * 
+ * Die Wörter werden beim Einlesen direkt in die {@link TermTable} eingetragen. Ist die Größe der Datei bekannt, werden {@link TermTable}
+ * und {@link Vocabulary} vorher passend vergrößert, siehe {@link #VocabularyTypeAdapter(int)}.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class VocabularyTypeAdapter extends TypeAdapter<Vocabulary> {
+	
+	/*
+	 * So viele Bytes belegt ein Eintrag wie {@code "wort",} mindestens im Durchschnitt. Lieber etwas zu viel Platz reservieren.
+	 */
+	private final static int BYTES_PER_ENTRY = 9;
+	
+	private final int expectedEntries;
+	
+	public VocabularyTypeAdapter() {
+		this(0);
+	}
+	
+	/**
+	 * @param expectedEntries	Die erwartete Anzahl an Begriffen, siehe {@link #estimateEntries(long)}. Bei 0 wird nichts reserviert.
+	 */
+	public VocabularyTypeAdapter(int expectedEntries) {
+		this.expectedEntries = expectedEntries;
+	}
+	
+	/**
+	 * Schätzt die Anzahl der Begriffe eines gespeicherten Vokabulars aus der Größe der Datei. Die Schätzung ist eher zu groß.
+	 * 
+	 * @param bytes	Die Größe der JSON-Datei in Bytes.
+	 * 
+	 * @return Die geschätzte Anzahl an Begriffen
+	 */
+	public static int estimateEntries(long bytes) {
+		return (int) Math.min(bytes / BYTES_PER_ENTRY, Integer.MAX_VALUE / 2);
+	}
+
+	@Override
+	public void write(JsonWriter out, Vocabulary voc) throws IOException {
+		if(voc == null) {
+			out.nullValue();
+			return;
+		}
+		
+		TermTable table = TermTable.getInstance();
+		out.beginObject();
+		out.name("words");
+		out.beginArray();
+		for(int id : voc.getTermIds()) {
+			out.value(table.term(id));
+		}
+		out.endArray();
+		out.endObject();
+	}
+
+	@Override
+	public Vocabulary read(JsonReader in) throws IOException {
+		if(in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		
+		TermTable table = TermTable.getInstance();
+		Vocabulary voc = new Vocabulary();
+		if(this.expectedEntries > 0) {
+			table.ensureCapacity(this.expectedEntries);
+			voc.ensureCapacity(this.expectedEntries);
+		}
+		
+		in.beginObject();
+		while(in.hasNext()) {
+			if(in.nextName().equals("words")) {
+				in.beginArray();
+				while(in.hasNext()) {
+					voc.add(table.intern(in.nextString()));
+				}
+				in.endArray();
+			} else {
+				in.skipValue();
+			}
+		}
+		in.endObject();
+		
+		return voc;
+	}
+}
@@ -0,0 +1,52 @@
+package mr.bsc.dict;
+
+import java.util.LinkedHashSet;
+
+/**
+ * Ein Vokabular, das nur gelesen werden kann. Wird von {@link Vocabulary} und vom eingeblendeten {@link MappedVocabulary} erfüllt, siehe
+ * {@link VocabularyCombiner#mapVocabulary(String)}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public interface VocabularyView {
+
+	/**
+	 * Gibt die Wörter in der Reihenfolge ihres Einfügens als neues LinkedHashSet zurück.
+	 *
+	 * @return Die Wörter des Vokabulars
+	 */
+	LinkedHashSet<String> getWords();
+
+	/**
+	 * Gibt die Term-IDs in der Reihenfolge ihres Einfügens zurück.
+	 *
+	 * @return Die Term-IDs als {@link int}-Array
+	 */
+	int[] getTermIds();
+
+	/**
+	 * Gibt die Größe des Vokabulars zurück.
+	 *
+	 * @return Die Größe des Vokabulars als {@link int}
+	 */
+	int size();
+
+	/**
+	 * Überprüft, ob ein Wort im Vokabular enthalten ist.
+	 *
+	 * @param s	Das Wort.
+	 *
+	 * @return true, wenn das Wort enthalten ist.
+	 */
+	boolean contains(String s);
+
+	/**
+	 * Überprüft, ob eine Term-ID im Vokabular enthalten ist.
+	 *
+	 * @param termId	Die Term-ID.
+	 *
+	 * @return true, wenn der Begriff enthalten ist.
+	 */
+	boolean contains(int termId);
+}
@@ -0,0 +1,197 @@
+package mr.bsc.guardian;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Liest die Zeitungsartikel einer als JSON gespeicherten {@link NewspaperArticleCollection} einzeln nacheinander ein. Im Gegensatz zu
+ * {@code gson.fromJson} liegt dabei nie die gesamte Textsammlung im Speicher, sondern immer nur der Artikel, der gerade gelesen wird.
+ * 
+ * Erwartet wird das Format, das auch Gson für eine {@link NewspaperArticleCollection} schreibt:
+ * 
+ * <pre>
+ * {
+ *   "articles": [
+ *     { "headline": "...", "content": "..." },
+ *     ...
+ *   ]
+ * }
+ * </pre>
+ * 
+ * Unbekannte Felder werden übersprungen. Fehler beim Lesen während der Iteration werden als {@link UncheckedIOException} weitergegeben.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class NewspaperArticleReader implements Iterator<NewspaperArticle>, Closeable {
+	
+	private final JsonReader reader;
+	private boolean inArray = false;	//Steht der Reader gerade innerhalb von "articles"?
+	private NewspaperArticle next;		//Der bereits gelesene, aber noch nicht zurückgegebene Artikel
+	
+	/**
+	 * Öffnet eine Textsammlung.
+	 * 
+	 * @param collectionPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @throws IOException	Die Datei konnte nicht geöffnet werden oder ist keine Textsammlung.
+	 */
+	public NewspaperArticleReader(String collectionPath) throws IOException {
+		this.reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(collectionPath), StandardCharsets.UTF_8)));
+		try {
+			this.reader.beginObject();
+			this.inArray = findArticles();
+		} catch (IOException | RuntimeException e) {
+			this.reader.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Öffnet eine Textsammlung als {@link Stream}. Der Stream muss geschlossen werden, z. B. mit try-with-resources.
+	 * 
+	 * @param collectionPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Die Zeitungsartikel in der Reihenfolge der Datei
+	 * 
+	 * @throws IOException	Die Datei konnte nicht geöffnet werden oder ist keine Textsammlung.
+	 */
+	public static Stream<NewspaperArticle> stream(String collectionPath) throws IOException {
+		NewspaperArticleReader articles = new NewspaperArticleReader(collectionPath);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(articles, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(() -> {
+					try {
+						articles.close();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+	
+	/**
+	 * Überspringt alle Felder bis zum Feld {@code articles} und öffnet dessen Array.
+	 * 
+	 * @return true, wenn das Array gefunden wurde.
+	 * 
+	 * @throws IOException
+	 */
+	private boolean findArticles() throws IOException {
+		while(this.reader.hasNext()) {
+			if(this.reader.nextName().equals("articles") && this.reader.peek() == JsonToken.BEGIN_ARRAY) {
+				this.reader.beginArray();
+				return true;
+			}
+			this.reader.skipValue();
+		}
+		return false;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if(this.next != null) {
+			return true;
+		}
+		if(!this.inArray) {
+			return false;
+		}
+		try {
+			if(this.reader.hasNext()) {
+				this.next = readArticle();
+				return true;
+			}
+			this.reader.endArray();
+			this.inArray = false;
+			return false;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public NewspaperArticle next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		NewspaperArticle article = this.next;
+		this.next = null;
+		return article;
+	}
+	
+	/**
+	 * Überspringt Zeitungsartikel, ohne sie einzulesen. Überschrift und Textkörper werden dabei nicht als Strings erstellt.
+	 * 
+	 * @param n	Wie viele Artikel übersprungen werden sollen.
+	 * 
+	 * @return Wie viele Artikel tatsächlich übersprungen wurden. Weniger als {@code n}, wenn die Textsammlung vorher zu Ende ist.
+	 * 
+	 * @throws IOException
+	 */
+	public int skip(int n) throws IOException {
+		int skipped = 0;
+		if(this.next != null && n > 0) {
+			this.next = null;
+			skipped++;
+		}
+		while(skipped < n && this.inArray && this.reader.hasNext()) {
+			this.reader.skipValue();
+			skipped++;
+		}
+		return skipped;
+	}
+	
+	/**
+	 * Zählt die Zeitungsartikel einer Textsammlung, ohne sie einzulesen.
+	 * 
+	 * @param collectionPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @return Die Anzahl der Artikel
+	 * 
+	 * @throws IOException	Die Datei konnte nicht gelesen werden oder ist keine Textsammlung.
+	 */
+	public static int count(String collectionPath) throws IOException {
+		try(NewspaperArticleReader articles = new NewspaperArticleReader(collectionPath)) {
+			return articles.skip(Integer.MAX_VALUE);
+		}
+	}
+	
+	private NewspaperArticle readArticle() throws IOException {
+		String headline = null;
+		String content = null;
+		
+		this.reader.beginObject();
+		while(this.reader.hasNext()) {
+			String name = this.reader.nextName();
+			if(this.reader.peek() == JsonToken.NULL) {
+				this.reader.nextNull();
+			} else if(name.equals("headline")) {
+				headline = this.reader.nextString();
+			} else if(name.equals("content")) {
+				content = this.reader.nextString();
+			} else {
+				this.reader.skipValue();
+			}
+		}
+		this.reader.endObject();
+		
+		return new NewspaperArticle(headline, content);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+}
@@ -0,0 +1,84 @@
+package mr.bsc.guardian;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Schreibt Zeitungsartikel einzeln nacheinander als {@link NewspaperArticleCollection} in eine JSON-Datei. Die Datei hat dasselbe,
+ * formatierte Format wie bisher mit {@code gson.toJson}, kann also weiterhin mit Gson oder dem {@link NewspaperArticleReader} gelesen werden.
+ * Die Textsammlung muss dafür nie vollständig im Speicher liegen.
+ * 
+ * Erst {@link #close()} schließt die JSON-Struktur ab.
+ * 
+ * @author Marius Rosenbaum
+ *
+ */
+public class NewspaperArticleWriter implements Closeable {
+	
+	private final FileOutputStream file;	//Die Datei unter dem {@link JsonWriter}, siehe {@link #close()}
+	private final JsonWriter writer;
+	private int size = 0;
+	
+	/**
+	 * Legt eine neue Textsammlung an. Eine bestehende Datei wird überschrieben.
+	 * 
+	 * @param collectionPath	Der Pfad zur JSON-Datei.
+	 * 
+	 * @throws IOException	Die Datei konnte nicht angelegt werden.
+	 */
+	public NewspaperArticleWriter(String collectionPath) throws IOException {
+		this.file = new FileOutputStream(collectionPath);
+		this.writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(this.file, StandardCharsets.UTF_8)));
+		this.writer.setIndent("  "); //Wie GsonBuilder.setPrettyPrinting()
+		this.writer.setHtmlSafe(true); //Wie Gson, das <, >, & usw. standardmäßig maskiert
+		this.writer.beginObject();
+		this.writer.name("articles");
+		this.writer.beginArray();
+	}
+	
+	/**
+	 * Hängt einen Zeitungsartikel an die Textsammlung an.
+	 * 
+	 * @param article	Der Zeitungsartikel.
+	 * 
+	 * @throws IOException
+	 */
+	public void write(NewspaperArticle article) throws IOException {
+		this.writer.beginObject();
+		this.writer.name("headline").value(article.getHeadline());
+		this.writer.name("content").value(article.getContent());
+		this.writer.endObject();
+		this.size++;
+	}
+	
+	/**
+	 * Gibt die Anzahl der bisher geschriebenen Zeitungsartikel zurück.
+	 * 
+	 * @return Die Anzahl der Zeitungsartikel als {@link int}
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Schließt die JSON-Struktur ab und schließt die Datei. Die Datei wird auch dann geschlossen, wenn das Abschließen fehlschlägt,
+	 * z. B. weil die Platte voll ist.
+	 * 
+	 * @throws IOException
+	 */
+	@Override
+	public void close() throws IOException {
+		try(JsonWriter writer = this.writer) {
+			writer.endArray();
+			writer.endObject();
+		} finally {
+			this.file.close(); //Bereits geschlossen, außer der JsonWriter ist beim Leeren des Puffers gescheitert
+		}
+	}
+}
@@ -1,113 +1,463 @@
-package mr.bsc.main;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-
-import mr.bsc.classifier.NaiveBayesClassifier;
-import mr.bsc.comparator.ArticleComparator;
-import mr.bsc.dict.DictionaryCreator;
-import mr.bsc.dict.VocabularyCombiner;
-
-public class Application {
-	
-	public final static String PATH_DIRECTORY_TRAINING_BUSINESS = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\business\\businessTrainingCleaned.json";
-	public final static String PATH_DIRECTORY_TRAINING_POLITICS = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\politics\\politicsTrainingCleaned.json";
-	public final static String PATH_DIRECTORY_TRAINING_SCIENCE = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\science\\scienceTrainingCleaned.json";
-	public final static String PATH_DIRECTORY_TRAINING_SPORT = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\sport\\sportTrainingCleaned.json";
-	
-	public final static String PATH_DIRECTORY_VOCABULARY_BUSINESS = "cleanFiltered\\businessVocabularyCleanFiltered.json";
-	public final static String PATH_DIRECTORY_VOCABULARY_POLITICS = "cleanFiltered\\politicsVocabularyCleanFiltered.json";
-	public final static String PATH_DIRECTORY_VOCABULARY_SCIENCE = "cleanFiltered\\scienceVocabularyCleanFiltered.json";
-	public final static String PATH_DIRECTORY_VOCABULARY_SPORT = "cleanFiltered\\sportVocabularyCleanFiltered.json";
-	
-//	public final static String PATH_DIRECTORY_VOCABULARY_BUSINESS = "cleaned\\businessVocabularyCleaned.json";
-//	public final static String PATH_DIRECTORY_VOCABULARY_POLITICS = "cleaned\\politicsVocabularyCleaned.json";
-//	public final static String PATH_DIRECTORY_VOCABULARY_SCIENCE = "cleaned\\scienceVocabularyCleaned.json";
-//	public final static String PATH_DIRECTORY_VOCABULARY_SPORT = "cleaned\\sportVocabularyCleaned.json";
-	
-	public final static String PATH_DIRECTORY_TEST_BUSINESS = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\business\\businessTestCleaned.json";
-	public final static String PATH_DIRECTORY_TEST_POLITICS = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\politics\\politicsTestCleaned.json";
-	public final static String PATH_DIRECTORY_TEST_SCIENCE = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\science\\scienceTestCleaned.json";
-	public final static String PATH_DIRECTORY_TEST_SPORT = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\sport\\sportTestCleaned.json";
-	
-	public final static String PATH_DIRECTORY_SIMILARITY_BUSINESS = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Business\\Business.json";
-	public final static String PATH_DIRECTORY_SIMILARITY_POLITICS = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Politics\\Politics.json";
-	public final static String PATH_DIRECTORY_SIMILARITY_SCIENCE = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Science\\Science.json";
-	public final static String PATH_DIRECTORY_SIMILARITY_SPORT = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Sport\\Sport.json";
-	
-	public static void main(String[] args) throws IOException, InterruptedException {
-		long startTime = System.nanoTime();
-//		createDictionaries(true);
-//		combineVocabulary();
-//		classifyDocuments(false);
-//		measureArticleSimilarty(true);
-		long estimatedTime = System.nanoTime() - startTime;
-		System.out.println("Programmdauer in Nanosekunden : " + estimatedTime);		
-	}
-	
-	/**
-	 * Diese Methode erstellt für jede Kategorie ein Dictionary.
-	 * 
-	 * @param filtering <p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
-	 * 					<p>{@code false}, keine Filterung wird durchgeführt</p>
-	 * 
-	 * @throws InterruptedException
-	 */
-	public static void createDictionaries(boolean filtering) throws InterruptedException {
-		ExecutorService executor = Executors.newFixedThreadPool(4);
-		List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
-		
-        tasks.add(Executors.callable(new DictionaryCreator("business", PATH_DIRECTORY_TRAINING_BUSINESS, filtering)));
-        tasks.add(Executors.callable(new DictionaryCreator("politics", PATH_DIRECTORY_TRAINING_POLITICS, filtering)));
-        tasks.add(Executors.callable(new DictionaryCreator("science", PATH_DIRECTORY_TRAINING_SCIENCE, filtering)));
-        tasks.add(Executors.callable(new DictionaryCreator("sport", PATH_DIRECTORY_TRAINING_SPORT, filtering)));
-        
-        executor.invokeAll(tasks);
-        executor.shutdown();
-        executor.awaitTermination(15L, TimeUnit.MINUTES);
-	}
-	
-	/**
-	 * Mit dieser Methode wird das Vokabular von 4 Kategorien kombiniert.
-	 * 
-	 * @throws IOException
-	 */
-	public static void combineVocabulary() throws IOException {
-		VocabularyCombiner vocCombiner = new VocabularyCombiner();
-		vocCombiner.combine(PATH_DIRECTORY_VOCABULARY_BUSINESS, PATH_DIRECTORY_VOCABULARY_POLITICS, PATH_DIRECTORY_VOCABULARY_SCIENCE, PATH_DIRECTORY_VOCABULARY_SPORT);
-	}
-	
-	/**
-	 * Mit dieser Methode wird das Testset klassifiziert.
-	 * 
-	 * @param filtering <p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
-	 * 					<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
-	 * 
-	 * @throws IOException
-	 */
-	public static void classifyDocuments(boolean filtering) throws IOException {
-		NaiveBayesClassifier classifier = new NaiveBayesClassifier();
-		classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering);
-	}
-	
-	/**
-	 * 
-	 * @param filtering <p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
-	 * 					<p>{@code false}, keine Filterung wird durchgeführt</p>
-	 * 
-	 * @throws IOException
-	 */
-	public static void measureArticleSimilarty(boolean filtering) throws IOException {
-		ArticleComparator comp = new ArticleComparator();
-		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_BUSINESS, filtering);
-		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_POLITICS, filtering);
-		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_SCIENCE, filtering);
-		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_SPORT, filtering);
-	}
-	
-}
+package mr.bsc.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import mr.bsc.classifier.NaiveBayesClassifier;
+import mr.bsc.classifier.Quantization;
+import mr.bsc.comparator.ArticleComparator;
+import mr.bsc.dict.AnalysisMode;
+import mr.bsc.dict.ArticleAnalyzer;
+import mr.bsc.dict.DictionaryCreator;
+import mr.bsc.dict.FeatureMeasure;
+import mr.bsc.dict.FeatureSelector;
+import mr.bsc.dict.VocabularyCombiner;
+import mr.bsc.guardian.NewspaperArticle;
+
+public class Application {
+	
+	/*
+	 * Das Verzeichnis des Trainingsdatensatzes. Jede Kategorie hat ein eigenes Unterverzeichnis, siehe {@link #discoverCategories()}.
+	 */
+	public final static String PATH_DIRECTORY_TRAINING = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\";
+	
+	/*
+	 * Das Verzeichnis mit neuen Zeitungsartikeln, die zu bestehenden Modellen hinzugezählt werden, siehe {@link #updateDictionaries(boolean, AnalysisMode)}.
+	 * Es ist genauso aufgebaut wie der Trainingsdatensatz: {@code <kategorie>\<kategorie>New.json}.
+	 */
+	public final static String PATH_DIRECTORY_INGEST = "E:\\Bachelorarbeit Texte\\TheGuardian\\ingest\\";
+	
+	public final static String PATH_DIRECTORY_TRAINING_BUSINESS = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\business\\businessTrainingCleaned.json";
+	public final static String PATH_DIRECTORY_TRAINING_POLITICS = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\politics\\politicsTrainingCleaned.json";
+	public final static String PATH_DIRECTORY_TRAINING_SCIENCE = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\science\\scienceTrainingCleaned.json";
+	public final static String PATH_DIRECTORY_TRAINING_SPORT = "E:\\Bachelorarbeit Texte\\TheGuardian\\training\\sport\\sportTrainingCleaned.json";
+	
+	public final static String PATH_DIRECTORY_VOCABULARY_BUSINESS = "cleanFiltered\\businessVocabularyCleanFiltered.json";
+	public final static String PATH_DIRECTORY_VOCABULARY_POLITICS = "cleanFiltered\\politicsVocabularyCleanFiltered.json";
+	public final static String PATH_DIRECTORY_VOCABULARY_SCIENCE = "cleanFiltered\\scienceVocabularyCleanFiltered.json";
+	public final static String PATH_DIRECTORY_VOCABULARY_SPORT = "cleanFiltered\\sportVocabularyCleanFiltered.json";
+	
+//	public final static String PATH_DIRECTORY_VOCABULARY_BUSINESS = "cleaned\\businessVocabularyCleaned.json";
+//	public final static String PATH_DIRECTORY_VOCABULARY_POLITICS = "cleaned\\politicsVocabularyCleaned.json";
+//	public final static String PATH_DIRECTORY_VOCABULARY_SCIENCE = "cleaned\\scienceVocabularyCleaned.json";
+//	public final static String PATH_DIRECTORY_VOCABULARY_SPORT = "cleaned\\sportVocabularyCleaned.json";
+	
+	/*
+	 * Das Verzeichnis des Testsets, aufgebaut wie der Trainingsdatensatz: {@code <kategorie>\<kategorie>TestCleaned.json}.
+	 */
+	public final static String PATH_DIRECTORY_TEST = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\";
+	
+	public final static String PATH_DIRECTORY_TEST_BUSINESS = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\business\\businessTestCleaned.json";
+	public final static String PATH_DIRECTORY_TEST_POLITICS = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\politics\\politicsTestCleaned.json";
+	public final static String PATH_DIRECTORY_TEST_SCIENCE = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\science\\scienceTestCleaned.json";
+	public final static String PATH_DIRECTORY_TEST_SPORT = "E:\\Bachelorarbeit Texte\\TheGuardian\\test\\sport\\sportTestCleaned.json";
+	
+	/*
+	 * Die Anzahl der Artikel, an denen der Durchsatz der verschiedenen Arten der Annotation gemessen wird.
+	 */
+	public final static int THROUGHPUT_SAMPLE = 1000;
+	
+	public final static String PATH_DIRECTORY_SIMILARITY_BUSINESS = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Business\\Business.json";
+	public final static String PATH_DIRECTORY_SIMILARITY_POLITICS = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Politics\\Politics.json";
+	public final static String PATH_DIRECTORY_SIMILARITY_SCIENCE = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Science\\Science.json";
+	public final static String PATH_DIRECTORY_SIMILARITY_SPORT = "E:\\Bachelorarbeit Texte\\Aehnlichkeit\\Sport\\Sport.json";
+	
+	public static void main(String[] args) throws IOException, InterruptedException {
+		long startTime = System.nanoTime();
+//		createDictionaries(true);
+//		createBothDictionaries(AnalysisMode.FULL);
+//		updateDictionaries(true, AnalysisMode.FULL);
+//		combineVocabulary();
+//		pruneDictionaries(true, AnalysisMode.FULL, new FeatureSelector(3, 50000, 10000, FeatureMeasure.MUTUAL_INFORMATION));
+//		comparePrunedModels(true, AnalysisMode.FULL);
+//		createDictionaries(true, AnalysisMode.FULL, 1 << 20);
+//		compareHashedModels(true, AnalysisMode.FULL, 1 << 14, 1 << 16, 1 << 18, 1 << 20);
+//		compareQuantizedModels(true, AnalysisMode.FULL);
+//		classifyDocuments(false);
+//		classifyAllCategories(true, AnalysisMode.FULL);
+//		measureArticleSimilarty(true);
+//		compareAnalysisModes();
+		long estimatedTime = System.nanoTime() - startTime;
+		System.out.println("Programmdauer in Nanosekunden : " + estimatedTime);		
+	}
+	
+	/**
+	 * Diese Methode erstellt für jede Kategorie ein Dictionary.
+	 * 
+	 * @param filtering <p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
+	 * 					<p>{@code false}, keine Filterung wird durchgeführt</p>
+	 * 
+	 * @throws IOException
+	 */
+	public static void createDictionaries(boolean filtering) throws IOException {
+		createDictionaries(filtering, AnalysisMode.FULL);
+	}
+	
+	/**
+	 * Diese Methode erstellt für jede Kategorie ein Dictionary mit der angegebenen Art der Annotation.
+	 * 
+	 * @param filtering <p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
+	 * 					<p>{@code false}, keine Filterung wird durchgeführt</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void createDictionaries(boolean filtering, AnalysisMode mode) throws IOException {
+		createDictionaries(filtering, mode, 0);
+	}
+	
+	/**
+	 * Diese Methode erstellt für jede Kategorie ein Dictionary und im selben Durchlauf ein {@link mr.bsc.classifier.HashedModel}, siehe
+	 * {@link DictionaryCreator#setHashedBuckets(int)}.
+	 * 
+	 * @param filtering 	<p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
+	 * 						<p>{@code false}, keine Filterung wird durchgeführt</p>
+	 * @param mode			Die Art der Annotation, siehe {@link AnalysisMode}
+	 * @param hashedBuckets	Die Anzahl der Eimer des gehashten Modells, 0 für keines.
+	 * 
+	 * @throws IOException
+	 */
+	public static void createDictionaries(boolean filtering, AnalysisMode mode, int hashedBuckets) throws IOException {
+		//Die Kategorien werden nacheinander erstellt, innerhalb einer Kategorie arbeiten alle Prozessorkerne
+		for(String category : discoverCategories()) {
+			DictionaryCreator creator = new DictionaryCreator(category, getTrainingCollection(category), filtering, mode);
+			creator.setHashedBuckets(hashedBuckets);
+			creator.create();
+		}
+	}
+	
+	/**
+	 * Diese Methode erstellt für jede Kategorie die Dictionaries mit und ohne Filterung in einem einzigen Durchlauf. Jeder Artikel wird
+	 * dafür nur einmal annotiert.
+	 * 
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void createBothDictionaries(AnalysisMode mode) throws IOException {
+		for(String category : discoverCategories()) {
+			new DictionaryCreator(category, getTrainingCollection(category), mode).create();
+		}
+	}
+	
+	/**
+	 * Zählt neue Zeitungsartikel zu den bestehenden Modellen hinzu, ohne den gesamten Trainingsdatensatz erneut zu zerlegen. Für jede
+	 * Kategorie werden die Artikel aus {@code PATH_DIRECTORY_INGEST\<kategorie>\<kategorie>New.json} gelesen, sofern die Datei existiert.
+	 * Anschließend wird das kombinierte Vokabular neu erstellt.
+	 * 
+	 * @param filtering <p>{@code true}, Modell_2 wird aktualisiert</p>
+	 * 					<p>{@code false}, Modell_1 wird aktualisiert</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void updateDictionaries(boolean filtering, AnalysisMode mode) throws IOException {
+		for(String category : discoverCategories()) {
+			String ingest = PATH_DIRECTORY_INGEST + category + "\\" + category + "New.json";
+			if(new File(ingest).isFile()) {
+				new DictionaryCreator(category, ingest, filtering, mode, true).create();
+			}
+		}
+		combineVocabulary(filtering, mode);
+	}
+	
+	/**
+	 * Sucht die Kategorien des Trainingsdatensatzes. Eine Kategorie ist jedes Unterverzeichnis von {@link #PATH_DIRECTORY_TRAINING},
+	 * das eine Textsammlung nach dem Muster {@code <kategorie>TrainingCleaned.json} enthält.
+	 * 
+	 * @return Die Namen der Kategorien, alphabetisch sortiert
+	 * 
+	 * @throws IOException	Das Verzeichnis existiert nicht oder enthält keine Kategorie.
+	 */
+	public static List<String> discoverCategories() throws IOException {
+		File[] directoryListing = new File(PATH_DIRECTORY_TRAINING).listFiles(File::isDirectory);
+		if(directoryListing == null) {
+			throw new IOException("Das Verzeichnis " + PATH_DIRECTORY_TRAINING + " konnte nicht gelesen werden!");
+		}
+		
+		List<String> categories = new ArrayList<String>();
+		for(File dir : directoryListing) {
+			if(new File(getTrainingCollection(dir.getName())).isFile()) {
+				categories.add(dir.getName());
+			}
+		}
+		if(categories.isEmpty()) {
+			throw new IOException("Im Verzeichnis " + PATH_DIRECTORY_TRAINING + " wurde keine Kategorie gefunden!");
+		}
+		Collections.sort(categories);
+		return categories;
+	}
+	
+	/**
+	 * Gibt den Pfad der Textsammlung einer Kategorie im Trainingsdatensatz zurück.
+	 * 
+	 * @param category	Die Kategorie.
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	public static String getTrainingCollection(String category) {
+		return PATH_DIRECTORY_TRAINING + category + "\\" + category + "TrainingCleaned.json";
+	}
+	
+	/**
+	 * Gibt den Pfad der Textsammlung einer Kategorie im Testset zurück, z. B. für {@link #PATH_DIRECTORY_TEST_BUSINESS}.
+	 * 
+	 * @param category	Die Kategorie.
+	 * 
+	 * @return Der Pfad zur JSON-Datei
+	 */
+	public static String getTestCollection(String category) {
+		return PATH_DIRECTORY_TEST + category + "\\" + category + "TestCleaned.json";
+	}
+	
+	/**
+	 * Mit dieser Methode wird das Vokabular von 4 Kategorien kombiniert.
+	 * 
+	 * @throws IOException
+	 */
+	public static void combineVocabulary() throws IOException {
+		VocabularyCombiner vocCombiner = new VocabularyCombiner();
+		vocCombiner.combine(PATH_DIRECTORY_VOCABULARY_BUSINESS, PATH_DIRECTORY_VOCABULARY_POLITICS, PATH_DIRECTORY_VOCABULARY_SCIENCE, PATH_DIRECTORY_VOCABULARY_SPORT);
+	}
+	
+	/**
+	 * Mit dieser Methode wird das Vokabular aller Kategorien kombiniert, die mit der angegebenen Art der Annotation erstellt wurden.
+	 * 
+	 * @param filtering <p>{@code true}, die Vokabulare mit Filterung werden kombiniert</p>
+	 * 					<p>{@code false}, die Vokabulare ohne Filterung werden kombiniert</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void combineVocabulary(boolean filtering, AnalysisMode mode) throws IOException {
+		String suffix = mode.getFileSuffix(filtering) + ".json";
+		List<String> paths = new ArrayList<String>();
+		for(String category : discoverCategories()) {
+			paths.add(category + "Vocabulary" + suffix);
+		}
+		VocabularyCombiner vocCombiner = new VocabularyCombiner();
+		vocCombiner.combine("combinedVocabulary" + suffix, paths);
+	}
+	
+	/**
+	 * Mit dieser Methode wird das Testset klassifiziert.
+	 * 
+	 * @param filtering <p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
+	 * 					<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
+	 * 
+	 * @throws IOException
+	 */
+	public static void classifyDocuments(boolean filtering) throws IOException {
+		classifyDocuments(filtering, false);
+	}
+	
+	/**
+	 * Mit dieser Methode wird das Testset klassifiziert.
+	 * 
+	 * @param filtering 		<p>{@code true}, Modell_2 wird zur Vorhersage benutzt</p>
+	 * 							<p>{@code false}, Modell_1 wird zur Vorhersage benutzt</p>
+	 * @param deriveVocabulary	Soll das Vokabular aus den Wörterbüchern abgeleitet werden, statt das kombinierte Vokabular zu laden?
+	 * 
+	 * @throws IOException
+	 */
+	public static void classifyDocuments(boolean filtering, boolean deriveVocabulary) throws IOException {
+		NaiveBayesClassifier classifier = new NaiveBayesClassifier(AnalysisMode.FULL, deriveVocabulary);
+		classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering);
+	}
+	
+	/**
+	 * Klassifiziert das Testset aller Kategorien des Trainingsdatensatzes, siehe {@link #discoverCategories()}. Die Wörterbücher aller
+	 * Kategorien müssen vorher mit {@link #createDictionaries(boolean, AnalysisMode)} erstellt worden sein, das Vokabular wird aus ihnen
+	 * abgeleitet.
+	 * 
+	 * @param filtering <p>{@code true}, die Modelle mit Filterung werden genutzt</p>
+	 * 					<p>{@code false}, die Modelle ohne Filterung werden genutzt</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @return Die Konfusionsmatrix, Index ist die Kategorie in alphabetischer Reihenfolge
+	 * 
+	 * @throws IOException
+	 */
+	public static int[][] classifyAllCategories(boolean filtering, AnalysisMode mode) throws IOException {
+		List<String> categories = discoverCategories();
+		List<String> testPaths = new ArrayList<String>();
+		for(String category : categories) {
+			testPaths.add(getTestCollection(category));
+		}
+		NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode, true);
+		classifier.setCategories(categories);
+		int[][] matrix = classifier.classifyArticles(testPaths, filtering);
+		System.out.println(String.format("%d Kategorien, Genauigkeit %.4f", categories.size(), accuracy(matrix)));
+		return matrix;
+	}
+	
+	/**
+	 * Vergleicht die Arten der Annotation miteinander. Für Modell_1, Modell_2 und die beiden Modelle ohne POS-Tagger werden der Durchsatz
+	 * beim Zerlegen (ohne Cache, an den ersten {@link #THROUGHPUT_SAMPLE} Artikeln des Testsets) und die Genauigkeit auf dem Testset ausgegeben.
+	 * Die Modelle ohne POS-Tagger müssen vorher mit {@link #createDictionaries(boolean, AnalysisMode)} und
+	 * {@link #combineVocabulary(boolean, AnalysisMode)} erstellt worden sein.
+	 * 
+	 * @throws IOException
+	 */
+	public static void compareAnalysisModes() throws IOException {
+		List<NewspaperArticle> sample = new ArrayList<NewspaperArticle>();
+		for(String path : new String[] {PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT}) {
+			sample.addAll(DictionaryCreator.loadNewspaperCollection(path).getArticles());
+		}
+		Collections.shuffle(sample, new Random(42)); //Alle Kategorien sollen in der Stichprobe vorkommen
+		sample = sample.subList(0, Math.min(THROUGHPUT_SAMPLE, sample.size()));
+		
+		StringBuilder report = new StringBuilder("Modus Filterung Artikel/s Genauigkeit\n");
+		for(AnalysisMode mode : AnalysisMode.values()) {
+			for(boolean filtering : new boolean[] {false, true}) {
+				ArticleAnalyzer analyzer = new ArticleAnalyzer(mode, false);
+				long start = System.nanoTime();
+				analyzer.analyzeAll(sample, filtering);
+				double throughput = sample.size() / ((System.nanoTime() - start) / 1e9);
+				
+				NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode);
+				int[][] matrix = classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering);
+				
+				report.append(String.format("%s %b %.1f %.4f%n", mode, filtering, throughput, accuracy(matrix)));
+			}
+		}
+		System.out.println(report);
+	}
+	
+	/**
+	 * Verkleinert die Modelle aller Kategorien mit dem {@link FeatureSelector}. Die vollständigen Wörterbücher und das kombinierte Vokabular
+	 * müssen vorher mit {@link #createDictionaries(boolean, AnalysisMode)} und {@link #combineVocabulary(boolean, AnalysisMode)} erstellt worden sein.
+	 * 
+	 * @param filtering <p>{@code true}, die Modelle mit Filterung werden verkleinert</p>
+	 * 					<p>{@code false}, die Modelle ohne Filterung werden verkleinert</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * @param selector	Die Einstellungen der Merkmalsauswahl.
+	 * 
+	 * @throws IOException
+	 */
+	public static void pruneDictionaries(boolean filtering, AnalysisMode mode, FeatureSelector selector) throws IOException {
+		String suffix = mode.getFileSuffix(filtering) + ".json";
+		List<String> paths = new ArrayList<String>();
+		for(String category : discoverCategories()) {
+			paths.add(DictionaryCreator.PATH_DIRECTORY_DICTIONARIES + category + "Dictionary" + suffix);
+		}
+		selector.prune(paths, VocabularyCombiner.outputDirectory + "combinedVocabulary" + suffix);
+	}
+	
+	/**
+	 * Vergleicht die verkleinerten Modelle aus {@link #pruneDictionaries(boolean, AnalysisMode, FeatureSelector)} mit den vollständigen
+	 * Modellen (bei {@link AnalysisMode#FULL} mit Filterung ist das Modell_2). Ausgegeben werden Genauigkeit und Dauer der Klassifikation des Testsets.
+	 * 
+	 * @param filtering <p>{@code true}, die Modelle mit Filterung werden verglichen</p>
+	 * 					<p>{@code false}, die Modelle ohne Filterung werden verglichen</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void comparePrunedModels(boolean filtering, AnalysisMode mode) throws IOException {
+		StringBuilder report = new StringBuilder("Modell Genauigkeit Sekunden\n");
+		for(boolean pruned : new boolean[] {false, true}) {
+			NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode);
+			classifier.setPruned(pruned);
+			long start = System.nanoTime();
+			int[][] matrix = classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			report.append(String.format("%s %.4f %.1f%n", pruned ? "verkleinert" : "vollständig", accuracy(matrix), seconds));
+		}
+		System.out.println(report);
+	}
+	
+	/**
+	 * Vergleicht das {@link mr.bsc.classifier.HashedModel} mit verschiedenen Anzahlen an Eimern mit dem Modell mit Vokabular. Ausgegeben
+	 * werden Genauigkeit, Abweichung der Genauigkeit zum Modell mit Vokabular und der Speicherbedarf der Tabelle. Die Kollisionen gibt der
+	 * Klassifikator beim Laden aus. Die gehashten Modelle müssen vorher mit {@link #createDictionaries(boolean, AnalysisMode, int)} und
+	 * der größten Anzahl an Eimern erstellt worden sein, für die kleineren werden sie gefaltet.
+	 * 
+	 * @param filtering <p>{@code true}, die Modelle mit Filterung werden verglichen</p>
+	 * 					<p>{@code false}, die Modelle ohne Filterung werden verglichen</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * @param buckets	Die Anzahlen an Eimern, jeweils eine Zweierpotenz.
+	 * 
+	 * @throws IOException
+	 */
+	public static void compareHashedModels(boolean filtering, AnalysisMode mode, int... buckets) throws IOException {
+		NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode, true);
+		double reference = accuracy(classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering));
+		
+		StringBuilder report = new StringBuilder("Eimer Genauigkeit Abweichung MB\n");
+		report.append(String.format("Vokabular %.4f %+.4f -%n", reference, 0.0));
+		for(int b : buckets) {
+			classifier.setHashedBuckets(b, true);
+			double accuracy = accuracy(classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering));
+			//Zähler und Tabelle für die 4 Kategorien des Klassifikators, unabhängig von der Größe des Vokabulars
+			report.append(String.format("%d %.4f %+.4f %.1f%n", b, accuracy, accuracy - reference, b * 4 * (Integer.BYTES + Float.BYTES) / (1024.0 * 1024.0)));
+		}
+		System.out.println(report);
+	}
+	
+	/**
+	 * Vergleicht die {@link Quantization}en mit dem Modell in voller Genauigkeit (bei {@link AnalysisMode#FULL} mit Filterung ist das
+	 * Modell_2). Ausgegeben werden Genauigkeit, Abweichung der Genauigkeit, die Anzahl der Artikel mit einer anderen Entscheidung als
+	 * in voller Genauigkeit und der Speicherbedarf des Modells einschließlich der Begriffe, die bei allen Quantisierungen gleich viel belegen.
+	 * 
+	 * @param filtering <p>{@code true}, die Modelle mit Filterung werden verglichen</p>
+	 * 					<p>{@code false}, die Modelle ohne Filterung werden verglichen</p>
+	 * @param mode		Die Art der Annotation, siehe {@link AnalysisMode}
+	 * 
+	 * @throws IOException
+	 */
+	public static void compareQuantizedModels(boolean filtering, AnalysisMode mode) throws IOException {
+		NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode);
+		double reference = accuracy(classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering));
+		
+		StringBuilder report = new StringBuilder("Genauigkeit Abweichung Entscheidungen MB\n");
+		report.append(String.format("double %.4f %+.4f 0 %.1f%n", reference, 0.0, classifier.getModelMemory() / (1024.0 * 1024.0)));
+		for(Quantization quantization : Quantization.values()) {
+			classifier.setQuantization(quantization, true);
+			int[][] matrix = classifier.classifyArticles(PATH_DIRECTORY_TEST_BUSINESS, PATH_DIRECTORY_TEST_POLITICS, PATH_DIRECTORY_TEST_SCIENCE, PATH_DIRECTORY_TEST_SPORT, filtering);
+			double accuracy = accuracy(matrix);
+			report.append(String.format("%s %.4f %+.4f %d %.1f%n", quantization, accuracy, accuracy - reference, classifier.getArgmaxDrift(), 
+					classifier.getModelMemory() / (1024.0 * 1024.0)));
+		}
+		System.out.println(report);
+	}
+	
+	/**
+	 * Berechnet die Genauigkeit aus einer Konfusionsmatrix.
+	 * 
+	 * @param matrix	Die Konfusionsmatrix. Die Zeile ist die tatsächliche Kategorie, die Spalte die vorhergesagte.
+	 * 
+	 * @return Der Anteil der richtig klassifizierten Artikel
+	 */
+	private static double accuracy(int[][] matrix) {
+		int correct = 0;
+		int total = 0;
+		for(int i = 0; i < matrix.length; i++) {
+			for(int j = 0; j < matrix[i].length; j++) {
+				total += matrix[i][j];
+				if(i == j) correct += matrix[i][j];
+			}
+		}
+		return (double) correct / total;
+	}
+	
+	/**
+	 * 
+	 * @param filtering <p>{@code true}, eine Filterung wie bei Modell_2 wird durchgeführt</p>
+	 * 					<p>{@code false}, keine Filterung wird durchgeführt</p>
+	 * 
+	 * @throws IOException
+	 */
+	public static void measureArticleSimilarty(boolean filtering) throws IOException {
+		ArticleComparator comp = new ArticleComparator();
+		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_BUSINESS, filtering);
+		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_POLITICS, filtering);
+		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_SCIENCE, filtering);
+		comp.measureSimilartiy(PATH_DIRECTORY_SIMILARITY_SPORT, filtering);
+	}
+	
+}
@@ -0,0 +1,279 @@
+package mr.bsc.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import mr.bsc.classifier.NaiveBayesClassifier;
+import mr.bsc.classifier.ScoringModel;
+import mr.bsc.dict.AnalysisMode;
+import mr.bsc.dict.TimeoutPolicy;
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Ein lang laufender Dienst, der Zeitungsartikel über HTTP klassifiziert. Das Modell wird beim Start einmal geladen, danach werden die
+ * Artikel gleichzeitiger Anfragen vom {@link MicroBatcher} zu Stapeln zusammengefasst. Der Dienst ist nur über die Loopback-Adresse
+ * erreichbar.
+ *
+ * <p>{@code POST /classify} mit einem Artikel wie {@link NewspaperArticle}, z. B. {@code {"headline": "...", "content": "..."}}. Die Antwort
+ * enthält die Kategorie und die Bewertungen aller Kategorien: {@code {"category": "sport", "scores": {"business": -1234.5, ...}}}</p>
+ * <p>{@code GET /stats} gibt die Anzahl der bewerteten Artikel und Stapel zurück.</p>
+ *
+ * Mit einem Zeitbudget pro Artikel (siehe {@link NaiveBayesClassifier#setLatencyBudget(long, TimeoutPolicy)}) wird ein Artikel, der auch
+ * mit der Notlösung nicht rechtzeitig annotiert ist, mit 503 beantwortet. Ebenso ein Artikel, für den die Warteschlange des
+ * {@link MicroBatcher} voll ist. Eine Anfrage mit mehr als {@link #MAX_BODY_BYTES} Bytes wird mit 413 abgelehnt, ohne sie zu lesen.
+ *
+ * Aufruf: {@code ClassificationServer [port] [FULL|FAST] [filtered|unfiltered] [stapelgröße] [wartezeit in ms] [zeitbudget in ms] [TRUNCATE|FAST|FAIL] [warteschlange]}
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class ClassificationServer {
+
+	public final static int DEFAULT_PORT = 8080;
+	public final static int DEFAULT_MAX_BATCH_SIZE = 32;
+	public final static long DEFAULT_MAX_WAIT_MILLIS = 5;
+	public final static int DEFAULT_MAX_QUEUE_SIZE = 1024;
+
+	/*
+	 * So groß darf der Artikel einer Anfrage höchstens sein. Auch lange Artikel haben nur einige zehn Kilobyte.
+	 */
+	public final static int MAX_BODY_BYTES = 1 << 20;
+
+	/*
+	 * So lange wartet eine Anfrage höchstens auf ihren Stapel, danach wird sie mit 503 beantwortet.
+	 */
+	private final static long REQUEST_TIMEOUT_SECONDS = 60;
+
+	private final static Gson gson = new Gson();
+
+	private final List<String> categories;
+	private final MicroBatcher batcher;
+	private final HttpServer server;
+	private final ExecutorService handlers;
+
+	/**
+	 * Erstellt den Dienst auf der Loopback-Adresse. Er nimmt erst nach {@link #start()} Anfragen an.
+	 *
+	 * @param categories	Die Namen der Kategorien, Index ist die Kategorie der Bewertungen.
+	 * @param batcher		Der Stapelbildner, der die Artikel bewertet.
+	 * @param port			Der Port, 0 für einen freien Port (siehe {@link #getPort()}).
+	 * @param threads		Die Anzahl der Threads, die Anfragen lesen und beantworten. Sie warten nicht auf die Bewertung, ein Stapel
+	 * 						kann also auch mit wenigen Threads voll werden.
+	 *
+	 * @throws IOException	Der Port konnte nicht geöffnet werden.
+	 */
+	public ClassificationServer(List<String> categories, MicroBatcher batcher, int port, int threads) throws IOException {
+		this.categories = categories;
+		this.batcher = batcher;
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.handlers = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "classification-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.server.setExecutor(this.handlers);
+		this.server.createContext("/classify", this::classify);
+		this.server.createContext("/stats", this::stats);
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		AnalysisMode mode = args.length > 1 ? AnalysisMode.valueOf(args[1]) : AnalysisMode.FULL;
+		boolean filtering = args.length > 2 ? !args[2].equals("unfiltered") : true;
+		int maxBatchSize = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_BATCH_SIZE;
+		long maxWaitMillis = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_MAX_WAIT_MILLIS;
+		long budget = args.length > 5 ? Long.parseLong(args[5]) : 0;
+		TimeoutPolicy policy = args.length > 6 ? TimeoutPolicy.valueOf(args[6]) : TimeoutPolicy.FAST;
+		int maxQueueSize = args.length > 7 ? Integer.parseInt(args[7]) : DEFAULT_MAX_QUEUE_SIZE;
+
+		long start = System.nanoTime();
+		NaiveBayesClassifier classifier = new NaiveBayesClassifier(mode);
+		classifier.setLatencyBudget(budget, policy);
+		classifier.loadModel(filtering);
+		System.out.println("Modell geladen in " + (System.nanoTime() - start) / 1000000 + " ms");
+
+		MicroBatcher batcher = new MicroBatcher(classifier::scoreArticles, maxBatchSize, maxWaitMillis, maxQueueSize);
+		ClassificationServer server = new ClassificationServer(classifier.getCategories(), batcher, port,
+				Math.max(2, Runtime.getRuntime().availableProcessors()));
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+		server.start();
+		System.out.println("Klassifikation unter http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort()
+				+ "/classify, Stapelgröße " + maxBatchSize + ", Wartezeit " + maxWaitMillis + " ms");
+	}
+
+	/**
+	 * Startet den Dienst.
+	 */
+	public void start() {
+		this.server.start();
+	}
+
+	/**
+	 * Beendet den Dienst. Laufende Anfragen bekommen noch eine Sekunde Zeit, bereits eingereihte Artikel werden noch bewertet.
+	 */
+	public void stop() {
+		this.server.stop(1);
+		this.batcher.close();
+		this.handlers.shutdown();
+	}
+
+	/**
+	 * Gibt den Port zurück, auf dem der Dienst erreichbar ist.
+	 *
+	 * @return Der Port
+	 */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Beantwortet {@code POST /classify}. Der Thread der Anfrage wartet nicht auf die Bewertung, sondern reiht den Artikel nur beim
+	 * {@link MicroBatcher} ein. Geantwortet wird, sobald der Stapel bewertet wurde (siehe {@link #answer(HttpExchange, double[], Throwable)}).
+	 * So bleiben die Threads frei, und eine volle Warteschlange des {@link MicroBatcher} wird sofort mit 503 beantwortet.
+	 */
+	private void classify(HttpExchange exchange) throws IOException {
+		boolean answered = true;
+		try {
+			if(!exchange.getRequestMethod().equals("POST")) {
+				respond(exchange, 405, error("Nur POST wird unterstützt!"));
+				return;
+			}
+			byte[] body = readBody(exchange);
+			if(body == null) {
+				respond(exchange, 413, error("Der Artikel ist größer als " + MAX_BODY_BYTES + " Bytes!"));
+				return;
+			}
+			NewspaperArticle article;
+			try {
+				article = gson.fromJson(new String(body, StandardCharsets.UTF_8), NewspaperArticle.class);
+			} catch (JsonParseException e) {
+				respond(exchange, 400, error("Ungültiges JSON: " + e.getMessage()));
+				return;
+			}
+			if(article == null || (article.getHeadline() == null && article.getContent() == null)) {
+				respond(exchange, 400, error("Der Artikel braucht \"headline\" oder \"content\"!"));
+				return;
+			}
+
+			CompletableFuture<double[]> pending = this.batcher.submit(article);
+			//Ist die Zeit abgelaufen, bevor der Stapel des Artikels bewertet wird, überspringt ihn der Stapelbildner
+			pending.orTimeout(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+					.whenCompleteAsync((scores, error) -> answer(exchange, scores, error), this.handlers);
+			answered = false;
+		} finally {
+			if(answered) {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 * Beantwortet eine Anfrage an {@code /classify}, sobald der Stapel des Artikels bewertet wurde.
+	 *
+	 * @param scores	Die Bewertungen des Artikels, {@code null}, wenn er nicht rechtzeitig annotiert wurde.
+	 * @param error		Der Grund, warum der Artikel nicht bewertet wurde, sonst {@code null}.
+	 */
+	private void answer(HttpExchange exchange, double[] scores, Throwable error) {
+		try {
+			if(error instanceof TimeoutException) {
+				respond(exchange, 503, error("Der Artikel wurde nicht rechtzeitig bewertet!"));
+			} else if(error instanceof RejectedExecutionException) {
+				respond(exchange, 503, error("Der Dienst ist ausgelastet: " + error.getMessage()));
+			} else if(error != null) {
+				respond(exchange, 500, error("Der Artikel konnte nicht bewertet werden: " + error));
+			} else if(scores == null) {
+				respond(exchange, 503, error("Der Artikel wurde nicht innerhalb des Zeitbudgets annotiert!"));
+			} else {
+				JsonObject result = new JsonObject();
+				result.addProperty("category", this.categories.get(ScoringModel.argmax(scores)));
+				JsonObject categoryScores = new JsonObject();
+				for(int c = 0; c < scores.length; c++) {
+					categoryScores.addProperty(this.categories.get(c), scores[c]);
+				}
+				result.add("scores", categoryScores);
+				respond(exchange, 200, result);
+			}
+		} catch (IOException e) {
+			//Der Client hat die Verbindung schon geschlossen
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Beantwortet {@code GET /stats}.
+	 */
+	private void stats(HttpExchange exchange) throws IOException {
+		try {
+			JsonObject result = new JsonObject();
+			result.addProperty("articles", this.batcher.getArticleCount());
+			result.addProperty("batches", this.batcher.getBatchCount());
+			result.addProperty("timedOut", this.batcher.getTimedOutCount());
+			result.addProperty("rejected", this.batcher.getRejectedCount());
+			respond(exchange, 200, result);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Liest den Inhalt einer Anfrage, aber höchstens {@link #MAX_BODY_BYTES} Bytes. Ist eine Länge angegeben, wird eine zu große Anfrage
+	 * gar nicht erst gelesen, sonst wird nach {@link #MAX_BODY_BYTES} Bytes abgebrochen.
+	 *
+	 * @return Der Inhalt oder {@code null}, wenn die Anfrage zu groß ist
+	 */
+	private static byte[] readBody(HttpExchange exchange) throws IOException {
+		String length = exchange.getRequestHeaders().getFirst("Content-Length");
+		try {
+			if(length != null && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+				return null;
+			}
+		} catch (NumberFormatException e) {
+			//Der HttpServer hat die Länge schon geprüft, sonst eben bis zur Grenze lesen
+		}
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try(InputStream in = exchange.getRequestBody()) {
+			byte[] chunk = new byte[8192];
+			for(int n = in.read(chunk); n != -1; n = in.read(chunk)) {
+				if(buffer.size() + n > MAX_BODY_BYTES) {
+					return null;
+				}
+				buffer.write(chunk, 0, n);
+			}
+		}
+		return buffer.toByteArray();
+	}
+
+	private static JsonObject error(String message) {
+		JsonObject result = new JsonObject();
+		result.addProperty("error", message);
+		return result;
+	}
+
+	private static void respond(HttpExchange exchange, int status, JsonObject body) throws IOException {
+		byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package mr.bsc.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import mr.bsc.guardian.NewspaperArticle;
+import mr.bsc.guardian.NewspaperArticleReader;
+
+/**
+ * Belastet einen laufenden {@link ClassificationServer} auf der Loopback-Adresse mit gleichzeitigen Anfragen. Jeder Client schickt seine
+ * Artikel nacheinander, die Artikel stammen aus einer Textsammlung und werden wiederholt, wenn sie nicht reichen. Ausgegeben werden
+ * Durchsatz, Latenzen, Fehler und die mittlere Stapelgröße des Dienstes.
+ *
+ * Aufruf: {@code LoadTester <textsammlung> [clients] [anfragen] [port]}
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class LoadTester {
+
+	private final static Gson gson = new Gson();
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if(args.length < 1) {
+			System.err.println("Aufruf: LoadTester <textsammlung> [clients] [anfragen] [port]");
+			System.exit(1);
+		}
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		int port = args.length > 3 ? Integer.parseInt(args[3]) : ClassificationServer.DEFAULT_PORT;
+
+		List<byte[]> bodies = new ArrayList<byte[]>();
+		try(NewspaperArticleReader articles = new NewspaperArticleReader(args[0])) {
+			while(articles.hasNext() && bodies.size() < requests) {
+				NewspaperArticle article = articles.next();
+				bodies.add(gson.toJson(article).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		if(bodies.isEmpty()) {
+			throw new IOException("Die Textsammlung enthält keine Artikel: " + args[0]);
+		}
+
+		run(port, bodies, clients, requests);
+	}
+
+	/**
+	 * Schickt {@code requests} Anfragen von {@code clients} Threads gleichzeitig und gibt das Ergebnis aus.
+	 *
+	 * @param port		Der Port des Dienstes auf der Loopback-Adresse.
+	 * @param bodies	Die Artikel als JSON, werden der Reihe nach und wiederholt verschickt.
+	 * @param clients	Die Anzahl der gleichzeitigen Clients.
+	 * @param requests	Die Anzahl aller Anfragen.
+	 *
+	 * @return Die Latenzen der erfolgreichen Anfragen in Nanosekunden, sortiert
+	 *
+	 * @throws IOException	Die Statistik des Dienstes konnte nicht abgefragt werden.
+	 */
+	public static long[] run(int port, List<byte[]> bodies, int clients, int requests) throws IOException, InterruptedException {
+		String base = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + port;
+		URL classify = new URL(base + "/classify");
+		URL stats = new URL(base + "/stats");
+		JsonObject before = gson.fromJson(get(stats), JsonObject.class);
+
+		long[] latencies = new long[requests];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger succeeded = new AtomicInteger();
+		LongAdder errors = new LongAdder();
+		Thread[] threads = new Thread[clients];
+		long start = System.nanoTime();
+		for(int t = 0; t < clients; t++) {
+			threads[t] = new Thread(() -> {
+				for(int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+					long begin = System.nanoTime();
+					try {
+						post(classify, bodies.get(i % bodies.size()));
+						latencies[succeeded.getAndIncrement()] = System.nanoTime() - begin;
+					} catch (IOException e) {
+						errors.increment();
+					}
+				}
+			}, "load-tester");
+			threads[t].start();
+		}
+		for(Thread thread : threads) {
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - start;
+		JsonObject after = gson.fromJson(get(stats), JsonObject.class);
+
+		long[] sorted = Arrays.copyOf(latencies, succeeded.get());
+		Arrays.sort(sorted);
+		long articles = after.get("articles").getAsLong() - before.get("articles").getAsLong();
+		long batches = after.get("batches").getAsLong() - before.get("batches").getAsLong();
+		System.out.println(String.format("%d Anfragen von %d Clients in %.1f s, %.1f Anfragen/s, %d Fehler", sorted.length, clients,
+				elapsed / 1e9, sorted.length * 1e9 / elapsed, errors.sum()));
+		System.out.println(String.format("Latenz p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms", percentile(sorted, 50),
+				percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100)));
+		System.out.println(String.format("%d Stapel, mittlere Stapelgröße %.1f", batches, batches == 0 ? 0.0 : (double) articles / batches));
+		return sorted;
+	}
+
+	/**
+	 * Gibt ein Perzentil (nächster Rang) der sortierten Latenzen in Millisekunden zurück.
+	 */
+	private static double percentile(long[] sorted, double percentile) {
+		if(sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+
+	private static String post(URL url, byte[] body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(body.length);
+		connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+		try(OutputStream out = connection.getOutputStream()) {
+			out.write(body);
+		}
+		return read(connection);
+	}
+
+	private static String get(URL url) throws IOException {
+		return read((HttpURLConnection) url.openConnection());
+	}
+
+	/**
+	 * Liest die Antwort vollständig, damit die Verbindung wiederverwendet werden kann.
+	 */
+	private static String read(HttpURLConnection connection) throws IOException {
+		int status = connection.getResponseCode();
+		InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		if(stream != null) {
+			try(InputStream in = stream) {
+				byte[] chunk = new byte[8192];
+				for(int n = in.read(chunk); n != -1; n = in.read(chunk)) {
+					buffer.write(chunk, 0, n);
+				}
+			}
+		}
+		String response = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+		if(status != 200) {
+			throw new IOException("HTTP " + status + ": " + response);
+		}
+		return response;
+	}
+}
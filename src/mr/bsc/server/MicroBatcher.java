@@ -0,0 +1,241 @@
+package mr.bsc.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Fasst gleichzeitig eintreffende Zeitungsartikel zu kleinen Stapeln zusammen, bevor sie bewertet werden. Ein Stapel wird abgeschickt,
+ * sobald er {@code maxBatchSize} Artikel enthält oder der erste Artikel des Stapels {@code maxWaitMillis} gewartet hat. So wird der
+ * Thread-Pool des {@link mr.bsc.dict.ArticleAnalyzer} auch dann ausgelastet, wenn jede Anfrage nur einen einzigen Artikel enthält.
+ *
+ * Die Stapel werden von einem einzigen Thread der Reihe nach abgeschickt. Während ein Stapel bewertet wird, sammelt sich der nächste.
+ * Die Warteschlange ist begrenzt: Ist sie voll, wird ein Artikel sofort mit einer {@link RejectedExecutionException} abgelehnt, statt
+ * unbegrenzt Speicher und Wartezeit anzuhäufen. Artikel, deren Ergebnis schon feststeht (z. B. weil der Aufrufer nicht mehr wartet und
+ * abgebrochen hat), werden beim Bilden eines Stapels übersprungen.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class MicroBatcher implements AutoCloseable {
+
+	/*
+	 * Markiert das Ende der Warteschlange, siehe {@link #close()}.
+	 */
+	private final static Request POISON = new Request(null);
+
+	private final Function<List<NewspaperArticle>, double[][]> scorer;
+	private final int maxBatchSize;
+	private final long maxWaitNanos;
+	private final int maxQueueSize;
+	private final BlockingQueue<Request> queue;
+	private final Thread dispatcher;
+	private boolean closed;
+
+	private final LongAdder articles = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	/**
+	 * Erstellt den Stapelbildner und startet seinen Thread.
+	 *
+	 * @param scorer		Bewertet einen Stapel von Artikeln, z. B. {@link mr.bsc.classifier.NaiveBayesClassifier#scoreArticles(List)}.
+	 * 						Gibt die Bewertungen in derselben Reihenfolge zurück, {@code null} für einen Artikel über dem Zeitbudget.
+	 * @param maxBatchSize	Die größte Anzahl an Artikeln in einem Stapel.
+	 * @param maxWaitMillis	So lange wartet der erste Artikel eines Stapels höchstens auf weitere Artikel, 0 heißt gar nicht.
+	 * @param maxQueueSize	So viele Artikel dürfen höchstens auf ihren Stapel warten, weitere werden abgelehnt.
+	 */
+	public MicroBatcher(Function<List<NewspaperArticle>, double[][]> scorer, int maxBatchSize, long maxWaitMillis, int maxQueueSize) {
+		if(maxBatchSize < 1) {
+			throw new IllegalArgumentException("Ungültige Stapelgröße: " + maxBatchSize);
+		}
+		if(maxWaitMillis < 0) {
+			throw new IllegalArgumentException("Ungültige Wartezeit: " + maxWaitMillis);
+		}
+		if(maxQueueSize < 1 || maxQueueSize == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Ungültige Länge der Warteschlange: " + maxQueueSize);
+		}
+		this.scorer = scorer;
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+		this.maxQueueSize = maxQueueSize;
+		this.queue = new LinkedBlockingQueue<Request>(maxQueueSize + 1); //Ein Platz mehr für die Markierung aus close()
+		this.dispatcher = new Thread(this::dispatch, "micro-batcher");
+		this.dispatcher.setDaemon(true);
+		this.dispatcher.start();
+	}
+
+	/**
+	 * Reiht einen Artikel in den nächsten Stapel ein. Wer nicht mehr auf das Ergebnis wartet, sollte es abbrechen
+	 * ({@link CompletableFuture#cancel(boolean)}), dann wird der Artikel nicht mehr bewertet.
+	 *
+	 * @param article	Der Artikel, der bewertet werden soll.
+	 *
+	 * @return Die Bewertungen aller Kategorien, sobald der Stapel des Artikels bewertet wurde, oder {@code null}, wenn der Artikel das
+	 * 			Zeitbudget überschritten hat. Ist die Warteschlange voll, schlägt das Ergebnis sofort mit einer
+	 * 			{@link RejectedExecutionException} fehl.
+	 */
+	public synchronized CompletableFuture<double[]> submit(NewspaperArticle article) {
+		Request request = new Request(article);
+		if(this.closed) {
+			request.result.completeExceptionally(new IllegalStateException("Der Stapelbildner wurde bereits geschlossen!"));
+		} else if(this.queue.size() >= this.maxQueueSize) {
+			//Nur submit() reiht ein und ist synchronisiert, der Platz kann also nicht zwischen Prüfen und Einreihen verschwinden
+			this.rejected.increment();
+			request.result.completeExceptionally(new RejectedExecutionException("Die Warteschlange ist voll!"));
+		} else {
+			this.queue.add(request);
+		}
+		return request.result;
+	}
+
+	/**
+	 * Gibt die Anzahl der bisher bewerteten Artikel zurück.
+	 *
+	 * @return Die Anzahl der Artikel
+	 */
+	public long getArticleCount() {
+		return this.articles.sum();
+	}
+
+	/**
+	 * Gibt die Anzahl der bisher abgeschickten Stapel zurück.
+	 *
+	 * @return Die Anzahl der Stapel
+	 */
+	public long getBatchCount() {
+		return this.batches.sum();
+	}
+
+	/**
+	 * Gibt die Anzahl der Artikel zurück, die das Zeitbudget überschritten haben.
+	 *
+	 * @return Die Anzahl der Artikel ohne Bewertung
+	 */
+	public long getTimedOutCount() {
+		return this.timedOut.sum();
+	}
+
+	/**
+	 * Gibt die Anzahl der Artikel zurück, die wegen einer vollen Warteschlange abgelehnt wurden.
+	 *
+	 * @return Die Anzahl der abgelehnten Artikel
+	 */
+	public long getRejectedCount() {
+		return this.rejected.sum();
+	}
+
+	/**
+	 * Schickt die bereits eingereihten Artikel noch ab und beendet danach den Thread. Später eingereichte Artikel werden abgelehnt.
+	 * Wird der aufrufende Thread beim Warten unterbrochen, kehrt die Methode sofort zurück und setzt die Unterbrechung wieder, der
+	 * Stapelbildner arbeitet die Warteschlange dann im Hintergrund ab.
+	 */
+	@Override
+	public void close() {
+		synchronized(this) {
+			if(!this.closed) { //Nur eine Markierung, für mehr ist in der Warteschlange kein Platz reserviert
+				this.closed = true;
+				this.queue.add(POISON); //Nach dem Schließen wird nichts mehr eingereiht, die Markierung ist also das letzte Element
+			}
+		}
+		try {
+			this.dispatcher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Die Schleife des Threads: Wartet auf den ersten Artikel, sammelt bis zur Stapelgröße oder Wartezeit weitere und bewertet den Stapel.
+	 */
+	private void dispatch() {
+		List<Request> batch = new ArrayList<Request>(this.maxBatchSize);
+		boolean running = true;
+		while(running) {
+			try {
+				Request first = this.queue.take();
+				if(first == POISON) {
+					break;
+				}
+				if(first.result.isDone()) {
+					continue; //Abgebrochen, während der Artikel gewartet hat
+				}
+				batch.add(first);
+				long deadline = System.nanoTime() + this.maxWaitNanos;
+				while(batch.size() < this.maxBatchSize) {
+					Request next = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if(next == null) {
+						break; //Wartezeit abgelaufen
+					}
+					if(next == POISON) {
+						running = false;
+						break;
+					}
+					if(!next.result.isDone()) {
+						batch.add(next);
+					}
+				}
+			} catch (InterruptedException e) {
+				running = false;
+			}
+			if(!batch.isEmpty()) {
+				score(batch);
+				batch.clear();
+			}
+		}
+
+		//Nur nach einer Unterbrechung liegen hier noch Artikel, die nie bewertet werden
+		for(Request request : this.queue) {
+			if(request != POISON) {
+				request.result.completeExceptionally(new IllegalStateException("Der Stapelbildner wurde bereits geschlossen!"));
+			}
+		}
+	}
+
+	/**
+	 * Bewertet einen Stapel und gibt jedem Artikel seine Bewertungen. Schlägt die Bewertung fehl, bekommt jeder Artikel des Stapels den Fehler.
+	 */
+	private void score(List<Request> batch) {
+		List<NewspaperArticle> articles = new ArrayList<NewspaperArticle>(batch.size());
+		for(Request request : batch) {
+			articles.add(request.article);
+		}
+		try {
+			double[][] scores = this.scorer.apply(articles);
+			for(int i = 0; i < batch.size(); i++) {
+				if(scores[i] == null) {
+					this.timedOut.increment();
+				}
+				batch.get(i).result.complete(scores[i]);
+			}
+		} catch (RuntimeException e) {
+			for(Request request : batch) {
+				request.result.completeExceptionally(e);
+			}
+		}
+		this.articles.add(batch.size());
+		this.batches.increment();
+	}
+
+	/**
+	 * Ein eingereihter Artikel und sein Ergebnis.
+	 */
+	private static class Request {
+
+		private final NewspaperArticle article;
+		private final CompletableFuture<double[]> result = new CompletableFuture<double[]>();
+
+		private Request(NewspaperArticle article) {
+			this.article = article;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package mr.bsc.classifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mr.bsc.dict.Dictionary;
+import mr.bsc.dict.DictionaryView;
+import mr.bsc.dict.TermVector;
+import mr.bsc.dict.TestVectors;
+import mr.bsc.dict.Vocabulary;
+
+/**
+ * Prüft, dass das {@link CompiledModel} genau so bewertet wie die ursprüngliche Berechnung, die für jeden Begriff den Logarithmus
+ * aus Wörterbuch und Vokabular neu bestimmt hat, und dass Speichern und Laden daran nichts ändert.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class CompiledModelTest {
+
+	private final static String[] CLASSES = {"politics", "sport", "culture"};
+
+	private final static int TERMS = 300;
+
+	private final static int SMOOTHING = 1;
+
+	private final static double DELTA = 1e-9;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final Dictionary[] dictionaries = new Dictionary[CLASSES.length];
+
+	private final Vocabulary vocabulary = new Vocabulary();
+
+	private final double[] priors = {0.5, 0.3, 0.2};
+
+	public CompiledModelTest() {
+		for(int c = 0; c < CLASSES.length; c++) {
+			this.dictionaries[c] = new Dictionary();
+			for(TermVector article : TestVectors.random(31 + c, 40 + 20 * c, TERMS)) {
+				this.dictionaries[c].add(article);
+				this.vocabulary.add(article);
+			}
+		}
+	}
+
+	@Test
+	public void scoresMatchBaseline() {
+		CompiledModel model = CompiledModel.compile(CLASSES, this.dictionaries, this.priors, this.vocabulary, SMOOTHING, false);
+		assertScores(model, this.vocabulary, false);
+	}
+
+	@Test
+	public void prunedScoresMatchBaseline() {
+		//Nach der Merkmalsauswahl ist das Vokabular kleiner als die Wörterbücher
+		Vocabulary pruned = new Vocabulary();
+		for(int i = 0; i < TERMS; i += 2) {
+			pruned.add(TestVectors.term(i));
+		}
+		CompiledModel model = CompiledModel.compile(CLASSES, this.dictionaries, this.priors, pruned, SMOOTHING, true);
+		assertScores(model, pruned, true);
+	}
+
+	@Test
+	public void saveAndLoadKeepScores() throws IOException {
+		CompiledModel model = CompiledModel.compile(CLASSES, this.dictionaries, this.priors, this.vocabulary, SMOOTHING, false);
+		String path = this.folder.newFile("model.bin").getPath();
+		model.save(path);
+		CompiledModel loaded = CompiledModel.load(path);
+
+		assertEquals(model.getClassCount(), loaded.getClassCount());
+		assertEquals(model.size(), loaded.size());
+		for(int c = 0; c < CLASSES.length; c++) {
+			assertEquals(CLASSES[c], loaded.getClassName(c));
+		}
+		double[] expected = new double[CLASSES.length];
+		double[] actual = new double[CLASSES.length];
+		for(TermVector article : TestVectors.random(35, 50, TERMS + 50)) {
+			model.score(article, expected);
+			loaded.score(article, actual);
+			assertArrayEquals(expected, actual, 0);
+		}
+	}
+
+	private void assertScores(CompiledModel model, Vocabulary vocabulary, boolean pruned) {
+		double[] scores = new double[CLASSES.length];
+		//Mehr mögliche Begriffe als beim Training, damit auch unbekannte Begriffe vorkommen
+		for(TermVector article : TestVectors.random(34, 100, TERMS + 50)) {
+			model.score(article, scores);
+			for(int c = 0; c < CLASSES.length; c++) {
+				double expected = calculateProbability(article, this.dictionaries[c], this.priors[c], vocabulary, pruned);
+				assertEquals(expected, scores[c], DELTA);
+				assertEquals(expected, model.score(article, c), DELTA);
+			}
+		}
+	}
+
+	/*
+	 * Die Berechnung aus dem {@link NaiveBayesClassifier}, bevor das Modell kompiliert wurde.
+	 */
+	private static double calculateProbability(TermVector words, DictionaryView dic, double priori, Vocabulary vocabulary, boolean pruned) {
+		double probability = Math.log(priori);
+		for(int i = 0; i < words.size(); i++) {
+			if(pruned && !vocabulary.contains(words.termId(i))) {
+				continue;
+			}
+			double zaehler = dic.findOccurrence(words.termId(i)) + SMOOTHING;
+			double nenner = dic.getTotalWords() + vocabulary.size();
+			probability += words.count(i) * Math.log(zaehler / nenner);
+		}
+		return probability;
+	}
+}
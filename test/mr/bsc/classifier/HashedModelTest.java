@@ -0,0 +1,133 @@
+package mr.bsc.classifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.HashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mr.bsc.dict.Dictionary;
+import mr.bsc.dict.TermVector;
+import mr.bsc.dict.TestVectors;
+import mr.bsc.dict.Vocabulary;
+
+/**
+ * Prüft das {@link HashedModel}: Speichern und Laden, das Zusammenfügen der Modelle einzelner Kategorien auch mit weniger Eimern und
+ * dass es ohne Kollisionen wie das {@link CompiledModel} bewertet.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class HashedModelTest {
+
+	private final static String[] CLASSES = {"politics", "sport", "culture"};
+
+	private final static int TERMS = 300;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final TermVector[][] training = new TermVector[CLASSES.length][];
+
+	public HashedModelTest() {
+		for(int c = 0; c < CLASSES.length; c++) {
+			this.training[c] = TestVectors.random(51 + c, 30 + 15 * c, TERMS);
+		}
+	}
+
+	@Test
+	public void saveAndLoadKeepScores() throws IOException {
+		HashedModel model = train(1 << 12);
+		String path = this.folder.newFile("model.hashed.bin").getPath();
+		model.save(path);
+		HashedModel loaded = HashedModel.load(path);
+
+		assertEquals(model.getBuckets(), loaded.getBuckets());
+		assertEquals(model.getClassCount(), loaded.getClassCount());
+		for(int c = 0; c < CLASSES.length; c++) {
+			assertEquals(CLASSES[c], loaded.getClassName(c));
+		}
+		assertSameScores(model, loaded);
+	}
+
+	@Test
+	public void combinedPartsEqualJointTraining() {
+		//Wie im DictionaryCreator: pro Kategorie ein Modell mit nur dieser Kategorie
+		HashedModel[] parts = new HashedModel[CLASSES.length];
+		for(int c = 0; c < CLASSES.length; c++) {
+			parts[c] = new HashedModel(new String[] {CLASSES[c]}, 1 << 12);
+			for(TermVector article : this.training[c]) {
+				parts[c].add(0, article.map(parts[c].getTermMapping()));
+			}
+		}
+
+		assertSameScores(train(1 << 12), HashedModel.combine(CLASSES, parts, 1 << 12));
+		//Gefaltet auf weniger Eimer, als wäre gleich mit 256 Eimern trainiert worden
+		assertSameScores(train(1 << 8), HashedModel.combine(CLASSES, parts, 1 << 8));
+	}
+
+	@Test
+	public void withoutCollisionsScoresEqualCompiledModel() {
+		int buckets = 1 << 20;
+		HashedModel hashed = train(buckets);
+		HashSet<Integer> occupied = new HashSet<Integer>();
+		for(int i = 0; i < TERMS; i++) {
+			occupied.add(hashed.getTermMapping().map(TestVectors.term(i)));
+		}
+		assertEquals("Die Testdaten haben Kollisionen", TERMS, occupied.size());
+
+		Dictionary[] dictionaries = new Dictionary[CLASSES.length];
+		Vocabulary vocabulary = new Vocabulary();
+		double[] priors = new double[CLASSES.length];
+		int documents = 0;
+		for(int c = 0; c < CLASSES.length; c++) {
+			dictionaries[c] = new Dictionary();
+			for(TermVector article : this.training[c]) {
+				dictionaries[c].add(article);
+				vocabulary.add(article);
+			}
+			documents += dictionaries[c].getDocuments();
+		}
+		for(int c = 0; c < CLASSES.length; c++) {
+			priors[c] = (double) dictionaries[c].getDocuments() / documents;
+		}
+		CompiledModel compiled = CompiledModel.compile(CLASSES, dictionaries, priors, vocabulary, 1, false);
+
+		//Die Tabelle des gehashten Modells hat nur float-Genauigkeit
+		double[] expected = new double[CLASSES.length];
+		double[] actual = new double[CLASSES.length];
+		for(TermVector article : TestVectors.random(55, 50, TERMS)) {
+			compiled.score(article, expected);
+			hashed.score(article.map(hashed.getTermMapping()), actual);
+			assertArrayEquals(expected, actual, 1e-3);
+		}
+	}
+
+	private HashedModel train(int buckets) {
+		HashedModel model = new HashedModel(CLASSES, buckets);
+		for(int c = 0; c < CLASSES.length; c++) {
+			for(TermVector article : this.training[c]) {
+				model.add(c, article.map(model.getTermMapping()));
+			}
+		}
+		return model;
+	}
+
+	private static void assertSameScores(HashedModel expected, HashedModel actual) {
+		double[] expectedScores = new double[CLASSES.length];
+		double[] actualScores = new double[CLASSES.length];
+		for(TermVector article : TestVectors.random(54, 50, TERMS + 50)) {
+			TermVector words = article.map(expected.getTermMapping());
+			expected.score(words, expectedScores);
+			actual.score(words, actualScores);
+			assertArrayEquals(expectedScores, actualScores, 0);
+			for(int c = 0; c < CLASSES.length; c++) {
+				assertEquals(expectedScores[c], actual.score(words, c), 1e-9);
+			}
+		}
+	}
+}
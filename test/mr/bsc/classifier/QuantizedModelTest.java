@@ -0,0 +1,117 @@
+package mr.bsc.classifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mr.bsc.dict.Dictionary;
+import mr.bsc.dict.TermVector;
+import mr.bsc.dict.TestVectors;
+import mr.bsc.dict.Vocabulary;
+
+/**
+ * Prüft, dass das {@link QuantizedModel} für jede {@link Quantization} höchstens um den Rundungsfehler der Tabelle vom
+ * {@link CompiledModel} abweicht und dass Speichern und Laden daran nichts ändert.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class QuantizedModelTest {
+
+	private final static String[] CLASSES = {"politics", "sport", "culture"};
+
+	private final static int TERMS = 300;
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private final CompiledModel compiled;
+
+	public QuantizedModelTest() {
+		Dictionary[] dictionaries = new Dictionary[CLASSES.length];
+		Vocabulary vocabulary = new Vocabulary();
+		for(int c = 0; c < CLASSES.length; c++) {
+			dictionaries[c] = new Dictionary();
+			for(TermVector article : TestVectors.random(61 + c, 40 + 10 * c, TERMS)) {
+				dictionaries[c].add(article);
+				vocabulary.add(article);
+			}
+		}
+		this.compiled = CompiledModel.compile(CLASSES, dictionaries, new double[] {0.4, 0.4, 0.2}, vocabulary, 1, false);
+	}
+
+	@Test
+	public void scoresStayWithinRoundingError() {
+		for(Quantization quantization : Quantization.values()) {
+			QuantizedModel model = QuantizedModel.quantize(this.compiled, quantization);
+			assertEquals(quantization, model.getQuantization());
+			assertEquals(this.compiled.size(), model.size());
+			assertTrue(quantization.name(), model.getMemory() < this.compiled.getMemory());
+
+			double[] error = maxError(quantization);
+			double[] expected = new double[CLASSES.length];
+			double[] actual = new double[CLASSES.length];
+			//Auch unbekannte Begriffe, deren Wert nicht quantisiert wird
+			for(TermVector article : TestVectors.random(64, 100, TERMS + 50)) {
+				this.compiled.score(article, expected);
+				model.score(article, actual);
+				int words = 0;
+				for(int i = 0; i < article.size(); i++) {
+					words += article.count(i);
+				}
+				for(int c = 0; c < CLASSES.length; c++) {
+					assertEquals(quantization.name(), expected[c], actual[c], words * error[c]);
+					assertEquals(quantization.name(), actual[c], model.score(article, c), 1e-9);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void saveAndLoadKeepScores() throws IOException {
+		for(Quantization quantization : Quantization.values()) {
+			QuantizedModel model = QuantizedModel.quantize(this.compiled, quantization);
+			String path = this.folder.newFile("model" + quantization.getFileSuffix() + ".bin").getPath();
+			model.save(path);
+			QuantizedModel loaded = QuantizedModel.load(path);
+
+			assertEquals(quantization, loaded.getQuantization());
+			assertEquals(model.size(), loaded.size());
+			for(int c = 0; c < CLASSES.length; c++) {
+				assertEquals(CLASSES[c], loaded.getClassName(c));
+			}
+			double[] expected = new double[CLASSES.length];
+			double[] actual = new double[CLASSES.length];
+			for(TermVector article : TestVectors.random(65, 30, TERMS + 50)) {
+				model.score(article, expected);
+				loaded.score(article, actual);
+				assertArrayEquals(quantization.name(), expected, actual, 0);
+			}
+		}
+	}
+
+	/*
+	 * Der größte Rundungsfehler eines einzelnen Werts pro Kategorie: bei INT8 eine halbe Stufe, bei FLOAT16 der relative Fehler von 2^-11
+	 * bei 10 Bit Mantisse, jeweils mit etwas Spielraum.
+	 */
+	private double[] maxError(Quantization quantization) {
+		double[] error = new double[CLASSES.length];
+		for(int c = 0; c < CLASSES.length; c++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for(int r = 0; r < this.compiled.size(); r++) {
+				min = Math.min(min, this.compiled.value(r, c));
+				max = Math.max(max, this.compiled.value(r, c));
+			}
+			error[c] = quantization == Quantization.INT8 ? (max - min) / 255 / 2 : Math.max(-min, max) / 2048;
+			error[c] = error[c] * 1.01 + 1e-9;
+		}
+		return error;
+	}
+}
@@ -0,0 +1,80 @@
+package mr.bsc.dict;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Prüft, dass Teilergebnisse des Trainings zusammengeführt genau das Wörterbuch und Vokabular ergeben, das beim Training am Stück
+ * entstanden wäre. Darauf verlässt sich das parallele Training im {@link DictionaryCreator}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class DictionaryMergeTest {
+
+	private final static int TERMS = 500;
+
+	@Test
+	public void mergedPartialsEqualSingleDictionary() {
+		TermVector[] articles = TestVectors.random(11, 300, TERMS);
+		for(DictionaryBackend backend : DictionaryBackend.values()) {
+			Dictionary whole = new Dictionary();
+			for(TermVector article : articles) {
+				whole.add(article);
+			}
+
+			//Ungleich große Blöcke, die Teile zählen wie im DictionaryCreator mit dem gewählten Backend
+			Dictionary merged = new Dictionary();
+			int[] bounds = {0, 1, 70, 71, 180, 300};
+			for(int b = 0; b + 1 < bounds.length; b++) {
+				Dictionary part = new Dictionary(backend);
+				for(int a = bounds[b]; a < bounds[b + 1]; a++) {
+					part.add(articles[a]);
+				}
+				merged.merge(part);
+			}
+
+			assertEquals(backend.name(), whole.getEntries(), merged.getEntries());
+			assertEquals(backend.name(), whole.getTotalWords(), merged.getTotalWords());
+			assertEquals(backend.name(), whole.getDocuments(), merged.getDocuments());
+			assertEquals(backend.name(), whole.getDistinctWords(), merged.getDistinctWords());
+		}
+	}
+
+	@Test
+	public void mergedVocabulariesKeepInsertionOrder() {
+		TermVector[] articles = TestVectors.random(12, 120, TERMS);
+		Vocabulary whole = new Vocabulary();
+		for(TermVector article : articles) {
+			whole.add(article);
+		}
+
+		//Erst links, dann rechts, wie bei der Zusammenführung der Fork-Join-Aufgaben
+		Vocabulary left = new Vocabulary();
+		Vocabulary right = new Vocabulary();
+		for(int a = 0; a < articles.length; a++) {
+			(a < 50 ? left : right).add(articles[a]);
+		}
+		left.merge(right);
+
+		assertArrayEquals(whole.getTermIds(), left.getTermIds());
+	}
+
+	@Test
+	public void mergingEmptyPartChangesNothing() {
+		Dictionary dic = new Dictionary();
+		for(TermVector article : TestVectors.random(13, 10, TERMS)) {
+			dic.add(article);
+		}
+		Dictionary before = new Dictionary();
+		before.merge(dic);
+
+		dic.merge(new Dictionary(DictionaryBackend.OPEN_ADDRESSING));
+
+		assertEquals(before.getEntries(), dic.getEntries());
+		assertEquals(before.getTotalWords(), dic.getTotalWords());
+		assertEquals(before.getDocuments(), dic.getDocuments());
+	}
+}
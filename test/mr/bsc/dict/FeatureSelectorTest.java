@@ -0,0 +1,85 @@
+package mr.bsc.dict;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+/**
+ * Prüft die drei Schritte der Merkmalsauswahl im {@link FeatureSelector} an zwei kleinen Kategorien und das Verkleinern der Wörterbücher.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class FeatureSelectorTest {
+
+	private final Dictionary sport = dictionary("fs-ball", 50, "fs-the", 40, "fs-goal", 20, "fs-rare", 1);
+
+	private final Dictionary politics = dictionary("fs-vote", 45, "fs-the", 42, "fs-law", 18, "fs-once", 2);
+
+	@Test
+	public void minCountDropsRareTerms() {
+		BitSet selected = new FeatureSelector(3, 0, 0, FeatureMeasure.MUTUAL_INFORMATION).select(this.sport, this.politics);
+		assertEquals(Set.of("fs-ball", "fs-the", "fs-goal", "fs-vote", "fs-law"), terms(selected));
+	}
+
+	@Test
+	public void maxVocabularyKeepsMostFrequentTerms() {
+		BitSet selected = new FeatureSelector(0, 3, 0, FeatureMeasure.MUTUAL_INFORMATION).select(this.sport, this.politics);
+		assertEquals(Set.of("fs-the", "fs-ball", "fs-vote"), terms(selected));
+	}
+
+	@Test
+	public void topKKeepsDistinctiveTerms() {
+		//"fs-the" ist der häufigste Begriff, sagt aber nichts über die Kategorie aus
+		for(FeatureMeasure measure : FeatureMeasure.values()) {
+			BitSet selected = new FeatureSelector(0, 0, 2, measure).select(this.sport, this.politics);
+			assertEquals(measure.name(), Set.of("fs-ball", "fs-vote"), terms(selected));
+		}
+	}
+
+	@Test
+	public void pruneRecountsTotalWords() {
+		BitSet selected = new FeatureSelector(3, 0, 0, FeatureMeasure.CHI_SQUARED).select(this.sport, this.politics);
+		Dictionary pruned = FeatureSelector.prune(this.sport, selected);
+
+		assertEquals(3, pruned.getDistinctWords());
+		assertEquals(50 + 40 + 20, pruned.getTotalWords());
+		assertEquals(this.sport.getDocuments(), pruned.getDocuments());
+		assertEquals(0, pruned.findOccurrence("fs-rare"));
+		assertEquals(50, pruned.findOccurrence("fs-ball"));
+		assertEquals(1, this.sport.findOccurrence("fs-rare")); //Das vollständige Wörterbuch bleibt unverändert
+	}
+
+	/*
+	 * Erstellt ein Wörterbuch aus zwei Zeitungsartikeln, die Häufigkeiten werden auf beide verteilt.
+	 */
+	private static Dictionary dictionary(Object... termsAndCounts) {
+		HashMap<String, Integer> first = new HashMap<String, Integer>();
+		HashMap<String, Integer> second = new HashMap<String, Integer>();
+		for(int i = 0; i < termsAndCounts.length; i += 2) {
+			int count = (Integer) termsAndCounts[i + 1];
+			first.put((String) termsAndCounts[i], count - count / 2);
+			if(count / 2 > 0) {
+				second.put((String) termsAndCounts[i], count / 2);
+			}
+		}
+		Dictionary dic = new Dictionary();
+		dic.add(first);
+		dic.add(second);
+		return dic;
+	}
+
+	private static Set<String> terms(BitSet selected) {
+		TermTable table = TermTable.getInstance();
+		Set<String> terms = new TreeSet<String>();
+		for(int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+			terms.add(table.term(id));
+		}
+		return terms;
+	}
+}
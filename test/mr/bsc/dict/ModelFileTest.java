@@ -0,0 +1,126 @@
+package mr.bsc.dict;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Prüft, dass Wörterbuch und Vokabular in der {@link ModelFile} unverändert gespeichert und wieder gelesen werden, gemappt wie
+ * vollständig eingelesen, und dass eine beschädigte Datei beim Öffnen mit einer {@link IOException} abgelehnt wird.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class ModelFileTest {
+
+	private final static int TERMS = 400;
+
+	private final static String SETTINGS = "{\"mode\":\"FAST\",\"Größe\":1}";
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void dictionaryRoundTrip() throws IOException {
+		Dictionary dic = new Dictionary();
+		for(TermVector article : TestVectors.random(21, 150, TERMS)) {
+			dic.add(article);
+		}
+		dic.add(TermVector.fromTermIds(new int[] {TermTable.getInstance().intern("Über-Größe")}, 1)); //Mehrbyte-Zeichen im Begriff
+		String path = this.folder.newFile("dic.bin").getPath();
+		ModelFile.write(dic, SETTINGS, path);
+
+		for(MappedDictionary mapped : new MappedDictionary[] {MappedDictionary.open(path), MappedDictionary.read(path)}) {
+			assertEquals(dic.getEntries(), mapped.getEntries());
+			assertEquals(dic.getTotalWords(), mapped.getTotalWords());
+			assertEquals(dic.getDocuments(), mapped.getDocuments());
+			assertEquals(dic.getDistinctWords(), mapped.getDistinctWords());
+			assertArrayEquals(dic.getTermIds(), mapped.getTermIds());
+			assertEquals(SETTINGS, mapped.getSettings());
+			for(int i = 0; i < TERMS; i++) {
+				assertEquals(dic.findOccurrence(TestVectors.term(i)), mapped.findOccurrence(TestVectors.term(i)));
+			}
+			assertEquals(1, mapped.findOccurrence("Über-Größe"));
+			assertEquals(0, mapped.findOccurrence("fehlt"));
+			assertEquals(dic.getEntries(), mapped.copy().getEntries());
+		}
+	}
+
+	@Test
+	public void vocabularyRoundTrip() throws IOException {
+		Vocabulary voc = new Vocabulary();
+		for(TermVector article : TestVectors.random(22, 80, TERMS)) {
+			voc.add(article);
+		}
+		String path = this.folder.newFile("voc.bin").getPath();
+		ModelFile.write(voc, "", path);
+
+		MappedVocabulary mapped = MappedVocabulary.open(path);
+		assertEquals(voc.size(), mapped.size());
+		assertEquals(voc.getWords(), mapped.getWords());
+		assertArrayEquals(voc.getTermIds(), mapped.copy().getTermIds()); //Reihenfolge des Eintragens bleibt erhalten
+		assertEquals("", mapped.getSettings());
+		for(int i = 0; i < TERMS; i++) {
+			assertEquals(voc.contains(TestVectors.term(i)), mapped.contains(TestVectors.term(i)));
+		}
+	}
+
+	@Test
+	public void emptyDictionaryRoundTrip() throws IOException {
+		String path = this.folder.newFile("empty.bin").getPath();
+		ModelFile.write(new Dictionary(), "", path);
+
+		MappedDictionary mapped = MappedDictionary.open(path);
+		assertEquals(0, mapped.getDistinctWords());
+		assertEquals(0, mapped.getTotalWords());
+		assertEquals(0, mapped.findOccurrence("term0"));
+	}
+
+	@Test
+	public void corruptOffsetsAreRejected() throws IOException {
+		Dictionary dic = new Dictionary();
+		for(TermVector article : TestVectors.random(23, 20, TERMS)) {
+			dic.add(article);
+		}
+		String path = this.folder.newFile("corrupt.bin").getPath();
+		ModelFile.write(dic, "", path);
+		int middle = 28 + 4 * (dic.getDistinctWords() / 2); //Ohne Einstellungen beginnen die Offsets direkt nach dem Kopf
+
+		for(int offset : new int[] {-1, Integer.MAX_VALUE, 0}) {
+			try(RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+				file.seek(middle);
+				int original = file.readInt();
+				file.seek(middle);
+				file.writeInt(offset);
+				try {
+					MappedDictionary.open(path);
+					fail("Offset " + offset + " wurde nicht erkannt");
+				} catch(IOException e) {
+					//Erwartet
+				}
+				file.seek(middle);
+				file.writeInt(original);
+			}
+		}
+		assertEquals(dic.getEntries(), MappedDictionary.open(path).getEntries());
+	}
+
+	@Test
+	public void wrongKindIsRejected() throws IOException {
+		String path = this.folder.newFile("kind.bin").getPath();
+		ModelFile.write(new Vocabulary(), "", path);
+		try {
+			MappedDictionary.open(path);
+			fail("Ein Vokabular wurde als Wörterbuch geöffnet");
+		} catch(IOException e) {
+			//Erwartet
+		}
+	}
+}
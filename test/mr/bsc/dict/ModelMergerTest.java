@@ -0,0 +1,152 @@
+package mr.bsc.dict;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mr.bsc.classifier.HashedModel;
+
+/**
+ * Prüft, dass der {@link ModelMerger} aus den Teilmodellen mehrerer Prozesse dieselben Dateien erzeugt wie das Training in einem
+ * einzigen Prozess: Wörterbuch und Vokabular als JSON-Datei und {@link ModelFile} und das {@link HashedModel}.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class ModelMergerTest {
+
+	private final static int TERMS = 400;
+
+	private final static int BUCKETS = 1 << 10;
+
+	private final static String[] CLASSES = {"business"};
+
+	private final static String SETTINGS = "{\"mode\":\"FAST\"}";
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void mergedShardsEqualSingleProcess() throws IOException {
+		TermVector[] articles = TestVectors.random(41, 200, TERMS);
+		Dictionary whole = new Dictionary();
+		Vocabulary wholeVoc = new Vocabulary();
+		HashedModel wholeHashed = new HashedModel(CLASSES, BUCKETS);
+		for(TermVector article : articles) {
+			whole.add(article);
+			wholeVoc.add(article);
+			wholeHashed.add(0, hashed(wholeHashed, article));
+		}
+
+		//Teil 1 hat keine Modelldatei, der ModelMerger liest dann die JSON-Datei
+		String dictionaryPath = path("businessDictionary.json");
+		String vocabularyPath = path("businessVocabulary.json");
+		int[] bounds = {0, 60, 61, 200};
+		for(int shard = 0; shard + 1 < bounds.length; shard++) {
+			writeShard(articles, bounds[shard], bounds[shard + 1], dictionaryPath, vocabularyPath, shard, bounds.length - 1, shard != 1, true);
+		}
+
+		Dictionary merged = ModelMerger.merge(dictionaryPath, vocabularyPath, bounds.length - 1);
+		assertDictionary(whole, merged);
+
+		MappedDictionary mappedDic = MappedDictionary.open(ModelFile.getBinaryPath(dictionaryPath));
+		assertDictionary(whole, mappedDic);
+		assertEquals(SETTINGS, mappedDic.getSettings());
+		assertArrayEquals(wholeVoc.getTermIds(), MappedVocabulary.open(ModelFile.getBinaryPath(vocabularyPath)).copy().getTermIds());
+
+		//Ohne Modelldateien werden die JSON-Dateien gelesen
+		Files.delete(Paths.get(ModelFile.getBinaryPath(dictionaryPath)));
+		Files.delete(Paths.get(ModelFile.getBinaryPath(vocabularyPath)));
+		assertDictionary(whole, DictionaryCreator.loadDictionary(dictionaryPath));
+		assertArrayEquals(wholeVoc.getTermIds(), VocabularyCombiner.loadVocabulary(vocabularyPath).getTermIds());
+
+		HashedModel mergedHashed = HashedModel.load(HashedModel.getHashedPath(dictionaryPath));
+		double[] expected = new double[1];
+		double[] actual = new double[1];
+		for(TermVector article : TestVectors.random(42, 20, TERMS + 50)) {
+			TermVector words = hashed(wholeHashed, article);
+			wholeHashed.score(words, expected);
+			mergedHashed.score(words, actual);
+			assertArrayEquals(expected, actual, 0);
+		}
+	}
+
+	@Test
+	public void missingShardIsRejected() throws IOException {
+		TermVector[] articles = TestVectors.random(43, 20, TERMS);
+		String dictionaryPath = path("sportDictionary.json");
+		String vocabularyPath = path("sportVocabulary.json");
+		writeShard(articles, 0, 10, dictionaryPath, vocabularyPath, 0, 2, true, false);
+		try {
+			ModelMerger.merge(dictionaryPath, vocabularyPath, 2);
+			fail("Der fehlende Teil wurde nicht erkannt");
+		} catch(IOException e) {
+			//Erwartet
+		}
+		assertEquals(false, new File(dictionaryPath).exists());
+	}
+
+	@Test
+	public void partlyHashedShardsAreRejected() throws IOException {
+		TermVector[] articles = TestVectors.random(44, 20, TERMS);
+		String dictionaryPath = path("cultureDictionary.json");
+		String vocabularyPath = path("cultureVocabulary.json");
+		writeShard(articles, 0, 10, dictionaryPath, vocabularyPath, 0, 2, true, true);
+		writeShard(articles, 10, 20, dictionaryPath, vocabularyPath, 1, 2, true, false);
+		try {
+			ModelMerger.merge(dictionaryPath, vocabularyPath, 2);
+			fail("Das fehlende gehashte Modell wurde nicht erkannt");
+		} catch(IOException e) {
+			//Erwartet
+		}
+	}
+
+	/*
+	 * Speichert einen Teil so, wie ihn der {@link DictionaryCreator} mit {@link DictionaryCreator#setShard(int, int)} speichert.
+	 */
+	private static void writeShard(TermVector[] articles, int from, int to, String dictionaryPath, String vocabularyPath, int shard, int shards,
+			boolean binary, boolean withHashed) throws IOException {
+		Dictionary dic = new Dictionary();
+		Vocabulary voc = new Vocabulary();
+		HashedModel hashed = new HashedModel(CLASSES, BUCKETS);
+		for(int a = from; a < to; a++) {
+			dic.add(articles[a]);
+			voc.add(articles[a]);
+			hashed.add(0, hashed(hashed, articles[a]));
+		}
+		String shardDictionary = DictionaryCreator.getShardPath(dictionaryPath, shard, shards);
+		String shardVocabulary = DictionaryCreator.getShardPath(vocabularyPath, shard, shards);
+		DictionaryCreator.writeAtomically(dic, shardDictionary);
+		DictionaryCreator.writeAtomically(voc, shardVocabulary);
+		if(binary) {
+			ModelFile.write(dic, SETTINGS, ModelFile.getBinaryPath(shardDictionary));
+			ModelFile.write(voc, SETTINGS, ModelFile.getBinaryPath(shardVocabulary));
+		}
+		if(withHashed) {
+			hashed.save(HashedModel.getHashedPath(shardDictionary));
+		}
+	}
+
+	private static TermVector hashed(HashedModel model, TermVector article) {
+		return article.map(model.getTermMapping());
+	}
+
+	private static void assertDictionary(DictionaryView expected, DictionaryView actual) {
+		assertEquals(expected.getEntries(), actual.getEntries());
+		assertEquals(expected.getTotalWords(), actual.getTotalWords());
+		assertEquals(expected.getDocuments(), actual.getDocuments());
+	}
+
+	private String path(String name) {
+		return new File(this.folder.getRoot(), name).getPath();
+	}
+}
@@ -0,0 +1,64 @@
+package mr.bsc.dict;
+
+import java.util.Random;
+
+/**
+ * Erzeugt zufällige, aber reproduzierbare Zeitungsartikel als {@link TermVector} für die Tests. Die Begriffe heißen {@code term0},
+ * {@code term1} usw. und werden in die {@link TermTable} eingetragen. Wie in echten Texten kommen die vorderen Begriffe häufiger vor.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public final class TestVectors {
+
+	private TestVectors() {
+	}
+
+	/**
+	 * Gibt den Begriff mit der Nummer {@code i} zurück.
+	 *
+	 * @param i	Die Nummer des Begriffs.
+	 *
+	 * @return Der Begriff
+	 */
+	public static String term(int i) {
+		return "term" + i;
+	}
+
+	/**
+	 * Erzeugt einen zufälligen Zeitungsartikel.
+	 *
+	 * @param random	Der Zufallsgenerator, mit festem Startwert.
+	 * @param terms		Die Anzahl der möglichen Begriffe.
+	 * @param length	Die Anzahl der Wörter des Artikels.
+	 *
+	 * @return Der zerlegte Zeitungsartikel
+	 */
+	public static TermVector random(Random random, int terms, int length) {
+		TermTable table = TermTable.getInstance();
+		int[] ids = new int[length];
+		for(int i = 0; i < length; i++) {
+			int rank = (int) (terms * Math.pow(random.nextDouble(), 3)); //Zipf-ähnlich: kleine Nummern sind häufig
+			ids[i] = table.intern(term(rank));
+		}
+		return TermVector.fromTermIds(ids, length);
+	}
+
+	/**
+	 * Erzeugt mehrere zufällige Zeitungsartikel mit 20 bis 200 Wörtern.
+	 *
+	 * @param seed		Der Startwert des Zufallsgenerators.
+	 * @param articles	Die Anzahl der Artikel.
+	 * @param terms		Die Anzahl der möglichen Begriffe.
+	 *
+	 * @return Die zerlegten Zeitungsartikel
+	 */
+	public static TermVector[] random(long seed, int articles, int terms) {
+		Random random = new Random(seed);
+		TermVector[] vectors = new TermVector[articles];
+		for(int a = 0; a < articles; a++) {
+			vectors[a] = random(random, terms, 20 + random.nextInt(181));
+		}
+		return vectors;
+	}
+}
@@ -0,0 +1,163 @@
+package mr.bsc.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import mr.bsc.guardian.NewspaperArticle;
+
+/**
+ * Prüft den {@link MicroBatcher}: Jeder Artikel bekommt seine eigene Bewertung, die Stapel werden in der Reihenfolge des Einreichens
+ * gebildet und die Warteschlange nimmt nie mehr als {@code maxQueueSize} Artikel an.
+ *
+ * @author Marius Rosenbaum
+ *
+ */
+public class MicroBatcherTest {
+
+	private final static int TIMEOUT_SECONDS = 10;
+
+	/*
+	 * Die Überschrift ist die Nummer des Artikels, die Bewertung gibt sie zurück.
+	 */
+	private static NewspaperArticle article(int number) {
+		return new NewspaperArticle(Integer.toString(number), "");
+	}
+
+	private static double[][] scoreByNumber(List<NewspaperArticle> batch) {
+		double[][] scores = new double[batch.size()][];
+		for(int i = 0; i < scores.length; i++) {
+			scores[i] = new double[] {Integer.parseInt(batch.get(i).getHeadline())};
+		}
+		return scores;
+	}
+
+	@Test
+	public void resultsKeepSubmissionOrder() throws Exception {
+		List<Integer> seen = Collections.synchronizedList(new ArrayList<Integer>());
+		List<Integer> sizes = Collections.synchronizedList(new ArrayList<Integer>());
+		Function<List<NewspaperArticle>, double[][]> scorer = batch -> {
+			sizes.add(batch.size());
+			for(NewspaperArticle article : batch) {
+				seen.add(Integer.parseInt(article.getHeadline()));
+			}
+			return scoreByNumber(batch);
+		};
+		List<CompletableFuture<double[]>> results = new ArrayList<CompletableFuture<double[]>>();
+		try(MicroBatcher batcher = new MicroBatcher(scorer, 8, 2, 1000)) {
+			for(int a = 0; a < 200; a++) {
+				results.add(batcher.submit(article(a)));
+			}
+			for(int a = 0; a < results.size(); a++) {
+				assertArrayEquals(new double[] {a}, results.get(a).get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+			}
+			assertEquals(200, batcher.getArticleCount());
+			assertEquals(sizes.size(), batcher.getBatchCount());
+		}
+		for(int a = 0; a < seen.size(); a++) {
+			assertEquals(a, (int) seen.get(a));
+		}
+		for(int size : sizes) {
+			assertTrue("Stapel mit " + size + " Artikeln", size >= 1 && size <= 8);
+		}
+	}
+
+	@Test
+	public void fullQueueRejectsImmediately() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Function<List<NewspaperArticle>, double[][]> scorer = batch -> {
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return scoreByNumber(batch);
+		};
+		try(MicroBatcher batcher = new MicroBatcher(scorer, 1, 0, 4)) {
+			CompletableFuture<double[]> first = batcher.submit(article(0));
+			assertTrue(entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)); //Der Stapelbildner hängt jetzt in der Bewertung
+
+			List<CompletableFuture<double[]>> queued = new ArrayList<CompletableFuture<double[]>>();
+			for(int a = 1; a <= 4; a++) {
+				queued.add(batcher.submit(article(a)));
+			}
+			for(int a = 5; a <= 7; a++) {
+				CompletableFuture<double[]> result = batcher.submit(article(a));
+				assertTrue(result.isCompletedExceptionally());
+				try {
+					result.get();
+					fail("Artikel " + a + " wurde trotz voller Warteschlange angenommen");
+				} catch(ExecutionException e) {
+					assertTrue(e.getCause() instanceof RejectedExecutionException);
+				}
+			}
+			assertEquals(3, batcher.getRejectedCount());
+
+			release.countDown();
+			assertArrayEquals(new double[] {0}, first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+			for(int a = 1; a <= 4; a++) {
+				assertArrayEquals(new double[] {a}, queued.get(a - 1).get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+			}
+			//Nach dem Abarbeiten ist wieder Platz
+			assertArrayEquals(new double[] {8}, batcher.submit(article(8)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+		}
+	}
+
+	@Test
+	public void cancelledArticlesAreSkipped() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> seen = Collections.synchronizedList(new ArrayList<Integer>());
+		Function<List<NewspaperArticle>, double[][]> scorer = batch -> {
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			for(NewspaperArticle article : batch) {
+				seen.add(Integer.parseInt(article.getHeadline()));
+			}
+			return scoreByNumber(batch);
+		};
+		try(MicroBatcher batcher = new MicroBatcher(scorer, 4, 0, 10)) {
+			batcher.submit(article(0));
+			assertTrue(entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+			CompletableFuture<double[]> cancelled = batcher.submit(article(1));
+			CompletableFuture<double[]> kept = batcher.submit(article(2));
+			cancelled.cancel(false);
+			release.countDown();
+			assertArrayEquals(new double[] {2}, kept.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+		}
+		assertEquals(List.of(0, 2), seen);
+	}
+
+	@Test
+	public void closeFinishesQueueAndRejectsLater() throws Exception {
+		MicroBatcher batcher = new MicroBatcher(MicroBatcherTest::scoreByNumber, 4, 50, 10);
+		CompletableFuture<double[]> queued = batcher.submit(article(1));
+		batcher.close();
+		assertArrayEquals(new double[] {1}, queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS), 0);
+		try {
+			batcher.submit(article(2)).get();
+			fail("Nach dem Schließen wurde ein Artikel angenommen");
+		} catch(ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+}